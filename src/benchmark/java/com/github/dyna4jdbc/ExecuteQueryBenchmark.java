@@ -0,0 +1,83 @@
+package com.github.dyna4jdbc;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import javax.script.ScriptEngineManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * End-to-end cost of {@code executeQuery} against the JavaScript engine
+ * bundled with the JDK (Nashorn, Java 8 - 14), including reading all rows.
+ *
+ * @author Peter Horvath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecuteQueryBenchmark {
+
+    private static final String ENGINE_NAME = "JavaScript";
+
+    @Param({"1", "1000", "100000"})
+    public int rowCount;
+
+    @Param({"false", "true"})
+    public boolean streamResults;
+
+    private Connection connection;
+    private String script;
+
+    @Setup
+    public void setUp() throws SQLException {
+        if (new ScriptEngineManager().getEngineByName(ENGINE_NAME) == null) {
+            throw new IllegalStateException("No " + ENGINE_NAME + " script engine available in "
+                    + System.getProperty("java.version") + ": run the benchmark with Java 8 - 14");
+        }
+
+        connection = DriverManager.getConnection(
+                "jdbc:dyna4jdbc:scriptengine:" + ENGINE_NAME + ":streamResults=" + streamResults);
+
+        script = "for (var i = 0; i < " + rowCount + "; i++) { "
+                + "print(i + '\\t' + (i * 1.5) + '\\tname-' + i + '\\t2016-06-01 19:16:19'); }";
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public void executeQuery(Blackhole blackhole) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(script)) {
+
+            while (resultSet.next()) {
+                blackhole.consume(resultSet.getInt(1));
+                blackhole.consume(resultSet.getDouble(2));
+                blackhole.consume(resultSet.getString(3));
+                blackhole.consume(resultSet.getTimestamp(4));
+            }
+        }
+    }
+}
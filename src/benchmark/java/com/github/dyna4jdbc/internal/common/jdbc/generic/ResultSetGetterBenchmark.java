@@ -0,0 +1,141 @@
+package com.github.dyna4jdbc.internal.common.jdbc.generic;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.dyna4jdbc.internal.common.datamodel.DataTable;
+import com.github.dyna4jdbc.internal.common.typeconverter.impl.DefaultTypeHandlerFactory;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+
+/**
+ * Cost of the {@code ResultSet} getters of {@link DataTableHolderResultSet}
+ * per type, including the lookup of the {@code TypeHandler} and the conversion
+ * via the {@code TypeConverterRegistry}. The columns read are the last ones
+ * of a row with {@code columnCount} columns.
+ *
+ * <p>
+ * The {@code *Boxed} benchmarks read the same cells through {@code getObject(int, Class)},
+ * i.e. the boxed conversion path: run with the JMH GC profiler ({@code -prof gc}) to compare
+ * {@code gc.alloc.rate.norm} of the primitive getters against them.
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultSetGetterBenchmark {
+
+    private static final String[] TYPED_CELL_VALUES = {
+            "123456", "1234567890123", "12345.678", "2016-06-01 19:16:19", "Mary had a little lamb" };
+
+    private static final int INTEGER_OFFSET = 0;
+    private static final int LONG_OFFSET = 1;
+    private static final int DECIMAL_OFFSET = 2;
+    private static final int TIMESTAMP_OFFSET = 3;
+    private static final int VARCHAR_OFFSET = 4;
+
+    @Param({"8", "64"})
+    public int columnCount;
+
+    private DataTableHolderResultSet resultSet;
+    private int firstTypedColumn;
+
+    @Setup
+    public void setUp() throws MisconfigurationException, SQLException {
+        List<String> row = new ArrayList<>();
+        for (int i = 0; i < columnCount - TYPED_CELL_VALUES.length; i++) {
+            row.add("filler");
+        }
+        for (String typedCellValue : TYPED_CELL_VALUES) {
+            row.add(typedCellValue);
+        }
+
+        DataTable dataTable = new DataTable();
+        dataTable.appendRow(row);
+
+        resultSet = new DataTableHolderResultSet(null, dataTable, DefaultTypeHandlerFactory.getInstance(
+                DefaultConfigurationFactory.getInstance().newConfigurationFromParameters(null, new Properties())));
+        resultSet.next();
+
+        // SQL column indexes are one-based
+        firstTypedColumn = columnCount - TYPED_CELL_VALUES.length + 1;
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        resultSet.close();
+    }
+
+    @Benchmark
+    public int getInt() throws SQLException {
+        return resultSet.getInt(firstTypedColumn + INTEGER_OFFSET);
+    }
+
+    @Benchmark
+    public long getLong() throws SQLException {
+        return resultSet.getLong(firstTypedColumn + LONG_OFFSET);
+    }
+
+    @Benchmark
+    public double getDouble() throws SQLException {
+        return resultSet.getDouble(firstTypedColumn + DECIMAL_OFFSET);
+    }
+
+    @Benchmark
+    public Integer getIntBoxed() throws SQLException {
+        return resultSet.getObject(firstTypedColumn + INTEGER_OFFSET, Integer.class);
+    }
+
+    @Benchmark
+    public Long getLongBoxed() throws SQLException {
+        return resultSet.getObject(firstTypedColumn + LONG_OFFSET, Long.class);
+    }
+
+    @Benchmark
+    public Double getDoubleBoxed() throws SQLException {
+        return resultSet.getObject(firstTypedColumn + DECIMAL_OFFSET, Double.class);
+    }
+
+    @Benchmark
+    public BigDecimal getBigDecimal() throws SQLException {
+        return resultSet.getBigDecimal(firstTypedColumn + DECIMAL_OFFSET);
+    }
+
+    @Benchmark
+    public Timestamp getTimestamp() throws SQLException {
+        return resultSet.getTimestamp(firstTypedColumn + TIMESTAMP_OFFSET);
+    }
+
+    @Benchmark
+    public String getString() throws SQLException {
+        return resultSet.getString(firstTypedColumn + VARCHAR_OFFSET);
+    }
+
+    @Benchmark
+    public BigDecimal getObjectAsBigDecimal() throws SQLException {
+        return resultSet.getObject(firstTypedColumn + DECIMAL_OFFSET, BigDecimal.class);
+    }
+}
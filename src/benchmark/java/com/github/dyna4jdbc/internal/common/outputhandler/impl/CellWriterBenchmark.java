@@ -0,0 +1,161 @@
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+
+/**
+ * Throughput of capturing TSV output into a {@link DataTableWriter}: each
+ * operation captures 1 MiB of (UTF-8 encoded) output, hence the score
+ * is MiB/s.
+ *
+ * <ul>
+ *     <li>{@code writeBytes}: bulk byte writes, as done by process-runner</li>
+ *     <li>{@code printLinesEncoded}: line by line via an encoding, auto-flushing
+ *          {@code PrintWriter}, as JSR-223 engines wrote before the character path</li>
+ *     <li>{@code printLinesAsCharacters}: line by line via the character path</li>
+ * </ul>
+ *
+ * @author Peter Horvath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellWriterBenchmark {
+
+    private static final int OUTPUT_SIZE_BYTES = 1024 * 1024;
+    private static final int BYTES_PER_WRITE = 8192;
+    private static final int COLUMN_COUNT = 8;
+
+    /**
+     * Shape of the cells of the output.
+     */
+    public enum Content {
+        NUMERIC, ASCII_TEXT, NON_ASCII_TEXT
+    }
+
+    @Param({"NUMERIC", "ASCII_TEXT", "NON_ASCII_TEXT"})
+    public Content content;
+
+    private Configuration configuration;
+    private byte[] outputBytes;
+    private String[] outputLines;
+
+    @Setup
+    public void setUp() throws MisconfigurationException {
+        configuration = DefaultConfigurationFactory.getInstance()
+                .newConfigurationFromParameters(null, new Properties());
+
+        outputLines = generateLines(content);
+        outputBytes = (String.join("\n", outputLines) + "\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public DataTableWriter writeBytes() throws IOException {
+        DataTableWriter dataTableWriter = new DataTableWriter(configuration);
+
+        for (int offset = 0; offset < outputBytes.length; offset += BYTES_PER_WRITE) {
+            dataTableWriter.write(outputBytes, offset, Math.min(BYTES_PER_WRITE, outputBytes.length - offset));
+        }
+
+        dataTableWriter.close();
+        return dataTableWriter;
+    }
+
+    @Benchmark
+    public DataTableWriter printLinesEncoded() throws IOException {
+        DataTableWriter dataTableWriter = new DataTableWriter(configuration);
+
+        PrintWriter printWriter = new PrintWriter(
+                new OutputStreamWriter(dataTableWriter, StandardCharsets.UTF_8), true);
+        for (String line : outputLines) {
+            printWriter.println(line);
+        }
+        printWriter.flush();
+
+        dataTableWriter.close();
+        return dataTableWriter;
+    }
+
+    @Benchmark
+    public DataTableWriter printLinesAsCharacters() throws IOException {
+        DataTableWriter dataTableWriter = new DataTableWriter(configuration);
+
+        Writer writer = dataTableWriter.asWriter();
+        PrintWriter printWriter = new PrintWriter(writer);
+        for (String line : outputLines) {
+            printWriter.println(line);
+        }
+        printWriter.flush();
+
+        dataTableWriter.close();
+        return dataTableWriter;
+    }
+
+    private static String[] generateLines(Content content) {
+        Random random = new Random(42);
+
+        List<String> lines = new ArrayList<>();
+        int size = 0;
+        while (size < OUTPUT_SIZE_BYTES) {
+            StringBuilder line = new StringBuilder();
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                if (i > 0) {
+                    line.append('\t');
+                }
+                line.append(generateCell(content, random));
+            }
+
+            String lineString = line.toString();
+            lines.add(lineString);
+            size += lineString.getBytes(StandardCharsets.UTF_8).length + 1;
+        }
+
+        return lines.toArray(new String[lines.size()]);
+    }
+
+    private static String generateCell(Content content, Random random) {
+        switch (content) {
+            case NUMERIC:
+                if (random.nextBoolean()) {
+                    return Integer.toString(random.nextInt(1_000_000));
+                }
+                return String.format("%d.%02d", random.nextInt(10_000), random.nextInt(100));
+
+            case ASCII_TEXT:
+                return "value-" + Integer.toString(random.nextInt(1_000_000), Character.MAX_RADIX);
+
+            case NON_ASCII_TEXT:
+                return "\u00e9rt\u00e9k-\u0151" + Integer.toString(random.nextInt(1_000_000), Character.MAX_RADIX);
+
+            default:
+                throw new IllegalArgumentException("Unknown content: " + content);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Classifying cells with {@link CellValueScanner} compared to the regular
+ * expressions of {@link SQLDataType}: each operation classifies 1024 cells
+ * of mixed shapes as integer, decimal and timestamp.
+ *
+ * @author Peter Horvath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CellValueScannerBenchmark {
+
+    private static final int CELL_COUNT = 1024;
+
+    private static final String[] CELL_SHAPES = {
+            "%d", "-%d", "%d.25", "2016-06-01 19:16:%02d", "2016-06-%02d", "value %d", "true", "" };
+
+    private String[] cellValues;
+    private CellValueScanner scanner;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+
+        cellValues = new String[CELL_COUNT];
+        for (int i = 0; i < CELL_COUNT; i++) {
+            String shape = CELL_SHAPES[random.nextInt(CELL_SHAPES.length)];
+            cellValues[i] = String.format(shape, 1 + random.nextInt(28));
+        }
+
+        scanner = new CellValueScanner();
+    }
+
+    @Benchmark
+    public void scanner(Blackhole blackhole) {
+        for (String cellValue : cellValues) {
+            scanner.scan(cellValue);
+            blackhole.consume(scanner.isPlausibleConversion(SQLDataType.INTEGER));
+            blackhole.consume(scanner.isPlausibleConversion(SQLDataType.DECIMAL));
+            blackhole.consume(scanner.isPlausibleConversion(SQLDataType.TIMESTAMP));
+        }
+    }
+
+    @Benchmark
+    public void regularExpressions(Blackhole blackhole) {
+        for (String cellValue : cellValues) {
+            blackhole.consume(SQLDataType.INTEGER.isPlausibleConversion(cellValue));
+            blackhole.consume(SQLDataType.DECIMAL.isPlausibleConversion(cellValue));
+            blackhole.consume(SQLDataType.TIMESTAMP.isPlausibleConversion(cellValue));
+        }
+    }
+}
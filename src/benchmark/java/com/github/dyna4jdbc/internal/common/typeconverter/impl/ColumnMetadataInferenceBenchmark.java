@@ -0,0 +1,115 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+
+/**
+ * Cost of inferring the metadata of a single column via
+ * {@link DefaultColumnMetadataFactory}, per column shape and
+ * type inference strategy.
+ *
+ * @author Peter Horvath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ColumnMetadataInferenceBenchmark {
+
+    /**
+     * Shape of the values in the column. {@code MIXED} is numeric, except for
+     * its last value: the worst case, since all values have to be inspected.
+     */
+    public enum Shape {
+        INTEGER, DECIMAL, TIMESTAMP, TEXT, MIXED, HEADER_DECLARED
+    }
+
+    @Param({"INTEGER", "DECIMAL", "TIMESTAMP", "TEXT", "MIXED", "HEADER_DECLARED"})
+    public Shape shape;
+
+    @Param({"FULL", "FIRST_ROWS", "RESERVOIR"})
+    public String typeInference;
+
+    @Param({"10000"})
+    public int rowCount;
+
+    private DefaultColumnMetadataFactory columnMetadataFactory;
+    private List<String> columnValues;
+
+    @Setup
+    public void setUp() throws MisconfigurationException {
+        columnMetadataFactory = new DefaultColumnMetadataFactory(DefaultConfigurationFactory.getInstance()
+                .newConfigurationFromParameters("typeInference=" + typeInference, new Properties()));
+
+        columnValues = generateColumnValues(shape, rowCount);
+    }
+
+    @Benchmark
+    public ColumnMetadata inferColumnMetadata() {
+        return columnMetadataFactory.getColumnMetadata(0, columnValues);
+    }
+
+    private static List<String> generateColumnValues(Shape shape, int rowCount) {
+        Random random = new Random(42);
+
+        List<String> values = new ArrayList<>(rowCount + 1);
+
+        if (shape == Shape.HEADER_DECLARED) {
+            values.add("AMOUNT:DECIMAL(12,2):");
+        }
+
+        for (int i = 0; i < rowCount; i++) {
+            switch (shape) {
+                case INTEGER:
+                case MIXED:
+                    values.add(Integer.toString(random.nextInt()));
+                    break;
+
+                case DECIMAL:
+                case HEADER_DECLARED:
+                    values.add(String.format("%d.%02d", random.nextInt(1_000_000), random.nextInt(100)));
+                    break;
+
+                case TIMESTAMP:
+                    values.add(String.format("2016-%02d-%02d %02d:%02d:%02d",
+                            1 + random.nextInt(12), 1 + random.nextInt(28),
+                            random.nextInt(24), random.nextInt(60), random.nextInt(60)));
+                    break;
+
+                case TEXT:
+                    values.add("value-" + random.nextInt(1_000_000));
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Unknown shape: " + shape);
+            }
+        }
+
+        if (shape == Shape.MIXED) {
+            values.set(values.size() - 1, "n/a");
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionException;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeConverter;
+
+/**
+ * Cost of converting a cell value with the {@link TypeConverterRegistry}
+ * converters: the baseline of the {@code ResultSet} getters.
+ *
+ * @author Peter Horvath
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeConverterBenchmark {
+
+    /**
+     * Target type and a typical cell value of it.
+     */
+    public enum Type {
+        BOOLEAN(Boolean.class, "true"),
+        INTEGER(Integer.class, "123456"),
+        LONG(Long.class, "1234567890123"),
+        DOUBLE(Double.class, "12345.678"),
+        BIGDECIMAL(BigDecimal.class, "12345.678"),
+        TIMESTAMP(Timestamp.class, "2016-06-01 19:16:19.123"),
+        STRING(String.class, "Mary had a little lamb");
+
+        private final Class<?> targetClass;
+        private final String cellValue;
+
+        Type(Class<?> targetClass, String cellValue) {
+            this.targetClass = targetClass;
+            this.cellValue = cellValue;
+        }
+    }
+
+    @Param({"BOOLEAN", "INTEGER", "LONG", "DOUBLE", "BIGDECIMAL", "TIMESTAMP", "STRING"})
+    public Type type;
+
+    private TypeConverter<?> typeConverter;
+    private String cellValue;
+
+    @Setup
+    public void setUp() {
+        typeConverter = TypeConverterRegistry.getTypeConverterForClass(type.targetClass);
+        cellValue = type.cellValue;
+    }
+
+    @Benchmark
+    public Object convert() throws TypeConversionException {
+        return typeConverter.convert(cellValue);
+    }
+}
@@ -0,0 +1,47 @@
+package com.github.dyna4jdbc;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Extension of the statements of the driver, which executes scripts asynchronously,
+ * without blocking the calling thread. Reachable via
+ * {@code statement.unwrap(AsyncStatement.class)}.
+ *
+ * <p>
+ * The scripts are executed by the threads of the connection (see the
+ * {@code asyncExecutionThreads} configuration option). Cancelling a returned
+ * future cancels the execution, as {@link java.sql.Statement#cancel()} does;
+ * a {@code ResultSet} produced by a cancelled execution is closed.
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+public interface AsyncStatement {
+
+    /**
+     * Asynchronous counterpart of {@link java.sql.Statement#executeQuery(String)}: several
+     * queries of the same statement can be executed concurrently.
+     *
+     * @param script the script to execute
+     * @return a future completed with the {@code ResultSet}, or exceptionally with
+     *      the {@code SQLException} raised by the execution
+     * @throws SQLException if the statement is closed
+     */
+    CompletableFuture<ResultSet> executeQueryAsync(String script) throws SQLException;
+
+    /**
+     * Asynchronous counterpart of {@link java.sql.Statement#execute(String)}: once the
+     * future is completed, the further results are available from the statement
+     * (e.g. via {@code getMoreResults()}), so only one such execution of the same
+     * statement should be in progress at a time.
+     *
+     * @param script the script to execute
+     * @return a future completed with the first {@code ResultSet}, or with {@code null}
+     *      if the script produced an update count, or exceptionally with
+     *      the {@code SQLException} raised by the execution
+     * @throws SQLException if the statement is closed
+     */
+    CompletableFuture<ResultSet> executeAsync(String script) throws SQLException;
+}
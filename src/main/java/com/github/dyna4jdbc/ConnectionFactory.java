@@ -14,10 +14,19 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Locale;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 class ConnectionFactory {
 
-    private static final ConnectionFactory INSTANCE = new ConnectionFactory(); // thread-safe: no state is held
+    private static final ConnectionFactory INSTANCE = new ConnectionFactory(); // thread-safe: see constructorCache
+
+    /*
+     * The (String, Properties) constructors looked up so far, by connection class:
+     * a ConcurrentMap, as connections might be opened concurrently.
+     */
+    private final ConcurrentMap<Class<? extends Connection>, Constructor<? extends Connection>> constructorCache =
+            new ConcurrentHashMap<>();
 
     static ConnectionFactory getInstance() {
         return INSTANCE;
@@ -87,8 +96,7 @@ class ConnectionFactory {
                 throw MisconfigurationException.forMessage("No such connection type: '%s'", connectionType);
         }
 
-            Constructor<? extends Connection> connectionConstructor =
-                    connectionClass.getConstructor(String.class, Properties.class);
+            Constructor<? extends Connection> connectionConstructor = getConnectionConstructor(connectionClass);
 
             return connectionConstructor.newInstance(config, info);
 
@@ -105,6 +113,18 @@ class ConnectionFactory {
         }
     }
 
+    private Constructor<? extends Connection> getConnectionConstructor(
+            Class<? extends Connection> connectionClass) throws NoSuchMethodException {
+
+        Constructor<? extends Connection> connectionConstructor = constructorCache.get(connectionClass);
+        if (connectionConstructor == null) {
+            connectionConstructor = connectionClass.getConstructor(String.class, Properties.class);
+            constructorCache.putIfAbsent(connectionClass, connectionConstructor);
+        }
+
+        return connectionConstructor;
+    }
+
     private Class<? extends Connection> getScriptEngineConnectionClassForConfiguration(
             String connectionType, String config) throws MisconfigurationException {
 
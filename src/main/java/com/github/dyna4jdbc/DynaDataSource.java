@@ -0,0 +1,264 @@
+package com.github.dyna4jdbc;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import javax.sql.ConnectionPoolDataSource;
+import javax.sql.DataSource;
+import javax.sql.PooledConnection;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.jdbc.base.AbstractConnection;
+import com.github.dyna4jdbc.internal.common.jdbc.pool.ConnectionPool;
+import com.github.dyna4jdbc.internal.common.jdbc.pool.GenericPooledConnection;
+
+/**
+ * {@code DataSource} handing out pooled connections: opening a connection
+ * (e.g. bootstrapping a Scala or Renjin script engine) can take seconds,
+ * while taking one from the pool is cheap.
+ *
+ * <p>
+ * A pool is created for each JDBC URL used (see {@link #setUrl(String)}), with the
+ * settings of this {@code DataSource} at that time. {@link #getPooledConnection()}
+ * returns a connection not pooled by this {@code DataSource}, so that it can be pooled
+ * by an application server. When a pooled connection is returned, the statements created
+ * from it are closed, and the state of the connection (e.g. the writers of the script
+ * engine) is reset; the variables defined by the scripts are kept.
+ * The {@code DataSource} must be closed to close the pooled connections.
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+public final class DynaDataSource implements DataSource, ConnectionPoolDataSource, AutoCloseable {
+
+    private static final Logger PARENT_LOGGER = Logger.getLogger(DynaDataSource.class.getPackage().getName());
+
+    private static final int DEFAULT_MAX_IDLE = 8;
+    private static final long DEFAULT_IDLE_TIMEOUT_SECONDS = 600;
+
+    private final DynaDriver driver = new DynaDriver();
+
+    // guarded by this
+    private final Map<String, ConnectionPool> poolsByUrl = new HashMap<>();
+    private boolean closed;
+
+    private volatile String url;
+    private volatile Properties connectionProperties = new Properties();
+    private volatile int minIdle;
+    private volatile int maxIdle = DEFAULT_MAX_IDLE;
+    private volatile long idleTimeoutSeconds = DEFAULT_IDLE_TIMEOUT_SECONDS;
+    private volatile String warmUpScript;
+    private volatile String validationScript;
+
+    private volatile PrintWriter logWriter;
+    private volatile int loginTimeout;
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getPool(getConfiguredUrl()).getConnection();
+    }
+
+    /**
+     * Same as {@link #getConnection()}: the driver does not use credentials.
+     */
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    @Override
+    public PooledConnection getPooledConnection() throws SQLException {
+        return new GenericPooledConnection(openConnection(getConfiguredUrl(), connectionProperties));
+    }
+
+    /**
+     * Same as {@link #getPooledConnection()}: the driver does not use credentials.
+     */
+    @Override
+    public PooledConnection getPooledConnection(String user, String password) throws SQLException {
+        return getPooledConnection();
+    }
+
+    /**
+     * Closes the pools: the connections in use are closed when returned.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+
+        for (ConnectionPool pool : poolsByUrl.values()) {
+            pool.close();
+        }
+    }
+
+    private synchronized ConnectionPool getPool(String jdbcUrl) throws SQLException {
+        if (closed) {
+            throw JDBCError.OBJECT_CLOSED.raiseSQLException(this);
+        }
+
+        ConnectionPool pool = poolsByUrl.get(jdbcUrl);
+        if (pool == null) {
+            final Properties properties = connectionProperties;
+
+            pool = new ConnectionPool(() -> openConnection(jdbcUrl, properties),
+                    minIdle, maxIdle, TimeUnit.SECONDS.toMillis(idleTimeoutSeconds),
+                    warmUpScript, validationScript);
+
+            poolsByUrl.put(jdbcUrl, pool);
+        }
+
+        return pool;
+    }
+
+    private String getConfiguredUrl() throws SQLException {
+        String jdbcUrl = url;
+        if (jdbcUrl == null) {
+            throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException("url is not set");
+        }
+
+        return jdbcUrl;
+    }
+
+    private AbstractConnection openConnection(String jdbcUrl, Properties properties) throws SQLException {
+        Connection connection = driver.connect(jdbcUrl, properties);
+        if (!(connection instanceof AbstractConnection)) {
+            throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseSQLException(
+                    "Connection cannot be pooled: " + connection);
+        }
+
+        return (AbstractConnection) connection;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    /**
+     * @param url the JDBC URL of the connections, e.g. {@code jdbc:dyna4jdbc:scriptengine:scala}
+     */
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public Properties getConnectionProperties() {
+        Properties properties = new Properties();
+        properties.putAll(connectionProperties);
+        return properties;
+    }
+
+    /**
+     * @param connectionProperties the properties passed to the driver when a connection is opened
+     */
+    public void setConnectionProperties(Properties connectionProperties) {
+        Properties properties = new Properties();
+        properties.putAll(connectionProperties);
+        this.connectionProperties = properties;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    /**
+     * @param minIdle the number of idle connections opened in advance (pre-warmed); default is 0
+     */
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public int getMaxIdle() {
+        return maxIdle;
+    }
+
+    /**
+     * @param maxIdle the maximum number of idle connections kept open; default is 8
+     */
+    public void setMaxIdle(int maxIdle) {
+        this.maxIdle = maxIdle;
+    }
+
+    public long getIdleTimeoutSeconds() {
+        return idleTimeoutSeconds;
+    }
+
+    /**
+     * @param idleTimeoutSeconds the time after which idle connections above {@code minIdle}
+     *      are closed, or 0 if they are never closed; default is 600
+     */
+    public void setIdleTimeoutSeconds(long idleTimeoutSeconds) {
+        this.idleTimeoutSeconds = idleTimeoutSeconds;
+    }
+
+    public String getWarmUpScript() {
+        return warmUpScript;
+    }
+
+    /**
+     * @param warmUpScript the script executed on each connection opened (e.g. to load
+     *      libraries, or to trigger the compilation of the script engine), or {@code null}
+     */
+    public void setWarmUpScript(String warmUpScript) {
+        this.warmUpScript = warmUpScript;
+    }
+
+    public String getValidationScript() {
+        return validationScript;
+    }
+
+    /**
+     * @param validationScript the script executed to check the health of an idle connection,
+     *      or {@code null} if only closed connections are considered unhealthy
+     */
+    public void setValidationScript(String validationScript) {
+        this.validationScript = validationScript;
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return logWriter;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        this.logWriter = out;
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return loginTimeout;
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        this.loginTimeout = seconds;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return PARENT_LOGGER;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return (T) this;
+        }
+
+        throw JDBCError.CANNOT_UNWARP_OBJECT.raiseSQLException(iface, this.getClass());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this);
+    }
+}
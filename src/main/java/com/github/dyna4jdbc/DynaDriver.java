@@ -28,6 +28,7 @@ import java.util.logging.Logger;
 import com.github.dyna4jdbc.internal.DriverInfo;
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.config.impl.DriverPropertyInfoFactory;
+import com.github.dyna4jdbc.internal.scriptengine.jdbc.impl.ScriptEngineFactoryCache;
 
 
 public final class DynaDriver implements java.sql.Driver {
@@ -37,7 +38,8 @@ public final class DynaDriver implements java.sql.Driver {
 
     static {
         try {
-            DriverManager.registerDriver(new DynaDriver());
+            // deregistering the driver releases the class loader referenced by the cache
+            DriverManager.registerDriver(new DynaDriver(), ScriptEngineFactoryCache.getInstance()::clear);
         } catch (SQLException ex) {
             String errorMessage = "Could not register to DriverManager: " + DynaDriver.class.getName();
             LOGGER.log(Level.SEVERE, errorMessage, ex);
@@ -0,0 +1,51 @@
+package com.github.dyna4jdbc;
+
+/**
+ * Emits the rows of a {@code ResultSet} from a script as typed values, instead of
+ * printing them as text. It is bound as variable {@value #VARIABLE_NAME} for the
+ * scripts of JSR-223 script engines, e.g. in JavaScript:
+ *
+ * <pre>
+ * dyna.header("ID", "NAME");
+ * dyna.row(1, "Foo");
+ * dyna.row(2, "Bar");
+ * </pre>
+ *
+ * <p>
+ * The values are not formatted and parsed as text, and the SQL type of each column
+ * is declared by the Java type of its values (e.g. {@code Integer} values form an
+ * {@code INTEGER} column), instead of being guessed. Columns with values of different
+ * types are widened (e.g. {@code INTEGER} and {@code DOUBLE} to {@code DOUBLE}),
+ * or become {@code VARCHAR} columns, if the types are unrelated.
+ * </p>
+ *
+ * <p>
+ * The output of a statement is formed either by typed rows or by text: mixing the two
+ * raises an error. The emitter can only be used by the thread executing the script.
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+public interface RowEmitter {
+
+    /**
+     * The name of the variable, the emitter is bound to.
+     */
+    String VARIABLE_NAME = "dyna";
+
+    /**
+     * Declares the labels of the columns: it has to be called before the first row
+     * is emitted, and the rows must have as many values as the labels. If it is not
+     * called, the columns are labelled by their (one-based) index.
+     *
+     * @param columnLabels the labels of the columns
+     */
+    void header(String... columnLabels);
+
+    /**
+     * Emits a row: all rows must have the same number of values.
+     *
+     * @param values the values of the row, {@code null} elements are SQL {@code NULL}
+     */
+    void row(Object... values);
+}
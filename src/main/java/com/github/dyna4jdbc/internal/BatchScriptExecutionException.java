@@ -0,0 +1,59 @@
+package com.github.dyna4jdbc.internal;
+
+import java.util.Arrays;
+
+/**
+ * Signals that some scripts of a batch failed: reports which ones failed
+ * and how many scripts of the batch were processed at all.
+ *
+ * @author Peter Horvath
+ */
+public final class BatchScriptExecutionException extends ScriptExecutionException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int[] failedScriptIndexes;
+    private final int processedScriptCount;
+
+    /**
+     * Creates an exception for a batch stopped at the first failure: the scripts
+     * before the failed one were executed successfully, the ones after it were not executed.
+     *
+     * @param failedScriptIndex the (zero-based) index of the failed script
+     * @param cause the failure
+     */
+    public BatchScriptExecutionException(int failedScriptIndex, Throwable cause) {
+        super("Script #" + failedScriptIndex + " of the batch failed", cause);
+        this.failedScriptIndexes = new int[] {failedScriptIndex};
+        this.processedScriptCount = failedScriptIndex;
+    }
+
+    /**
+     * Creates an exception for a batch, where all scripts were executed, some of them failing.
+     *
+     * @param failedScriptIndexes the (zero-based) indexes of the failed scripts, in ascending order
+     * @param scriptCount the number of scripts in the batch
+     * @param cause the failure of the first failed script
+     */
+    public BatchScriptExecutionException(int[] failedScriptIndexes, int scriptCount, Throwable cause) {
+        super("Scripts " + Arrays.toString(failedScriptIndexes) + " of the batch failed", cause);
+        this.failedScriptIndexes = failedScriptIndexes.clone();
+        this.processedScriptCount = scriptCount;
+    }
+
+    /**
+     * @return the (zero-based) indexes of the failed scripts, in ascending order
+     */
+    public int[] getFailedScriptIndexes() {
+        return failedScriptIndexes.clone();
+    }
+
+    /**
+     * @return the number of leading scripts of the batch, whose outcome is known:
+     *      the scripts before the failed one, if the batch was stopped at the first failure,
+     *      or all scripts, if the execution continued after failures
+     */
+    public int getProcessedScriptCount() {
+        return processedScriptCount;
+    }
+}
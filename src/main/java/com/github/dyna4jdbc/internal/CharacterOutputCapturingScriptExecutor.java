@@ -0,0 +1,44 @@
+package com.github.dyna4jdbc.internal;
+
+import java.io.Writer;
+import java.util.List;
+
+/**
+ * {@code OutputCapturingScriptExecutor}, which can also capture the output
+ * as characters: for script engines producing characters (like JSR-223
+ * engines do), this saves encoding the output to bytes only to decode
+ * it again.
+ *
+ * @author Peter Horvath
+ */
+public interface CharacterOutputCapturingScriptExecutor extends OutputCapturingScriptExecutor {
+
+    void executeScriptUsingWriters(
+            String script,
+            Writer stdOutWriter,
+            Writer errorWriter) throws ScriptExecutionException;
+
+    /**
+     * Character capturing counterpart of
+     * {@link #executeScriptBatchUsingStreams(List, java.io.OutputStream, java.io.OutputStream)}.
+     *
+     * @param scripts the scripts of the batch
+     * @param stdOutWriter the writer capturing the standard output (can be {@code null})
+     * @param errorWriter the writer capturing the error output (can be {@code null})
+     * @throws BatchScriptExecutionException if some scripts fail
+     * @throws ScriptExecutionException if the batch fails as a whole
+     */
+    default void executeScriptBatchUsingWriters(
+            List<String> scripts,
+            Writer stdOutWriter,
+            Writer errorWriter) throws ScriptExecutionException {
+
+        for (int i = 0; i < scripts.size(); i++) {
+            try {
+                executeScriptUsingWriters(scripts.get(i), stdOutWriter, errorWriter);
+            } catch (ScriptExecutionException | RuntimeException | OutputDisabledError e) {
+                throw new BatchScriptExecutionException(i, e);
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.dyna4jdbc.internal;
 
+import java.sql.BatchUpdateException;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 
 import com.github.dyna4jdbc.internal.sqlstate.SQLState;
 
@@ -46,12 +48,31 @@ public enum JDBCError {
             SQLState.ERROR_DATA_CONVERSION_FAILED),
     INVALID_FORMATTING_HEADER("Invalid formatting header detected in column %s: Value '%s' is invalid: %s",
             SQLState.CLIENT_ERROR),
+    INVALID_TYPED_ROW("Invalid typed row emitted by the script: %s",
+            SQLState.CLIENT_ERROR),
+    END_OF_OUTPUT_MARKER_TIMEOUT("The end of output marker line has not been read for %s milliseconds "
+            + "(check endOfOutputMarkerCommand): the process has been terminated",
+            SQLState.EXTERNAL_ROUTINE_INVOCATION_EXCEPTION),
+    INVALID_PROCESS_OUTPUT_FRAME("Invalid binary output frame received from the process: %s",
+            SQLState.EXTERNAL_ROUTINE_INVOCATION_EXCEPTION),
     JDBC_API_USAGE_CALLER_ERROR("Illegal JDBC API call: %s",
             SQLState.CLIENT_ERROR),
     LOADING_SCRIPTENGINE_FAILED("Could not load ScriptEngine '%s'",
             SQLState.SYSTEM_ERROR),
     INVALID_CONFIGURATION("Configuration error: %s",
             SQLState.CLIENT_ERROR),
+    QUERY_TIMEOUT("Query timeout of %s seconds exceeded: the execution has been cancelled",
+            SQLState.SYSTEM_ERROR_PROCESSING_CANCELLED) {
+        @Override
+        public SQLException raiseSQLException(Object... params) throws SQLException {
+            String errorMessage = buildErrorMessage(params);
+            throw new SQLTimeoutException(errorMessage, getSqlStateAsString());
+        }
+    },
+    STATEMENT_CANCELLED("The execution of the statement has been cancelled",
+            SQLState.SYSTEM_ERROR_PROCESSING_CANCELLED),
+    SPILL_TO_DISK_FAILED("Storing the output in a temporary file failed: %s",
+            SQLState.SYSTEM_ERROR),
     DRIVER_BUG_UNEXPECTED_STATE("An unexpected state has been reached: %s",
             SQLState.SYSTEM_ERROR);
 
@@ -86,6 +107,13 @@ public enum JDBCError {
         throw new SQLException(errorMessage, getSqlStateAsString(), throwable);
     }
 
+    public BatchUpdateException raiseBatchUpdateException(
+            int[] updateCounts, Throwable throwable, Object... params) throws BatchUpdateException {
+
+        String errorMessage = buildErrorMessage(params);
+        throw new BatchUpdateException(errorMessage, getSqlStateAsString(), updateCounts, throwable);
+    }
+
     public SQLException raiseSQLExceptionWithSupressed(
             Iterable<? extends Throwable> supressedThrowables,
             Object... params) throws SQLException {
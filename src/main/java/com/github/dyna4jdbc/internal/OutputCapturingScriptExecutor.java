@@ -1,6 +1,7 @@
 package com.github.dyna4jdbc.internal;
 
 import java.io.OutputStream;
+import java.util.List;
 
 public interface OutputCapturingScriptExecutor {
 
@@ -8,4 +9,40 @@ public interface OutputCapturingScriptExecutor {
             String script,
             OutputStream stdOutOutputStream,
             OutputStream errorOutputStream) throws ScriptExecutionException;
+
+    /**
+     * Executes the scripts of a batch one after the other, capturing the output
+     * of all of them with the same streams. By default, each script is executed
+     * via {@link #executeScriptUsingStreams(String, OutputStream, OutputStream)}:
+     * implementations, which can execute the scripts with less overhead, override it.
+     *
+     * @param scripts the scripts of the batch
+     * @param stdOutOutputStream the stream capturing the standard output (can be {@code null})
+     * @param errorOutputStream the stream capturing the error output (can be {@code null})
+     * @throws BatchScriptExecutionException if some scripts fail
+     * @throws ScriptExecutionException if the batch fails as a whole
+     */
+    default void executeScriptBatchUsingStreams(
+            List<String> scripts,
+            OutputStream stdOutOutputStream,
+            OutputStream errorOutputStream) throws ScriptExecutionException {
+
+        for (int i = 0; i < scripts.size(); i++) {
+            try {
+                executeScriptUsingStreams(scripts.get(i), stdOutOutputStream, errorOutputStream);
+            } catch (ScriptExecutionException | RuntimeException | OutputDisabledError e) {
+                throw new BatchScriptExecutionException(i, e);
+            }
+        }
+    }
+
+    /**
+     * Cancels the executions in progress, called in addition to interrupting the
+     * threads executing them: executors, which execute the scripts by other means
+     * than the calling thread (e.g. in an external process), override it.
+     * By default, it does nothing.
+     */
+    default void cancelExecution() {
+        // interrupting the executing thread is all that can be done by default
+    }
 }
@@ -0,0 +1,20 @@
+package com.github.dyna4jdbc.internal;
+
+/**
+ * Thrown by the output captured from a script, once all rows requested
+ * (see {@code java.sql.Statement#setMaxRows(int)}) have been retained:
+ * it propagates through the script and stops it, since any further output
+ * would be discarded. It does not signal a failure: the output captured
+ * so far is complete.
+ *
+ * @author Peter Horvath
+ */
+public class OutputLimitReachedError extends Error {
+
+    private static final long serialVersionUID = 1L;
+
+    public OutputLimitReachedError(String msg) {
+        super(msg);
+    }
+
+}
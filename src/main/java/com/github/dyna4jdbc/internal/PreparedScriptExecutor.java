@@ -0,0 +1,35 @@
+package com.github.dyna4jdbc.internal;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A script prepared (e.g. compiled) once, which can be executed repeatedly
+ * with different parameters.
+ *
+ * @author Peter Horvath
+ */
+public interface PreparedScriptExecutor {
+
+    /**
+     * Returns an executor, which executes the prepared script with the parameters
+     * given: the script passed to the returned executor is only used for reporting.
+     * If the returned executor is a {@link CharacterOutputCapturingScriptExecutor},
+     * the output can be captured as characters.
+     *
+     * @param parameters the parameters by variable name, as visible to the script
+     * @return the executor (never {@code null})
+     */
+    OutputCapturingScriptExecutor bindParameters(Map<String, Object> parameters);
+
+    /**
+     * Returns an executor for a batch of parameter sets: when a batch of scripts is passed
+     * to the returned executor, the script with index <i>i</i> is executed as the prepared
+     * script with the parameter set with index <i>i</i>. As with
+     * {@link #bindParameters(Map)}, the scripts are only used for reporting.
+     *
+     * @param parameterBatch the parameter sets of the batch
+     * @return the executor (never {@code null})
+     */
+    OutputCapturingScriptExecutor bindParameterBatch(List<Map<String, Object>> parameterBatch);
+}
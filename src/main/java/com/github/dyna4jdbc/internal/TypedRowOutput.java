@@ -0,0 +1,19 @@
+package com.github.dyna4jdbc.internal;
+
+import com.github.dyna4jdbc.RowEmitter;
+
+/**
+ * Captured output (an {@code OutputStream} or {@code Writer}), which also accepts
+ * rows of typed values, bypassing their text representation.
+ *
+ * @author Peter Horvath
+ */
+public interface TypedRowOutput {
+
+    /**
+     * Returns the emitter of the rows written to this output.
+     *
+     * @return the {@code RowEmitter}, or {@code null} if typed rows are not supported
+     */
+    RowEmitter getRowEmitter();
+}
@@ -0,0 +1,153 @@
+package com.github.dyna4jdbc.internal.common.datamodel;
+
+import java.util.Arrays;
+
+/**
+ * Stores the cells of a single column in fixed-size chunks, which allows
+ * constant time access by row index without per-row objects.
+ * A chunk containing {@code null} values only is never allocated.
+ *
+ * <p>
+ * If a {@link SpillArea} is given, each chunk is accounted against its memory
+ * budget, once the cells of the next chunk are set: a chunk not fitting the
+ * budget is spilled to disk, and is read back on access. The most recently
+ * read spilled chunk is kept, as the cells are usually accessed in order.
+ * </p>
+ *
+ * <p>
+ * The last chunk, which is still being filled, is not accounted against the
+ * budget (nor spilled): its size is only known once it is complete. Hence the
+ * heap used by a column can exceed its share of the budget by one chunk, i.e.
+ * {@code CHUNK_SIZE} cells, which is retained until the column is cleared.
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+final class ChunkedColumn {
+
+    static final int CHUNK_SHIFT = 10;
+    static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private static final int INITIAL_CHUNK_SLOTS = 4;
+    private static final long NOT_SPILLED = -1;
+
+    private final SpillArea spillArea;
+
+    private String[][] chunks = new String[INITIAL_CHUNK_SLOTS][];
+
+    // the chunks before this index have been accounted against the budget, or spilled
+    private int accountedChunkCount;
+    private long reservedBytes;
+
+    // position of each spilled chunk in the spill file, or NOT_SPILLED
+    private long[] spilledChunkPositions;
+
+    private int readChunkIndex = -1;
+    private String[] readChunk;
+
+    ChunkedColumn() {
+        this(null);
+    }
+
+    ChunkedColumn(SpillArea spillArea) {
+        this.spillArea = spillArea;
+    }
+
+    void set(int rowIndex, String value) {
+        if (value == null) {
+            // cells not set explicitly are null
+            return;
+        }
+
+        final int chunkIndex = rowIndex >>> CHUNK_SHIFT;
+        if (chunkIndex >= chunks.length) {
+            chunks = Arrays.copyOf(chunks, Math.max(chunks.length * 2, chunkIndex + 1));
+        }
+
+        if (spillArea != null && chunkIndex > accountedChunkCount) {
+            // the previous chunks are complete: cells are set in row order
+            accountChunks(chunkIndex);
+        }
+
+        String[] chunk = chunks[chunkIndex];
+        if (chunk == null) {
+            chunk = new String[CHUNK_SIZE];
+            chunks[chunkIndex] = chunk;
+        }
+
+        chunk[rowIndex & CHUNK_MASK] = value;
+    }
+
+    private void accountChunks(int chunkCount) {
+        for (int chunkIndex = accountedChunkCount; chunkIndex < chunkCount; chunkIndex++) {
+            final String[] chunk = chunks[chunkIndex];
+            if (chunk == null) {
+                continue;
+            }
+
+            final long chunkBytes = SpillArea.estimateHeapBytes(chunk);
+            if (spillArea.tryReserve(chunkBytes)) {
+                reservedBytes += chunkBytes;
+            } else {
+                if (spilledChunkPositions == null) {
+                    spilledChunkPositions = new long[chunks.length];
+                    Arrays.fill(spilledChunkPositions, NOT_SPILLED);
+                } else if (spilledChunkPositions.length < chunks.length) {
+                    final int previousLength = spilledChunkPositions.length;
+                    spilledChunkPositions = Arrays.copyOf(spilledChunkPositions, chunks.length);
+                    Arrays.fill(spilledChunkPositions, previousLength, chunks.length, NOT_SPILLED);
+                }
+
+                spilledChunkPositions[chunkIndex] = spillArea.spill(chunk);
+                chunks[chunkIndex] = null;
+            }
+        }
+
+        accountedChunkCount = chunkCount;
+    }
+
+    String get(int rowIndex) {
+        final int chunkIndex = rowIndex >>> CHUNK_SHIFT;
+        if (chunkIndex >= chunks.length) {
+            return null;
+        }
+
+        String[] chunk = chunks[chunkIndex];
+        if (chunk == null) {
+            chunk = readSpilledChunk(chunkIndex);
+            if (chunk == null) {
+                return null;
+            }
+        }
+
+        return chunk[rowIndex & CHUNK_MASK];
+    }
+
+    private String[] readSpilledChunk(int chunkIndex) {
+        if (spilledChunkPositions == null || chunkIndex >= spilledChunkPositions.length
+                || spilledChunkPositions[chunkIndex] == NOT_SPILLED) {
+            return null;
+        }
+
+        if (readChunkIndex != chunkIndex) {
+            readChunk = spillArea.read(spilledChunkPositions[chunkIndex]);
+            readChunkIndex = chunkIndex;
+        }
+
+        return readChunk;
+    }
+
+    void clear() {
+        chunks = new String[INITIAL_CHUNK_SLOTS][];
+
+        if (spillArea != null) {
+            spillArea.release(reservedBytes);
+        }
+        reservedBytes = 0;
+        accountedChunkCount = 0;
+        spilledChunkPositions = null;
+        readChunkIndex = -1;
+        readChunk = null;
+    }
+}
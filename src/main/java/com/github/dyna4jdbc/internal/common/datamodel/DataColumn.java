@@ -1,10 +1,41 @@
 package com.github.dyna4jdbc.internal.common.datamodel;
 
-import com.github.dyna4jdbc.internal.common.util.collection.ListIndexIterable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 
-public class DataColumn extends ListIndexIterable<String>  {
+public final class DataColumn implements Iterable<String> {
+
+    private final ChunkedColumn chunkedColumn;
+    private final int rowCount;
 
     DataColumn(DataTable dataTable, int columnNumber) {
-        super(dataTable.getRows(), columnNumber);
+        this.chunkedColumn = dataTable.getChunkedColumn(columnNumber);
+        this.rowCount = dataTable.getRowCount();
+    }
+
+    public int size() {
+        return rowCount;
+    }
+
+    @Override
+    public Iterator<String> iterator() {
+        return new Iterator<String>() {
+
+            private int rowIndex = 0;
+
+            @Override
+            public boolean hasNext() {
+                return rowIndex < rowCount;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException(Integer.toString(rowIndex));
+                }
+
+                return chunkedColumn.get(rowIndex++);
+            }
+        };
     }
 }
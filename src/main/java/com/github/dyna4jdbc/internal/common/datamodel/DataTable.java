@@ -2,20 +2,172 @@ package com.github.dyna4jdbc.internal.common.datamodel;
 
 import java.util.*;
 
+/**
+ * Column-oriented table of the cells captured from the output.
+ *
+ * <p>
+ * Cells are stored per column in fixed-size chunks (see {@link ChunkedColumn}):
+ * no object is retained per row, and both row and column access is
+ * constant time by index. Rows can have different length; cells beyond
+ * the length of a row are {@code null}. Row lengths are only stored
+ * explicitly once a row with a different length than the previous
+ * ones is appended.
+ * </p>
+ *
+ * <p>
+ * If a {@link MemoryBudget} is given, the chunks exceeding the budget are
+ * spilled to a temporary file, which is deleted when the table is cleared:
+ * the table must then be cleared once it is no longer used.
+ * </p>
+ */
 public final class DataTable implements Iterable<List<String>> {
 
-    private LinkedList<List<String>> rows = new LinkedList<>();
+    private static final int INITIAL_CHUNK_SLOTS = 4;
+
+    private final ArrayList<ChunkedColumn> columns = new ArrayList<>();
+    private final SpillArea spillArea;
+
+    private int rowCount = 0;
     private int columnCount = 0;
 
+    /*
+     * Length of all rows as long as they have the same length;
+     * afterwards rowLengthChunks holds the length of each row
+     */
+    private int commonRowLength = 0;
+    private int[][] rowLengthChunks = null;
+
+    private final List<List<String>> rows = new AbstractList<List<String>>() {
+
+        @Override
+        public List<String> get(int rowIndex) {
+            checkRowIndex(rowIndex);
+            return new RowView(rowIndex);
+        }
+
+        @Override
+        public int size() {
+            return rowCount;
+        }
+    };
+
+    /**
+     * Creates a table holding all cells on the heap.
+     */
+    public DataTable() {
+        this(null);
+    }
+
+    /**
+     * Creates a table holding the cells on the heap, within the memory budget given:
+     * the rest is spilled to disk.
+     *
+     * @param memoryBudget the memory budget, or {@code null} if the cells are never spilled
+     */
+    public DataTable(MemoryBudget memoryBudget) {
+        if (memoryBudget != null) {
+            this.spillArea = new SpillArea(memoryBudget);
+        } else {
+            this.spillArea = null;
+        }
+    }
+
     public List<String> appendRow(List<String> row) {
-        rows.addLast(row);
-        columnCount = Math.max(columnCount, row.size());
+        final int rowIndex = rowCount;
+        final int rowLength = row.size();
+
+        while (columns.size() < rowLength) {
+            columns.add(new ChunkedColumn(spillArea));
+        }
+
+        int columnIndex = 0;
+        for (String cellValue : row) {
+            columns.get(columnIndex++).set(rowIndex, cellValue);
+        }
+
+        recordRowLength(rowIndex, rowLength);
+
+        rowCount++;
+        columnCount = Math.max(columnCount, rowLength);
 
         return row;
     }
 
+    private void recordRowLength(int rowIndex, int rowLength) {
+        if (rowLengthChunks == null) {
+            if (rowIndex == 0) {
+                commonRowLength = rowLength;
+                return;
+            }
+
+            if (rowLength == commonRowLength) {
+                return;
+            }
+
+            materializeRowLengths(rowIndex);
+        }
+
+        final int chunkIndex = rowIndex >>> ChunkedColumn.CHUNK_SHIFT;
+        ensureRowLengthChunk(chunkIndex);
+        rowLengthChunks[chunkIndex][rowIndex & ChunkedColumn.CHUNK_MASK] = rowLength;
+    }
+
+    private void materializeRowLengths(int rowsRecordedSoFar) {
+        rowLengthChunks = new int[INITIAL_CHUNK_SLOTS][];
+        for (int i = 0; i < rowsRecordedSoFar; i++) {
+            final int chunkIndex = i >>> ChunkedColumn.CHUNK_SHIFT;
+            ensureRowLengthChunk(chunkIndex);
+            rowLengthChunks[chunkIndex][i & ChunkedColumn.CHUNK_MASK] = commonRowLength;
+        }
+    }
+
+    private void ensureRowLengthChunk(int chunkIndex) {
+        if (chunkIndex >= rowLengthChunks.length) {
+            rowLengthChunks = Arrays.copyOf(rowLengthChunks, Math.max(rowLengthChunks.length * 2, chunkIndex + 1));
+        }
+        if (rowLengthChunks[chunkIndex] == null) {
+            rowLengthChunks[chunkIndex] = new int[ChunkedColumn.CHUNK_SIZE];
+        }
+    }
+
+    private int getRowLength(int rowIndex) {
+        if (rowLengthChunks == null) {
+            return commonRowLength;
+        }
+
+        return rowLengthChunks[rowIndex >>> ChunkedColumn.CHUNK_SHIFT][rowIndex & ChunkedColumn.CHUNK_MASK];
+    }
+
+    private void checkRowIndex(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= rowCount) {
+            throw new IndexOutOfBoundsException("Row index: " + rowIndex + ", row count: " + rowCount);
+        }
+    }
+
+    /**
+     * Returns the value of a cell.
+     *
+     * @param rowIndex the zero-based index of the row
+     * @param columnIndex the zero-based index of the column
+     * @return the value of the cell, or {@code null} if the cell
+     *      is beyond the length of the row
+     */
+    public String getCellValue(int rowIndex, int columnIndex) {
+        checkRowIndex(rowIndex);
+
+        if (columnIndex < 0 || columnIndex >= columnCount) {
+            throw new IndexOutOfBoundsException(
+                    "Column index: " + columnIndex + ", column count: " + columnCount);
+        }
+
+        return columns.get(columnIndex).get(rowIndex);
+    }
+
     public List<String> getLastRow() {
-        return rows.getLast();
+        if (rowCount == 0) {
+            throw new NoSuchElementException();
+        }
+        return rows.get(rowCount - 1);
     }
 
     public Iterable<DataColumn> columnIterable() {
@@ -45,21 +197,59 @@ public final class DataTable implements Iterable<List<String>> {
         };
     }
 
+    /**
+     * Drops the cell values of a column, e.g. once they are held in converted
+     * form elsewhere: the cells of the column read as {@code null} afterwards.
+     * The length of the rows is retained.
+     *
+     * @param columnIndex the zero-based index of the column
+     */
+    public void releaseColumnValues(int columnIndex) {
+        if (columnIndex < 0 || columnIndex >= columnCount) {
+            throw new IndexOutOfBoundsException(
+                    "Column index: " + columnIndex + ", column count: " + columnCount);
+        }
+
+        columns.get(columnIndex).clear();
+    }
+
+    ChunkedColumn getChunkedColumn(int columnIndex) {
+        return columns.get(columnIndex);
+    }
+
     public int getColumnCount() {
         return columnCount;
     }
 
-    public LinkedList<List<String>> getRows() {
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Returns a read-only view of the rows: each row is materialised
+     * on access.
+     *
+     * @return a read-only {@code List} view of the rows
+     */
+    public List<List<String>> getRows() {
         return rows;
     }
 
     public void clear() {
-        rows.forEach(List::clear);
-        rows.clear();
+        columns.forEach(ChunkedColumn::clear);
+        columns.clear();
+        rowCount = 0;
+        columnCount = 0;
+        commonRowLength = 0;
+        rowLengthChunks = null;
+
+        if (spillArea != null) {
+            spillArea.close();
+        }
     }
 
     public boolean isEmpty() {
-        return rows.isEmpty();
+        return rowCount == 0;
     }
 
     @Override
@@ -67,5 +257,31 @@ public final class DataTable implements Iterable<List<String>> {
         return rows.iterator();
     }
 
+    /**
+     * Read-only view of a row, which reads the cells from the columns.
+     */
+    private final class RowView extends AbstractList<String> {
 
+        private final int rowIndex;
+        private final int rowLength;
+
+        private RowView(int rowIndex) {
+            this.rowIndex = rowIndex;
+            this.rowLength = getRowLength(rowIndex);
+        }
+
+        @Override
+        public String get(int columnIndex) {
+            if (columnIndex < 0 || columnIndex >= rowLength) {
+                throw new IndexOutOfBoundsException(
+                        "Column index: " + columnIndex + ", row length: " + rowLength);
+            }
+            return columns.get(columnIndex).get(rowIndex);
+        }
+
+        @Override
+        public int size() {
+            return rowLength;
+        }
+    }
 }
@@ -0,0 +1,84 @@
+package com.github.dyna4jdbc.internal.common.datamodel;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The amount of heap memory the captured output is allowed to occupy: the
+ * chunks of a {@link DataTable} exceeding the budget are spilled to disk.
+ * A budget can have a parent (e.g. the budget of a statement has the budget
+ * of its connection as parent): a reservation must fit both.
+ * This class is thread-safe.
+ *
+ * @author Peter Horvath
+ */
+public final class MemoryBudget {
+
+    private final long limitBytes;
+    private final MemoryBudget parent;
+    private final AtomicLong reservedBytes = new AtomicLong();
+
+    /**
+     * Creates a budget.
+     *
+     * @param limitBytes the number of bytes available, or {@code 0} if unlimited
+     * @param parent the budget the reservations are also made from, or {@code null}
+     */
+    public MemoryBudget(long limitBytes, MemoryBudget parent) {
+        this.limitBytes = limitBytes;
+        this.parent = parent;
+    }
+
+    /**
+     * Reserves the given number of bytes, if available from this budget and its parents.
+     *
+     * @param bytes the number of bytes to reserve
+     * @return {@code true} if reserved, {@code false} if the budget is exhausted
+     */
+    boolean tryReserve(long bytes) {
+        if (!tryReserveLocally(bytes)) {
+            return false;
+        }
+
+        if (parent != null && !parent.tryReserve(bytes)) {
+            reservedBytes.addAndGet(-bytes);
+            return false;
+        }
+
+        return true;
+    }
+
+    private boolean tryReserveLocally(long bytes) {
+        while (true) {
+            final long reserved = reservedBytes.get();
+            if (limitBytes > 0 && reserved + bytes > limitBytes) {
+                return false;
+            }
+
+            if (reservedBytes.compareAndSet(reserved, reserved + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases bytes reserved previously via {@link #tryReserve(long)}.
+     *
+     * @param bytes the number of bytes to release
+     */
+    void release(long bytes) {
+        reservedBytes.addAndGet(-bytes);
+
+        if (parent != null) {
+            parent.release(bytes);
+        }
+    }
+
+    public long getReservedBytes() {
+        return reservedBytes.get();
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryBudget{reservedBytes=" + reservedBytes.get() + ", limitBytes=" + limitBytes + "}";
+    }
+}
@@ -0,0 +1,173 @@
+package com.github.dyna4jdbc.internal.common.datamodel;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+
+/**
+ * Keeps the chunks of the columns of a {@link DataTable} within a {@link MemoryBudget}:
+ * the chunks not fitting the budget are written to a temporary file, created when
+ * the first chunk is spilled, and deleted when the area is closed. A spilled chunk
+ * is read back through a memory-mapped segment of the file.
+ *
+ * <p>
+ * A chunk is stored as the length of each cell ({@code -1} for {@code null}),
+ * followed by the characters of the cell.
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+final class SpillArea implements AutoCloseable {
+
+    private static final int BYTES_PER_INT = 4;
+    private static final int BYTES_PER_CHAR = 2;
+
+    // approximate heap usage of a String, besides its characters, and of a chunk
+    private static final long STRING_OVERHEAD_BYTES = 40;
+    private static final long CHUNK_OVERHEAD_BYTES = 16 + (long) BYTES_PER_INT * ChunkedColumn.CHUNK_SIZE;
+
+    private final MemoryBudget memoryBudget;
+
+    // guarded by this
+    private FileChannel fileChannel;
+    private long fileSize;
+
+    SpillArea(MemoryBudget memoryBudget) {
+        this.memoryBudget = memoryBudget;
+    }
+
+    static long estimateHeapBytes(String[] chunk) {
+        long bytes = CHUNK_OVERHEAD_BYTES;
+        for (String cell : chunk) {
+            if (cell != null) {
+                bytes += STRING_OVERHEAD_BYTES + (long) BYTES_PER_CHAR * cell.length();
+            }
+        }
+
+        return bytes;
+    }
+
+    boolean tryReserve(long bytes) {
+        return memoryBudget.tryReserve(bytes);
+    }
+
+    void release(long bytes) {
+        memoryBudget.release(bytes);
+    }
+
+    /**
+     * Writes the chunk to the temporary file.
+     *
+     * @param chunk the chunk to write
+     * @return the position of the chunk in the file: passed to {@link #read(long)}
+     */
+    synchronized long spill(String[] chunk) {
+        int length = BYTES_PER_INT * chunk.length;
+        for (String cell : chunk) {
+            if (cell != null) {
+                length += BYTES_PER_CHAR * cell.length();
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(BYTES_PER_INT + length);
+        buffer.putInt(length);
+        for (String cell : chunk) {
+            if (cell == null) {
+                buffer.putInt(-1);
+            } else {
+                buffer.putInt(cell.length());
+                buffer.asCharBuffer().put(cell);
+                buffer.position(buffer.position() + BYTES_PER_CHAR * cell.length());
+            }
+        }
+        buffer.flip();
+
+        try {
+            if (fileChannel == null) {
+                Path spillFile = Files.createTempFile("dyna4jdbc-spill", ".tmp");
+                fileChannel = FileChannel.open(spillFile,
+                        StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+                fileSize = 0;
+            }
+
+            final long position = fileSize;
+            while (buffer.hasRemaining()) {
+                fileSize += fileChannel.write(buffer, fileSize);
+            }
+
+            return position;
+
+        } catch (IOException e) {
+            throw JDBCError.SPILL_TO_DISK_FAILED.raiseUncheckedException(e, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads a chunk written by {@link #spill(String[])}.
+     *
+     * @param position the position of the chunk in the file
+     * @return the chunk
+     */
+    String[] read(long position) {
+        MappedByteBuffer segment;
+        try {
+            FileChannel channel = getFileChannel();
+
+            ByteBuffer lengthBuffer = ByteBuffer.allocate(BYTES_PER_INT);
+            while (lengthBuffer.hasRemaining()) {
+                if (channel.read(lengthBuffer, position + lengthBuffer.position()) < 0) {
+                    throw new IOException("Unexpected end of spill file at position " + position);
+                }
+            }
+
+            segment = channel.map(FileChannel.MapMode.READ_ONLY, position + BYTES_PER_INT, lengthBuffer.getInt(0));
+
+        } catch (IOException e) {
+            throw JDBCError.SPILL_TO_DISK_FAILED.raiseUncheckedException(e, e.getMessage());
+        }
+
+        String[] chunk = new String[ChunkedColumn.CHUNK_SIZE];
+        for (int i = 0; i < chunk.length; i++) {
+            final int cellLength = segment.getInt();
+            if (cellLength >= 0) {
+                CharBuffer characters = segment.asCharBuffer();
+                characters.limit(cellLength);
+                chunk[i] = characters.toString();
+                segment.position(segment.position() + BYTES_PER_CHAR * cellLength);
+            }
+        }
+
+        return chunk;
+    }
+
+    private synchronized FileChannel getFileChannel() throws IOException {
+        if (fileChannel == null) {
+            throw new IOException("Spill file has been closed");
+        }
+
+        return fileChannel;
+    }
+
+    /**
+     * Deletes the temporary file (if any): the chunks spilled cannot be read afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        if (fileChannel != null) {
+            try {
+                fileChannel.close();
+            } catch (IOException e) {
+                throw JDBCError.SPILL_TO_DISK_FAILED.raiseUncheckedException(e, e.getMessage());
+            } finally {
+                fileChannel = null;
+            }
+        }
+    }
+}
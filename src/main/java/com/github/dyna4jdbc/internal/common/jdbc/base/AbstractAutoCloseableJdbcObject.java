@@ -170,11 +170,12 @@ public class AbstractAutoCloseableJdbcObject extends AbstractWrapper implements
     /**
      * Closes all child objects, even if some of them throw {@code Exception} when
      * the close method is called on them. Any exceptions thrown by the child objects
-     * are later re-thrown, once closing of every child is completed.
+     * are later re-thrown, once closing of every child is completed. {@code this}
+     * object itself is not closed.
      *
      * @throws SQLException if one or more child objects throw exception one close method call
      */
-    private void closeChildObjects() throws SQLException {
+    protected final void closeChildObjects() throws SQLException {
         LinkedList<Exception> suppressedThrowables = new LinkedList<>();
 
         for (AutoCloseable closeableObject : children) {
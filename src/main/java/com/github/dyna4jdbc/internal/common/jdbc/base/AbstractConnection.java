@@ -25,6 +25,7 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.metrics.DriverMetrics;
 import com.github.dyna4jdbc.internal.common.util.sqlwarning.SQLWarningUtils;
 
 
@@ -41,6 +42,8 @@ public abstract class AbstractConnection extends AbstractAutoCloseableJdbcObject
     private Properties clientInfo = new Properties();
 
     private SQLWarning sqlWarning;
+
+    private volatile String metricsConnectionType;
     // ----------------------------------------------------------------------------------------
 
     @Override
@@ -125,9 +128,30 @@ public abstract class AbstractConnection extends AbstractAutoCloseableJdbcObject
     @Override
     public final PreparedStatement prepareStatement(String sql) throws SQLException {
         checkNotClosed();
+
+        // registered just like the Statements created by createStatement()
+        PreparedStatement preparedStatement = prepareStatementInternal(sql);
+
+        registerAsChild(preparedStatement);
+
+        return preparedStatement;
+    }
+
+    /**
+     * Creates a {@code PreparedStatement} for the script: subclasses supporting
+     * {@code PreparedStatement}s override this method.
+     *
+     * @param script the script to prepare
+     * @return the {@code PreparedStatement} (never {@code null})
+     * @throws SQLException if preparing the script fails or
+     *      {@code PreparedStatement}s are not supported (default)
+     */
+    //CHECKSTYLE.OFF: DesignForExtension
+    protected PreparedStatement prepareStatementInternal(String script) throws SQLException {
         throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
                 "This method is not supported");
     }
+    //CHECKSTYLE.ON: DesignForExtension
 
     @Override
     public final CallableStatement prepareCall(String sql) throws SQLException {
@@ -254,6 +278,58 @@ public abstract class AbstractConnection extends AbstractAutoCloseableJdbcObject
         this.sqlWarning = null;
     }
 
+    /**
+     * Prepares this connection to be handed out again by a connection pool: the
+     * statements created from it are closed, the warnings are cleared, and
+     * {@link #resetInternal()} is called.
+     *
+     * @throws SQLException if this connection is closed, or resetting it fails
+     */
+    public final void resetForReuse() throws SQLException {
+        checkNotClosed();
+
+        closeChildObjects();
+        this.sqlWarning = null;
+
+        resetInternal();
+    }
+
+    /**
+     * Executed when this connection is reset for reuse by a connection pool.
+     * Concrete sub-classes might override this method to reset their own state.
+     *
+     * @throws SQLException in case resetting the state fails
+     */
+    //CHECKSTYLE.OFF: DesignForExtension
+    protected void resetInternal() throws SQLException {
+        // template method for subclasses to hook into reset
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
+    /**
+     * Counts this connection in the {@link DriverMetrics} as an active connection
+     * of the given type, until it is closed.
+     *
+     * @param connectionType the type of the connection, e.g. the name of the script engine
+     */
+    protected final void recordConnectionMetrics(String connectionType) {
+        this.metricsConnectionType = connectionType;
+        DriverMetrics.getInstance().connectionOpened(connectionType);
+    }
+
+    /**
+     * {@inheritDoc}
+     * Sub-classes overriding this method must call {@code super.closeInternal()}.
+     */
+    //CHECKSTYLE.OFF: DesignForExtension
+    @Override
+    protected void closeInternal() throws SQLException {
+        if (metricsConnectionType != null) {
+            DriverMetrics.getInstance().connectionClosed(metricsConnectionType);
+        }
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
     protected final void addSQLWarning(SQLWarning warning) {
 
         this.sqlWarning = SQLWarningUtils.chainSQLWarning(this.sqlWarning, warning);
@@ -295,6 +295,10 @@ public abstract class AbstractResultSet<T> extends AbstractAutoCloseableJdbcObje
         return convertedValue;
     }
 
+    protected final void setWasNull(boolean lastValueWasNull) {
+        wasNull = lastValueWasNull;
+    }
+
     @Override
     public final boolean wasNull() throws SQLException {
         return wasNull;
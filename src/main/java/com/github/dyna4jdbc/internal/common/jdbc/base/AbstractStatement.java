@@ -25,6 +25,13 @@ public abstract class AbstractStatement<T extends java.sql.Connection>
     private Iterator<ResultSet> resultSetIterator;
     private int currentUpdateCount;
 
+    // in seconds, 0 means no timeout; read by the threads executing the statement
+    private volatile int queryTimeout;
+
+    // 0 means no limit / no hint; read by the threads executing the statement
+    private volatile int maxRows;
+    private volatile int fetchSize;
+
     public AbstractStatement(T connection) {
         this.connection = connection;
     }
@@ -104,13 +111,12 @@ public abstract class AbstractStatement<T extends java.sql.Connection>
     @Override
     public final void setFetchSize(int rows) throws SQLException {
         if (rows < 0) {
-            throw new SQLException("Invalid fetchSize: " + rows);
+            throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
+                    "Invalid fetchSize: " + rows);
         }
 
-        if (rows > 0) {
-            throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
-                    "Setting a non-zero fetchSize: " + rows);
-        }
+        // a hint: the number of rows buffered ahead of the ResultSet when streaming
+        this.fetchSize = rows;
     }
 
     @Override
@@ -138,7 +144,7 @@ public abstract class AbstractStatement<T extends java.sql.Connection>
 
     @Override
     public final int getFetchSize() throws SQLException {
-        return 0;
+        return fetchSize;
     }
 
     @Override
@@ -178,12 +184,17 @@ public abstract class AbstractStatement<T extends java.sql.Connection>
 
     @Override
     public final int getMaxRows() throws SQLException {
-        return 0; // no limit
+        return maxRows;
     }
 
     @Override
     public final void setMaxRows(int max) throws SQLException {
-        // TODO: implement
+        if (max < 0) {
+            throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
+                    "Invalid maxRows: " + max);
+        }
+
+        this.maxRows = max;
     }
 
     @Override
@@ -193,12 +204,19 @@ public abstract class AbstractStatement<T extends java.sql.Connection>
 
     @Override
     public final int getQueryTimeout() throws SQLException {
-        return 0;
+        return queryTimeout;
     }
 
     @Override
     public final void setQueryTimeout(int seconds) throws SQLException {
+        checkNotClosed();
+
+        if (seconds < 0) {
+            throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
+                    "Query timeout must not be negative: " + seconds);
+        }
 
+        this.queryTimeout = seconds;
     }
 
     //CHECKSTYLE.OFF: DesignForExtension
@@ -232,20 +250,22 @@ public abstract class AbstractStatement<T extends java.sql.Connection>
     }
 
     // -- unsupported JDBC operations
-    public final void addBatch(String sql) throws SQLException {
+    //CHECKSTYLE.OFF: DesignForExtension
+    public void addBatch(String sql) throws SQLException {
         throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
                 "java.sql.Statement.addBatch(String)");
     }
 
-    public final void clearBatch() throws SQLException {
+    public void clearBatch() throws SQLException {
         throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
                 "java.sql.Statement.clearBatch()");
     }
 
-    public final int[] executeBatch() throws SQLException {
+    public int[] executeBatch() throws SQLException {
         throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
                 "java.sql.Statement.executeBatch()");
     }
+    //CHECKSTYLE.ON: DesignForExtension
 
     public final int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
         throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
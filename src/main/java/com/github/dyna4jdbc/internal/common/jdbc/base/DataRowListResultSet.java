@@ -1,6 +1,10 @@
 package com.github.dyna4jdbc.internal.common.jdbc.base;
 
 import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.RuntimeDyna4JdbcException;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEvent;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventField;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventType;
 import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandler;
 
 import java.sql.ResultSet;
@@ -26,11 +30,22 @@ public abstract class DataRowListResultSet<T> extends TypeHandlerResultSet<T> {
 
     private final Iterator<T> rowIterator;
 
+    // the maximum number of rows returned, 0 means no limit
+    private int maxRows;
+
+    // committed when this ResultSet is closed: its duration includes the conversions by the getters
+    private final FlightRecorderEvent resultSetEvent = FlightRecorderEventType.RESULT_SET.begin();
+
     public DataRowListResultSet(
             List<T> dataRows, Statement statement, List<TypeHandler> typeHandlers) {
+        this(dataRows.iterator(), statement, typeHandlers);
+    }
+
+    public DataRowListResultSet(
+            Iterator<T> rowIterator, Statement statement, List<TypeHandler> typeHandlers) {
         super(statement, typeHandlers);
 
-        this.rowIterator = dataRows.iterator();
+        this.rowIterator = rowIterator;
     }
 
     @Override
@@ -42,27 +57,62 @@ public abstract class DataRowListResultSet<T> extends TypeHandlerResultSet<T> {
         checkNotClosed();
 
         GuardedResultSetState.State currentState = resultSetState.getCurrentState();
-        switch (currentState) {
-            case BEFORE_FIRST:
-                return handleNextOnBeforeFirst();
+        try {
+            switch (currentState) {
+                case BEFORE_FIRST:
+                    return handleNextOnBeforeFirst();
+
+
+                case ITERATING_OVER_RESULTS:
+                    return handleNextOnIteratingOverResults();
 
 
-            case ITERATING_OVER_RESULTS:
-                return handleNextOnIteratingOverResults();
+                case AFTER_LAST:
+                    throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
+                            "Calling next() in state " + currentState);
 
+                default:
+                    throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseSQLException(
+                            "Unexpected currentState: " + currentState);
+            }
+        } catch (RuntimeDyna4JdbcException ex) {
+            // rows might be produced lazily (e.g. streamed from a running script)
+            throw new SQLException(ex.getMessage(), ex.getSqlState(), ex);
+        }
+    }
 
-            case AFTER_LAST:
-                throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
-                        "Calling next() in state " + currentState);
+    /**
+     * Limits the number of rows returned: any further rows are silently dropped.
+     *
+     * @param maxRows the maximum number of rows, {@code 0} means no limit
+     */
+    protected final void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
 
-            default:
-                throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseSQLException(
-                        "Unexpected currentState: " + currentState);
+    /**
+     * {@inheritDoc}
+     * Sub-classes overriding this method must call {@code super.closeInternal()}.
+     */
+    //CHECKSTYLE.OFF: DesignForExtension
+    @Override
+    protected void closeInternal() throws SQLException {
+        resultSetEvent.set(FlightRecorderEventField.COLUMN_COUNT, getTypeHandlers().size())
+                .set(FlightRecorderEventField.ROW_COUNT, javaIndex + 1)
+                .commit();
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
+    private boolean hasNextRow() {
+        if (maxRows > 0 && javaIndex + 1 >= maxRows) {
+            return false;
         }
+
+        return rowIterator.hasNext();
     }
 
     private boolean handleNextOnBeforeFirst() throws SQLException {
-        if (rowIterator.hasNext()) {
+        if (hasNextRow()) {
             resultSetState.transitionTo(GuardedResultSetState.State.ITERATING_OVER_RESULTS);
             ++javaIndex;
             currentRow = rowIterator.next();
@@ -74,7 +124,7 @@ public abstract class DataRowListResultSet<T> extends TypeHandlerResultSet<T> {
     }
 
     private boolean handleNextOnIteratingOverResults() throws SQLException {
-        if (rowIterator.hasNext()) {
+        if (hasNextRow()) {
             currentRow = rowIterator.next();
             ++javaIndex;
         } else {
@@ -118,7 +168,7 @@ public abstract class DataRowListResultSet<T> extends TypeHandlerResultSet<T> {
 
     @Override
     public final boolean isLast() throws SQLException {
-        return resultSetState.isInState(GuardedResultSetState.State.ITERATING_OVER_RESULTS) && !rowIterator.hasNext();
+        return resultSetState.isInState(GuardedResultSetState.State.ITERATING_OVER_RESULTS) && !hasNextRow();
     }
 
     @Override
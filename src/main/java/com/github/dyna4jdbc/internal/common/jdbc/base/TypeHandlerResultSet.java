@@ -18,6 +18,7 @@ package com.github.dyna4jdbc.internal.common.jdbc.base;
 
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata;
+import com.github.dyna4jdbc.internal.common.typeconverter.MaterializedColumn;
 import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionException;
 import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandler;
 
@@ -75,6 +76,33 @@ public abstract class TypeHandlerResultSet<T> extends AbstractReadOnlyResultSet<
 
     protected abstract String getRawCellValueBySqlColumnIndex(int sqlIndex) throws SQLException;
 
+    //CHECKSTYLE.OFF: DesignForExtension
+    /**
+     * Returns the column, if its cells are held converted by a {@link MaterializedColumn}:
+     * {@code getInt}, {@code getLong}, {@code getDouble} and {@code getTimestamp} are
+     * served from it without parsing the raw cell value.
+     *
+     * @param sqlIndex the one-based index of the column
+     * @return the {@code MaterializedColumn}, or {@code null} if the column
+     *      is only available as raw cell values (default)
+     * @throws SQLException in case of an error
+     */
+    protected MaterializedColumn getMaterializedColumnBySqlIndex(int sqlIndex) throws SQLException {
+        return null;
+    }
+
+    /**
+     * Returns the index of the current row within the {@link MaterializedColumn}s:
+     * must be overridden if {@link #getMaterializedColumnBySqlIndex(int)} is.
+     *
+     * @return the zero-based index of the current row
+     * @throws SQLException if the cursor is not positioned on a row
+     */
+    protected int getMaterializedRowIndex() throws SQLException {
+        throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseSQLException("No materialized columns");
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
     private TypeHandler getTypeHandlerByBySqlIndex(int sqlIndex) throws SQLException {
         final int javaIndex = sqlIndex - 1;
 
@@ -83,6 +111,68 @@ public abstract class TypeHandlerResultSet<T> extends AbstractReadOnlyResultSet<
         return typeHandler;
     }
 
+    private int getIntFromMaterializedColumn(
+            MaterializedColumn materializedColumn, int columnIndex) throws SQLException {
+
+        final int rowIndex = getMaterializedRowIndex();
+        try {
+            int convertedValue = materializedColumn.covertToIntValue(rowIndex);
+            setWasNull(materializedColumn.isNull(rowIndex));
+
+            return convertedValue;
+
+        } catch (TypeConversionException tce) {
+            throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
+                    tce, getRow(), columnIndex, materializedColumn.getRawCellValue(rowIndex), "int");
+        }
+    }
+
+    private long getLongFromMaterializedColumn(
+            MaterializedColumn materializedColumn, int columnIndex) throws SQLException {
+
+        final int rowIndex = getMaterializedRowIndex();
+        try {
+            long convertedValue = materializedColumn.covertToLongValue(rowIndex);
+            setWasNull(materializedColumn.isNull(rowIndex));
+
+            return convertedValue;
+
+        } catch (TypeConversionException tce) {
+            throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
+                    tce, getRow(), columnIndex, materializedColumn.getRawCellValue(rowIndex), "long");
+        }
+    }
+
+    private double getDoubleFromMaterializedColumn(
+            MaterializedColumn materializedColumn, int columnIndex) throws SQLException {
+
+        final int rowIndex = getMaterializedRowIndex();
+        try {
+            double convertedValue = materializedColumn.covertToDoubleValue(rowIndex);
+            setWasNull(materializedColumn.isNull(rowIndex));
+
+            return convertedValue;
+
+        } catch (TypeConversionException tce) {
+            throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
+                    tce, getRow(), columnIndex, materializedColumn.getRawCellValue(rowIndex), "double");
+        }
+    }
+
+    private Timestamp getTimestampFromMaterializedColumn(
+            MaterializedColumn materializedColumn, int columnIndex) throws SQLException {
+
+        final int rowIndex = getMaterializedRowIndex();
+        try {
+            Timestamp convertedValue = materializedColumn.covertToTimestamp(rowIndex);
+            return setWasNullBasedOnLastValue(convertedValue);
+
+        } catch (TypeConversionException tce) {
+            throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
+                    tce, getRow(), columnIndex, materializedColumn.getRawCellValue(rowIndex), Timestamp.class);
+        }
+    }
+
     @Override
     public final int findColumn(String columnLabel) throws SQLException {
         if (!columnNameToColumnIndexMap.containsKey(columnLabel)) {
@@ -124,10 +214,10 @@ public abstract class TypeHandlerResultSet<T> extends AbstractReadOnlyResultSet<
 
         try {
             TypeHandler typeHandler = getTypeHandlerByBySqlIndex(columnIndex);
-            Boolean convertedValue = typeHandler.covertToBoolean(rawCellValue);
-            Boolean returnValue = setWasNullBasedOnLastValue(convertedValue);
+            boolean convertedValue = typeHandler.covertToBooleanValue(rawCellValue);
+            setWasNull(typeHandler.isNull(rawCellValue));
 
-            return returnValue != null ? returnValue.booleanValue() : false;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -142,11 +232,10 @@ public abstract class TypeHandlerResultSet<T> extends AbstractReadOnlyResultSet<
 
         try {
             TypeHandler typeHandler = getTypeHandlerByBySqlIndex(columnIndex);
-            Byte convertedValue = typeHandler.covertToByte(rawCellValue);
+            byte convertedValue = typeHandler.covertToByteValue(rawCellValue);
+            setWasNull(typeHandler.isNull(rawCellValue));
 
-            Byte returnValue = setWasNullBasedOnLastValue(convertedValue);
-
-            return returnValue != null ? returnValue.byteValue() : 0x0;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -160,10 +249,10 @@ public abstract class TypeHandlerResultSet<T> extends AbstractReadOnlyResultSet<
 
         try {
             TypeHandler typeHandler = getTypeHandlerByBySqlIndex(columnIndex);
-            Short convertedValue = typeHandler.covertToShort(rawCellValue);
-            Short returnValue = setWasNullBasedOnLastValue(convertedValue);
+            short convertedValue = typeHandler.covertToShortValue(rawCellValue);
+            setWasNull(typeHandler.isNull(rawCellValue));
 
-            return returnValue != null ? returnValue.shortValue() : 0;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -173,15 +262,19 @@ public abstract class TypeHandlerResultSet<T> extends AbstractReadOnlyResultSet<
 
     @Override
     public final int getInt(int columnIndex) throws SQLException {
+        MaterializedColumn materializedColumn = getMaterializedColumnBySqlIndex(columnIndex);
+        if (materializedColumn != null) {
+            return getIntFromMaterializedColumn(materializedColumn, columnIndex);
+        }
+
         String rawCellValue = getRawCellValueBySqlColumnIndex(columnIndex);
 
         try {
             TypeHandler typeHandler = getTypeHandlerByBySqlIndex(columnIndex);
-            Integer convertedValue = typeHandler.covertToInteger(rawCellValue);
-
-            Integer returnValue = setWasNullBasedOnLastValue(convertedValue);
+            int convertedValue = typeHandler.covertToIntValue(rawCellValue);
+            setWasNull(typeHandler.isNull(rawCellValue));
 
-            return returnValue != null ? returnValue.intValue() : 0;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -191,15 +284,19 @@ public abstract class TypeHandlerResultSet<T> extends AbstractReadOnlyResultSet<
 
     @Override
     public final long getLong(int columnIndex) throws SQLException {
+        MaterializedColumn materializedColumn = getMaterializedColumnBySqlIndex(columnIndex);
+        if (materializedColumn != null) {
+            return getLongFromMaterializedColumn(materializedColumn, columnIndex);
+        }
+
         String rawCellValue = getRawCellValueBySqlColumnIndex(columnIndex);
 
         try {
             TypeHandler typeHandler = getTypeHandlerByBySqlIndex(columnIndex);
-            Long convertedValue = typeHandler.covertToLong(rawCellValue);
-
-            Long returnValue = setWasNullBasedOnLastValue(convertedValue);
+            long convertedValue = typeHandler.covertToLongValue(rawCellValue);
+            setWasNull(typeHandler.isNull(rawCellValue));
 
-            return returnValue != null ? returnValue.longValue() : 0L;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -213,11 +310,10 @@ public abstract class TypeHandlerResultSet<T> extends AbstractReadOnlyResultSet<
 
         try {
             TypeHandler typeHandler = getTypeHandlerByBySqlIndex(columnIndex);
-            Float convertedValue = typeHandler.covertToFloat(rawCellValue);
+            float convertedValue = typeHandler.covertToFloatValue(rawCellValue);
+            setWasNull(typeHandler.isNull(rawCellValue));
 
-            Float returnValue = setWasNullBasedOnLastValue(convertedValue);
-
-            return returnValue != null ? returnValue.floatValue() : 0.0f;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -227,15 +323,19 @@ public abstract class TypeHandlerResultSet<T> extends AbstractReadOnlyResultSet<
 
     @Override
     public final double getDouble(int columnIndex) throws SQLException {
+        MaterializedColumn materializedColumn = getMaterializedColumnBySqlIndex(columnIndex);
+        if (materializedColumn != null) {
+            return getDoubleFromMaterializedColumn(materializedColumn, columnIndex);
+        }
+
         String rawCellValue = getRawCellValueBySqlColumnIndex(columnIndex);
 
         try {
             TypeHandler typeHandler = getTypeHandlerByBySqlIndex(columnIndex);
-            Double convertedValue = typeHandler.covertToDouble(rawCellValue);
+            double convertedValue = typeHandler.covertToDoubleValue(rawCellValue);
+            setWasNull(typeHandler.isNull(rawCellValue));
 
-            Double returnValue = setWasNullBasedOnLastValue(convertedValue);
-
-            return returnValue != null ? returnValue.doubleValue() : 0.0d;
+            return convertedValue;
 
         } catch (TypeConversionException tce) {
             throw JDBCError.DATA_CONVERSION_FAILED.raiseSQLException(
@@ -309,6 +409,11 @@ public abstract class TypeHandlerResultSet<T> extends AbstractReadOnlyResultSet<
 
     @Override
     public final Timestamp getTimestamp(int columnIndex) throws SQLException {
+        MaterializedColumn materializedColumn = getMaterializedColumnBySqlIndex(columnIndex);
+        if (materializedColumn != null) {
+            return getTimestampFromMaterializedColumn(materializedColumn, columnIndex);
+        }
+
         String rawCellValue = getRawCellValueBySqlColumnIndex(columnIndex);
 
         try {
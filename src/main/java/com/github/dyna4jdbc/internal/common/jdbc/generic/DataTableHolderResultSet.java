@@ -4,6 +4,10 @@ import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.common.datamodel.DataColumn;
 import com.github.dyna4jdbc.internal.common.datamodel.DataTable;
 import com.github.dyna4jdbc.internal.common.jdbc.base.DataRowListResultSet;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEvent;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventField;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventType;
+import com.github.dyna4jdbc.internal.common.typeconverter.MaterializedColumn;
 import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandler;
 import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandlerFactory;
 
@@ -13,22 +17,63 @@ import java.util.*;
 public final class DataTableHolderResultSet extends DataRowListResultSet<List<String>> {
 
     private final DataTable dataTable;
+    private final int firstDataRowIndex;
+
+    /*
+     * Materialized columns by (zero-based) column index: null entries are
+     * columns available as raw cell values only. null if materialization
+     * is not enabled.
+     */
+    private final MaterializedColumn[] materializedColumns;
 
     public DataTableHolderResultSet(
             Statement statement, DataTable dataTable, TypeHandlerFactory typeHandlerFactory) {
+        this(statement, dataTable, typeHandlerFactory, false);
+    }
+
+    public DataTableHolderResultSet(
+            Statement statement, DataTable dataTable, TypeHandlerFactory typeHandlerFactory,
+            boolean materializeTypedColumns) {
+        this(statement, dataTable, typeHandlerFactory, materializeTypedColumns, 0);
+    }
+
+    /**
+     * Creates a {@code ResultSet} over the rows of a {@code DataTable}.
+     *
+     * @param statement the statement, which produced the result
+     * @param dataTable the rows
+     * @param typeHandlerFactory the factory of the type handlers
+     * @param materializeTypedColumns whether typed columns are converted once
+     * @param maxRows the maximum number of rows returned, {@code 0} means no limit
+     */
+    public DataTableHolderResultSet(
+            Statement statement, DataTable dataTable, TypeHandlerFactory typeHandlerFactory,
+            boolean materializeTypedColumns, int maxRows) {
 
         super(dataTable.getRows(), statement, initTypeHandlers(dataTable, typeHandlerFactory));
+        setMaxRows(maxRows);
         this.dataTable = dataTable;
 
         if (checkFirstRowIsSkipped(getTypeHandlers())) {
             super.skipNextRowIfPresent();
+            this.firstDataRowIndex = 1;
+        } else {
+            this.firstDataRowIndex = 0;
+        }
+
+        if (materializeTypedColumns) {
+            this.materializedColumns = materializeColumns(dataTable, getTypeHandlers(), firstDataRowIndex);
+        } else {
+            this.materializedColumns = null;
         }
     }
 
-    private static List<TypeHandler> initTypeHandlers(DataTable dataTable,
-                                                      TypeHandlerFactory typeHandlerFactory) {
+    static List<TypeHandler> initTypeHandlers(DataTable dataTable,
+                                              TypeHandlerFactory typeHandlerFactory) {
+
+        FlightRecorderEvent inferenceEvent = FlightRecorderEventType.INFERENCE.begin();
 
-        LinkedList<TypeHandler> typeHandlerList = new LinkedList<>();
+        ArrayList<TypeHandler> typeHandlerList = new ArrayList<>(dataTable.getColumnCount());
 
         int columnIndex = 0;
 
@@ -42,10 +87,40 @@ public final class DataTableHolderResultSet extends DataRowListResultSet<List<St
             typeHandlerList.add(typeHandler);
         }
 
+        inferenceEvent.set(FlightRecorderEventField.COLUMN_COUNT, typeHandlerList.size())
+                .set(FlightRecorderEventField.ROW_COUNT, dataTable.getRowCount())
+                .commit();
+
         return Collections.unmodifiableList(typeHandlerList);
     }
 
-    private static boolean checkFirstRowIsSkipped(List<TypeHandler> typeHandlers) {
+    /*
+     * Converts the columns supported by their TypeHandler once, and releases their
+     * raw cell values from the DataTable: the getters of this class reconstruct
+     * these from the MaterializedColumn.
+     */
+    private static MaterializedColumn[] materializeColumns(
+            DataTable dataTable, List<TypeHandler> typeHandlers, int firstDataRowIndex) {
+
+        MaterializedColumn[] materializedColumns = new MaterializedColumn[typeHandlers.size()];
+
+        int columnIndex = 0;
+        for (DataColumn column : dataTable.columnIterable()) {
+            MaterializedColumn materializedColumn =
+                    typeHandlers.get(columnIndex).materialize(column, column.size(), firstDataRowIndex);
+
+            if (materializedColumn != null) {
+                materializedColumns[columnIndex] = materializedColumn;
+                dataTable.releaseColumnValues(columnIndex);
+            }
+
+            columnIndex++;
+        }
+
+        return materializedColumns;
+    }
+
+    static boolean checkFirstRowIsSkipped(List<TypeHandler> typeHandlers) {
 
         Boolean shouldTakeFirstRowValue = null;
 
@@ -85,27 +160,48 @@ public final class DataTableHolderResultSet extends DataRowListResultSet<List<St
     @Override
     protected void closeInternal() throws SQLException {
         dataTable.clear();
+
+        super.closeInternal();
     }
 
     protected String getRawCellValueBySqlColumnIndex(int sqlColumnIndex) throws SQLException {
 
         final int javaIndex = sqlColumnIndex - 1;
 
-        List<String> currentRow = getCurrentRow();
+        getCurrentRow(); // ensure the cursor is positioned on a row
 
         if (!(javaIndex >= 0 && javaIndex < dataTable.getColumnCount())) {
             throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
                     "Invalid index: " + sqlColumnIndex);
         }
 
-        String cellValue;
-        if (javaIndex < currentRow.size()) {
-            cellValue = currentRow.get(javaIndex);
-        } else {
-            cellValue = null;
+        final int rowIndex = firstDataRowIndex + getRow() - 1;
+
+        if (materializedColumns != null && materializedColumns[javaIndex] != null) {
+            return materializedColumns[javaIndex].getRawCellValue(rowIndex);
         }
 
-        return cellValue;
+        return dataTable.getCellValue(rowIndex, javaIndex);
+    }
+
+    @Override
+    protected MaterializedColumn getMaterializedColumnBySqlIndex(int sqlColumnIndex) {
+
+        final int javaIndex = sqlColumnIndex - 1;
+
+        if (materializedColumns == null || javaIndex < 0 || javaIndex >= materializedColumns.length) {
+            // invalid indexes are reported by getRawCellValueBySqlColumnIndex
+            return null;
+        }
+
+        return materializedColumns[javaIndex];
+    }
+
+    @Override
+    protected int getMaterializedRowIndex() throws SQLException {
+        getCurrentRow(); // ensure the cursor is positioned on a row
+
+        return firstDataRowIndex + getRow() - 1;
     }
 
     @SuppressWarnings("unchecked")
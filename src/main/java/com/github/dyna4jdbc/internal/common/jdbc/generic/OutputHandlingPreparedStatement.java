@@ -0,0 +1,485 @@
+package com.github.dyna4jdbc.internal.common.jdbc.generic;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+
+import com.github.dyna4jdbc.internal.CharacterOutputCapturingScriptExecutor;
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.OutputCapturingScriptExecutor;
+import com.github.dyna4jdbc.internal.PreparedScriptExecutor;
+import com.github.dyna4jdbc.internal.common.outputhandler.ScriptOutputHandlerFactory;
+import com.github.dyna4jdbc.internal.config.Configuration;
+
+/**
+ * {@code PreparedStatement}, which executes a script prepared once. The parameters
+ * are passed to the script as variables named by the configured prefix and the
+ * index of the parameter (e.g. {@code parameter1}): the script text is never
+ * modified. Parameters not set are not passed to the script.
+ *
+ * @author Peter Horvath
+ */
+public final class OutputHandlingPreparedStatement<T extends java.sql.Connection>
+        extends OutputHandlingStatement<T> implements PreparedStatement {
+
+    private final String script;
+    private final PreparedScriptExecutor preparedScriptExecutor;
+    private final String parameterVariablePrefix;
+
+    // parameter values by (one-based) parameter index
+    private final TreeMap<Integer, Object> parameters = new TreeMap<>();
+
+    // parameter variables of the entries added to the batch
+    private final List<Map<String, Object>> parameterBatch = new ArrayList<>();
+
+    public OutputHandlingPreparedStatement(
+            T connection,
+            Configuration configuration,
+            ScriptOutputHandlerFactory scriptOutputHandlerFactory,
+            String script,
+            PreparedScriptExecutor preparedScriptExecutor,
+            ExecutorService asyncExecutor) {
+
+        // the executors of the Statement API are never used: executing arbitrary scripts is rejected
+        super(connection, configuration, scriptOutputHandlerFactory, null, null, asyncExecutor);
+
+        this.script = script;
+        this.preparedScriptExecutor = preparedScriptExecutor;
+        this.parameterVariablePrefix = configuration.getParameterVariablePrefix();
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        checkNotClosed();
+
+        OutputCapturingScriptExecutor scriptExecutor = bindParameters();
+
+        return executeQueryInternal(script, scriptExecutor, asCharacterScriptExecutor(scriptExecutor));
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        checkNotClosed();
+
+        OutputCapturingScriptExecutor scriptExecutor = bindParameters();
+
+        return executeUpdateInternal(script, scriptExecutor, asCharacterScriptExecutor(scriptExecutor));
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        checkNotClosed();
+
+        OutputCapturingScriptExecutor scriptExecutor = bindParameters();
+
+        return executeInternal(script, scriptExecutor, asCharacterScriptExecutor(scriptExecutor));
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        checkNotClosed();
+
+        parameterBatch.add(toParameterVariables());
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        checkNotClosed();
+
+        parameterBatch.clear();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        checkNotClosed();
+
+        // the batch is reset by the execution, even if it fails
+        List<Map<String, Object>> parameterSets = new ArrayList<>(parameterBatch);
+        parameterBatch.clear();
+
+        OutputCapturingScriptExecutor scriptExecutor = preparedScriptExecutor.bindParameterBatch(parameterSets);
+
+        return executeBatchInternal(Collections.nCopies(parameterSets.size(), script),
+                scriptExecutor, asCharacterScriptExecutor(scriptExecutor));
+    }
+
+    private OutputCapturingScriptExecutor bindParameters() {
+        return preparedScriptExecutor.bindParameters(toParameterVariables());
+    }
+
+    /*
+     * The parameters are copied: setting parameters does not affect
+     * an execution already started (e.g. by a streaming ResultSet).
+     */
+    private Map<String, Object> toParameterVariables() {
+        LinkedHashMap<String, Object> variables = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+            variables.put(parameterVariablePrefix + parameter.getKey(), parameter.getValue());
+        }
+
+        return Collections.unmodifiableMap(variables);
+    }
+
+    private static CharacterOutputCapturingScriptExecutor asCharacterScriptExecutor(
+            OutputCapturingScriptExecutor scriptExecutor) {
+
+        if (scriptExecutor instanceof CharacterOutputCapturingScriptExecutor) {
+            return (CharacterOutputCapturingScriptExecutor) scriptExecutor;
+        }
+
+        return null;
+    }
+
+    private void setParameter(int parameterIndex, Object value) throws SQLException {
+        checkNotClosed();
+
+        if (parameterIndex < 1) {
+            throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
+                    "Invalid parameter index: " + parameterIndex);
+        }
+
+        parameters.put(parameterIndex, value);
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        checkNotClosed();
+
+        parameters.clear();
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        setParameter(parameterIndex, null);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        setParameter(parameterIndex, null);
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String value) throws SQLException {
+        setParameter(parameterIndex, value);
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        // passed to the script as is: the script is responsible for any conversion
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength)
+            throws SQLException {
+        setParameter(parameterIndex, x);
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        checkNotClosed();
+
+        // the columns are only known once the script has been executed
+        return null;
+    }
+
+    // -- Statement API calls, which are illegal for a PreparedStatement
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
+                "executeQuery(String) cannot be called on a PreparedStatement");
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
+                "executeUpdate(String) cannot be called on a PreparedStatement");
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
+                "execute(String) cannot be called on a PreparedStatement");
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
+                "addBatch(String) cannot be called on a PreparedStatement");
+    }
+
+    // -- unsupported JDBC operations
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.getParameterMetaData()");
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setDate(int, Date, Calendar)");
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setTime(int, Time, Calendar)");
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setTimestamp(int, Timestamp, Calendar)");
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setAsciiStream(int, InputStream, int)");
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setAsciiStream(int, InputStream, long)");
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setAsciiStream(int, InputStream)");
+    }
+
+    @Override
+    @Deprecated
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setUnicodeStream(int, InputStream, int)");
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setBinaryStream(int, InputStream, int)");
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setBinaryStream(int, InputStream, long)");
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setBinaryStream(int, InputStream)");
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, int length) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setCharacterStream(int, Reader, int)");
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader, long length) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setCharacterStream(int, Reader, long)");
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader reader) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setCharacterStream(int, Reader)");
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value, long length) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setNCharacterStream(int, Reader, long)");
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader value) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setNCharacterStream(int, Reader)");
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setRef(int, Ref)");
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setBlob(int, Blob)");
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream, long length) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setBlob(int, InputStream, long)");
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream inputStream) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setBlob(int, InputStream)");
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setClob(int, Clob)");
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setClob(int, Reader, long)");
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader reader) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setClob(int, Reader)");
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob value) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setNClob(int, NClob)");
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader, long length) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setNClob(int, Reader, long)");
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader reader) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setNClob(int, Reader)");
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setArray(int, Array)");
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setRowId(int, RowId)");
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML xmlObject) throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException(
+                "java.sql.PreparedStatement.setSQLXML(int, SQLXML)");
+    }
+}
@@ -2,48 +2,239 @@ package com.github.dyna4jdbc.internal.common.jdbc.generic;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.sql.BatchUpdateException;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.github.dyna4jdbc.AsyncStatement;
+import com.github.dyna4jdbc.internal.BatchScriptExecutionException;
+import com.github.dyna4jdbc.internal.CharacterOutputCapturingScriptExecutor;
 import com.github.dyna4jdbc.internal.OutputCapturingScriptExecutor;
 import com.github.dyna4jdbc.internal.OutputDisabledError;
+import com.github.dyna4jdbc.internal.OutputLimitReachedError;
 import com.github.dyna4jdbc.internal.RuntimeDyna4JdbcException;
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.ScriptExecutionException;
 import com.github.dyna4jdbc.internal.common.jdbc.base.AbstractStatement;
+import com.github.dyna4jdbc.internal.common.metrics.DriverMetrics;
 import com.github.dyna4jdbc.internal.common.outputhandler.MultiTypeScriptOutputHandler;
 import com.github.dyna4jdbc.internal.common.outputhandler.ScriptOutputHandler;
 import com.github.dyna4jdbc.internal.common.outputhandler.ScriptOutputHandlerFactory;
 import com.github.dyna4jdbc.internal.common.outputhandler.SingleResultSetScriptOutputHandler;
+import com.github.dyna4jdbc.internal.common.outputhandler.StreamingResultSetScriptOutputHandler;
 import com.github.dyna4jdbc.internal.common.outputhandler.UpdateScriptOutputHandler;
+import com.github.dyna4jdbc.internal.common.util.concurrent.DaemonThreadFactory;
 import com.github.dyna4jdbc.internal.common.util.exception.ExceptionUtils;
+import com.github.dyna4jdbc.internal.config.Configuration;
+
+public class OutputHandlingStatement<T extends java.sql.Connection> extends AbstractStatement<T>
+        implements AsyncStatement {
+
+    private static final ExecutorService STREAMING_PRODUCER_EXECUTOR =
+            Executors.newCachedThreadPool(new DaemonThreadFactory("dyna4jdbc-streaming-producer"));
 
-public class OutputHandlingStatement<T extends java.sql.Connection> extends AbstractStatement<T> {
+    private static final ExecutorService TIMED_EXECUTION_EXECUTOR =
+            Executors.newCachedThreadPool(new DaemonThreadFactory("dyna4jdbc-timed-execution"));
 
     private final ScriptOutputHandlerFactory scriptOutputHandlerFactory;
     private final OutputCapturingScriptExecutor outputCapturingScriptExecutor;
-
+    private final CharacterOutputCapturingScriptExecutor characterOutputCapturingScriptExecutor;
+    private final boolean streamResults;
+    private final ExecutorService asyncExecutor;
+    private final boolean recordMetrics;
+
+    private final List<String> batch = new ArrayList<>();
+
+    private final Set<CancellableExecution> activeExecutions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a statement, which passes the output to the script as characters
+     * if {@code characterOutputCapturingScriptExecutor} is not {@code null}.
+     *
+     * @param connection the connection the statement belongs to
+     * @param configuration the configuration
+     * @param scriptOutputHandlerFactory the factory of the output handlers
+     * @param outputCapturingScriptExecutor the executor used to capture the output as bytes
+     * @param characterOutputCapturingScriptExecutor the executor used to capture the output
+     *      as characters, or {@code null} if the output must be captured as bytes
+     * @param asyncExecutor the executor of the asynchronous executions (see {@link AsyncStatement}),
+     *      owned by the connection
+     */
     public OutputHandlingStatement(
             T connection,
+            Configuration configuration,
             ScriptOutputHandlerFactory scriptOutputHandlerFactory,
-            OutputCapturingScriptExecutor outputCapturingScriptExecutor) {
+            OutputCapturingScriptExecutor outputCapturingScriptExecutor,
+            CharacterOutputCapturingScriptExecutor characterOutputCapturingScriptExecutor,
+            ExecutorService asyncExecutor) {
 
         super(connection);
         this.scriptOutputHandlerFactory = scriptOutputHandlerFactory;
         this.outputCapturingScriptExecutor = outputCapturingScriptExecutor;
+        this.characterOutputCapturingScriptExecutor = characterOutputCapturingScriptExecutor;
+        this.streamResults = configuration.getStreamResults();
+        this.asyncExecutor = asyncExecutor;
+        this.recordMetrics = configuration.getJmxMetrics();
+    }
+
+    //CHECKSTYLE.OFF: DesignForExtension
+    public ResultSet executeQuery(String script) throws SQLException {
+        checkNotClosed();
+
+        return executeQueryInternal(script, outputCapturingScriptExecutor, characterOutputCapturingScriptExecutor);
+    }
+
+    public int executeUpdate(final String script) throws SQLException {
+        checkNotClosed();
+
+        return executeUpdateInternal(script, outputCapturingScriptExecutor, characterOutputCapturingScriptExecutor);
+    }
+
+    public boolean execute(final String script) throws SQLException {
+        checkNotClosed();
+
+        return executeInternal(script, outputCapturingScriptExecutor, characterOutputCapturingScriptExecutor);
+    }
+
+    @Override
+    public void addBatch(String script) throws SQLException {
+        checkNotClosed();
+
+        batch.add(script);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        checkNotClosed();
+
+        batch.clear();
     }
 
-    public final ResultSet executeQuery(String script) throws SQLException {
+    @Override
+    public int[] executeBatch() throws SQLException {
         checkNotClosed();
 
+        // the batch is reset by the execution, even if it fails
+        List<String> scripts = new ArrayList<>(batch);
+        batch.clear();
+
+        return executeBatchInternal(scripts, outputCapturingScriptExecutor, characterOutputCapturingScriptExecutor);
+    }
+
+    /**
+     * Cancels the executions of this statement in progress: the threads executing
+     * the scripts are interrupted and the executors are asked to cancel the
+     * execution (e.g. a process runner terminates the process). The executions
+     * fail with an {@code SQLException}, and their partial output is discarded.
+     *
+     * @throws SQLException if the statement is closed
+     */
+    @Override
+    public void cancel() throws SQLException {
+        checkNotClosed();
+
+        for (CancellableExecution execution : activeExecutions) {
+            execution.cancel(JDBCError.STATEMENT_CANCELLED);
+        }
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> executeQueryAsync(String script) throws SQLException {
+        checkNotClosed();
+
+        return executeAsynchronously(() -> executeQuery(script));
+    }
+
+    @Override
+    public CompletableFuture<ResultSet> executeAsync(String script) throws SQLException {
+        checkNotClosed();
+
+        return executeAsynchronously(() -> {
+            if (execute(script)) {
+                return getResultSet();
+            }
+
+            return null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <W> W unwrap(Class<W> iface) throws SQLException {
+        if (iface.isAssignableFrom(AsyncStatement.class)) {
+            return (W) this;
+        }
+
+        return super.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isAssignableFrom(AsyncStatement.class) || super.isWrapperFor(iface);
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
+    private CompletableFuture<ResultSet> executeAsynchronously(ResultSetExecution resultSetExecution)
+            throws SQLException {
+
+        AsyncExecution asyncExecution = new AsyncExecution(resultSetExecution);
+        try {
+            asyncExecutor.execute(asyncExecution);
+        } catch (RejectedExecutionException e) {
+            // the connection has been closed since
+            throw JDBCError.OBJECT_CLOSED.raiseSQLException(this);
+        }
+
+        return asyncExecution;
+    }
+
+    /**
+     * Executes the script using the executors given, expecting a single {@code ResultSet}.
+     *
+     * @param script the script
+     * @param scriptExecutor the executor used to capture the output as bytes
+     * @param characterScriptExecutor the executor used to capture the output
+     *      as characters, or {@code null} if the output must be captured as bytes
+     * @return the {@code ResultSet} produced by the script
+     * @throws SQLException if the execution fails
+     */
+    protected final ResultSet executeQueryInternal(
+            String script,
+            OutputCapturingScriptExecutor scriptExecutor,
+            CharacterOutputCapturingScriptExecutor characterScriptExecutor) throws SQLException {
+
+        if (streamResults) {
+            return executeQueryStreaming(script, scriptExecutor, characterScriptExecutor);
+        }
+
         try {
             SingleResultSetScriptOutputHandler outputHandler =
                     scriptOutputHandlerFactory.newSingleResultSetScriptOutputHandler(this, script);
 
-            executeScriptUsingOutputHandler(script, outputHandler);
+            ResultSet resultSet;
+            try {
+                executeScriptUsingOutputHandler(script, outputHandler, scriptExecutor, characterScriptExecutor);
 
-            ResultSet resultSet = outputHandler.getResultSet();
+                resultSet = outputHandler.getResultSet();
+            } catch (Throwable t) {
+                // no ResultSet is handed over: the output captured so far is released
+                outputHandler.discardOutput();
+                throw t;
+            }
 
             registerAsChild(resultSet);
 
@@ -62,14 +253,60 @@ public class OutputHandlingStatement<T extends java.sql.Connection> extends Abst
         }
     }
 
-    public final int executeUpdate(final String script) throws SQLException {
-        checkNotClosed();
+    private ResultSet executeQueryStreaming(
+            String script,
+            OutputCapturingScriptExecutor scriptExecutor,
+            CharacterOutputCapturingScriptExecutor characterScriptExecutor) throws SQLException {
+
+        try {
+            StreamingResultSetScriptOutputHandler outputHandler =
+                    scriptOutputHandlerFactory.newStreamingResultSetScriptOutputHandler(this, script);
+
+            STREAMING_PRODUCER_EXECUTOR.execute(() -> {
+                try {
+                    executeScriptUsingOutputHandler(script, outputHandler, scriptExecutor, characterScriptExecutor);
+                } catch (Throwable t) {
+                    // handed over to the consumer thread, where it is reported as SQLException
+                    outputHandler.scriptExecutionFailed(t);
+                }
+            });
+
+            ResultSet resultSet = outputHandler.getResultSet();
+
+            registerAsChild(resultSet);
+
+            return resultSet;
+
+        } catch (SQLException sqle) {
+            throw sqle;
+        } catch (RuntimeDyna4JdbcException ex) {
+            throw new SQLException(ex.getMessage(), ex.getSqlState(), ex);
+        } catch (Throwable t) {
+            String message = ExceptionUtils.getRootCauseMessage(t);
+            throw JDBCError.UNEXPECTED_THROWABLE.raiseSQLException(t, message);
+        }
+    }
+
+    /**
+     * Executes the script using the executors given, expecting no output.
+     *
+     * @param script the script
+     * @param scriptExecutor the executor used to capture the output as bytes
+     * @param characterScriptExecutor the executor used to capture the output
+     *      as characters, or {@code null} if the output must be captured as bytes
+     * @return the update count
+     * @throws SQLException if the execution fails
+     */
+    protected final int executeUpdateInternal(
+            String script,
+            OutputCapturingScriptExecutor scriptExecutor,
+            CharacterOutputCapturingScriptExecutor characterScriptExecutor) throws SQLException {
 
         try {
             UpdateScriptOutputHandler outputHandler =
                     scriptOutputHandlerFactory.newUpdateScriptOutputHandler(this, script);
 
-            executeScriptUsingOutputHandler(script, outputHandler);
+            executeScriptUsingOutputHandler(script, outputHandler, scriptExecutor, characterScriptExecutor);
 
             return outputHandler.getUpdateCount();
 
@@ -83,6 +320,8 @@ public class OutputHandlingStatement<T extends java.sql.Connection> extends Abst
                 String message = rootCause.getMessage();
                 throw JDBCError.SCRIPT_EXECUTION_EXCEPTION.raiseSQLException(se, message);
             }
+        } catch (SQLException sqle) {
+            throw sqle;
         } catch (RuntimeDyna4JdbcException ex) {
             throw new SQLException(ex.getMessage(), ex.getSqlState(), ex);
         } catch (OutputDisabledError t) {
@@ -94,19 +333,43 @@ public class OutputHandlingStatement<T extends java.sql.Connection> extends Abst
         }
     }
 
-    public final boolean execute(final String script) throws SQLException {
-        checkNotClosed();
+    /**
+     * Executes the script using the executors given, which might produce
+     * {@code ResultSet}s or an update count.
+     *
+     * @param script the script
+     * @param scriptExecutor the executor used to capture the output as bytes
+     * @param characterScriptExecutor the executor used to capture the output
+     *      as characters, or {@code null} if the output must be captured as bytes
+     * @return {@code true} if the script produced {@code ResultSet}s
+     * @throws SQLException if the execution fails
+     */
+    protected final boolean executeInternal(
+            String script,
+            OutputCapturingScriptExecutor scriptExecutor,
+            CharacterOutputCapturingScriptExecutor characterScriptExecutor) throws SQLException {
 
         try {
 
             MultiTypeScriptOutputHandler outputHandler =
                     scriptOutputHandlerFactory.newMultiTypeScriptOutputHandler(this, script);
 
-            executeScriptUsingOutputHandler(script, outputHandler);
+            boolean resultSets;
+            List<ResultSet> resultSetList = null;
+            try {
+                executeScriptUsingOutputHandler(script, outputHandler, scriptExecutor, characterScriptExecutor);
+
+                resultSets = outputHandler.isResultSets();
+                if (resultSets) {
+                    resultSetList = outputHandler.getResultSets();
+                }
+            } catch (Throwable t) {
+                // no ResultSet is handed over: the output captured so far is released
+                outputHandler.discardOutput();
+                throw t;
+            }
 
-            boolean resultSets = outputHandler.isResultSets();
             if (resultSets) {
-                List<ResultSet> resultSetList = outputHandler.getResultSets();
                 registerAsChildren(resultSetList);
 
                 setCurrentResultSetList(resultSetList);
@@ -121,6 +384,8 @@ public class OutputHandlingStatement<T extends java.sql.Connection> extends Abst
         } catch (ScriptExecutionException se) {
             String message = ExceptionUtils.getRootCauseMessage(se);
             throw JDBCError.SCRIPT_EXECUTION_EXCEPTION.raiseSQLException(se, message);
+        } catch (SQLException sqle) {
+            throw sqle;
         } catch (RuntimeDyna4JdbcException ex) {
             throw new SQLException(ex.getMessage(), ex.getSqlState(), ex);
         } catch (Throwable t) {
@@ -130,13 +395,353 @@ public class OutputHandlingStatement<T extends java.sql.Connection> extends Abst
     }
 
 
+    /**
+     * Executes the scripts of a batch using the executors given: the output
+     * of the whole batch is handled by a single {@code UpdateScriptOutputHandler}.
+     *
+     * @param scripts the scripts of the batch
+     * @param scriptExecutor the executor used to capture the output as bytes
+     * @param characterScriptExecutor the executor used to capture the output
+     *      as characters, or {@code null} if the output must be captured as bytes
+     * @return the update counts, in the order of the scripts
+     * @throws SQLException if the execution fails: a {@code BatchUpdateException}
+     *      reports the update counts of the scripts processed
+     */
+    protected final int[] executeBatchInternal(
+            List<String> scripts,
+            OutputCapturingScriptExecutor scriptExecutor,
+            CharacterOutputCapturingScriptExecutor characterScriptExecutor) throws SQLException {
+
+        if (scripts.isEmpty()) {
+            return new int[0];
+        }
+
+        UpdateScriptOutputHandler outputHandler = scriptOutputHandlerFactory.newUpdateScriptOutputHandler(
+                this, String.join(System.lineSeparator(), scripts));
+
+        try {
+            executeScriptBatchUsingOutputHandler(scripts, outputHandler, scriptExecutor, characterScriptExecutor);
+
+            int[] updateCounts = new int[scripts.size()];
+            Arrays.fill(updateCounts, outputHandler.getUpdateCount());
+
+            return updateCounts;
+
+        } catch (BatchScriptExecutionException be) {
+
+            int[] updateCounts = new int[be.getProcessedScriptCount()];
+            Arrays.fill(updateCounts, outputHandler.getUpdateCount());
+            for (int failedScriptIndex : be.getFailedScriptIndexes()) {
+                if (failedScriptIndex < updateCounts.length) {
+                    updateCounts[failedScriptIndex] = Statement.EXECUTE_FAILED;
+                }
+            }
+
+            throw raiseBatchUpdateException(be, updateCounts);
+
+        } catch (ScriptExecutionException | OutputDisabledError e) {
+            throw raiseBatchUpdateException(e, new int[0]);
+        } catch (SQLException sqle) {
+            throw sqle;
+        } catch (RuntimeDyna4JdbcException ex) {
+            throw new BatchUpdateException(ex.getMessage(), ex.getSqlState(), new int[0], ex);
+        } catch (Throwable t) {
+            String message = ExceptionUtils.getRootCauseMessage(t);
+            throw JDBCError.UNEXPECTED_THROWABLE.raiseBatchUpdateException(new int[0], t, message);
+        }
+    }
+
+    private static BatchUpdateException raiseBatchUpdateException(
+            Throwable throwable, int[] updateCounts) throws BatchUpdateException {
+
+        // the cause is kept: it reports the failed scripts of the batch
+        Throwable rootCause = ExceptionUtils.getRootCause(throwable);
+        if (rootCause instanceof OutputDisabledError) {
+            throw JDBCError.USING_STDOUT_FROM_UPDATE.raiseBatchUpdateException(
+                    updateCounts, throwable, rootCause.getMessage());
+        }
+
+        throw JDBCError.SCRIPT_EXECUTION_EXCEPTION.raiseBatchUpdateException(
+                updateCounts, throwable, rootCause.getMessage());
+    }
+
+    private void executeScriptBatchUsingOutputHandler(
+            List<String> scripts,
+            ScriptOutputHandler scriptOutputHandler,
+            OutputCapturingScriptExecutor scriptExecutor,
+            CharacterOutputCapturingScriptExecutor characterScriptExecutor)
+            throws ScriptExecutionException, IOException, SQLException {
+
+        OutputStream outOutputStream = scriptOutputHandler.getOutOutputStream();
+        OutputStream errorOutputStream = scriptOutputHandler.getErrorOutputStream();
+
+        executeCancellably(scriptExecutor, () -> {
+            if (characterScriptExecutor != null) {
+                characterScriptExecutor.executeScriptBatchUsingWriters(
+                        scripts, scriptOutputHandler.getOutWriter(), scriptOutputHandler.getErrorWriter());
+            } else {
+                scriptExecutor.executeScriptBatchUsingStreams(scripts, outOutputStream, errorOutputStream);
+            }
+        });
+
+        completeOutput(outOutputStream, errorOutputStream);
+    }
+
     private void executeScriptUsingOutputHandler(
-            String script, ScriptOutputHandler scriptOutputHandler) throws ScriptExecutionException, IOException {
+            String script,
+            ScriptOutputHandler scriptOutputHandler,
+            OutputCapturingScriptExecutor scriptExecutor,
+            CharacterOutputCapturingScriptExecutor characterScriptExecutor)
+            throws ScriptExecutionException, IOException, SQLException {
 
         OutputStream outOutputStream = scriptOutputHandler.getOutOutputStream();
         OutputStream errorOutputStream = scriptOutputHandler.getErrorOutputStream();
 
-        executeScriptUsingCustomWriters(script, outOutputStream, errorOutputStream);
+        try {
+            executeCancellably(scriptExecutor, () -> {
+                if (characterScriptExecutor != null) {
+                    // the Writers are views of the streams: closing the streams below completes the output
+                    characterScriptExecutor.executeScriptUsingWriters(
+                            script, scriptOutputHandler.getOutWriter(), scriptOutputHandler.getErrorWriter());
+                } else {
+                    scriptExecutor.executeScriptUsingStreams(script, outOutputStream, errorOutputStream);
+                }
+            });
+        } catch (ScriptExecutionException | RuntimeException | OutputLimitReachedError e) {
+            if (!(ExceptionUtils.getRootCause(e) instanceof OutputLimitReachedError)) {
+                throw e;
+            }
+            // the script has been stopped, since all rows requested (see setMaxRows) are captured,
+            // or the output has been abandoned by the consumer of a streaming ResultSet
+        }
+
+        completeOutput(outOutputStream, errorOutputStream);
+    }
+
+    /**
+     * Execution of a script (or batch) by an executor.
+     */
+    @FunctionalInterface
+    private interface ScriptRun {
+        void run() throws ScriptExecutionException, IOException;
+    }
+
+    /*
+     * Runs the script, so that it can be cancelled via cancel(). If a query timeout
+     * is set, the script is run on a managed thread, while the calling thread waits
+     * until the deadline at most: the execution is then cancelled, and the calling
+     * thread returns even if the script ignores the cancellation. If the execution
+     * has been cancelled, the cancellation is reported, instead of its outcome.
+     * The execution is counted in the DriverMetrics, if enabled: a batch counts as
+     * one execution.
+     */
+    private void executeCancellably(OutputCapturingScriptExecutor scriptExecutor, ScriptRun scriptRun)
+            throws ScriptExecutionException, IOException, SQLException {
+
+        final int queryTimeout = getQueryTimeout();
+
+        if (recordMetrics) {
+            DriverMetrics.getInstance().statementStarted();
+        }
+        final long startNanos = System.nanoTime();
+
+        CancellableExecution execution = new CancellableExecution(scriptExecutor);
+        activeExecutions.add(execution);
+        try {
+            if (queryTimeout == 0) {
+                execution.run(scriptRun);
+            } else {
+                runWithDeadline(execution, scriptRun, queryTimeout);
+            }
+        } catch (ScriptExecutionException | IOException | RuntimeException | Error e) {
+            // e.g. the script failed because it was interrupted
+            throwIfCancelled(execution, queryTimeout);
+            throw e;
+        } finally {
+            activeExecutions.remove(execution);
+
+            if (recordMetrics) {
+                DriverMetrics.getInstance().statementCompleted(System.nanoTime() - startNanos);
+            }
+        }
+
+        throwIfCancelled(execution, queryTimeout);
+    }
+
+    private static void runWithDeadline(CancellableExecution execution, ScriptRun scriptRun, int queryTimeout)
+            throws ScriptExecutionException, IOException {
+
+        Future<?> future = TIMED_EXECUTION_EXECUTOR.submit(() -> {
+            execution.run(scriptRun);
+            return null;
+        });
+
+        try {
+            future.get(queryTimeout, TimeUnit.SECONDS);
+
+        } catch (TimeoutException e) {
+            execution.cancel(JDBCError.QUERY_TIMEOUT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            execution.cancel(JDBCError.STATEMENT_CANCELLED);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ScriptExecutionException) {
+                throw (ScriptExecutionException) cause;
+            } else if (cause instanceof IOException) {
+                throw (IOException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+
+            throw new ScriptExecutionException(cause);
+        }
+    }
+
+    private static void throwIfCancelled(CancellableExecution execution, int queryTimeout) throws SQLException {
+        JDBCError cancellation = execution.getCancellation();
+        if (cancellation == JDBCError.QUERY_TIMEOUT) {
+            throw JDBCError.QUERY_TIMEOUT.raiseSQLException(queryTimeout);
+        } else if (cancellation != null) {
+            throw cancellation.raiseSQLException();
+        }
+    }
+
+    /**
+     * Execution of a statement method returning a {@code ResultSet}.
+     */
+    @FunctionalInterface
+    private interface ResultSetExecution {
+        ResultSet execute() throws SQLException;
+    }
+
+    /**
+     * An asynchronous execution: cancelling the future cancels the executions
+     * requested by the thread executing it.
+     */
+    private final class AsyncExecution extends CompletableFuture<ResultSet> implements Runnable {
+
+        private final ResultSetExecution resultSetExecution;
+
+        // guarded by this
+        private Thread executingThread;
+
+        private AsyncExecution(ResultSetExecution resultSetExecution) {
+            this.resultSetExecution = resultSetExecution;
+        }
+
+        @Override
+        public void run() {
+            synchronized (this) {
+                if (isDone()) {
+                    return;
+                }
+                executingThread = Thread.currentThread();
+            }
+
+            try {
+                ResultSet resultSet = resultSetExecution.execute();
+                if (!complete(resultSet) && resultSet != null) {
+                    // cancelled in the meantime: nobody is going to close it
+                    resultSet.close();
+                }
+            } catch (Throwable t) {
+                completeExceptionally(t);
+            } finally {
+                synchronized (this) {
+                    executingThread = null;
+                    // the interrupt (if any) was meant for the execution: the thread is reused
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled) {
+                synchronized (this) {
+                    if (executingThread != null) {
+                        executingThread.interrupt();
+                        cancelExecutionsRequestedBy(executingThread);
+                    }
+                }
+            }
+
+            return cancelled;
+        }
+    }
+
+    private void cancelExecutionsRequestedBy(Thread requestingThread) {
+        for (CancellableExecution execution : activeExecutions) {
+            if (execution.requestingThread == requestingThread) {
+                execution.cancel(JDBCError.STATEMENT_CANCELLED);
+            }
+        }
+    }
+
+    /**
+     * An execution in progress, which can be cancelled from another thread.
+     */
+    private static final class CancellableExecution {
+
+        private final OutputCapturingScriptExecutor scriptExecutor;
+        private final Thread requestingThread = Thread.currentThread();
+
+        // guarded by this
+        private Thread executingThread;
+        private JDBCError cancellation;
+
+        private CancellableExecution(OutputCapturingScriptExecutor scriptExecutor) {
+            this.scriptExecutor = scriptExecutor;
+        }
+
+        private void run(ScriptRun scriptRun) throws ScriptExecutionException, IOException {
+            synchronized (this) {
+                if (cancellation != null) {
+                    return;
+                }
+                executingThread = Thread.currentThread();
+            }
+
+            try {
+                scriptRun.run();
+            } finally {
+                synchronized (this) {
+                    executingThread = null;
+                    if (cancellation != null) {
+                        // the interrupt was meant for the script: do not leave the thread interrupted
+                        Thread.interrupted();
+                    }
+                }
+            }
+        }
+
+        private void cancel(JDBCError reason) {
+            synchronized (this) {
+                if (cancellation != null) {
+                    return;
+                }
+
+                cancellation = reason;
+                if (executingThread != null) {
+                    executingThread.interrupt();
+                }
+            }
+
+            // outside of the lock: e.g. terminating a process might take a while
+            scriptExecutor.cancelExecution();
+        }
+
+        private synchronized JDBCError getCancellation() {
+            return cancellation;
+        }
+    }
+
+    private static void completeOutput(
+            OutputStream outOutputStream, OutputStream errorOutputStream) throws IOException {
 
         if (outOutputStream != null) {
             outOutputStream.flush();
@@ -148,12 +753,4 @@ public class OutputHandlingStatement<T extends java.sql.Connection> extends Abst
             errorOutputStream.close();
         }
     }
-
-    private void executeScriptUsingCustomWriters(final String script, OutputStream outWriter, OutputStream errorWriter)
-            throws ScriptExecutionException {
-
-
-        outputCapturingScriptExecutor.executeScriptUsingStreams(script, outWriter, errorWriter);
-
-    }
 }
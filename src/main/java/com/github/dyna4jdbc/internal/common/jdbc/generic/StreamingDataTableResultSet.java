@@ -0,0 +1,107 @@
+package com.github.dyna4jdbc.internal.common.jdbc.generic;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.datamodel.DataTable;
+import com.github.dyna4jdbc.internal.common.jdbc.base.DataRowListResultSet;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandlerFactory;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * <p>
+ * {@code ResultSet} yielding the rows of a script, which is still running.
+ * Column types are inferred from the look-ahead window (the first rows
+ * captured), hence the metadata is available before the script completes.</p>
+ * <p>
+ * Since rows after the look-ahead window are not considered during type inference,
+ * a value emitted later might not be convertible to the inferred type: {@code getString}
+ * always returns the raw value, while the typed getters raise {@code DATA_CONVERSION_FAILED}
+ * for such cells. Cells beyond the column count of the look-ahead window are not accessible.</p>
+ *
+ * @author Peter Horvath
+ */
+public final class StreamingDataTableResultSet extends DataRowListResultSet<List<String>> {
+
+    private final DataTable lookAheadDataTable;
+    private final Runnable releaseAction;
+    private final int columnCount;
+
+    public StreamingDataTableResultSet(
+            Statement statement,
+            DataTable lookAheadDataTable,
+            Iterator<List<String>> remainingRowIterator,
+            TypeHandlerFactory typeHandlerFactory,
+            Runnable releaseAction,
+            int maxRows) {
+
+        super(concat(lookAheadDataTable.iterator(), remainingRowIterator), statement,
+                DataTableHolderResultSet.initTypeHandlers(lookAheadDataTable, typeHandlerFactory));
+        setMaxRows(maxRows);
+
+        this.lookAheadDataTable = lookAheadDataTable;
+        this.releaseAction = releaseAction;
+        this.columnCount = getTypeHandlers().size();
+
+        if (DataTableHolderResultSet.checkFirstRowIsSkipped(getTypeHandlers())) {
+            super.skipNextRowIfPresent();
+        }
+    }
+
+    private static Iterator<List<String>> concat(
+            Iterator<List<String>> firstIterator, Iterator<List<String>> secondIterator) {
+
+        return new Iterator<List<String>>() {
+            @Override
+            public boolean hasNext() {
+                return firstIterator.hasNext() || secondIterator.hasNext();
+            }
+
+            @Override
+            public List<String> next() {
+                if (firstIterator.hasNext()) {
+                    return firstIterator.next();
+                }
+
+                return secondIterator.next();
+            }
+        };
+    }
+
+    @Override
+    protected void closeInternal() throws SQLException {
+        releaseAction.run();
+        lookAheadDataTable.clear();
+
+        super.closeInternal();
+    }
+
+    @Override
+    protected String getRawCellValueBySqlColumnIndex(int sqlColumnIndex) throws SQLException {
+
+        final int javaIndex = sqlColumnIndex - 1;
+
+        List<String> currentRow = getCurrentRow();
+
+        if (!(javaIndex >= 0 && javaIndex < columnCount)) {
+            throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseSQLException(
+                    "Invalid index: " + sqlColumnIndex);
+        }
+
+        String cellValue;
+        if (javaIndex < currentRow.size()) {
+            cellValue = currentRow.get(javaIndex);
+        } else {
+            cellValue = null;
+        }
+
+        return cellValue;
+    }
+
+    @Override
+    public String getCursorName() throws SQLException {
+        throw JDBCError.JDBC_FUNCTION_NOT_SUPPORTED.raiseSQLException("Retrieval of cursor name");
+    }
+}
@@ -0,0 +1,378 @@
+package com.github.dyna4jdbc.internal.common.jdbc.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.jdbc.base.AbstractConnection;
+import com.github.dyna4jdbc.internal.common.util.concurrent.DaemonThreadFactory;
+
+/**
+ * A pool of connections, which are expensive to open (e.g. bootstrapping a
+ * script engine might take seconds).
+ *
+ * <p>
+ * The pool keeps at least {@code minIdle} idle connections opened in advance
+ * (pre-warming), and at most {@code maxIdle} ones: a connection requested while
+ * none is idle is opened on the calling thread, and a connection returned while
+ * {@code maxIdle} ones are idle is closed. An optional warm-up script is executed
+ * on each connection opened. Idle connections are checked periodically: the ones
+ * idle for longer than the idle timeout are closed (above {@code minIdle}), and the
+ * ones failing the health check (the optional validation script) are replaced.
+ * The health check is also performed when an idle connection is handed out.
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+public final class ConnectionPool implements AutoCloseable {
+
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    private static final long MAINTENANCE_INTERVAL_SECONDS = 5;
+
+    private static final ScheduledExecutorService MAINTENANCE_EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor(new DaemonThreadFactory("dyna4jdbc-pool-maintenance"));
+
+    private final ConnectionSupplier connectionSupplier;
+    private final int minIdle;
+    private final int maxIdle;
+    private final long idleTimeoutNanos;
+    private final String warmUpScript;
+    private final String validationScript;
+
+    private final ConnectionEventListener returnListener = new ReturnListener();
+
+    // guarded by this: the most recently returned connection is the first one
+    private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+    private boolean closed;
+
+    // null if the pool is maintained by explicit calls of maintain() only
+    private final ScheduledFuture<?> maintenanceTask;
+
+    /**
+     * Creates a pool, and starts opening {@code minIdle} connections in the background.
+     *
+     * @param connectionSupplier opens the physical connections
+     * @param minIdle the number of idle connections kept open in advance
+     * @param maxIdle the maximum number of idle connections kept open
+     * @param idleTimeoutMillis the time after which an idle connection above {@code minIdle}
+     *      is closed, or {@code 0} if idle connections are never closed
+     * @param warmUpScript the script executed on each connection opened, or {@code null}
+     * @param validationScript the script executed to check the health of an idle
+     *      connection, or {@code null} if only closed connections are considered unhealthy
+     */
+    public ConnectionPool(ConnectionSupplier connectionSupplier, int minIdle, int maxIdle, long idleTimeoutMillis,
+                          String warmUpScript, String validationScript) {
+
+        this(connectionSupplier, minIdle, maxIdle, idleTimeoutMillis, warmUpScript, validationScript, true);
+    }
+
+    /*
+     * Creates a pool, which is maintained only by explicit calls of maintain(), if
+     * scheduleMaintenance is false: used by the tests, to avoid racing the background task.
+     */
+    ConnectionPool(ConnectionSupplier connectionSupplier, int minIdle, int maxIdle, long idleTimeoutMillis,
+                   String warmUpScript, String validationScript, boolean scheduleMaintenance) {
+
+        if (minIdle < 0 || maxIdle < minIdle || idleTimeoutMillis < 0) {
+            throw JDBCError.JDBC_API_USAGE_CALLER_ERROR.raiseUncheckedException(String.format(
+                    "Invalid pool settings: minIdle=%s, maxIdle=%s, idleTimeoutMillis=%s",
+                    minIdle, maxIdle, idleTimeoutMillis));
+        }
+
+        this.connectionSupplier = connectionSupplier;
+        this.minIdle = minIdle;
+        this.maxIdle = maxIdle;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.warmUpScript = warmUpScript;
+        this.validationScript = validationScript;
+
+        if (scheduleMaintenance) {
+            this.maintenanceTask = MAINTENANCE_EXECUTOR.scheduleWithFixedDelay(
+                    this::maintainSafely, 0, MAINTENANCE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        } else {
+            this.maintenanceTask = null;
+        }
+    }
+
+    /**
+     * Returns a logical connection: closing it returns the physical connection to the pool.
+     *
+     * @return the connection
+     * @throws SQLException if the pool is closed, or a new connection cannot be opened
+     */
+    public Connection getConnection() throws SQLException {
+        GenericPooledConnection pooledConnection;
+        while ((pooledConnection = pollIdleConnection()) != null) {
+            if (isHealthy(pooledConnection)) {
+                return pooledConnection.getConnection();
+            }
+
+            closeQuietly(pooledConnection);
+        }
+
+        return openPooledConnection().getConnection();
+    }
+
+    /**
+     * @return the number of idle connections
+     */
+    public synchronized int getIdleCount() {
+        return idleConnections.size();
+    }
+
+    /**
+     * Closes the idle connections: the connections in use are closed when returned.
+     */
+    @Override
+    public void close() {
+        if (maintenanceTask != null) {
+            maintenanceTask.cancel(false);
+        }
+
+        List<IdleConnection> connectionsToClose = new ArrayList<>();
+        synchronized (this) {
+            closed = true;
+            for (IdleConnection idleConnection : idleConnections) {
+                // the one being health checked is closed by maintain()
+                if (!idleConnection.validating) {
+                    connectionsToClose.add(idleConnection);
+                }
+            }
+            idleConnections.clear();
+        }
+
+        for (IdleConnection idleConnection : connectionsToClose) {
+            closeQuietly(idleConnection.pooledConnection);
+        }
+    }
+
+    /**
+     * Closes the connections idle for too long and the unhealthy ones, then
+     * opens new connections until {@code minIdle} connections are idle. The idle
+     * connections are health checked one at a time: the others can be borrowed
+     * in the meantime, instead of new connections being opened for the callers.
+     *
+     * @throws SQLException if a new connection cannot be opened
+     */
+    void maintain() throws SQLException {
+        for (GenericPooledConnection expiredConnection : pollExpiredConnections()) {
+            closeQuietly(expiredConnection);
+        }
+
+        for (IdleConnection idleConnection : getIdleConnections()) {
+            if (startValidation(idleConnection)) {
+                boolean healthy = isHealthy(idleConnection.pooledConnection);
+                if (!endValidation(idleConnection, healthy)) {
+                    closeQuietly(idleConnection.pooledConnection);
+                }
+            }
+        }
+
+        while (needsIdleConnection()) {
+            addIdleConnection(openPooledConnection(), System.nanoTime());
+        }
+    }
+
+    private void maintainSafely() {
+        try {
+            maintain();
+        } catch (SQLException | RuntimeException e) {
+            // retried by the next maintenance run
+            LOGGER.log(Level.WARNING, "Pool maintenance failed: " + e.getMessage(), e);
+        }
+    }
+
+    /*
+     * Removes and returns the connections expired due to the idle timeout, above minIdle.
+     */
+    private synchronized List<GenericPooledConnection> pollExpiredConnections() {
+        List<GenericPooledConnection> expiredConnections = new ArrayList<>();
+        if (idleTimeoutNanos == 0) {
+            return expiredConnections;
+        }
+
+        final long now = System.nanoTime();
+        int remaining = idleConnections.size();
+
+        // the least recently returned connections are at the end
+        Iterator<IdleConnection> iterator = idleConnections.descendingIterator();
+        while (iterator.hasNext() && remaining > minIdle) {
+            IdleConnection idleConnection = iterator.next();
+            if (!idleConnection.validating && now - idleConnection.idleSinceNanos > idleTimeoutNanos) {
+                iterator.remove();
+                expiredConnections.add(idleConnection.pooledConnection);
+                remaining--;
+            }
+        }
+
+        return expiredConnections;
+    }
+
+    private synchronized List<IdleConnection> getIdleConnections() {
+        return new ArrayList<>(idleConnections);
+    }
+
+    /*
+     * Marks the connection as being health checked, unless it has been borrowed
+     * since: it stays in place, but it is not handed out until the check ends.
+     */
+    private synchronized boolean startValidation(IdleConnection idleConnection) {
+        if (closed || !idleConnections.contains(idleConnection)) {
+            return false;
+        }
+
+        idleConnection.validating = true;
+        return true;
+    }
+
+    /*
+     * Returns whether the connection stays idle: if false, it has been removed and has to be closed.
+     */
+    private synchronized boolean endValidation(IdleConnection idleConnection, boolean healthy) {
+        idleConnection.validating = false;
+        if (healthy && !closed) {
+            return true;
+        }
+
+        idleConnections.remove(idleConnection);
+        return false;
+    }
+
+    private synchronized GenericPooledConnection pollIdleConnection() throws SQLException {
+        if (closed) {
+            throw JDBCError.OBJECT_CLOSED.raiseSQLException(this);
+        }
+
+        Iterator<IdleConnection> iterator = idleConnections.iterator();
+        while (iterator.hasNext()) {
+            IdleConnection idleConnection = iterator.next();
+            // the one being health checked by maintain() is skipped
+            if (!idleConnection.validating) {
+                iterator.remove();
+                return idleConnection.pooledConnection;
+            }
+        }
+
+        return null;
+    }
+
+    private synchronized boolean needsIdleConnection() {
+        return !closed && idleConnections.size() < minIdle;
+    }
+
+    private void addIdleConnection(GenericPooledConnection pooledConnection, long idleSinceNanos) {
+        synchronized (this) {
+            if (!closed && idleConnections.size() < maxIdle) {
+                idleConnections.addFirst(new IdleConnection(pooledConnection, idleSinceNanos));
+                return;
+            }
+        }
+
+        closeQuietly(pooledConnection);
+    }
+
+    private GenericPooledConnection openPooledConnection() throws SQLException {
+        Connection connection = connectionSupplier.newConnection();
+        if (!(connection instanceof AbstractConnection)) {
+            throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseSQLException(
+                    "Connection cannot be pooled: " + connection);
+        }
+
+        AbstractConnection physicalConnection = (AbstractConnection) connection;
+        if (warmUpScript != null) {
+            try {
+                executeScript(physicalConnection, warmUpScript);
+            } catch (SQLException | RuntimeException e) {
+                physicalConnection.close();
+                throw e;
+            }
+        }
+
+        GenericPooledConnection pooledConnection = new GenericPooledConnection(physicalConnection);
+        pooledConnection.addConnectionEventListener(returnListener);
+
+        return pooledConnection;
+    }
+
+    private boolean isHealthy(GenericPooledConnection pooledConnection) {
+        AbstractConnection physicalConnection = pooledConnection.getPhysicalConnection();
+        if (physicalConnection.isClosed()) {
+            return false;
+        }
+
+        if (validationScript != null) {
+            try {
+                executeScript(physicalConnection, validationScript);
+            } catch (SQLException | RuntimeException e) {
+                LOGGER.log(Level.FINE, "Health check failed: " + physicalConnection, e);
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void executeScript(AbstractConnection physicalConnection, String script) throws SQLException {
+        try (Statement statement = physicalConnection.createStatement()) {
+            // execute() accepts both update and query scripts
+            statement.execute(script);
+        }
+    }
+
+    private static void closeQuietly(GenericPooledConnection pooledConnection) {
+        try {
+            pooledConnection.close();
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.FINE, "Closing pooled connection failed: " + pooledConnection, e);
+        }
+    }
+
+    /**
+     * Puts the connections closed by the user back to the pool.
+     */
+    private final class ReturnListener implements ConnectionEventListener {
+
+        @Override
+        public void connectionClosed(ConnectionEvent event) {
+            addIdleConnection((GenericPooledConnection) event.getSource(), System.nanoTime());
+        }
+
+        @Override
+        public void connectionErrorOccurred(ConnectionEvent event) {
+            closeQuietly((GenericPooledConnection) event.getSource());
+        }
+    }
+
+    /**
+     * An idle connection, and the time it has become idle.
+     */
+    private static final class IdleConnection {
+
+        private final GenericPooledConnection pooledConnection;
+        private final long idleSinceNanos;
+
+        // guarded by the pool: true while health checked by maintain()
+        private boolean validating;
+
+        private IdleConnection(GenericPooledConnection pooledConnection, long idleSinceNanos) {
+            this.pooledConnection = pooledConnection;
+            this.idleSinceNanos = idleSinceNanos;
+        }
+    }
+}
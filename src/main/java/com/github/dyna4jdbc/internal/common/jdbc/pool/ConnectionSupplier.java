@@ -0,0 +1,21 @@
+package com.github.dyna4jdbc.internal.common.jdbc.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Opens the physical connections of a {@link ConnectionPool}.
+ *
+ * @author Peter Horvath
+ */
+@FunctionalInterface
+public interface ConnectionSupplier {
+
+    /**
+     * Opens a new physical connection.
+     *
+     * @return the connection (never {@code null})
+     * @throws SQLException if the connection cannot be opened
+     */
+    Connection newConnection() throws SQLException;
+}
@@ -0,0 +1,182 @@
+package com.github.dyna4jdbc.internal.common.jdbc.pool;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.ConnectionEvent;
+import javax.sql.ConnectionEventListener;
+import javax.sql.PooledConnection;
+import javax.sql.StatementEventListener;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.jdbc.base.AbstractConnection;
+
+/**
+ * A physical connection, which hands out logical connections one after
+ * the other. Closing a logical connection resets the physical connection
+ * (see {@link AbstractConnection#resetForReuse()}) and notifies the listeners:
+ * the physical connection can then be handed out again.
+ *
+ * @author Peter Horvath
+ */
+public final class GenericPooledConnection implements PooledConnection {
+
+    private final AbstractConnection physicalConnection;
+    private final List<ConnectionEventListener> connectionEventListeners = new CopyOnWriteArrayList<>();
+
+    // guarded by this
+    private LogicalConnectionHandler currentHandler;
+
+    public GenericPooledConnection(AbstractConnection physicalConnection) {
+        this.physicalConnection = physicalConnection;
+    }
+
+    AbstractConnection getPhysicalConnection() {
+        return physicalConnection;
+    }
+
+    /**
+     * Returns a new logical connection: a logical connection returned
+     * previously is closed (without notifying the listeners).
+     *
+     * @return the logical connection
+     * @throws SQLException if the physical connection is closed
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (physicalConnection.isClosed()) {
+            throw JDBCError.OBJECT_CLOSED.raiseSQLException(this);
+        }
+
+        LogicalConnectionHandler handler = new LogicalConnectionHandler();
+        synchronized (this) {
+            if (currentHandler != null) {
+                currentHandler.closed = true;
+            }
+            currentHandler = handler;
+        }
+
+        return (Connection) Proxy.newProxyInstance(
+                GenericPooledConnection.class.getClassLoader(), new Class<?>[] {Connection.class}, handler);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        synchronized (this) {
+            if (currentHandler != null) {
+                currentHandler.closed = true;
+                currentHandler = null;
+            }
+        }
+
+        physicalConnection.close();
+    }
+
+    @Override
+    public void addConnectionEventListener(ConnectionEventListener listener) {
+        connectionEventListeners.add(listener);
+    }
+
+    @Override
+    public void removeConnectionEventListener(ConnectionEventListener listener) {
+        connectionEventListeners.remove(listener);
+    }
+
+    @Override
+    public void addStatementEventListener(StatementEventListener listener) {
+        // no-op: statements are not pooled, hence no statement events are ever raised
+    }
+
+    @Override
+    public void removeStatementEventListener(StatementEventListener listener) {
+        // no-op: statements are not pooled, hence no statement events are ever raised
+    }
+
+    @Override
+    public String toString() {
+        return "GenericPooledConnection{" + physicalConnection + "}";
+    }
+
+    private void closeLogicalConnection(LogicalConnectionHandler handler) {
+        synchronized (this) {
+            if (handler.closed) {
+                return;
+            }
+            handler.closed = true;
+            currentHandler = null;
+        }
+
+        try {
+            physicalConnection.resetForReuse();
+        } catch (SQLException resetFailure) {
+            // e.g. the physical connection has been closed or aborted by the user
+            ConnectionEvent event = new ConnectionEvent(this, resetFailure);
+            for (ConnectionEventListener listener : connectionEventListeners) {
+                listener.connectionErrorOccurred(event);
+            }
+            return;
+        }
+
+        ConnectionEvent event = new ConnectionEvent(this);
+        for (ConnectionEventListener listener : connectionEventListeners) {
+            listener.connectionClosed(event);
+        }
+    }
+
+    /**
+     * Delegates the calls of a logical connection to the physical connection,
+     * until the logical connection is closed.
+     */
+    private final class LogicalConnectionHandler implements InvocationHandler {
+
+        // guarded by GenericPooledConnection.this
+        private boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    closeLogicalConnection(this);
+                    return null;
+
+                case "isClosed":
+                    return isClosed();
+
+                case "isValid":
+                    return !isClosed() && physicalConnection.isValid((Integer) args[0]);
+
+                case "equals":
+                    return proxy == args[0];
+
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+
+                case "toString":
+                    return "LogicalConnection{" + physicalConnection + "}";
+
+                default:
+                    if (isClosed()) {
+                        throw JDBCError.OBJECT_CLOSED.raiseSQLException(proxy);
+                    }
+
+                    try {
+                        return method.invoke(physicalConnection, args);
+                    } catch (InvocationTargetException ite) {
+                        throw ite.getCause();
+                    }
+            }
+        }
+
+        private boolean isClosed() {
+            synchronized (GenericPooledConnection.this) {
+                return closed;
+            }
+        }
+    }
+}
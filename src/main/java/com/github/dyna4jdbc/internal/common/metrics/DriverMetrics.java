@@ -0,0 +1,242 @@
+package com.github.dyna4jdbc.internal.common.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The metrics of the driver: a single instance per class loader, registered in the platform
+ * {@code MBeanServer} as {@link #OBJECT_NAME} when first used. All counters are lock-free,
+ * since they are updated by every statement of the connections enabling the metrics.
+ *
+ * @author Peter Horvath
+ */
+public final class DriverMetrics implements DriverMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.github.dyna4jdbc:type=DriverMetrics";
+
+    private static final Logger LOGGER = Logger.getLogger(DriverMetrics.class.getName());
+
+    private final ConcurrentHashMap<String, LongAdder> activeConnections = new ConcurrentHashMap<>();
+
+    private final LongAdder statementsExecuted = new LongAdder();
+    private final LongAdder statementsInFlight = new LongAdder();
+    private final LongAdder rowsCaptured = new LongAdder();
+    private final LongAdder bytesCaptured = new LongAdder();
+
+    private final LatencyHistogram executionLatency = new LatencyHistogram();
+    private final LatencyHistogram inferenceLatency = new LatencyHistogram();
+    private final LatencyHistogram conversionLatency = new LatencyHistogram();
+
+    private final LongAdder compiledScriptCacheHits = new LongAdder();
+    private final LongAdder compiledScriptCacheMisses = new LongAdder();
+    private final LongAdder compiledScriptCacheEvictions = new LongAdder();
+
+    private final Set<IntSupplier> processOutputQueues = ConcurrentHashMap.newKeySet();
+
+    private static final class InstanceHolder {
+        private static final DriverMetrics INSTANCE = registerPlatformMBean(new DriverMetrics());
+    }
+
+    DriverMetrics() {
+        // instances are created by getInstance(), except in tests
+    }
+
+    public static DriverMetrics getInstance() {
+        return InstanceHolder.INSTANCE;
+    }
+
+    private static DriverMetrics registerPlatformMBean(DriverMetrics driverMetrics) {
+        try {
+            MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+            mBeanServer.registerMBean(driverMetrics, new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException ex) {
+            // e.g. the driver is loaded by multiple class loaders: the metrics are still collected
+            LOGGER.log(Level.WARNING, "Could not register MBean " + OBJECT_NAME + ": " + ex.getMessage(), ex);
+        }
+
+        return driverMetrics;
+    }
+
+    public void connectionOpened(String connectionType) {
+        activeConnections.computeIfAbsent(connectionType, key -> new LongAdder()).increment();
+    }
+
+    public void connectionClosed(String connectionType) {
+        activeConnections.computeIfAbsent(connectionType, key -> new LongAdder()).decrement();
+    }
+
+    public void statementStarted() {
+        statementsInFlight.increment();
+    }
+
+    public void statementCompleted(long executionNanos) {
+        statementsInFlight.decrement();
+        statementsExecuted.increment();
+        executionLatency.record(executionNanos);
+    }
+
+    public void outputCaptured(long rows, long bytes) {
+        rowsCaptured.add(rows);
+        bytesCaptured.add(bytes);
+    }
+
+    public void typesInferred(long inferenceNanos) {
+        inferenceLatency.record(inferenceNanos);
+    }
+
+    public void columnsConverted(long conversionNanos) {
+        conversionLatency.record(conversionNanos);
+    }
+
+    public void compiledScriptCacheHit() {
+        compiledScriptCacheHits.increment();
+    }
+
+    public void compiledScriptCacheMiss() {
+        compiledScriptCacheMisses.increment();
+    }
+
+    public void compiledScriptCacheEviction() {
+        compiledScriptCacheEvictions.increment();
+    }
+
+    /**
+     * @param queuedOutputChunks supplies the number of chunks of output of the process queued
+     *      for consumption; it identifies the process for {@link #processTerminated(IntSupplier)}
+     */
+    public void processStarted(IntSupplier queuedOutputChunks) {
+        processOutputQueues.add(queuedOutputChunks);
+    }
+
+    public void processTerminated(IntSupplier queuedOutputChunks) {
+        processOutputQueues.remove(queuedOutputChunks);
+    }
+
+    @Override
+    public Map<String, Long> getActiveConnections() {
+        Map<String, Long> connections = new TreeMap<>();
+        activeConnections.forEach((connectionType, count) -> connections.put(connectionType, count.sum()));
+
+        return connections;
+    }
+
+    @Override
+    public long getStatementsExecuted() {
+        return statementsExecuted.sum();
+    }
+
+    @Override
+    public long getStatementsInFlight() {
+        return statementsInFlight.sum();
+    }
+
+    @Override
+    public long getRowsCaptured() {
+        return rowsCaptured.sum();
+    }
+
+    @Override
+    public long getBytesCaptured() {
+        return bytesCaptured.sum();
+    }
+
+    @Override
+    public long[] getLatencyBucketUpperBoundsMicros() {
+        return LatencyHistogram.getBucketUpperBoundsMicros();
+    }
+
+    @Override
+    public long[] getExecutionLatencyHistogram() {
+        return executionLatency.getBucketCounts();
+    }
+
+    @Override
+    public double getExecutionLatencyMeanMicros() {
+        return executionLatency.getMeanMicros();
+    }
+
+    @Override
+    public long[] getInferenceLatencyHistogram() {
+        return inferenceLatency.getBucketCounts();
+    }
+
+    @Override
+    public double getInferenceLatencyMeanMicros() {
+        return inferenceLatency.getMeanMicros();
+    }
+
+    @Override
+    public long[] getConversionLatencyHistogram() {
+        return conversionLatency.getBucketCounts();
+    }
+
+    @Override
+    public double getConversionLatencyMeanMicros() {
+        return conversionLatency.getMeanMicros();
+    }
+
+    @Override
+    public long getCompiledScriptCacheHits() {
+        return compiledScriptCacheHits.sum();
+    }
+
+    @Override
+    public long getCompiledScriptCacheMisses() {
+        return compiledScriptCacheMisses.sum();
+    }
+
+    @Override
+    public long getCompiledScriptCacheEvictions() {
+        return compiledScriptCacheEvictions.sum();
+    }
+
+    @Override
+    public double getCompiledScriptCacheHitRate() {
+        final long hits = compiledScriptCacheHits.sum();
+        final long lookups = hits + compiledScriptCacheMisses.sum();
+        if (lookups == 0) {
+            return 0;
+        }
+
+        return hits / (double) lookups;
+    }
+
+    @Override
+    public int getRunningProcesses() {
+        return processOutputQueues.size();
+    }
+
+    @Override
+    public int getQueuedProcessOutputChunks() {
+        int queuedChunks = 0;
+        for (IntSupplier processOutputQueue : processOutputQueues) {
+            queuedChunks += processOutputQueue.getAsInt();
+        }
+
+        return queuedChunks;
+    }
+
+    @Override
+    public void reset() {
+        statementsExecuted.reset();
+        rowsCaptured.reset();
+        bytesCaptured.reset();
+        executionLatency.reset();
+        inferenceLatency.reset();
+        conversionLatency.reset();
+        compiledScriptCacheHits.reset();
+        compiledScriptCacheMisses.reset();
+        compiledScriptCacheEvictions.reset();
+    }
+}
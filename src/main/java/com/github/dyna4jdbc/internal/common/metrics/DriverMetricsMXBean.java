@@ -0,0 +1,98 @@
+package com.github.dyna4jdbc.internal.common.metrics;
+
+import java.util.Map;
+
+/**
+ * The metrics of the driver published via JMX (see {@link DriverMetrics#OBJECT_NAME}).
+ * Only the connections enabling {@code jmxMetrics} are counted.
+ *
+ * <p>
+ * The latency histograms share the buckets returned by
+ * {@link #getLatencyBucketUpperBoundsMicros()}. The phases measured are:
+ * </p>
+ * <ul>
+ *     <li>execution: the evaluation of the script, including capturing its output
+ *     (which is captured while the script writes it)</li>
+ *     <li>inference: the detection of the SQL types of the columns of a result</li>
+ *     <li>conversion: the conversion of the columns of a result, if converted once
+ *     ({@code materializeTypedColumns}); otherwise the values are converted when
+ *     retrieved, which is not measured</li>
+ * </ul>
+ *
+ * @author Peter Horvath
+ */
+public interface DriverMetricsMXBean {
+
+    /**
+     * @return the number of open connections by connection type: the name of
+     *      the script engine, or {@code process-runner}
+     */
+    Map<String, Long> getActiveConnections();
+
+    /**
+     * @return the number of statement executions completed (including failed ones)
+     */
+    long getStatementsExecuted();
+
+    /**
+     * @return the number of statement executions in progress
+     */
+    long getStatementsInFlight();
+
+    /**
+     * @return the number of rows captured from the output of the scripts
+     */
+    long getRowsCaptured();
+
+    /**
+     * @return the number of bytes of output captured (characters written
+     *      to the {@code Writer} of a script count as one byte each)
+     */
+    long getBytesCaptured();
+
+    /**
+     * @return the upper bound (exclusive) of each bucket of the latency histograms
+     *      in microseconds: {@code Long.MAX_VALUE} for the last one
+     */
+    long[] getLatencyBucketUpperBoundsMicros();
+
+    long[] getExecutionLatencyHistogram();
+
+    double getExecutionLatencyMeanMicros();
+
+    long[] getInferenceLatencyHistogram();
+
+    double getInferenceLatencyMeanMicros();
+
+    long[] getConversionLatencyHistogram();
+
+    double getConversionLatencyMeanMicros();
+
+    long getCompiledScriptCacheHits();
+
+    long getCompiledScriptCacheMisses();
+
+    long getCompiledScriptCacheEvictions();
+
+    /**
+     * @return the ratio of the hits of the compiled script caches to all lookups,
+     *      {@code 0} if there have been no lookups
+     */
+    double getCompiledScriptCacheHitRate();
+
+    /**
+     * @return the number of process runner processes started and not terminated yet
+     */
+    int getRunningProcesses();
+
+    /**
+     * @return the number of chunks of output read from the process runner processes, which
+     *      have not been consumed yet: the processes are blocked, if it reaches the limit
+     */
+    int getQueuedProcessOutputChunks();
+
+    /**
+     * Resets the counters and histograms; the gauges (e.g. active connections) are kept.
+     */
+    void reset();
+}
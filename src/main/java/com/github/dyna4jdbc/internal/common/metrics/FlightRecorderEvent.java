@@ -0,0 +1,73 @@
+package com.github.dyna4jdbc.internal.common.metrics;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+
+/**
+ * An event started by {@link FlightRecorderEventType#begin()}: the fields are set,
+ * then the event is committed, once. Not thread-safe, but it can be committed by a
+ * thread other than the one starting it (the event is reported for the committing thread).
+ * All methods are no-ops, if the event is not enabled.
+ *
+ * @author Peter Horvath
+ */
+public final class FlightRecorderEvent {
+
+    static final FlightRecorderEvent DISABLED = new FlightRecorderEvent(null, null);
+
+    private final FlightRecorderEventType eventType;
+
+    // the jdk.jfr.Event: null if disabled
+    private final Object event;
+
+    FlightRecorderEvent(FlightRecorderEventType eventType, Object event) {
+        this.eventType = eventType;
+        this.event = event;
+    }
+
+    /**
+     * @return whether the event is recorded: the values of the fields need not
+     *      be computed otherwise
+     */
+    public boolean isEnabled() {
+        return event != null;
+    }
+
+    public FlightRecorderEvent set(FlightRecorderEventField field, String value) {
+        if (event != null) {
+            FlightRecorderSupport.set(event, getFieldIndex(field), value);
+        }
+
+        return this;
+    }
+
+    public FlightRecorderEvent set(FlightRecorderEventField field, long value) {
+        if (event != null) {
+            Object boxedValue;
+            if (field.getValueType() == int.class) {
+                boxedValue = Integer.valueOf((int) value);
+            } else {
+                boxedValue = Long.valueOf(value);
+            }
+
+            FlightRecorderSupport.set(event, getFieldIndex(field), boxedValue);
+        }
+
+        return this;
+    }
+
+    public void commit() {
+        if (event != null) {
+            FlightRecorderSupport.commit(event);
+        }
+    }
+
+    private int getFieldIndex(FlightRecorderEventField field) {
+        int index = eventType.indexOf(field);
+        if (index < 0) {
+            throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(
+                    "Field " + field + " is not defined for event " + eventType);
+        }
+
+        return index;
+    }
+}
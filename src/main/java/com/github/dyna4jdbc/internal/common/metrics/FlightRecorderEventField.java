@@ -0,0 +1,44 @@
+package com.github.dyna4jdbc.internal.common.metrics;
+
+/**
+ * The fields of the {@link FlightRecorderEventType}s.
+ *
+ * @author Peter Horvath
+ */
+public enum FlightRecorderEventField {
+
+    ENGINE_NAME("engineName", "Engine Name", String.class, false),
+    // String.hashCode() of the script: identifies the executions of the same script
+    SCRIPT_HASH("scriptHash", "Script Hash", int.class, false),
+    ROW_COUNT("rowCount", "Rows", long.class, false),
+    COLUMN_COUNT("columnCount", "Columns", int.class, false),
+    BYTES_CAPTURED("bytesCaptured", "Bytes Captured", long.class, true);
+
+    private final String fieldName;
+    private final String label;
+    private final Class<?> valueType;
+    private final boolean dataAmountInBytes;
+
+    FlightRecorderEventField(String fieldName, String label, Class<?> valueType, boolean dataAmountInBytes) {
+        this.fieldName = fieldName;
+        this.label = label;
+        this.valueType = valueType;
+        this.dataAmountInBytes = dataAmountInBytes;
+    }
+
+    String getFieldName() {
+        return fieldName;
+    }
+
+    String getLabel() {
+        return label;
+    }
+
+    Class<?> getValueType() {
+        return valueType;
+    }
+
+    boolean isDataAmountInBytes() {
+        return dataAmountInBytes;
+    }
+}
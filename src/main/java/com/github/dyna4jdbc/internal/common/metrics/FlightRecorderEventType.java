@@ -0,0 +1,80 @@
+package com.github.dyna4jdbc.internal.common.metrics;
+
+import static com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventField.BYTES_CAPTURED;
+import static com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventField.COLUMN_COUNT;
+import static com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventField.ENGINE_NAME;
+import static com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventField.ROW_COUNT;
+import static com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventField.SCRIPT_HASH;
+
+/**
+ * The JDK Flight Recorder events emitted by the driver, named {@code com.github.dyna4jdbc.<name>}
+ * in the category {@code dyna4jdbc}. The events are emitted only while a recording enabling
+ * them is running: they are enabled by default, without a threshold.
+ *
+ * @author Peter Horvath
+ */
+public enum FlightRecorderEventType {
+
+    CONNECT("Connect", "Connect", "Opening a connection", ENGINE_NAME),
+    COMPILE("Compile", "Compile Script", "Compiling a script with the script engine",
+            ENGINE_NAME, SCRIPT_HASH),
+    EVAL("Eval", "Evaluate Script", "Evaluating a script with the script engine, or running it with "
+            + "the process of the process runner: the output is parsed meanwhile, by the same thread",
+            ENGINE_NAME, SCRIPT_HASH),
+    CAPTURE("Capture", "Capture Output", "Capturing the output of a statement, from the start "
+            + "of its execution until the output is complete", ROW_COUNT, BYTES_CAPTURED),
+    INFERENCE("Inference", "Infer Column Types", "Inferring the SQL types of the columns of a result",
+            COLUMN_COUNT, ROW_COUNT),
+    RESULT_SET("ResultSet", "Result Set", "A result set, from its creation until it is closed, "
+            + "including the conversions of the values by its getters: the rows are the ones read",
+            COLUMN_COUNT, ROW_COUNT);
+
+    private final String eventName;
+    private final String label;
+    private final String description;
+    private final FlightRecorderEventField[] fields;
+
+    FlightRecorderEventType(String eventName, String label, String description,
+                            FlightRecorderEventField... fields) {
+        this.eventName = eventName;
+        this.label = label;
+        this.description = description;
+        this.fields = fields;
+    }
+
+    /**
+     * Starts timing an event of this type.
+     *
+     * @return the event started: a no-op event, if no recording enabling it is running,
+     *      or the JDK Flight Recorder is not available
+     */
+    public FlightRecorderEvent begin() {
+        return FlightRecorderSupport.begin(this);
+    }
+
+    String getEventName() {
+        return eventName;
+    }
+
+    String getLabel() {
+        return label;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    FlightRecorderEventField[] getFields() {
+        return fields.clone();
+    }
+
+    int indexOf(FlightRecorderEventField field) {
+        for (int i = 0; i < fields.length; i++) {
+            if (fields[i] == field) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,211 @@
+package com.github.dyna4jdbc.internal.common.metrics;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import com.github.dyna4jdbc.internal.JDBCError;
+
+/**
+ * Defines the {@link FlightRecorderEventType}s via the {@code jdk.jfr.EventFactory} API, which
+ * is looked up reflectively: the driver is compiled for Java 8, and runs on JVMs without the
+ * JDK Flight Recorder as well, where no events are emitted. The methods of the events are
+ * invoked via {@code MethodHandle}s: if no recording is running, starting an event costs a
+ * single call of {@code EventType.isEnabled()}.
+ *
+ * @author Peter Horvath
+ */
+final class FlightRecorderSupport {
+
+    private static final Logger LOGGER = Logger.getLogger(FlightRecorderSupport.class.getName());
+
+    private static final String JFR_PACKAGE = "jdk.jfr.";
+    private static final String EVENT_NAME_PREFIX = "com.github.dyna4jdbc.";
+    private static final String CATEGORY = "dyna4jdbc";
+    private static final String DATA_AMOUNT_BYTES = "BYTES";
+
+    private static final boolean AVAILABLE;
+
+    // jdk.jfr.EventFactory and jdk.jfr.EventType of each FlightRecorderEventType, by ordinal
+    private static final Object[] EVENT_FACTORIES;
+    private static final Object[] EVENT_TYPES;
+
+    // EventType.isEnabled(): (Object)boolean
+    private static final MethodHandle IS_ENABLED;
+    // EventFactory.newEvent(): (Object)Object
+    private static final MethodHandle NEW_EVENT;
+    // Event.begin(): (Object)void
+    private static final MethodHandle BEGIN;
+    // Event.set(int, Object): (Object, int, Object)void
+    private static final MethodHandle SET;
+    // Event.commit(): (Object)void
+    private static final MethodHandle COMMIT;
+
+    static {
+        final int eventTypeCount = FlightRecorderEventType.values().length;
+        Object[] eventFactories = new Object[eventTypeCount];
+        Object[] eventTypes = new Object[eventTypeCount];
+        MethodHandle isEnabled = null;
+        MethodHandle newEvent = null;
+        MethodHandle begin = null;
+        MethodHandle set = null;
+        MethodHandle commit = null;
+        boolean available = false;
+
+        try {
+            Class<?> eventClass = Class.forName(JFR_PACKAGE + "Event");
+            Class<?> eventFactoryClass = Class.forName(JFR_PACKAGE + "EventFactory");
+            Class<?> eventTypeClass = Class.forName(JFR_PACKAGE + "EventType");
+
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            isEnabled = lookup.findVirtual(eventTypeClass, "isEnabled", MethodType.methodType(boolean.class))
+                    .asType(MethodType.methodType(boolean.class, Object.class));
+            newEvent = lookup.findVirtual(eventFactoryClass, "newEvent", MethodType.methodType(eventClass))
+                    .asType(MethodType.methodType(Object.class, Object.class));
+            begin = lookup.findVirtual(eventClass, "begin", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+            set = lookup.findVirtual(eventClass, "set", MethodType.methodType(void.class, int.class, Object.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+            commit = lookup.findVirtual(eventClass, "commit", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+
+            EventDefinitions eventDefinitions = new EventDefinitions(eventFactoryClass);
+            for (FlightRecorderEventType eventType : FlightRecorderEventType.values()) {
+                Object eventFactory = eventDefinitions.createEventFactory(eventType);
+
+                eventFactories[eventType.ordinal()] = eventFactory;
+                eventTypes[eventType.ordinal()] = eventDefinitions.getEventType(eventFactory);
+            }
+
+            available = true;
+
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            // e.g. Java 8 before update 262, or the jdk.jfr module is not present
+            LOGGER.log(Level.FINE, "JDK Flight Recorder is not available: no events are emitted", e);
+        }
+
+        AVAILABLE = available;
+        EVENT_FACTORIES = eventFactories;
+        EVENT_TYPES = eventTypes;
+        IS_ENABLED = isEnabled;
+        NEW_EVENT = newEvent;
+        BEGIN = begin;
+        SET = set;
+        COMMIT = commit;
+    }
+
+    private FlightRecorderSupport() {
+        // static utility class
+    }
+
+    static FlightRecorderEvent begin(FlightRecorderEventType eventType) {
+        if (!AVAILABLE) {
+            return FlightRecorderEvent.DISABLED;
+        }
+
+        try {
+            if (!(boolean) IS_ENABLED.invokeExact(EVENT_TYPES[eventType.ordinal()])) {
+                return FlightRecorderEvent.DISABLED;
+            }
+
+            Object event = (Object) NEW_EVENT.invokeExact(EVENT_FACTORIES[eventType.ordinal()]);
+            BEGIN.invokeExact(event);
+
+            return new FlightRecorderEvent(eventType, event);
+
+        } catch (Throwable throwable) {
+            throw rethrow(throwable);
+        }
+    }
+
+    static void set(Object event, int index, Object value) {
+        try {
+            SET.invokeExact(event, index, value);
+        } catch (Throwable throwable) {
+            throw rethrow(throwable);
+        }
+    }
+
+    static void commit(Object event) {
+        try {
+            COMMIT.invokeExact(event);
+        } catch (Throwable throwable) {
+            throw rethrow(throwable);
+        }
+    }
+
+    private static RuntimeException rethrow(Throwable throwable) {
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+
+        if (throwable instanceof RuntimeException) {
+            return (RuntimeException) throwable;
+        }
+
+        // none of the methods invoked declares checked exceptions
+        return JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(
+                throwable, "Emitting Flight Recorder event failed");
+    }
+
+    /**
+     * Creates the {@code jdk.jfr.EventFactory} of the event types: the annotations of
+     * the events and their fields are passed as {@code jdk.jfr.AnnotationElement}s.
+     */
+    private static final class EventDefinitions {
+
+        private final Constructor<?> annotationElementConstructor;
+        private final Constructor<?> valueDescriptorConstructor;
+        private final Method createMethod;
+        private final Method getEventTypeMethod;
+
+        private EventDefinitions(Class<?> eventFactoryClass) throws ReflectiveOperationException {
+            annotationElementConstructor = Class.forName(JFR_PACKAGE + "AnnotationElement")
+                    .getConstructor(Class.class, Object.class);
+            valueDescriptorConstructor = Class.forName(JFR_PACKAGE + "ValueDescriptor")
+                    .getConstructor(Class.class, String.class, List.class);
+            createMethod = eventFactoryClass.getMethod("create", List.class, List.class);
+            getEventTypeMethod = eventFactoryClass.getMethod("getEventType");
+        }
+
+        private Object createEventFactory(FlightRecorderEventType eventType) throws ReflectiveOperationException {
+
+            List<Object> eventAnnotations = Arrays.asList(
+                    newAnnotationElement("Name", EVENT_NAME_PREFIX + eventType.getEventName()),
+                    newAnnotationElement("Label", eventType.getLabel()),
+                    newAnnotationElement("Description", eventType.getDescription()),
+                    newAnnotationElement("Category", new String[]{CATEGORY}),
+                    // the events are correlated by thread and time: stack traces are not needed
+                    newAnnotationElement("StackTrace", false));
+
+            List<Object> fields = new ArrayList<>();
+            for (FlightRecorderEventField field : eventType.getFields()) {
+                List<Object> fieldAnnotations = new ArrayList<>();
+                fieldAnnotations.add(newAnnotationElement("Label", field.getLabel()));
+                if (field.isDataAmountInBytes()) {
+                    fieldAnnotations.add(newAnnotationElement("DataAmount", DATA_AMOUNT_BYTES));
+                }
+
+                fields.add(valueDescriptorConstructor.newInstance(
+                        field.getValueType(), field.getFieldName(), fieldAnnotations));
+            }
+
+            return createMethod.invoke(null, eventAnnotations, fields);
+        }
+
+        private Object getEventType(Object eventFactory) throws ReflectiveOperationException {
+            return getEventTypeMethod.invoke(eventFactory);
+        }
+
+        private Object newAnnotationElement(String annotationName, Object value) throws ReflectiveOperationException {
+            return annotationElementConstructor.newInstance(Class.forName(JFR_PACKAGE + annotationName), value);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.github.dyna4jdbc.internal.common.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of latencies, with buckets of exponentially growing width: bucket
+ * {@code i} counts the latencies of at least 2<sup>i-1</sup> and less than 2<sup>i</sup>
+ * microseconds (bucket {@code 0} the ones below a microsecond), the last bucket all
+ * latencies beyond the previous ones.
+ *
+ * @author Peter Horvath
+ */
+final class LatencyHistogram {
+
+    // the last bucket starts at 2^22 microseconds (about 4 seconds)
+    static final int BUCKET_COUNT = 24;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+
+    void record(long nanos) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(Math.max(0, nanos));
+        final int bucket = Math.min(Long.SIZE - Long.numberOfLeadingZeros(micros), BUCKET_COUNT - 1);
+
+        buckets.incrementAndGet(bucket);
+        count.increment();
+        totalNanos.add(nanos);
+    }
+
+    /**
+     * @return the upper bound (exclusive) of each bucket in microseconds; {@code Long.MAX_VALUE}
+     *      for the last one
+     */
+    static long[] getBucketUpperBoundsMicros() {
+        long[] upperBounds = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT - 1; i++) {
+            upperBounds[i] = 1L << i;
+        }
+        upperBounds[BUCKET_COUNT - 1] = Long.MAX_VALUE;
+
+        return upperBounds;
+    }
+
+    /**
+     * @return the number of latencies recorded in each bucket: a snapshot of each
+     *      bucket, not of the whole histogram
+     */
+    long[] getBucketCounts() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = buckets.get(i);
+        }
+
+        return counts;
+    }
+
+    long getCount() {
+        return count.sum();
+    }
+
+    double getMeanMicros() {
+        final long latencyCount = count.sum();
+        if (latencyCount == 0) {
+            return 0;
+        }
+
+        return totalNanos.sum() / (double) TimeUnit.MICROSECONDS.toNanos(latencyCount);
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            buckets.set(i, 0);
+        }
+        count.reset();
+        totalNanos.reset();
+    }
+}
@@ -1,8 +1,36 @@
 package com.github.dyna4jdbc.internal.common.outputhandler;
 
 import java.io.OutputStream;
+import java.io.Writer;
 
 public interface ScriptOutputHandler {
     OutputStream getOutOutputStream();
     OutputStream getErrorOutputStream();
+
+    /**
+     * Returns a character view of {@link #getOutOutputStream()}: closing
+     * the stream completes the output written via either of them.
+     *
+     * @return the {@code Writer} for the standard output, or {@code null}
+     *      if {@link #getOutOutputStream()} returns {@code null}
+     */
+    Writer getOutWriter();
+
+    /**
+     * Returns a character view of {@link #getErrorOutputStream()}: closing
+     * the stream completes the output written via either of them.
+     *
+     * @return the {@code Writer} for the standard error, or {@code null}
+     *      if {@link #getErrorOutputStream()} returns {@code null}
+     */
+    Writer getErrorWriter();
+
+    /**
+     * Releases the output captured, which is not handed over to the caller (e.g. the
+     * script failed): the memory reserved from the memory budget is returned, and the
+     * spill files are deleted. The default implementation does nothing.
+     */
+    default void discardOutput() {
+        // no-op
+    }
 }
@@ -10,4 +10,7 @@ public interface ScriptOutputHandlerFactory {
 
     UpdateScriptOutputHandler
         newUpdateScriptOutputHandler(java.sql.Statement statement, String script);
+
+    StreamingResultSetScriptOutputHandler
+        newStreamingResultSetScriptOutputHandler(java.sql.Statement statement, String script);
 }
@@ -0,0 +1,28 @@
+package com.github.dyna4jdbc.internal.common.outputhandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Output handler, which is written by a script running on a separate
+ * (producer) thread, while the {@code ResultSet} returned by
+ * {@link #getResultSet()} consumes the rows as they are produced.
+ */
+public interface StreamingResultSetScriptOutputHandler extends ScriptOutputHandler {
+
+    /**
+     * Blocks until the look-ahead window used for type inference is
+     * captured (or the script completes) and returns the {@code ResultSet}.
+     *
+     * @return the {@code ResultSet} yielding the rows of the script output
+     * @throws SQLException if the script failed before the look-ahead window was captured
+     */
+    ResultSet getResultSet() throws SQLException;
+
+    /**
+     * Called from the producer thread, if the script terminated abnormally.
+     *
+     * @param throwable the failure raised during script execution
+     */
+    void scriptExecutionFailed(Throwable throwable);
+}
@@ -1,30 +1,113 @@
 package com.github.dyna4jdbc.internal.common.outputhandler.impl;
 
+import com.github.dyna4jdbc.RowEmitter;
 import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.TypedRowOutput;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEvent;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventField;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventType;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.UnsupportedEncodingException;
-
-
-public abstract class CursorCellWriterOutputStream extends OutputStream {
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+/**
+ * Splits the output written to it into rows and cells.
+ *
+ * <p>
+ * Output can be written either as bytes (which are decoded using the
+ * charset configured) or as characters, via the {@code Writer} view
+ * returned by {@link #asWriter()}: the latter avoids encoding the
+ * characters only to decode them again. The two can be mixed; the
+ * cell and row boundaries are determined the same way.
+ * </p>
+ *
+ * <p>
+ * Subclasses, which accept rows of typed values too, return their
+ * {@code RowEmitter} from {@link #getRowEmitter()}: it is exposed by
+ * the {@code Writer} view as well.
+ * </p>
+ */
+public abstract class CursorCellWriterOutputStream extends OutputStream implements TypedRowOutput {
 
     private static final int LF = 0xD;
     private static final int CR = 0xA;
 
+    private static final int INITIAL_CELL_BUFFER_SIZE = 64;
+    private static final int MAX_RETAINED_CELL_BUFFER_SIZE = 64 * 1024;
+    private static final int NON_ASCII_BIT = 0x80;
+
+    // the last byte or char written
     private int lastByte = -1;
 
+    /*
+     * Bytes of the current cell: reused for all cells, as long as
+     * it does not grow beyond MAX_RETAINED_CELL_BUFFER_SIZE
+     */
+    private byte[] cellBuffer = new byte[INITIAL_CELL_BUFFER_SIZE];
+    private int cellBufferLength = 0;
+    private int cellBufferBitsSet = 0;
+    private boolean closed;
 
-    private ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
+    // the number of bytes and chars written
+    private long capturedLength;
+
+    // started when the execution starts writing to this stream: see captureCompleted(long)
+    private final FlightRecorderEvent captureEvent = FlightRecorderEventType.CAPTURE.begin();
 
     private final char cellSeparator;
-    private final String charsetName;
+    private final CharsetDecoder charsetDecoder;
+    private final boolean charsetIsAsciiCompatible;
+    private CharBuffer decodedCharBuffer = CharBuffer.allocate(INITIAL_CELL_BUFFER_SIZE);
+
+    /*
+     * Characters of the current cell written via the Writer view: any bytes
+     * written before them are decoded and moved here, to preserve the order
+     */
+    private StringBuilder cellCharBuffer = new StringBuilder(INITIAL_CELL_BUFFER_SIZE);
+    private final Writer writer = new CellWriter();
 
 
     public CursorCellWriterOutputStream(char cellSeparator, String charsetName) {
         this.cellSeparator = cellSeparator;
-        this.charsetName = charsetName;
+
+        Charset charset = lookupCharset(charsetName);
+        // the same error handling as new String(byte[], String) applies
+        this.charsetDecoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.charsetIsAsciiCompatible = isAsciiCompatible(charset);
+    }
+
+    private static Charset lookupCharset(String charsetName) {
+        try {
+            return Charset.forName(charsetName);
+        } catch (IllegalArgumentException e) {
+            // should not happen: we test the configuration before applying it
+            throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(e,
+                    "The requested charsetName is not supported: " + charsetName);
+        }
+    }
+
+    /*
+     * Stateless charsets, which map each byte in the ASCII range to the same char
+     * (in contrast to e.g. UTF-16 or ISO-2022, where ASCII bytes can be escape sequences)
+     */
+    private static boolean isAsciiCompatible(Charset charset) {
+        String name = charset.name();
+        return StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)
+                || name.startsWith("ISO-8859-")
+                || name.startsWith("windows-125");
     }
 
     @Override
@@ -32,6 +115,8 @@ public abstract class CursorCellWriterOutputStream extends OutputStream {
 
         checkNotClosed();
 
+        capturedLength++;
+
         if (!((lastByte == LF || lastByte == CR)
                 && (thisByte == LF || thisByte == CR))) {
 
@@ -47,7 +132,9 @@ public abstract class CursorCellWriterOutputStream extends OutputStream {
                 nextCell();
 
             } else {
-                byteArrayOutputStream.write(thisByte);
+                ensureCellBufferCapacity(1);
+                cellBuffer[cellBufferLength++] = (byte) thisByte;
+                cellBufferBitsSet |= thisByte;
             }
         }
 
@@ -56,25 +143,169 @@ public abstract class CursorCellWriterOutputStream extends OutputStream {
 
     }
 
+    /**
+     * Equivalent to calling {@link #write(int)} for each byte, but processes
+     * all bytes between two separators (or line ends) as a single block.
+     */
+    @Override
+    public final void write(byte[] bytes, int offset, int length) throws IOException {
+
+        checkNotClosed();
+
+        if (bytes == null) {
+            throw new NullPointerException("argument bytes cannot be null");
+        }
+        if (offset < 0 || length < 0 || length > bytes.length - offset) {
+            throw new IndexOutOfBoundsException(
+                    String.format("offset: %s, length: %s, array length: %s", offset, length, bytes.length));
+        }
+
+        capturedLength += length;
+
+        final int end = offset + length;
+
+        int previousByte = lastByte;
+        int pendingBytesStart = offset;
+
+        for (int i = offset; i < end; i++) {
+            // NOTE: sign-extended, just as OutputStream.write(byte[], int, int) passes it to write(int)
+            final int thisByte = bytes[i];
+
+            if (thisByte == LF || thisByte == CR) {
+                appendToCellBuffer(bytes, pendingBytesStart, i - pendingBytesStart);
+                pendingBytesStart = i + 1;
+
+                if (!(previousByte == LF || previousByte == CR)) {
+                    flushBufferToCell();
+
+                    nextRow();
+                }
+
+            } else if (thisByte == cellSeparator) {
+                appendToCellBuffer(bytes, pendingBytesStart, i - pendingBytesStart);
+                pendingBytesStart = i + 1;
+
+                flushBufferToCell();
+
+                nextCell();
+            }
+
+            previousByte = thisByte;
+        }
+
+        appendToCellBuffer(bytes, pendingBytesStart, end - pendingBytesStart);
+
+        lastByte = previousByte;
+    }
+
     protected abstract void nextCell();
 
     protected abstract void nextRow();
 
     protected abstract void writeCellValue(String value);
 
+    private void appendToCellBuffer(byte[] bytes, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+
+        ensureCellBufferCapacity(length);
+
+        final int end = offset + length;
+        int bitsSet = cellBufferBitsSet;
+        for (int i = offset; i < end; i++) {
+            bitsSet |= bytes[i];
+        }
+        cellBufferBitsSet = bitsSet;
+
+        System.arraycopy(bytes, offset, cellBuffer, cellBufferLength, length);
+        cellBufferLength += length;
+    }
+
+    private void ensureCellBufferCapacity(int additionalBytes) {
+        final int requiredCapacity = cellBufferLength + additionalBytes;
+        if (requiredCapacity > cellBuffer.length) {
+            cellBuffer = Arrays.copyOf(cellBuffer, Math.max(cellBuffer.length * 2, requiredCapacity));
+        }
+    }
+
     private void flushBufferToCell() {
 
-        try {
-            String cellContent = byteArrayOutputStream.toString(charsetName);
+        String cellContent;
+        if (cellCharBuffer.length() == 0) {
+            cellContent = decodeCellBuffer();
+            resetCellBuffer();
+        } else {
+            moveCellBufferToCharBuffer();
+            cellContent = cellCharBuffer.toString();
+            resetCellCharBuffer();
+        }
 
-            writeCellValue(cellContent);
+        writeCellValue(cellContent);
+    }
 
-            byteArrayOutputStream = new ByteArrayOutputStream();
+    private void moveCellBufferToCharBuffer() {
+        if (cellBufferLength > 0) {
+            cellCharBuffer.append(decodeCellBuffer());
+            resetCellBuffer();
+        }
+    }
 
-        } catch (UnsupportedEncodingException e) {
-            // should not happen: we test the configuration before applying it
-            throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(e,
-                    "The requested charsetName is not supported: " + charsetName);
+    private void resetCellBuffer() {
+        cellBufferLength = 0;
+        cellBufferBitsSet = 0;
+        if (cellBuffer.length > MAX_RETAINED_CELL_BUFFER_SIZE) {
+            cellBuffer = new byte[INITIAL_CELL_BUFFER_SIZE];
+        }
+    }
+
+    private void resetCellCharBuffer() {
+        if (cellCharBuffer.capacity() > MAX_RETAINED_CELL_BUFFER_SIZE) {
+            cellCharBuffer = new StringBuilder(INITIAL_CELL_BUFFER_SIZE);
+        } else {
+            cellCharBuffer.setLength(0);
+        }
+    }
+
+    private String decodeCellBuffer() {
+
+        if (cellBufferLength == 0) {
+            return "";
+        }
+
+        if (charsetIsAsciiCompatible && (cellBufferBitsSet & NON_ASCII_BIT) == 0) {
+            // ASCII only: every byte maps to the same char
+            return new String(cellBuffer, 0, cellBufferLength, StandardCharsets.ISO_8859_1);
+        }
+
+        final int maxCharCount = (int) Math.ceil(cellBufferLength * (double) charsetDecoder.maxCharsPerByte());
+        if (decodedCharBuffer.capacity() < maxCharCount
+                || decodedCharBuffer.capacity() > MAX_RETAINED_CELL_BUFFER_SIZE) {
+            decodedCharBuffer = CharBuffer.allocate(Math.max(maxCharCount, INITIAL_CELL_BUFFER_SIZE));
+        }
+
+        while (true) {
+            decodedCharBuffer.clear();
+            charsetDecoder.reset();
+
+            ByteBuffer input = ByteBuffer.wrap(cellBuffer, 0, cellBufferLength);
+            CoderResult result = charsetDecoder.decode(input, decodedCharBuffer, true);
+            if (result.isUnderflow()) {
+                result = charsetDecoder.flush(decodedCharBuffer);
+            }
+
+            if (result.isUnderflow()) {
+                decodedCharBuffer.flip();
+                return decodedCharBuffer.toString();
+            }
+
+            if (!result.isOverflow()) {
+                // should not happen: malformed and unmappable input is replaced
+                throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(
+                        "Decoding failed with charset " + charsetDecoder.charset() + ": " + result);
+            }
+
+            decodedCharBuffer = CharBuffer.allocate(decodedCharBuffer.capacity() * 2);
         }
     }
 
@@ -85,19 +316,166 @@ public abstract class CursorCellWriterOutputStream extends OutputStream {
         checkNotClosed();
 
         try {
-            if (byteArrayOutputStream.size() > 0) {
+            if (cellBufferLength > 0 || cellCharBuffer.length() > 0) {
                 flushBufferToCell();
             }
         } finally {
-            byteArrayOutputStream = null;
+            closed = true;
+            cellBuffer = null;
+            cellCharBuffer = null;
         }
     }
     //CHECKSTYLE.ON: DesignForExtension
 
+    /**
+     * Returns the emitter of typed rows written to this stream.
+     *
+     * @return {@code null} by default: typed rows are not supported
+     */
+    //CHECKSTYLE.OFF: DesignForExtension
+    @Override
+    public RowEmitter getRowEmitter() {
+        return null;
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
+    /**
+     * Returns the length of the output written to this stream so far: the number of
+     * bytes plus the number of characters written via the {@code Writer} view.
+     * Typed rows are not included.
+     *
+     * @return the length of the output captured
+     */
+    protected final long getCapturedLength() {
+        return capturedLength;
+    }
+
+    /**
+     * Completes the Flight Recorder event of capturing the output: called once
+     * by subclasses, when all output has been split into rows.
+     *
+     * @param rowCount the number of rows captured
+     */
+    protected final void captureCompleted(long rowCount) {
+        captureEvent.set(FlightRecorderEventField.ROW_COUNT, rowCount)
+                .set(FlightRecorderEventField.BYTES_CAPTURED, capturedLength)
+                .commit();
+    }
+
+    /**
+     * Returns a {@code Writer} view of this stream: characters written to it
+     * are split into cells and rows directly, without any encoding or decoding.
+     * The {@code Writer} does not buffer anything: flushing or closing it
+     * has no effect, the pending cell is completed by {@link #close()}
+     * of this stream.
+     *
+     * @return the {@code Writer} view of this stream (never {@code null})
+     */
+    public final Writer asWriter() {
+        return writer;
+    }
+
+    /**
+     * Equivalent to {@link #write(byte[], int, int)}, but for characters.
+     */
+    private void writeCharacters(CharSequence characters, int offset, int length) {
+
+        checkNotClosed();
+
+        if (offset < 0 || length < 0 || length > characters.length() - offset) {
+            throw new IndexOutOfBoundsException(
+                    String.format("offset: %s, length: %s, input length: %s", offset, length, characters.length()));
+        }
+
+        moveCellBufferToCharBuffer();
+
+        capturedLength += length;
+
+        final int end = offset + length;
+
+        int previousChar = lastByte;
+        int pendingCharsStart = offset;
+
+        for (int i = offset; i < end; i++) {
+            final int thisChar = characters.charAt(i);
+
+            if (thisChar == LF || thisChar == CR) {
+                cellCharBuffer.append(characters, pendingCharsStart, i);
+                pendingCharsStart = i + 1;
+
+                if (!(previousChar == LF || previousChar == CR)) {
+                    flushBufferToCell();
+
+                    nextRow();
+                }
+
+            } else if (thisChar == cellSeparator) {
+                cellCharBuffer.append(characters, pendingCharsStart, i);
+                pendingCharsStart = i + 1;
+
+                flushBufferToCell();
+
+                nextCell();
+            }
+
+            previousChar = thisChar;
+        }
+
+        cellCharBuffer.append(characters, pendingCharsStart, end);
+
+        lastByte = previousChar;
+    }
+
+    private final class CellWriter extends Writer implements TypedRowOutput {
+
+        @Override
+        public void write(int c) throws IOException {
+            writeCharacters(String.valueOf((char) c), 0, 1);
+        }
+
+        @Override
+        public void write(char[] chars, int offset, int length) throws IOException {
+            writeCharacters(CharBuffer.wrap(chars), offset, length);
+        }
+
+        @Override
+        public void write(String str, int offset, int length) throws IOException {
+            writeCharacters(str, offset, length);
+        }
+
+        @Override
+        public Writer append(CharSequence characters) throws IOException {
+            //CHECKSTYLE.OFF: AvoidInlineConditionals
+            CharSequence sequence = characters != null ? characters : "null";
+            //CHECKSTYLE.ON: AvoidInlineConditionals
+            writeCharacters(sequence, 0, sequence.length());
+            return this;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // no-op: nothing is buffered
+        }
+
+        @Override
+        public void close() throws IOException {
+            // no-op: the pending cell is completed when the stream is closed
+        }
+
+        @Override
+        public RowEmitter getRowEmitter() {
+            return CursorCellWriterOutputStream.this.getRowEmitter();
+        }
+
+        @Override
+        public String toString() {
+            return "Writer view of " + CursorCellWriterOutputStream.this;
+        }
+    }
+
     private void checkNotClosed() {
-        if (byteArrayOutputStream == null) {
+        if (closed) {
             throw new IllegalStateException(this + " is closed already!");
         }
     }
 }
-
@@ -6,7 +6,12 @@ import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 
+import com.github.dyna4jdbc.RowEmitter;
+import com.github.dyna4jdbc.internal.OutputLimitReachedError;
 import com.github.dyna4jdbc.internal.common.datamodel.DataTable;
+import com.github.dyna4jdbc.internal.common.datamodel.MemoryBudget;
+import com.github.dyna4jdbc.internal.common.metrics.DriverMetrics;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandlerFactory;
 import com.github.dyna4jdbc.internal.config.Configuration;
 
 public final class DataTableWriter extends CursorCellWriterOutputStream {
@@ -17,13 +22,39 @@ public final class DataTableWriter extends CursorCellWriterOutputStream {
     private boolean currentRowIsTheFirstLine = true;
     private final boolean skipFirstLine;
     private boolean preferMultipleResultSets;
+    private final MemoryBudget memoryBudget;
+    private final int maxRows;
+    private boolean outputLimitReached;
+    // guarded by this: set once the DataTables are cleared, any further output is dropped
+    private boolean dataTablesCleared;
+    private final boolean recordMetrics;
+
+    private final TypedRowEmitter rowEmitter = new TypedRowEmitter(this::writeTypedRow);
 
     public DataTableWriter(Configuration configuration) {
+        this(configuration, null, 0);
+    }
+
+    /**
+     * Creates a writer, which captures the output in {@code DataTable}s.
+     *
+     * @param configuration the configuration
+     * @param memoryBudget the memory budget of the {@code DataTable}s, or {@code null}
+     *      if the output is never spilled to disk
+     * @param maxRows the maximum number of rows of a {@code ResultSet}, {@code 0} means no limit:
+     *      one more row is retained, since the first line might be a header. If the output
+     *      forms a single {@code DataTable}, {@code OutputLimitReachedError} is thrown to
+     *      stop the script once all rows are retained
+     */
+    public DataTableWriter(Configuration configuration, MemoryBudget memoryBudget, int maxRows) {
         super(configuration.getCellSeparator(), configuration.getConversionCharset());
 
-        dataTableList.addLast(new DataTable());
+        this.memoryBudget = memoryBudget;
+        this.maxRows = maxRows;
+        dataTableList.addLast(new DataTable(memoryBudget));
         this.skipFirstLine = configuration.getSkipFirstLine();
         this.preferMultipleResultSets = configuration.getPreferMultipleResultSets();
+        this.recordMetrics = configuration.getJmxMetrics();
     }
 
 
@@ -31,6 +62,32 @@ public final class DataTableWriter extends CursorCellWriterOutputStream {
         return Collections.unmodifiableList(dataTableList);
     }
 
+    /**
+     * Clears the {@code DataTable}s, if they are not handed over to {@code ResultSet}s:
+     * the memory reserved is returned to the memory budget, and the spill files are deleted.
+     * Any output written afterwards (e.g. by a script still running after a timeout) is dropped.
+     */
+    public synchronized void clearDataTables() {
+        dataTablesCleared = true;
+        dataTableList.forEach(DataTable::clear);
+    }
+
+    @Override
+    public RowEmitter getRowEmitter() {
+        return rowEmitter;
+    }
+
+    /**
+     * Returns the {@code TypeHandlerFactory} for the {@code DataTable}s: if the output
+     * is formed by typed rows, the column types are the ones declared by the rows.
+     *
+     * @param textOutputTypeHandlerFactory the {@code TypeHandlerFactory} of text output
+     * @return the {@code TypeHandlerFactory} to use
+     */
+    public TypeHandlerFactory getTypeHandlerFactory(TypeHandlerFactory textOutputTypeHandlerFactory) {
+        return rowEmitter.getTypeHandlerFactory(textOutputTypeHandlerFactory);
+    }
+
     @Override
     protected void nextCell() {
         // no-op
@@ -46,10 +103,28 @@ public final class DataTableWriter extends CursorCellWriterOutputStream {
             }
         }
 
+        boolean outputLimitReachedByCurrentRow = false;
         if (addCurrentRowToOutput) {
-            appendRow();
+            rowEmitter.checkTextRowAllowed();
+            outputLimitReachedByCurrentRow = appendRow(currentRow);
+        }
+        currentRow.clear(); // the cells are copied by the DataTable: the list can be reused
+
+        if (outputLimitReachedByCurrentRow) {
+            // stop the script: any further output would be dropped
+            throw new OutputLimitReachedError("Output limit of " + maxRows + " rows reached");
+        }
+    }
+
+    /*
+     * Typed rows are never skipped: skipFirstLine applies to text output only.
+     */
+    private void writeTypedRow(List<String> row) {
+        currentRowIsTheFirstLine = false;
+
+        if (appendRow(row)) {
+            throw new OutputLimitReachedError("Output limit of " + maxRows + " rows reached");
         }
-        currentRow = new ArrayList<String>();
     }
 
 
@@ -63,24 +138,59 @@ public final class DataTableWriter extends CursorCellWriterOutputStream {
         super.close(); // ensure all pending content is written to currentRow
 
         if (!currentRow.isEmpty()) {
-            appendRow();
+            rowEmitter.checkTextRowAllowed();
+            appendRow(currentRow);
+        }
+
+        long rowCount = 0;
+        for (DataTable dataTable : dataTableList) {
+            rowCount += dataTable.getRowCount();
         }
+
+        if (recordMetrics) {
+            DriverMetrics.getInstance().outputCaptured(rowCount, getCapturedLength());
+        }
+        captureCompleted(rowCount);
     }
 
-    private void appendRow() {
+    /*
+     * Returns true, if the output limit has been reached by appending the row.
+     */
+    private synchronized boolean appendRow(List<String> row) {
+        if (dataTablesCleared) {
+            return false;
+        }
+
+        if (outputLimitReached) {
+            // the script ignored OutputLimitReachedError (or this is the pending output on close)
+            return false;
+        }
+
         DataTable currentTable = dataTableList.getLast();
 
         if (preferMultipleResultSets) {
             if (!currentTable.isEmpty()) {
 
                 List<String> lastRow = currentTable.getLastRow();
-                if (lastRow.size() != currentRow.size()) {
-                    currentTable = new DataTable();
+                if (lastRow.size() != row.size()) {
+                    currentTable = new DataTable(memoryBudget);
                     dataTableList.addLast(currentTable);
                 }
             }
         }
 
-        currentTable.appendRow(currentRow);
+        if (maxRows > 0 && currentTable.getRowCount() > maxRows) {
+            // beyond the limit: dropped
+            return false;
+        }
+
+        currentTable.appendRow(row);
+
+        if (maxRows > 0 && !preferMultipleResultSets && currentTable.getRowCount() > maxRows) {
+            // with multiple result sets, subsequent rows might start a new DataTable
+            outputLimitReached = true;
+        }
+
+        return outputLimitReached;
     }
 }
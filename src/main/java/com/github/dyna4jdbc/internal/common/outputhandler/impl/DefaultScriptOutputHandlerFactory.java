@@ -1,18 +1,26 @@
 package com.github.dyna4jdbc.internal.common.outputhandler.impl;
 
 import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.datamodel.DataTable;
+import com.github.dyna4jdbc.internal.common.datamodel.MemoryBudget;
 import com.github.dyna4jdbc.internal.common.jdbc.generic.DataTableHolderResultSet;
+import com.github.dyna4jdbc.internal.common.jdbc.generic.StreamingDataTableResultSet;
+import com.github.dyna4jdbc.internal.common.metrics.DriverMetrics;
 import com.github.dyna4jdbc.internal.common.outputhandler.MultiTypeScriptOutputHandler;
 import com.github.dyna4jdbc.internal.common.outputhandler.ScriptOutputHandlerFactory;
 import com.github.dyna4jdbc.internal.common.outputhandler.SingleResultSetScriptOutputHandler;
+import com.github.dyna4jdbc.internal.common.outputhandler.StreamingResultSetScriptOutputHandler;
 import com.github.dyna4jdbc.internal.common.outputhandler.UpdateScriptOutputHandler;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandler;
 import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandlerFactory;
 import com.github.dyna4jdbc.internal.config.Configuration;
 
 import java.io.OutputStream;
+import java.io.Writer;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -20,27 +28,73 @@ public final class DefaultScriptOutputHandlerFactory implements ScriptOutputHand
 
     // TODO: cleanup
 
+    private static final long BYTES_PER_MB = 1024L * 1024L;
+
     private final TypeHandlerFactory typeHandlerFactory;
     private final Configuration configuration;
-
-    public DefaultScriptOutputHandlerFactory(TypeHandlerFactory typeHandlerFactory, Configuration configuration) {
+    private final MemoryBudget statementMemoryBudget;
+
+    /**
+     * Creates the factory of the output handlers of a statement.
+     *
+     * @param typeHandlerFactory the factory of the type handlers
+     * @param configuration the configuration
+     * @param connectionMemoryBudget the memory budget of the connection of the statement
+     */
+    public DefaultScriptOutputHandlerFactory(TypeHandlerFactory typeHandlerFactory, Configuration configuration,
+                                             MemoryBudget connectionMemoryBudget) {
         this.typeHandlerFactory = typeHandlerFactory;
         this.configuration = configuration;
 
+        if (configuration.getStatementMemoryBudgetMb() > 0 || configuration.getConnectionMemoryBudgetMb() > 0) {
+            this.statementMemoryBudget = new MemoryBudget(
+                    configuration.getStatementMemoryBudgetMb() * BYTES_PER_MB, connectionMemoryBudget);
+        } else {
+            // no budget: the output is never spilled to disk
+            this.statementMemoryBudget = null;
+        }
+    }
+
+    /**
+     * Creates the memory budget shared by the statements of a connection.
+     *
+     * @param configuration the configuration of the connection
+     * @return the memory budget
+     */
+    public static MemoryBudget newConnectionMemoryBudget(Configuration configuration) {
+        return new MemoryBudget(configuration.getConnectionMemoryBudgetMb() * BYTES_PER_MB, null);
+    }
+
+    private static int getMaxRows(Statement statement) {
+        try {
+            return statement.getMaxRows();
+        } catch (SQLException e) {
+            throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(e, "getMaxRows() failed");
+        }
+    }
+
+    private static int getFetchSize(Statement statement) {
+        try {
+            return statement.getFetchSize();
+        } catch (SQLException e) {
+            throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(e, "getFetchSize() failed");
+        }
     }
 
     @Override
     public SingleResultSetScriptOutputHandler newSingleResultSetScriptOutputHandler(
             Statement statement, String script) {
 
-        return new DefaultResultSetScriptOutputHandler(statement, typeHandlerFactory, configuration);
+        return new DefaultResultSetScriptOutputHandler(
+                statement, typeHandlerFactory, configuration, statementMemoryBudget);
     }
 
     @Override
     public MultiTypeScriptOutputHandler newMultiTypeScriptOutputHandler(
             Statement statement, String script) {
 
-        return new DefaultResultSetScriptOutputHandler(statement, typeHandlerFactory, configuration);
+        return new DefaultResultSetScriptOutputHandler(
+                statement, typeHandlerFactory, configuration, statementMemoryBudget);
     }
 
     @Override
@@ -50,7 +104,42 @@ public final class DefaultScriptOutputHandlerFactory implements ScriptOutputHand
         return new DefaultUpdateScriptOutputHandler();
     }
 
+    @Override
+    public StreamingResultSetScriptOutputHandler newStreamingResultSetScriptOutputHandler(
+            Statement statement, String script) {
+
+        return new DefaultStreamingResultSetScriptOutputHandler(statement, typeHandlerFactory, configuration);
+    }
+
+    /**
+     * Measures the time spent with the inference of the column types by the
+     * {@code TypeHandlerFactory} wrapped (for the {@code DriverMetrics}).
+     * Used by a single thread, while the {@code ResultSet} is created.
+     */
+    private static final class InferenceTimingTypeHandlerFactory implements TypeHandlerFactory {
+
+        private final TypeHandlerFactory typeHandlerFactory;
+        private long inferenceNanos;
+
+        private InferenceTimingTypeHandlerFactory(TypeHandlerFactory typeHandlerFactory) {
+            this.typeHandlerFactory = typeHandlerFactory;
+        }
+
+        @Override
+        public TypeHandler newTypeHandler(int columnIndex, Iterable<String> columnIterable) {
+            final long startNanos = System.nanoTime();
+            try {
+                return typeHandlerFactory.newTypeHandler(columnIndex, columnIterable);
+            } finally {
+                inferenceNanos += System.nanoTime() - startNanos;
+            }
+        }
+    }
+
     private static final class DefaultUpdateScriptOutputHandler implements UpdateScriptOutputHandler {
+
+        private static final String STDOUT_FROM_UPDATE_MESSAGE = "Writing to to stdout from update is not allowed";
+
         @Override
         public int getUpdateCount() {
             return 0;
@@ -58,13 +147,23 @@ public final class DefaultScriptOutputHandlerFactory implements ScriptOutputHand
 
         @Override
         public OutputStream getOutOutputStream() {
-            return new DisallowAllWritesOutputStream("Writing to to stdout from update is not allowed");
+            return new DisallowAllWritesOutputStream(STDOUT_FROM_UPDATE_MESSAGE);
         }
 
         @Override
         public OutputStream getErrorOutputStream() {
             return null;
         }
+
+        @Override
+        public Writer getOutWriter() {
+            return new DisallowAllWritesWriter(STDOUT_FROM_UPDATE_MESSAGE);
+        }
+
+        @Override
+        public Writer getErrorWriter() {
+            return null;
+        }
     }
 
     private static final class DefaultResultSetScriptOutputHandler
@@ -73,25 +172,62 @@ public final class DefaultScriptOutputHandlerFactory implements ScriptOutputHand
         private final Statement statement;
         private final DataTableWriter stdOut;
         private final TypeHandlerFactory typeHandlerFactory;
+        private final boolean materializeTypedColumns;
+        private final int maxRows;
+        private final boolean recordMetrics;
 
         private DefaultResultSetScriptOutputHandler(
                 Statement statement,
                 TypeHandlerFactory typeHandlerFactory,
-                Configuration configuration) {
+                Configuration configuration,
+                MemoryBudget memoryBudget) {
 
             this.statement = statement;
             this.typeHandlerFactory = typeHandlerFactory;
+            this.materializeTypedColumns = configuration.getMaterializeTypedColumns();
+            this.maxRows = getMaxRows(statement);
+            this.recordMetrics = configuration.getJmxMetrics();
 
-            this.stdOut = new DataTableWriter(configuration);
+            this.stdOut = new DataTableWriter(configuration, memoryBudget, maxRows);
         }
 
         private List<ResultSet> processObjectListToResultSet() {
 
+            // typed rows declare the types of the columns: these are not guessed from the values
+            TypeHandlerFactory resultSetTypeHandlerFactory = stdOut.getTypeHandlerFactory(typeHandlerFactory);
+
             return stdOut.getDataTableList().stream()
-                    .map(dataTable -> new DataTableHolderResultSet(statement, dataTable, typeHandlerFactory))
+                    .map(dataTable -> newResultSet(dataTable, resultSetTypeHandlerFactory))
                     .collect(Collectors.<ResultSet>toList());
         }
 
+        /*
+         * The time of the conversion is the time of creating the ResultSet except the inference:
+         * only measured if the columns are materialized (converted) while creating it.
+         */
+        private ResultSet newResultSet(DataTable dataTable, TypeHandlerFactory resultSetTypeHandlerFactory) {
+            if (!recordMetrics) {
+                return new DataTableHolderResultSet(
+                        statement, dataTable, resultSetTypeHandlerFactory, materializeTypedColumns, maxRows);
+            }
+
+            InferenceTimingTypeHandlerFactory timingTypeHandlerFactory =
+                    new InferenceTimingTypeHandlerFactory(resultSetTypeHandlerFactory);
+
+            final long startNanos = System.nanoTime();
+            ResultSet resultSet = new DataTableHolderResultSet(
+                    statement, dataTable, timingTypeHandlerFactory, materializeTypedColumns, maxRows);
+            final long creationNanos = System.nanoTime() - startNanos;
+
+            DriverMetrics driverMetrics = DriverMetrics.getInstance();
+            driverMetrics.typesInferred(timingTypeHandlerFactory.inferenceNanos);
+            if (materializeTypedColumns) {
+                driverMetrics.columnsConverted(creationNanos - timingTypeHandlerFactory.inferenceNanos);
+            }
+
+            return resultSet;
+        }
+
         @Override
         public boolean isResultSets() {
             return true;
@@ -113,6 +249,8 @@ public final class DefaultScriptOutputHandlerFactory implements ScriptOutputHand
 
             if (resultSets.size() > 1) {
 
+                // the ResultSets are not handed over to the caller: the DataTables are released here
+                discardOutput();
                 throw JDBCError.RESULT_SET_MULTIPLE_EXPECTED_ONE.raiseSQLException(resultSets.size());
 
             } else {
@@ -121,6 +259,11 @@ public final class DefaultScriptOutputHandlerFactory implements ScriptOutputHand
 
         }
 
+        @Override
+        public void discardOutput() {
+            stdOut.clearDataTables();
+        }
+
         @Override
         public OutputStream getOutOutputStream() {
             return stdOut;
@@ -130,5 +273,105 @@ public final class DefaultScriptOutputHandlerFactory implements ScriptOutputHand
         public OutputStream getErrorOutputStream() {
             return null;
         }
+
+        @Override
+        public Writer getOutWriter() {
+            return stdOut.asWriter();
+        }
+
+        @Override
+        public Writer getErrorWriter() {
+            return null;
+        }
+    }
+
+    private static final class DefaultStreamingResultSetScriptOutputHandler
+            implements StreamingResultSetScriptOutputHandler {
+
+        private final Statement statement;
+        private final StreamingDataTableWriter stdOut;
+        private final TypeHandlerFactory typeHandlerFactory;
+        private final int lookAheadRows;
+        private final int maxRows;
+        private final boolean recordMetrics;
+
+        private DefaultStreamingResultSetScriptOutputHandler(
+                Statement statement,
+                TypeHandlerFactory typeHandlerFactory,
+                Configuration configuration) {
+
+            this.statement = statement;
+            this.typeHandlerFactory = typeHandlerFactory;
+            this.lookAheadRows = configuration.getStreamingLookAheadRows();
+            this.maxRows = getMaxRows(statement);
+            this.recordMetrics = configuration.getJmxMetrics();
+
+            // the fetch size (if set) is the number of rows buffered ahead of the ResultSet
+            int bufferRows = getFetchSize(statement);
+            if (bufferRows == 0) {
+                bufferRows = configuration.getStreamingBufferRows();
+            }
+
+            this.stdOut = new StreamingDataTableWriter(configuration, maxRows, bufferRows);
+        }
+
+        @Override
+        public ResultSet getResultSet() throws SQLException {
+
+            Iterator<List<String>> rowIterator = stdOut.rowIterator();
+
+            DataTable lookAheadDataTable = new DataTable();
+            try {
+                for (int i = 0; i < lookAheadRows && rowIterator.hasNext(); i++) {
+                    lookAheadDataTable.appendRow(rowIterator.next());
+                }
+
+                // typed rows: the types declared by the rows looked ahead
+                TypeHandlerFactory resultSetTypeHandlerFactory = stdOut.getTypeHandlerFactory(typeHandlerFactory);
+
+                if (!recordMetrics) {
+                    return new StreamingDataTableResultSet(statement, lookAheadDataTable, rowIterator,
+                            resultSetTypeHandlerFactory, stdOut::abandon, maxRows);
+                }
+
+                // the types are inferred from the rows looked ahead
+                InferenceTimingTypeHandlerFactory timingTypeHandlerFactory =
+                        new InferenceTimingTypeHandlerFactory(resultSetTypeHandlerFactory);
+                ResultSet resultSet = new StreamingDataTableResultSet(statement, lookAheadDataTable, rowIterator,
+                        timingTypeHandlerFactory, stdOut::abandon, maxRows);
+                DriverMetrics.getInstance().typesInferred(timingTypeHandlerFactory.inferenceNanos);
+
+                return resultSet;
+
+            } catch (RuntimeException ex) {
+                stdOut.abandon();
+                throw ex;
+            }
+        }
+
+        @Override
+        public void scriptExecutionFailed(Throwable throwable) {
+            stdOut.producerFailed(throwable);
+        }
+
+        @Override
+        public OutputStream getOutOutputStream() {
+            return stdOut;
+        }
+
+        @Override
+        public OutputStream getErrorOutputStream() {
+            return null;
+        }
+
+        @Override
+        public Writer getOutWriter() {
+            return stdOut.asWriter();
+        }
+
+        @Override
+        public Writer getErrorWriter() {
+            return null;
+        }
     }
 }
@@ -0,0 +1,28 @@
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import com.github.dyna4jdbc.RowEmitter;
+import com.github.dyna4jdbc.internal.OutputDisabledError;
+
+/**
+ * The {@code RowEmitter} counterpart of {@link DisallowAllWritesOutputStream}.
+ *
+ * @author Peter Horvath
+ */
+final class DisallowAllRowsEmitter implements RowEmitter {
+
+    private final String message;
+
+    DisallowAllRowsEmitter(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public void header(String... columnLabels) {
+        throw new OutputDisabledError(message);
+    }
+
+    @Override
+    public void row(Object... values) {
+        throw new OutputDisabledError(message);
+    }
+}
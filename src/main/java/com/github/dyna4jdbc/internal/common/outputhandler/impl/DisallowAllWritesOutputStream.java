@@ -1,6 +1,8 @@
 package com.github.dyna4jdbc.internal.common.outputhandler.impl;
 
+import com.github.dyna4jdbc.RowEmitter;
 import com.github.dyna4jdbc.internal.OutputDisabledError;
+import com.github.dyna4jdbc.internal.TypedRowOutput;
 
 import java.io.IOException;
 import java.io.OutputStream;
@@ -8,7 +10,7 @@ import java.io.OutputStream;
 /**
  * @author Peter Horvath
  */
-public final class DisallowAllWritesOutputStream extends OutputStream {
+public final class DisallowAllWritesOutputStream extends OutputStream implements TypedRowOutput {
 
     private final String message;
 
@@ -21,4 +23,9 @@ public final class DisallowAllWritesOutputStream extends OutputStream {
     public void write(int b) throws IOException {
         throw new OutputDisabledError(message);
     }
+
+    @Override
+    public RowEmitter getRowEmitter() {
+        return new DisallowAllRowsEmitter(message);
+    }
 }
@@ -0,0 +1,42 @@
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import com.github.dyna4jdbc.RowEmitter;
+import com.github.dyna4jdbc.internal.OutputDisabledError;
+import com.github.dyna4jdbc.internal.TypedRowOutput;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * The character counterpart of {@link DisallowAllWritesOutputStream}.
+ *
+ * @author Peter Horvath
+ */
+public final class DisallowAllWritesWriter extends Writer implements TypedRowOutput {
+
+    private final String message;
+
+    public DisallowAllWritesWriter(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public void write(char[] chars, int offset, int length) throws IOException {
+        throw new OutputDisabledError(message);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        // no-op: nothing is written
+    }
+
+    @Override
+    public void close() throws IOException {
+        // no-op: nothing is written
+    }
+
+    @Override
+    public RowEmitter getRowEmitter() {
+        return new DisallowAllRowsEmitter(message);
+    }
+}
@@ -0,0 +1,287 @@
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import com.github.dyna4jdbc.RowEmitter;
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.OutputLimitReachedError;
+import com.github.dyna4jdbc.internal.common.metrics.DriverMetrics;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandlerFactory;
+import com.github.dyna4jdbc.internal.common.util.exception.ExceptionUtils;
+import com.github.dyna4jdbc.internal.config.Configuration;
+
+/**
+ * {@code StreamingDataTableWriter} hands over each completed row to a
+ * bounded queue, instead of retaining the full output: the script
+ * (producer) is running on a separate thread, while the rows are
+ * consumed via {@link #rowIterator()} from the {@code ResultSet}.
+ * If the queue is full, the producer is blocked until the
+ * consumer catches up or abandons the output: once abandoned, the
+ * script is stopped by throwing {@code OutputLimitReachedError}.
+ * If the number of rows is limited, the end of the rows is signalled
+ * once all rows are handed over, and the script is stopped by
+ * throwing {@code OutputLimitReachedError}.
+ *
+ * @author Peter Horvath
+ */
+public final class StreamingDataTableWriter extends CursorCellWriterOutputStream {
+
+    private static final long OFFER_RETRY_INTERVAL_MS = 100;
+
+    /**
+     * Marker placed into the queue to signal that no more rows will follow:
+     * compared by identity, hence a dedicated instance.
+     */
+    private final List<String> endOfRowsMarker = new ArrayList<>(0);
+
+    private final BlockingQueue<List<String>> rowQueue;
+    private final boolean skipFirstLine;
+    private final int maxRows;
+    private final boolean recordMetrics;
+
+    private List<String> currentRow = new ArrayList<String>();
+    private boolean currentRowIsTheFirstLine = true;
+    private int emittedRowCount;
+    private boolean outputLimitReached;
+
+    private volatile boolean abandoned;
+    private volatile boolean endOfRowsSignalled;
+    private volatile Throwable producerFailure;
+
+    private final TypedRowEmitter rowEmitter = new TypedRowEmitter(this::writeTypedRow);
+
+    public StreamingDataTableWriter(Configuration configuration) {
+        this(configuration, 0, configuration.getStreamingBufferRows());
+    }
+
+    /**
+     * Creates a writer, which hands over the rows to a bounded queue.
+     *
+     * @param configuration the configuration
+     * @param maxRows the maximum number of rows of the {@code ResultSet}, {@code 0} means no limit:
+     *      one more row is handed over, since the first line might be a header
+     * @param bufferRows the capacity of the queue, in rows
+     */
+    public StreamingDataTableWriter(Configuration configuration, int maxRows, int bufferRows) {
+        super(configuration.getCellSeparator(), configuration.getConversionCharset());
+
+        this.rowQueue = new ArrayBlockingQueue<>(bufferRows);
+        this.skipFirstLine = configuration.getSkipFirstLine();
+        this.maxRows = maxRows;
+        this.recordMetrics = configuration.getJmxMetrics();
+    }
+
+    @Override
+    protected void nextCell() {
+        // no-op
+    }
+
+    @Override
+    protected void nextRow() {
+        boolean addCurrentRowToOutput = true;
+        if (currentRowIsTheFirstLine) {
+            currentRowIsTheFirstLine = false;
+            if (skipFirstLine) {
+                addCurrentRowToOutput = false;
+            }
+        }
+
+        boolean outputLimitReachedByCurrentRow = false;
+        if (addCurrentRowToOutput) {
+            rowEmitter.checkTextRowAllowed();
+            outputLimitReachedByCurrentRow = emitRow(currentRow);
+        }
+        currentRow = new ArrayList<String>();
+
+        if (outputLimitReachedByCurrentRow) {
+            // stop the script: any further output would be dropped
+            throw new OutputLimitReachedError("Output limit of " + maxRows + " rows reached");
+        }
+    }
+
+    /*
+     * Typed rows are never skipped: skipFirstLine applies to text output only.
+     */
+    private void writeTypedRow(List<String> row) {
+        currentRowIsTheFirstLine = false;
+
+        if (emitRow(row)) {
+            throw new OutputLimitReachedError("Output limit of " + maxRows + " rows reached");
+        }
+    }
+
+    @Override
+    public RowEmitter getRowEmitter() {
+        return rowEmitter;
+    }
+
+    /**
+     * Returns the {@code TypeHandlerFactory} for the rows: if the output is formed by
+     * typed rows, the column types are the ones declared by the rows emitted so far.
+     *
+     * @param textOutputTypeHandlerFactory the {@code TypeHandlerFactory} of text output
+     * @return the {@code TypeHandlerFactory} to use
+     */
+    public TypeHandlerFactory getTypeHandlerFactory(TypeHandlerFactory textOutputTypeHandlerFactory) {
+        return rowEmitter.getTypeHandlerFactory(textOutputTypeHandlerFactory);
+    }
+
+    @Override
+    protected void writeCellValue(String value) {
+        currentRow.add(value);
+    }
+
+    @Override
+    public void close() throws IOException {
+        super.close(); // ensure all pending content is written to currentRow
+
+        if (!currentRow.isEmpty() && !abandoned) {
+            rowEmitter.checkTextRowAllowed();
+            emitRow(currentRow);
+        }
+
+        if (!endOfRowsSignalled) {
+            signalEndOfRows();
+        }
+
+        if (recordMetrics) {
+            DriverMetrics.getInstance().outputCaptured(emittedRowCount, getCapturedLength());
+        }
+        captureCompleted(emittedRowCount);
+    }
+
+    /*
+     * Returns true, if the output limit has been reached by emitting the row.
+     */
+    private boolean emitRow(List<String> row) {
+        if (outputLimitReached) {
+            // the script ignored OutputLimitReachedError (or this is the pending output on close)
+            return false;
+        }
+
+        putRow(row);
+        emittedRowCount++;
+
+        if (maxRows > 0 && emittedRowCount > maxRows) {
+            outputLimitReached = true;
+            signalEndOfRows();
+        }
+
+        return outputLimitReached;
+    }
+
+    /**
+     * Signals that the script terminated abnormally: the consumer will
+     * receive the failure once all rows emitted before are consumed.
+     *
+     * @param throwable the failure raised by the script execution
+     */
+    public void producerFailed(Throwable throwable) {
+        if (!endOfRowsSignalled) {
+            producerFailure = throwable;
+            signalEndOfRows();
+        }
+    }
+
+    /**
+     * Signals that the consumer is no longer interested in the output:
+     * any buffered rows are discarded and the producer will never be
+     * blocked by this writer again. The next row written by the producer
+     * throws {@code OutputLimitReachedError}, so that the script (and the
+     * engine it might hold) is not kept busy producing dropped output.
+     */
+    public void abandon() {
+        abandoned = true;
+        rowQueue.clear();
+    }
+
+    private void signalEndOfRows() {
+        endOfRowsSignalled = true;
+        putRow(endOfRowsMarker);
+    }
+
+    private void putRow(List<String> row) {
+        try {
+            while (!abandoned
+                    && !rowQueue.offer(row, OFFER_RETRY_INTERVAL_MS, TimeUnit.MILLISECONDS)) {
+                // queue is full: wait for the consumer to catch up or abandon the output
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw JDBCError.SCRIPT_EXECUTION_EXCEPTION.raiseUncheckedException(e,
+                    "Interrupted while waiting for the ResultSet to consume rows");
+        }
+
+        if (abandoned && row != endOfRowsMarker) {
+            // stop the script: the row is dropped, as any further output would be
+            throw new OutputLimitReachedError("Output abandoned by the consumer");
+        }
+    }
+
+    /**
+     * Returns an {@code Iterator}, which blocks until the next row is
+     * available or the end of the output is reached. A failure of
+     * the script is re-thrown as {@code RuntimeDyna4JdbcException}
+     * from {@code hasNext()}.
+     *
+     * @return an {@code Iterator} over the rows as they are produced
+     */
+    public Iterator<List<String>> rowIterator() {
+        return new Iterator<List<String>>() {
+
+            private List<String> nextRow;
+            private boolean endReached;
+
+            @Override
+            public boolean hasNext() {
+                if (nextRow == null && !endReached) {
+                    List<String> row = takeRow();
+                    if (row == endOfRowsMarker) {
+                        endReached = true;
+                        rethrowProducerFailureIfAny();
+                    } else {
+                        nextRow = row;
+                    }
+                }
+
+                return nextRow != null;
+            }
+
+            @Override
+            public List<String> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                List<String> row = nextRow;
+                nextRow = null;
+                return row;
+            }
+        };
+    }
+
+    private List<String> takeRow() {
+        try {
+            return rowQueue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw JDBCError.SCRIPT_EXECUTION_EXCEPTION.raiseUncheckedException(e,
+                    "Interrupted while waiting for the script to produce rows");
+        }
+    }
+
+    private void rethrowProducerFailureIfAny() {
+        Throwable failure = producerFailure;
+        if (failure != null) {
+            String message = ExceptionUtils.getRootCauseMessage(failure);
+            throw JDBCError.SCRIPT_EXECUTION_EXCEPTION.raiseUncheckedException(failure, message);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.github.dyna4jdbc.RowEmitter;
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.impl.DeclaredTypeHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.impl.SQLDataType;
+
+/**
+ * {@code RowEmitter} of a writer: the values are converted to the raw cell values the
+ * type handlers of their SQL type accept, and passed on to the writer as a row, while
+ * the SQL type of each column is declared by the types of its values.
+ *
+ * <p>
+ * The rows are written by the thread executing the script, while the declared types
+ * might be retrieved by the thread consuming the rows (in streaming mode): the types
+ * are guarded by the lock of the emitter, which is never held while writing a row,
+ * since the writer might block until the consumer catches up.
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+final class TypedRowEmitter implements RowEmitter {
+
+    private final Consumer<List<String>> rowWriter;
+
+    private List<String> columnLabels = Collections.emptyList();
+    private SQLDataType[] columnTypes;
+
+    private boolean textRowsWritten;
+
+    TypedRowEmitter(Consumer<List<String>> rowWriter) {
+        this.rowWriter = rowWriter;
+    }
+
+    @Override
+    public synchronized void header(String... labels) {
+        if (labels == null) {
+            throw JDBCError.INVALID_TYPED_ROW.raiseUncheckedException("the header is null");
+        }
+
+        if (columnTypes != null) {
+            throw JDBCError.INVALID_TYPED_ROW.raiseUncheckedException(
+                    "the header must be declared before the first row");
+        }
+
+        this.columnLabels = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(labels)));
+    }
+
+    @Override
+    public void row(Object... rowValues) {
+        Object[] values = rowValues;
+        if (values == null) {
+            // a single null argument of a varargs call
+            values = new Object[] {null};
+        }
+
+        List<String> row = new ArrayList<>(values.length);
+        for (Object value : values) {
+            row.add(toCellValue(value));
+        }
+
+        declareTypes(values);
+
+        rowWriter.accept(row);
+    }
+
+    private synchronized void declareTypes(Object[] values) {
+        if (textRowsWritten) {
+            throw JDBCError.INVALID_TYPED_ROW.raiseUncheckedException(
+                    "typed rows cannot be mixed with text output");
+        }
+
+        if (columnTypes == null) {
+            if (!columnLabels.isEmpty() && columnLabels.size() != values.length) {
+                throw JDBCError.INVALID_TYPED_ROW.raiseUncheckedException(String.format(
+                        "the row has %s values, while the header has %s columns",
+                        values.length, columnLabels.size()));
+            }
+
+            columnTypes = new SQLDataType[values.length];
+
+        } else if (columnTypes.length != values.length) {
+            throw JDBCError.INVALID_TYPED_ROW.raiseUncheckedException(String.format(
+                    "the row has %s values, while the previous rows have %s",
+                    values.length, columnTypes.length));
+        }
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                columnTypes[i] = widen(columnTypes[i], getSqlDataType(values[i]));
+            }
+        }
+    }
+
+    /**
+     * Called by the writer before writing a row of text output.
+     *
+     * @throws com.github.dyna4jdbc.internal.RuntimeDyna4JdbcException if typed rows have been written
+     */
+    synchronized void checkTextRowAllowed() {
+        if (columnTypes != null) {
+            throw JDBCError.INVALID_TYPED_ROW.raiseUncheckedException(
+                    "text output cannot be mixed with typed rows");
+        }
+
+        textRowsWritten = true;
+    }
+
+    /**
+     * Returns the {@code TypeHandlerFactory} of the output: for typed rows, the one
+     * declaring the types of the rows written so far.
+     *
+     * @param textOutputTypeHandlerFactory the {@code TypeHandlerFactory} of text output
+     * @return the {@code TypeHandlerFactory} to use
+     */
+    synchronized TypeHandlerFactory getTypeHandlerFactory(TypeHandlerFactory textOutputTypeHandlerFactory) {
+        if (columnTypes == null) {
+            return textOutputTypeHandlerFactory;
+        }
+
+        List<SQLDataType> declaredTypes = new ArrayList<>(columnTypes.length);
+        for (SQLDataType columnType : columnTypes) {
+            if (columnType != null) {
+                declaredTypes.add(columnType);
+            } else {
+                // only null values
+                declaredTypes.add(SQLDataType.VARCHAR);
+            }
+        }
+
+        return new DeclaredTypeHandlerFactory(columnLabels, declaredTypes);
+    }
+
+    static SQLDataType getSqlDataType(Object value) {
+        if (value instanceof Boolean) {
+            return SQLDataType.BOOLEAN;
+        } else if (value instanceof Byte) {
+            return SQLDataType.TINYINT;
+        } else if (value instanceof Short) {
+            return SQLDataType.SMALLINT;
+        } else if (value instanceof Integer) {
+            return SQLDataType.INTEGER;
+        } else if (value instanceof Long) {
+            return SQLDataType.BIGINT;
+        } else if (value instanceof Float) {
+            return SQLDataType.REAL;
+        } else if (value instanceof Double) {
+            return SQLDataType.DOUBLE;
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return SQLDataType.DECIMAL;
+        } else if (value instanceof java.sql.Date || value instanceof LocalDate) {
+            return SQLDataType.DATE;
+        } else if (value instanceof java.sql.Time || value instanceof LocalTime) {
+            return SQLDataType.TIME;
+        } else if (value instanceof java.util.Date || value instanceof LocalDateTime) {
+            return SQLDataType.TIMESTAMP;
+        }
+
+        return SQLDataType.VARCHAR;
+    }
+
+    /*
+     * The raw cell value, which the type handler of the SQL type of the value
+     * converts back to the value: e.g. java.sql.Timestamp.valueOf(String)
+     * accepts the format of Timestamp.toString().
+     */
+    static String toCellValue(Object value) {
+        if (value == null) {
+            return null;
+        } else if (value instanceof LocalDate) {
+            return java.sql.Date.valueOf((LocalDate) value).toString();
+        } else if (value instanceof LocalTime) {
+            return java.sql.Time.valueOf((LocalTime) value).toString();
+        } else if (value instanceof LocalDateTime) {
+            return Timestamp.valueOf((LocalDateTime) value).toString();
+        } else if (value instanceof java.util.Date
+                && !(value instanceof java.sql.Date || value instanceof java.sql.Time)) {
+            return new Timestamp(((java.util.Date) value).getTime()).toString();
+        }
+
+        return value.toString();
+    }
+
+    static SQLDataType widen(SQLDataType columnType, SQLDataType valueType) {
+        if (columnType == null || columnType == valueType) {
+            return valueType;
+        }
+
+        if (isIntegral(columnType) && isIntegral(valueType)) {
+            // declared in the order of their range
+            return SQLDataType.values()[Math.max(columnType.ordinal(), valueType.ordinal())];
+        }
+
+        if (isNumeric(columnType) && isNumeric(valueType)) {
+            if (columnType == SQLDataType.DECIMAL || valueType == SQLDataType.DECIMAL) {
+                return SQLDataType.DECIMAL;
+            }
+
+            return SQLDataType.DOUBLE;
+        }
+
+        return SQLDataType.VARCHAR;
+    }
+
+    private static boolean isIntegral(SQLDataType sqlDataType) {
+        switch (sqlDataType) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isNumeric(SQLDataType sqlDataType) {
+        switch (sqlDataType) {
+            case REAL:
+            case DOUBLE:
+            case DECIMAL:
+                return true;
+
+            default:
+                return isIntegral(sqlDataType);
+        }
+    }
+}
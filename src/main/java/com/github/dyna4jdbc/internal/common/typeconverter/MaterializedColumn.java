@@ -0,0 +1,39 @@
+package com.github.dyna4jdbc.internal.common.typeconverter;
+
+import java.sql.Timestamp;
+
+/**
+ * Cells of a column, which have been converted to the type of the column once
+ * and are held in primitive arrays instead of their raw (text) values: see
+ * {@link TypeHandler#materialize(Iterable, int, int)}.
+ *
+ * <p>
+ * Each conversion returns the very same result as the {@code TypeHandler} would
+ * return for the raw cell value. Conversions, which cannot be served from the
+ * converted values, reconstruct the raw cell value and delegate to the
+ * {@code TypeHandler}.
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+public interface MaterializedColumn {
+
+    boolean isNull(int rowIndex);
+
+    /**
+     * Returns the raw cell value, reconstructed from the converted value.
+     *
+     * @param rowIndex the zero-based index of the row
+     * @return a {@code String} equal to the raw cell value the column was
+     *      materialized from, or {@code null} if the cell is null
+     */
+    String getRawCellValue(int rowIndex);
+
+    int covertToIntValue(int rowIndex) throws TypeConversionException;
+
+    long covertToLongValue(int rowIndex) throws TypeConversionException;
+
+    double covertToDoubleValue(int rowIndex) throws TypeConversionException;
+
+    Timestamp covertToTimestamp(int rowIndex) throws TypeConversionException;
+}
@@ -51,4 +51,42 @@ public interface TypeHandler {
     java.sql.Date covertToDate(String rawCellValue, java.util.Calendar cal) throws TypeConversionException;
 
     java.io.Reader covertToCharacterStream(String rawCellValue) throws TypeConversionException;
+
+    /*
+     * Primitive conversions: unlike their boxed counterparts above, these
+     * do not allocate a wrapper object per cell. Since a primitive cannot
+     * represent SQL NULL, nullity is reported separately by isNull(String):
+     * for a cell, which is null, the primitive methods return the default
+     * value of the primitive type (false or zero).
+     */
+
+    boolean isNull(String rawCellValue);
+
+    boolean covertToBooleanValue(String rawCellValue) throws TypeConversionException;
+
+    byte covertToByteValue(String rawCellValue) throws TypeConversionException;
+
+    short covertToShortValue(String rawCellValue) throws TypeConversionException;
+
+    int covertToIntValue(String rawCellValue) throws TypeConversionException;
+
+    long covertToLongValue(String rawCellValue) throws TypeConversionException;
+
+    float covertToFloatValue(String rawCellValue) throws TypeConversionException;
+
+    double covertToDoubleValue(String rawCellValue) throws TypeConversionException;
+
+    /**
+     * Converts all cells of the column once, so that they can be served
+     * without parsing the raw cell values again.
+     *
+     * @param cellValues the raw cell values of the column
+     * @param cellCount the number of cells in {@code cellValues}
+     * @param firstCellIndex the index of the first cell to convert: cells before
+     *      it (e.g. a header row) are considered null
+     * @return the converted column, or {@code null} if the column cannot be
+     *      materialized (e.g. its type is not supported, or a raw cell value
+     *      could not be reconstructed exactly from the converted value)
+     */
+    MaterializedColumn materialize(Iterable<String> cellValues, int cellCount, int firstCellIndex);
 }
@@ -0,0 +1,94 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import java.sql.Timestamp;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.MaterializedColumn;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionException;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandler;
+
+/**
+ * Base class of the {@link MaterializedColumn}s: keeps track of the null cells
+ * in a bitmap and delegates the conversions not served by a subclass to the
+ * {@code TypeHandler}, passing the reconstructed raw cell value.
+ *
+ * @author Peter Horvath
+ */
+abstract class AbstractMaterializedColumn implements MaterializedColumn {
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
+
+    private final TypeHandler typeHandler;
+    private final int cellCount;
+    private final long[] nullBitmap;
+
+    protected AbstractMaterializedColumn(TypeHandler typeHandler, int cellCount) {
+        this.typeHandler = typeHandler;
+        this.cellCount = cellCount;
+        this.nullBitmap = new long[(cellCount + Long.SIZE - 1) >>> ADDRESS_BITS_PER_WORD];
+    }
+
+    /**
+     * Converts the raw cell values.
+     *
+     * @param cellValues the raw cell values
+     * @param firstCellIndex the index of the first cell to convert:
+     *      cells before it are null
+     * @return {@code true} if all cells could be materialized,
+     *      {@code false} otherwise
+     */
+    final boolean materialize(Iterable<String> cellValues, int firstCellIndex) {
+        int rowIndex = 0;
+        for (String rawCellValue : cellValues) {
+            if (rowIndex >= cellCount) {
+                return false;
+            }
+
+            if (rowIndex < firstCellIndex || rawCellValue == null) {
+                nullBitmap[rowIndex >>> ADDRESS_BITS_PER_WORD] |= 1L << rowIndex;
+            } else if (!materializeCell(rowIndex, rawCellValue)) {
+                return false;
+            }
+
+            rowIndex++;
+        }
+
+        return true;
+    }
+
+    /**
+     * Converts and stores a non-null cell.
+     *
+     * @param rowIndex the zero-based index of the row
+     * @param rawCellValue the raw cell value (never {@code null})
+     * @return {@code true} if the cell was stored and {@link #getRawCellValue(int)}
+     *      will return a value equal to {@code rawCellValue}, {@code false} otherwise
+     */
+    protected abstract boolean materializeCell(int rowIndex, String rawCellValue);
+
+    @Override
+    public final boolean isNull(int rowIndex) {
+        return (nullBitmap[rowIndex >>> ADDRESS_BITS_PER_WORD] & (1L << rowIndex)) != 0;
+    }
+
+    //CHECKSTYLE.OFF: DesignForExtension
+    @Override
+    public int covertToIntValue(int rowIndex) throws TypeConversionException {
+        return typeHandler.covertToIntValue(getRawCellValue(rowIndex));
+    }
+
+    @Override
+    public long covertToLongValue(int rowIndex) throws TypeConversionException {
+        return typeHandler.covertToLongValue(getRawCellValue(rowIndex));
+    }
+
+    @Override
+    public double covertToDoubleValue(int rowIndex) throws TypeConversionException {
+        return typeHandler.covertToDoubleValue(getRawCellValue(rowIndex));
+    }
+
+    @Override
+    public Timestamp covertToTimestamp(int rowIndex) throws TypeConversionException {
+        return typeHandler.covertToTimestamp(getRawCellValue(rowIndex));
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+}
@@ -0,0 +1,321 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+/**
+ * Classifies a cell value in a single pass over its characters, without
+ * using regular expressions or allocating any objects.
+ *
+ * <p>
+ * The results are equivalent to the ones of the regular expressions
+ * defined in {@link SQLDataType}: for the types recognised by the scanner,
+ * {@link #isPlausibleConversion(SQLDataType)}, {@link #getScale(SQLDataType)}
+ * and {@link #getPrecision(SQLDataType)} return the same value as the
+ * corresponding {@code SQLDataType} method would for the last value
+ * scanned; for any other type, the call is delegated to {@code SQLDataType}.
+ * </p>
+ *
+ * <p>
+ * Instances are stateful (they hold the result of the last {@link #scan(String)}
+ * call) and must not be shared between threads.
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+final class CellValueScanner {
+
+    private static final int YEAR_DIGITS = 4;
+    private static final int MAX_MONTH_OR_DAY_DIGITS = 2;
+    private static final int TIME_FIELD_DIGITS = 2;
+    private static final int MILLISECOND_DIGITS = 3;
+
+    private String value;
+
+    private boolean integer;
+    private boolean decimal;
+    private boolean date;
+    private boolean time;
+    private boolean timestamp;
+    private boolean booleanLiteral;
+
+    private int integerDigits;
+    private int fractionDigits;
+
+    /**
+     * Scans the value given: the results can be queried until
+     * the next invocation of this method.
+     *
+     * @param cellValue the value to scan (can be {@code null})
+     */
+    void scan(String cellValue) {
+        this.value = cellValue;
+
+        integer = false;
+        decimal = false;
+        date = false;
+        time = false;
+        timestamp = false;
+        booleanLiteral = false;
+        integerDigits = 0;
+        fractionDigits = 0;
+
+        if (cellValue != null) {
+            scanNumber(cellValue);
+
+            if (!integer && !decimal) {
+                scanTemporal(cellValue);
+                booleanLiteral = "true".equalsIgnoreCase(cellValue) || "false".equalsIgnoreCase(cellValue);
+            }
+        }
+    }
+
+    /*
+     * ^[+-]?(\d+)$ or ^[+-]?(\d+)\.(\d+)$
+     */
+    private void scanNumber(String cellValue) {
+        final int length = cellValue.length();
+
+        int position = 0;
+        if (length > 0 && (cellValue.charAt(0) == '+' || cellValue.charAt(0) == '-')) {
+            position++;
+        }
+
+        final int integerPartStart = position;
+        position = skipDigits(cellValue, position);
+        final int integerPartLength = position - integerPartStart;
+
+        if (integerPartLength == 0) {
+            return;
+        }
+
+        if (position == length) {
+            integer = true;
+            integerDigits = integerPartLength;
+            return;
+        }
+
+        if (cellValue.charAt(position) != '.') {
+            return;
+        }
+        position++;
+
+        final int fractionPartStart = position;
+        position = skipDigits(cellValue, position);
+        final int fractionPartLength = position - fractionPartStart;
+
+        if (fractionPartLength > 0 && position == length) {
+            decimal = true;
+            integerDigits = integerPartLength;
+            fractionDigits = fractionPartLength;
+        }
+    }
+
+    /*
+     * Date:      \d{4}-\d{1,2}-\d{1,2}
+     * Time:      \d{2}:\d{2}:\d{2}(?:\.\d{3})?
+     * Timestamp: <Date> <Time>
+     */
+    private void scanTemporal(String cellValue) {
+        final int length = cellValue.length();
+
+        int dateEnd = scanDate(cellValue, 0);
+        if (dateEnd == length) {
+            date = true;
+            return;
+        }
+
+        if (dateEnd < 0) {
+            time = scanTime(cellValue, 0) == length;
+            return;
+        }
+
+        if (cellValue.charAt(dateEnd) == ' ') {
+            timestamp = scanTime(cellValue, dateEnd + 1) == length;
+        }
+    }
+
+    private static int scanDate(String cellValue, int start) {
+        int position = expectDigits(cellValue, start, YEAR_DIGITS, YEAR_DIGITS);
+        position = expectCharacter(cellValue, position, '-');
+        position = expectDigits(cellValue, position, 1, MAX_MONTH_OR_DAY_DIGITS);
+        position = expectCharacter(cellValue, position, '-');
+        return expectDigits(cellValue, position, 1, MAX_MONTH_OR_DAY_DIGITS);
+    }
+
+    private static int scanTime(String cellValue, int start) {
+        int position = expectDigits(cellValue, start, TIME_FIELD_DIGITS, TIME_FIELD_DIGITS);
+        position = expectCharacter(cellValue, position, ':');
+        position = expectDigits(cellValue, position, TIME_FIELD_DIGITS, TIME_FIELD_DIGITS);
+        position = expectCharacter(cellValue, position, ':');
+        position = expectDigits(cellValue, position, TIME_FIELD_DIGITS, TIME_FIELD_DIGITS);
+
+        if (position >= 0 && position < cellValue.length() && cellValue.charAt(position) == '.') {
+            return expectDigits(cellValue, position + 1, MILLISECOND_DIGITS, MILLISECOND_DIGITS);
+        }
+        return position;
+    }
+
+    /**
+     * @return the position after the digits, or {@code -1} if the
+     *      number of digits is not between {@code min} and {@code max}
+     */
+    private static int expectDigits(String cellValue, int start, int min, int max) {
+        if (start < 0) {
+            return -1;
+        }
+
+        final int end = skipDigits(cellValue, start);
+        final int digitCount = end - start;
+        if (digitCount < min || digitCount > max) {
+            return -1;
+        }
+        return end;
+    }
+
+    /**
+     * @return the position after the character, or {@code -1} if
+     *      the character expected is not present
+     */
+    private static int expectCharacter(String cellValue, int position, char expected) {
+        if (position < 0 || position >= cellValue.length() || cellValue.charAt(position) != expected) {
+            return -1;
+        }
+        return position + 1;
+    }
+
+    private static int skipDigits(String cellValue, int start) {
+        final int length = cellValue.length();
+        int position = start;
+        while (position < length && isAsciiDigit(cellValue.charAt(position))) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    boolean isNull() {
+        return value == null;
+    }
+
+    boolean isInteger() {
+        return integer;
+    }
+
+    boolean isDecimal() {
+        return decimal;
+    }
+
+    boolean isDate() {
+        return date;
+    }
+
+    boolean isTime() {
+        return time;
+    }
+
+    boolean isTimestamp() {
+        return timestamp;
+    }
+
+    boolean isBooleanLiteral() {
+        return booleanLiteral;
+    }
+
+    int getLength() {
+        //CHECKSTYLE.OFF: AvoidInlineConditionals
+        return value != null ? value.length() : 0;
+        //CHECKSTYLE.ON: AvoidInlineConditionals
+    }
+
+    boolean isPlausibleConversion(SQLDataType sqlDataType) {
+        switch (sqlDataType) {
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                return value == null || integer;
+
+            case FLOAT:
+            case REAL:
+            case DOUBLE:
+            case NUMERIC:
+            case DECIMAL:
+                return value == null || decimal;
+
+            case TIMESTAMP:
+                return value == null || timestamp;
+
+            case CHAR:
+            case VARCHAR:
+            case LONGVARCHAR:
+                return true;
+
+            default:
+                return sqlDataType.isPlausibleConversion(value);
+        }
+    }
+
+    int getScale(SQLDataType sqlDataType) {
+        if (value == null) {
+            return 0;
+        }
+
+        switch (sqlDataType) {
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                //CHECKSTYLE.OFF: AvoidInlineConditionals
+                return integer ? integerDigits : value.length();
+                //CHECKSTYLE.ON: AvoidInlineConditionals
+
+            case FLOAT:
+            case REAL:
+            case DOUBLE:
+            case NUMERIC:
+            case DECIMAL:
+                //CHECKSTYLE.OFF: AvoidInlineConditionals
+                return decimal ? integerDigits + fractionDigits : value.length();
+                //CHECKSTYLE.ON: AvoidInlineConditionals
+
+            case TIMESTAMP:
+                return 0;
+
+            case CHAR:
+            case VARCHAR:
+            case LONGVARCHAR:
+                return value.length();
+
+            default:
+                return sqlDataType.getScale(value);
+        }
+    }
+
+    int getPrecision(SQLDataType sqlDataType) {
+        if (value == null) {
+            return 0;
+        }
+
+        switch (sqlDataType) {
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case TIMESTAMP:
+            case CHAR:
+            case VARCHAR:
+            case LONGVARCHAR:
+                return 0;
+
+            case FLOAT:
+            case REAL:
+            case DOUBLE:
+            case NUMERIC:
+            case DECIMAL:
+                //CHECKSTYLE.OFF: AvoidInlineConditionals
+                return decimal ? fractionDigits : 0;
+                //CHECKSTYLE.ON: AvoidInlineConditionals
+
+            default:
+                return sqlDataType.getPrecision(value);
+        }
+    }
+}
@@ -26,7 +26,7 @@ final class ColumnHeaderColumnMetadataFactory extends HeuristicsColumnMetadataFa
 
 
     ColumnHeaderColumnMetadataFactory(Configuration configuration) {
-
+        super(configuration);
     }
 
     static ColumnHeaderColumnMetadataFactory getInstance(Configuration configuration) {
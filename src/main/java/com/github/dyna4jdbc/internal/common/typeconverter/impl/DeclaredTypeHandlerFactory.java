@@ -0,0 +1,124 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata.Nullability;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandler;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandlerFactory;
+
+/**
+ * {@code TypeHandlerFactory} for columns, of which the SQL type is declared by the
+ * script (see {@link com.github.dyna4jdbc.RowEmitter}), instead of being guessed from
+ * the cell values: the cells are only measured (length, nullability and digits),
+ * but not classified.
+ *
+ * @author Peter Horvath
+ */
+public final class DeclaredTypeHandlerFactory implements TypeHandlerFactory {
+
+    private final List<String> columnLabels;
+    private final List<SQLDataType> columnTypes;
+
+    /**
+     * Creates a factory for the columns declared.
+     *
+     * @param columnLabels the labels of the columns by (zero-based) column index
+     * @param columnTypes the SQL types of the columns by (zero-based) column index
+     */
+    public DeclaredTypeHandlerFactory(List<String> columnLabels, List<SQLDataType> columnTypes) {
+        this.columnLabels = new ArrayList<>(columnLabels);
+        this.columnTypes = new ArrayList<>(columnTypes);
+    }
+
+    @Override
+    public TypeHandler newTypeHandler(int columnIndex, Iterable<String> columnIterable) {
+
+        SQLDataType columnType = SQLDataType.VARCHAR;
+        if (columnIndex < columnTypes.size()) {
+            columnType = columnTypes.get(columnIndex);
+        }
+
+        String columnLabel = String.valueOf(columnIndex + 1);
+        if (columnIndex < columnLabels.size()) {
+            columnLabel = columnLabels.get(columnIndex);
+        }
+
+        Nullability nullability = Nullability.NOT_NULLABLE;
+        int maxLength = 0;
+        int maxDigits = 0;
+        int maxFractionDigits = 0;
+
+        for (String cellValue : columnIterable) {
+            if (cellValue == null) {
+                nullability = Nullability.NULLABLE;
+                continue;
+            }
+
+            maxLength = Math.max(maxLength, cellValue.length());
+
+            int digits = 0;
+            int fractionDigits = 0;
+            boolean fraction = false;
+            for (int i = 0; i < cellValue.length(); i++) {
+                final char c = cellValue.charAt(i);
+                if (c >= '0' && c <= '9') {
+                    digits++;
+                    if (fraction) {
+                        fractionDigits++;
+                    }
+                } else if (c == '.') {
+                    fraction = true;
+                } else if (c == 'E') {
+                    // the exponent of a floating point value
+                    break;
+                }
+            }
+
+            maxDigits = Math.max(maxDigits, digits);
+            maxFractionDigits = Math.max(maxFractionDigits, fractionDigits);
+        }
+
+        DefaultColumnMetadata metadata = new DefaultColumnMetadata();
+        metadata.setConsumesFirstRowValue(false);
+        metadata.setCurrency(false);
+        metadata.setNullability(nullability);
+        metadata.setColumnLabel(columnLabel);
+        metadata.setColumnName(columnLabel);
+        metadata.setColumnDisplaySize(maxLength);
+        metadata.setColumnType(columnType);
+
+        switch (columnType) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                metadata.setSigned(true);
+                metadata.setPrecision(0);
+                metadata.setScale(maxDigits);
+                break;
+
+            case REAL:
+            case DOUBLE:
+            case DECIMAL:
+                metadata.setSigned(true);
+                metadata.setPrecision(maxFractionDigits);
+                metadata.setScale(maxDigits);
+                break;
+
+            case VARCHAR:
+                metadata.setSigned(false);
+                metadata.setPrecision(0);
+                metadata.setScale(maxLength);
+                break;
+
+            default:
+                metadata.setSigned(false);
+                metadata.setPrecision(0);
+                metadata.setScale(0);
+                break;
+        }
+
+        return new DefaultTypeHandler(metadata);
+    }
+}
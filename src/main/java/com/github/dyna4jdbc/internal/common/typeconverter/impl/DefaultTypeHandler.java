@@ -15,6 +15,7 @@ import java.util.Map;
 
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata;
+import com.github.dyna4jdbc.internal.common.typeconverter.MaterializedColumn;
 import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionException;
 import com.github.dyna4jdbc.internal.common.typeconverter.TypeConverter;
 
@@ -198,4 +199,88 @@ class DefaultTypeHandler extends AbstractTypeHandler {
 
         return new StringReader(rawCellValue);
     }
+
+    @Override
+    public boolean isNull(String rawCellValue) {
+        return rawCellValue == null;
+    }
+
+    @Override
+    public boolean covertToBooleanValue(String rawCellValue) throws TypeConversionException {
+        return TypeConverterRegistry.toBooleanValue(rawCellValue);
+    }
+
+    @Override
+    public byte covertToByteValue(String rawCellValue) throws TypeConversionException {
+        return TypeConverterRegistry.toByteValue(rawCellValue);
+    }
+
+    @Override
+    public short covertToShortValue(String rawCellValue) throws TypeConversionException {
+        return TypeConverterRegistry.toShortValue(rawCellValue);
+    }
+
+    @Override
+    public int covertToIntValue(String rawCellValue) throws TypeConversionException {
+        return TypeConverterRegistry.toIntValue(rawCellValue);
+    }
+
+    @Override
+    public long covertToLongValue(String rawCellValue) throws TypeConversionException {
+        return TypeConverterRegistry.toLongValue(rawCellValue);
+    }
+
+    @Override
+    public float covertToFloatValue(String rawCellValue) throws TypeConversionException {
+        return TypeConverterRegistry.toFloatValue(rawCellValue);
+    }
+
+    @Override
+    public double covertToDoubleValue(String rawCellValue) throws TypeConversionException {
+        return TypeConverterRegistry.toDoubleValue(rawCellValue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>
+     * The materialized columns convert the same way as this class does:
+     * subclasses changing the conversion of a type have to override this method.
+     * </p>
+     */
+    @Override
+    public MaterializedColumn materialize(Iterable<String> cellValues, int cellCount, int firstCellIndex) {
+
+        SQLDataType columnType = columnMetadata.getColumnType();
+        if (columnType == null) {
+            throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException("columnType is null");
+        }
+
+        AbstractMaterializedColumn materializedColumn;
+        switch (columnType) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                materializedColumn = new LongMaterializedColumn(this, cellCount);
+                break;
+
+            case DOUBLE:
+                materializedColumn = new DoubleMaterializedColumn(this, cellCount);
+                break;
+
+            case TIMESTAMP:
+                materializedColumn = new TimestampMaterializedColumn(this, cellCount);
+                break;
+
+            default:
+                return null;
+        }
+
+        if (!materializedColumn.materialize(cellValues, firstCellIndex)) {
+            return null;
+        }
+
+        return materializedColumn;
+    }
 }
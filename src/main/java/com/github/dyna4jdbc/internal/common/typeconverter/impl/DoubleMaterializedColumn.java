@@ -0,0 +1,138 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionException;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandler;
+
+/**
+ * Decimal column held in a {@code double[]}, with the number of digits after
+ * the decimal point of each cell kept in a {@code byte[]}. Only plain decimals
+ * ({@code [-]digits[.digits]}, no plus sign, no leading zeros) of at most 15
+ * digits are accepted: a {@code double} represents these faithfully, hence
+ * the raw cell value can be reconstructed from the value and the scale.
+ *
+ * @author Peter Horvath
+ */
+final class DoubleMaterializedColumn extends AbstractMaterializedColumn {
+
+    private static final int MAX_DIGITS = 15;
+    private static final double[] POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15 };
+
+    private final double[] values;
+    private final byte[] scales;
+
+    DoubleMaterializedColumn(TypeHandler typeHandler, int cellCount) {
+        super(typeHandler, cellCount);
+        this.values = new double[cellCount];
+        this.scales = new byte[cellCount];
+    }
+
+    @Override
+    protected boolean materializeCell(int rowIndex, String rawCellValue) {
+        final int scale = getScaleOfCanonicalDecimal(rawCellValue);
+        if (scale < 0) {
+            return false;
+        }
+
+        try {
+            values[rowIndex] = TypeConverterRegistry.toDoubleValue(rawCellValue);
+            scales[rowIndex] = (byte) scale;
+            return true;
+
+        } catch (TypeConversionException e) {
+            return false;
+        }
+    }
+
+    /*
+     * Returns the number of digits after the decimal point, or -1 if the value
+     * is not a plain decimal of at most MAX_DIGITS digits in canonical form.
+     */
+    private static int getScaleOfCanonicalDecimal(String value) {
+        final int length = value.length();
+
+        int index = 0;
+        if (value.startsWith("-")) {
+            index = 1;
+        }
+
+        final int integerPartStart = index;
+        while (index < length && isDigit(value.charAt(index))) {
+            index++;
+        }
+
+        final int integerDigits = index - integerPartStart;
+        if (integerDigits == 0 || (integerDigits > 1 && value.charAt(integerPartStart) == '0')) {
+            return -1;
+        }
+
+        int scale = 0;
+        if (index < length) {
+            if (value.charAt(index) != '.') {
+                return -1;
+            }
+            index++;
+
+            final int fractionStart = index;
+            while (index < length && isDigit(value.charAt(index))) {
+                index++;
+            }
+
+            scale = index - fractionStart;
+            if (scale == 0 || index < length) {
+                return -1;
+            }
+        }
+
+        if (integerDigits + scale > MAX_DIGITS) {
+            return -1;
+        }
+
+        return scale;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    @Override
+    public String getRawCellValue(int rowIndex) {
+        if (isNull(rowIndex)) {
+            return null;
+        }
+
+        final double value = values[rowIndex];
+        final int scale = scales[rowIndex];
+
+        // exact: the value is within half an ulp of digits / 10^scale, with at most 15 digits
+        final String digits = Long.toString(Math.round(Math.abs(value) * POWERS_OF_TEN[scale]));
+
+        StringBuilder sb = new StringBuilder(digits.length() + scale + 2);
+        if (Double.doubleToRawLongBits(value) < 0) {
+            // negative, including negative zero
+            sb.append('-');
+        }
+
+        if (scale == 0) {
+            return sb.append(digits).toString();
+        }
+
+        final int integerDigits = digits.length() - scale;
+        if (integerDigits > 0) {
+            sb.append(digits, 0, integerDigits).append('.').append(digits, integerDigits, digits.length());
+        } else {
+            sb.append("0.");
+            for (int i = integerDigits; i < 0; i++) {
+                sb.append('0');
+            }
+            sb.append(digits);
+        }
+
+        return sb.toString();
+    }
+
+    @Override
+    public double covertToDoubleValue(int rowIndex) {
+        return values[rowIndex];
+    }
+}
@@ -1,17 +1,65 @@
 package com.github.dyna4jdbc.internal.common.typeconverter.impl;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadataFactory;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata.Nullability;
 import com.github.dyna4jdbc.internal.config.Configuration;
-
+import com.github.dyna4jdbc.internal.config.TypeInferenceStrategy;
+
+/**
+ * Guesses the type of a column from the cell values.
+ *
+ * <p>
+ * Depending on the {@link TypeInferenceStrategy} configured, either all cells
+ * or only a sample of them is classified. Cells outside the sample are
+ * only checked against the type detected from the sample: if a cell
+ * does not match, the column falls back to {@code VARCHAR} (instead of
+ * being widened along the numeric types), since {@code VARCHAR} is the
+ * only type guaranteed to accept any value. Once a column is
+ * {@code VARCHAR}, no further type detection is performed: only
+ * the length and the nullability of the remaining cells are recorded.
+ * </p>
+ */
 class HeuristicsColumnMetadataFactory implements ColumnMetadataFactory {
 
-    private static final HeuristicsColumnMetadataFactory INSTANCE = new HeuristicsColumnMetadataFactory();
+    private static final HeuristicsColumnMetadataFactory FULL_SCAN_INSTANCE = new HeuristicsColumnMetadataFactory();
+
+    /**
+     * Fixed seed, so that the same output always yields the same metadata.
+     */
+    private static final long RESERVOIR_SAMPLING_SEED = 0x5DEECE66DL;
+
+    private static final int INITIAL_RESERVOIR_CAPACITY = 64;
+
+    private final TypeInferenceStrategy typeInferenceStrategy;
+    private final int sampleSize;
+
+    HeuristicsColumnMetadataFactory() {
+        this(TypeInferenceStrategy.FULL, Integer.MAX_VALUE);
+    }
+
+    HeuristicsColumnMetadataFactory(TypeInferenceStrategy typeInferenceStrategy, int sampleSize) {
+        if (typeInferenceStrategy == null) {
+            throw new NullPointerException("argument typeInferenceStrategy cannot be null");
+        }
+        this.typeInferenceStrategy = typeInferenceStrategy;
+        this.sampleSize = sampleSize;
+    }
+
+    HeuristicsColumnMetadataFactory(Configuration configuration) {
+        this(configuration.getTypeInferenceStrategy(), configuration.getTypeInferenceSampleSize());
+    }
 
     static HeuristicsColumnMetadataFactory getInstance(Configuration configuration) {
-        return INSTANCE;
+        if (configuration.getTypeInferenceStrategy() == TypeInferenceStrategy.FULL) {
+            return FULL_SCAN_INSTANCE;
+        }
+
+        return new HeuristicsColumnMetadataFactory(configuration);
     }
 
 
@@ -25,27 +73,139 @@ class HeuristicsColumnMetadataFactory implements ColumnMetadataFactory {
     protected void configureForValues(DefaultColumnMetadata metaData,
                                       int columnIndex, Iterable<String> cellValues) {
 
-        final int sqlColumnIndex = columnIndex + 1;
+        final ColumnStatistics statistics = new ColumnStatistics();
 
-        int maxSize = 0;
-        int maxPrecision = 0;
-        int maxScale = 0;
-        int maxBeforeDecimalPoint = 0;
+        switch (typeInferenceStrategy) {
+            case FULL:
+                for (String cellValue : cellValues) {
+                    statistics.classify(cellValue);
+                }
+                break;
 
-        Nullability nullability = Nullability.NOT_NULLABLE;
+            case FIRST_ROWS:
+                collectStatisticsFromFirstRows(statistics, cellValues);
+                break;
 
-        SQLDataType columnType = SQLDataType.OTHER;
+            case RESERVOIR:
+                collectStatisticsFromReservoirSample(statistics, cellValues);
+                break;
 
+            default:
+                throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(
+                        "Unexpected typeInferenceStrategy: " + typeInferenceStrategy);
+        }
+
+        statistics.applyTo(metaData, columnIndex);
+    }
+
+    private void collectStatisticsFromFirstRows(ColumnStatistics statistics, Iterable<String> cellValues) {
+        int cellCount = 0;
         for (String cellValue : cellValues) {
+            if (cellCount < sampleSize) {
+                statistics.classify(cellValue);
+            } else {
+                statistics.verify(cellValue);
+            }
+            cellCount++;
+        }
+    }
+
+    private void collectStatisticsFromReservoirSample(ColumnStatistics statistics, Iterable<String> cellValues) {
+
+        // Algorithm R: every cell has the same probability to end up in the sample
+        final Random random = new Random(RESERVOIR_SAMPLING_SEED);
+        String[] sampleValues = new String[Math.min(sampleSize, INITIAL_RESERVOIR_CAPACITY)];
+        int[] sampleIndexes = new int[sampleValues.length];
 
-            columnType = getColumnTypeByCurrentlySelectedTypeAndCellValue(columnType, cellValue);
+        int cellCount = 0;
+        for (String cellValue : cellValues) {
+            int slot;
+            if (cellCount < sampleSize) {
+                slot = cellCount;
+                if (slot == sampleValues.length) {
+                    final int newCapacity = (int) Math.min(sampleSize, 2L * sampleValues.length);
+                    sampleValues = Arrays.copyOf(sampleValues, newCapacity);
+                    sampleIndexes = Arrays.copyOf(sampleIndexes, newCapacity);
+                }
+            } else {
+                slot = random.nextInt(cellCount + 1);
+            }
+
+            if (slot < sampleSize) {
+                sampleValues[slot] = cellValue;
+                sampleIndexes[slot] = cellCount;
+            }
+            cellCount++;
+        }
+
+        final int sampledCellCount = Math.min(cellCount, sampleSize);
+        for (int i = 0; i < sampledCellCount; i++) {
+            statistics.classify(sampleValues[i]);
+        }
+
+        if (cellCount > sampleSize && statistics.isFurtherTypeDetectionRequired()) {
+            // second pass: check the cells not sampled against the type detected
+            Arrays.sort(sampleIndexes);
+
+            int cellIndex = 0;
+            int nextSampleIndexPosition = 0;
+            for (String cellValue : cellValues) {
+                if (nextSampleIndexPosition < sampleSize
+                        && sampleIndexes[nextSampleIndexPosition] == cellIndex) {
+                    nextSampleIndexPosition++;
+                } else {
+                    statistics.verify(cellValue);
+                }
+                cellIndex++;
+            }
+
+        } else if (cellCount > sampleSize) {
+            // column is VARCHAR already: only sizes and nullability are of interest
+            for (String cellValue : cellValues) {
+                statistics.verify(cellValue);
+            }
+        }
+    }
+
+    /**
+     * Accumulates the properties of the cells seen so far.
+     */
+    private static final class ColumnStatistics {
+
+        private SQLDataType columnType = SQLDataType.OTHER;
+        private Nullability nullability = Nullability.NOT_NULLABLE;
+
+        private int maxSize;
+        private int maxPrecision;
+        private int maxScale;
+        private int maxBeforeDecimalPoint;
+
+        private int maxSizeOfVerifiedCells;
+
+        private final CellValueScanner scanner = new CellValueScanner();
+
+        boolean isFurtherTypeDetectionRequired() {
+            return columnType != SQLDataType.VARCHAR;
+        }
+
+        void classify(String cellValue) {
+
+            if (isFurtherTypeDetectionRequired()) {
+                scanner.scan(cellValue);
+                columnType = getColumnTypeByCurrentlySelectedTypeAndCellValue(columnType, scanner);
+            }
 
             if (cellValue == null) {
                 nullability = Nullability.NULLABLE;
+            } else if (columnType == SQLDataType.VARCHAR) {
+                // the scale of a VARCHAR value is its length: no scanning is required
+                maxBeforeDecimalPoint = Math.max(maxBeforeDecimalPoint, cellValue.length());
+                maxSize = Math.max(maxSize, cellValue.length());
+                maxScale = Math.max(maxScale, cellValue.length());
             } else {
 
-                final int scale = columnType.getScale(cellValue);
-                final int precision = columnType.getPrecision(cellValue);
+                final int scale = scanner.getScale(columnType);
+                final int precision = scanner.getPrecision(columnType);
 
                 maxBeforeDecimalPoint = Math.max(maxBeforeDecimalPoint, scale - precision);
 
@@ -58,54 +218,93 @@ class HeuristicsColumnMetadataFactory implements ColumnMetadataFactory {
             }
         }
 
-        int maxColumnDisplaySize;
-        if (maxPrecision == 0) {
-            maxColumnDisplaySize = maxSize;
-        } else {
-            maxColumnDisplaySize = maxBeforeDecimalPoint + 1 + maxPrecision;
+        void verify(String cellValue) {
+
+            if (cellValue == null) {
+                nullability = Nullability.NULLABLE;
+                return;
+            }
 
-            maxScale = Math.max(maxScale, maxBeforeDecimalPoint + maxPrecision);
+            maxSizeOfVerifiedCells = Math.max(maxSizeOfVerifiedCells, cellValue.length());
+
+            if (isFurtherTypeDetectionRequired()) {
+                scanner.scan(cellValue);
+                if (!isAcceptedByColumnType()) {
+                    columnType = SQLDataType.VARCHAR;
+                }
+            }
         }
 
-        if (maxPrecision > 0 && columnType == SQLDataType.VARCHAR) {
-            maxScale = maxSize;
-            maxColumnDisplaySize = maxSize;
-            maxPrecision = 0;
+        private boolean isAcceptedByColumnType() {
+            switch (columnType) {
+                case DOUBLE:
+                    return scanner.isPlausibleConversion(SQLDataType.DOUBLE)
+                            || scanner.isPlausibleConversion(SQLDataType.INTEGER);
+
+                default:
+                    return scanner.isPlausibleConversion(columnType);
+            }
         }
 
-        metaData.setConsumesFirstRowValue(false);
-        metaData.setCurrency(false);
-        metaData.setNullability(nullability);
-        metaData.setSigned(columnType != SQLDataType.VARCHAR);
-        metaData.setColumnLabel(String.valueOf(sqlColumnIndex));
-        metaData.setColumnName(String.valueOf(sqlColumnIndex));
-        metaData.setPrecision(maxPrecision);
-        metaData.setScale(maxScale);
-        metaData.setColumnDisplaySize(maxColumnDisplaySize);
-        metaData.setColumnType(columnType);
+        void applyTo(DefaultColumnMetadata metaData, int columnIndex) {
+
+            final int sqlColumnIndex = columnIndex + 1;
+
+            int maxColumnDisplaySize;
+            if (maxPrecision == 0) {
+                maxColumnDisplaySize = maxSize;
+            } else {
+                maxColumnDisplaySize = maxBeforeDecimalPoint + 1 + maxPrecision;
+
+                maxScale = Math.max(maxScale, maxBeforeDecimalPoint + maxPrecision);
+            }
+
+            if (maxPrecision > 0 && columnType == SQLDataType.VARCHAR) {
+                maxScale = maxSize;
+                maxColumnDisplaySize = maxSize;
+                maxPrecision = 0;
+            }
+
+            // cells not classified: their exact precision is unknown, only their length
+            maxColumnDisplaySize = Math.max(maxColumnDisplaySize, maxSizeOfVerifiedCells);
+            if (columnType == SQLDataType.VARCHAR) {
+                maxScale = Math.max(maxScale, maxSizeOfVerifiedCells);
+            }
+
+            metaData.setConsumesFirstRowValue(false);
+            metaData.setCurrency(false);
+            metaData.setNullability(nullability);
+            metaData.setSigned(columnType != SQLDataType.VARCHAR);
+            metaData.setColumnLabel(String.valueOf(sqlColumnIndex));
+            metaData.setColumnName(String.valueOf(sqlColumnIndex));
+            metaData.setPrecision(maxPrecision);
+            metaData.setScale(maxScale);
+            metaData.setColumnDisplaySize(maxColumnDisplaySize);
+            metaData.setColumnType(columnType);
+        }
     }
 
     private static SQLDataType getColumnTypeByCurrentlySelectedTypeAndCellValue(
-            SQLDataType currentColumnType, String cellValue) {
+            SQLDataType currentColumnType, CellValueScanner scannedCellValue) {
 
         SQLDataType newColumnType = currentColumnType;
 
         switch (currentColumnType) {
             case OTHER:
-                if (SQLDataType.DOUBLE.isPlausibleConversion(cellValue)) {
+                if (scannedCellValue.isPlausibleConversion(SQLDataType.DOUBLE)) {
                     newColumnType = SQLDataType.DOUBLE;
                     break;
                 }
-                if (SQLDataType.INTEGER.isPlausibleConversion(cellValue)) {
+                if (scannedCellValue.isPlausibleConversion(SQLDataType.INTEGER)) {
                     newColumnType = SQLDataType.INTEGER;
                     break;
                 }
-                if (SQLDataType.TIMESTAMP.isPlausibleConversion(cellValue)) {
+                if (scannedCellValue.isPlausibleConversion(SQLDataType.TIMESTAMP)) {
                     newColumnType = SQLDataType.TIMESTAMP;
                     break;
                 }
 
-                if (SQLDataType.VARCHAR.isPlausibleConversion(cellValue)) {
+                if (scannedCellValue.isPlausibleConversion(SQLDataType.VARCHAR)) {
                     newColumnType = SQLDataType.VARCHAR;
                     break;
                 }
@@ -113,20 +312,20 @@ class HeuristicsColumnMetadataFactory implements ColumnMetadataFactory {
                 break;
 
             case INTEGER:
-                if (SQLDataType.INTEGER.isPlausibleConversion(cellValue)) {
+                if (scannedCellValue.isPlausibleConversion(SQLDataType.INTEGER)) {
                     newColumnType = SQLDataType.INTEGER;
                     break;
                 }
 
             case DOUBLE:
-                if (SQLDataType.DOUBLE.isPlausibleConversion(cellValue)
-                        || SQLDataType.INTEGER.isPlausibleConversion(cellValue)) {
+                if (scannedCellValue.isPlausibleConversion(SQLDataType.DOUBLE)
+                        || scannedCellValue.isPlausibleConversion(SQLDataType.INTEGER)) {
                     newColumnType = SQLDataType.DOUBLE;
                     break;
                 }
 
             case TIMESTAMP:
-                if (SQLDataType.TIMESTAMP.isPlausibleConversion(cellValue)) {
+                if (scannedCellValue.isPlausibleConversion(SQLDataType.TIMESTAMP)) {
                     newColumnType = SQLDataType.TIMESTAMP;
                     break;
                 }
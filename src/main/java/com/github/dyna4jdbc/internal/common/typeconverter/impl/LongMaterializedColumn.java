@@ -0,0 +1,95 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionException;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandler;
+
+/**
+ * Integer column held in a {@code long[]}: the integer types inferred by the
+ * heuristics are not limited to the range of {@code int}. Only cells in the
+ * canonical form produced by {@link Long#toString(long)} (no plus sign,
+ * no leading zeros) are accepted, so that the raw cell value can be reconstructed.
+ *
+ * @author Peter Horvath
+ */
+final class LongMaterializedColumn extends AbstractMaterializedColumn {
+
+    private final long[] values;
+
+    LongMaterializedColumn(TypeHandler typeHandler, int cellCount) {
+        super(typeHandler, cellCount);
+        this.values = new long[cellCount];
+    }
+
+    @Override
+    protected boolean materializeCell(int rowIndex, String rawCellValue) {
+        if (!isCanonicalInteger(rawCellValue)) {
+            return false;
+        }
+
+        try {
+            values[rowIndex] = Long.parseLong(rawCellValue);
+            return true;
+
+        } catch (NumberFormatException outOfRange) {
+            return false;
+        }
+    }
+
+    private static boolean isCanonicalInteger(String value) {
+        final int length = value.length();
+
+        int firstDigitIndex = 0;
+        if (value.startsWith("-")) {
+            firstDigitIndex = 1;
+        }
+
+        if (firstDigitIndex == length) {
+            return false;
+        }
+
+        if (value.charAt(firstDigitIndex) == '0') {
+            // neither leading zeros, nor negative zero
+            return length == 1;
+        }
+
+        for (int i = firstDigitIndex; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String getRawCellValue(int rowIndex) {
+        if (isNull(rowIndex)) {
+            return null;
+        }
+
+        return Long.toString(values[rowIndex]);
+    }
+
+    @Override
+    public int covertToIntValue(int rowIndex) throws TypeConversionException {
+        final long value = values[rowIndex];
+        if ((int) value != value) {
+            // out of the range of int: let the TypeHandler report the failure
+            return super.covertToIntValue(rowIndex);
+        }
+
+        return (int) value;
+    }
+
+    @Override
+    public long covertToLongValue(int rowIndex) {
+        return values[rowIndex];
+    }
+
+    @Override
+    public double covertToDoubleValue(int rowIndex) {
+        // widening is correctly rounded, just like parsing the text is
+        return values[rowIndex];
+    }
+}
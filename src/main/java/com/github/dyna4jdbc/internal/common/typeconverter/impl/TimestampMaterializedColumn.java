@@ -0,0 +1,109 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import java.sql.Timestamp;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionException;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandler;
+
+/**
+ * Timestamp column held as nanoseconds since the epoch in a {@code long[]}, with
+ * the number of fraction digits of each cell kept in a {@code byte[]}. Only
+ * cells in the format {@code yyyy-mm-dd hh:mm:ss[.f...]} are accepted, which
+ * are reproduced exactly by formatting the {@code Timestamp} (this excludes e.g.
+ * local times skipped by a daylight saving time transition).
+ *
+ * @author Peter Horvath
+ */
+final class TimestampMaterializedColumn extends AbstractMaterializedColumn {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+    private static final long MILLIS_PER_SECOND = 1_000L;
+    private static final int MAX_FRACTION_DIGITS = 9;
+
+    // length of yyyy-mm-dd hh:mm:ss
+    private static final int LENGTH_WITHOUT_FRACTION = 19;
+
+    private final long[] epochNanos;
+    private final byte[] fractionDigits;
+
+    TimestampMaterializedColumn(TypeHandler typeHandler, int cellCount) {
+        super(typeHandler, cellCount);
+        this.epochNanos = new long[cellCount];
+        this.fractionDigits = new byte[cellCount];
+    }
+
+    @Override
+    protected boolean materializeCell(int rowIndex, String rawCellValue) {
+        final int length = rawCellValue.length();
+        if (length < LENGTH_WITHOUT_FRACTION) {
+            return false;
+        }
+
+        int fractionDigitCount = 0;
+        if (length > LENGTH_WITHOUT_FRACTION) {
+            // the decimal point is followed by the fraction digits
+            fractionDigitCount = length - LENGTH_WITHOUT_FRACTION - 1;
+        }
+
+        if (fractionDigitCount > MAX_FRACTION_DIGITS) {
+            return false;
+        }
+
+        try {
+            final Timestamp timestamp = TypeConverterRegistry.TIMESTAMP.convert(rawCellValue);
+
+            epochNanos[rowIndex] = Math.addExact(
+                    Math.multiplyExact(Math.floorDiv(timestamp.getTime(), MILLIS_PER_SECOND), NANOS_PER_SECOND),
+                    timestamp.getNanos());
+            fractionDigits[rowIndex] = (byte) fractionDigitCount;
+
+        } catch (TypeConversionException | ArithmeticException e) {
+            return false;
+        }
+
+        return rawCellValue.equals(getRawCellValue(rowIndex));
+    }
+
+    private Timestamp toTimestamp(int rowIndex) {
+        final long nanos = epochNanos[rowIndex];
+
+        Timestamp timestamp = new Timestamp(Math.floorDiv(nanos, NANOS_PER_SECOND) * MILLIS_PER_SECOND);
+        timestamp.setNanos((int) Math.floorMod(nanos, NANOS_PER_SECOND));
+
+        return timestamp;
+    }
+
+    @Override
+    public String getRawCellValue(int rowIndex) {
+        if (isNull(rowIndex)) {
+            return null;
+        }
+
+        final Timestamp timestamp = toTimestamp(rowIndex);
+
+        // Timestamp.toString() drops the trailing zeros of the fraction, but not the last one
+        final String formatted = timestamp.toString();
+        if (formatted.length() < LENGTH_WITHOUT_FRACTION) {
+            return formatted;
+        }
+
+        final int fractionDigitCount = fractionDigits[rowIndex];
+        if (fractionDigitCount == 0) {
+            return formatted.substring(0, LENGTH_WITHOUT_FRACTION);
+        }
+
+        // nine digits, with leading zeros
+        final String nanos = Long.toString(NANOS_PER_SECOND + timestamp.getNanos()).substring(1);
+
+        return formatted.substring(0, LENGTH_WITHOUT_FRACTION) + '.' + nanos.substring(0, fractionDigitCount);
+    }
+
+    @Override
+    public Timestamp covertToTimestamp(int rowIndex) {
+        if (isNull(rowIndex)) {
+            return null;
+        }
+
+        return toTimestamp(rowIndex);
+    }
+}
@@ -8,6 +8,7 @@ import java.util.Date;
 
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata;
+import com.github.dyna4jdbc.internal.common.typeconverter.MaterializedColumn;
 import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionException;
 
 class TimestamptFormatStringTypeHandler extends DefaultTypeHandler {
@@ -52,4 +53,9 @@ class TimestamptFormatStringTypeHandler extends DefaultTypeHandler {
         }
     }
 
+    @Override
+    public MaterializedColumn materialize(Iterable<String> cellValues, int cellCount, int firstCellIndex) {
+        // cells are parsed according to the format string, not the way TimestampMaterializedColumn does
+        return null;
+    }
 }
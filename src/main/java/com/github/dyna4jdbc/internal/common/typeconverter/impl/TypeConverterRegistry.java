@@ -278,6 +278,229 @@ final class TypeConverterRegistry {
         }
     };
 
+    /*
+     * Primitive counterparts of the converters above: they accept the same input,
+     * but do not box the value converted. Null is converted to the default value
+     * of the primitive type: callers have to check for null separately.
+     */
+
+    static boolean toBooleanValue(String input) {
+        if (input == null) {
+            return false;
+        }
+
+        switch (input.trim()) {
+            case "0":
+                return false;
+
+            case "1":
+                return true;
+
+            default:
+                return Boolean.parseBoolean(input);
+        }
+    }
+
+    static byte toByteValue(String input) throws TypeConversionException {
+        final int value = toIntValue(input);
+        if (value < Byte.MIN_VALUE || value > Byte.MAX_VALUE) {
+            throw new TypeConversionException(new NumberFormatException(
+                    "Value " + value + " out of range from input " + input));
+        }
+
+        return (byte) value;
+    }
+
+    static short toShortValue(String input) throws TypeConversionException {
+        final int value = toIntValue(input);
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            throw new TypeConversionException(new NumberFormatException(
+                    "Value " + value + " out of range from input " + input));
+        }
+
+        return (short) value;
+    }
+
+    static int toIntValue(String input) throws TypeConversionException {
+        try {
+            if (input == null) {
+                return 0;
+            }
+
+            if (isDecimalWithoutRadixSpecifier(input)) {
+                return Integer.parseInt(input);
+            }
+
+            // hexadecimal or octal input: rare enough to accept the boxing of decode
+            return Integer.decode(input);
+
+        } catch (NumberFormatException nfe) {
+            throw new TypeConversionException(nfe);
+        }
+    }
+
+    static long toLongValue(String input) throws TypeConversionException {
+        try {
+            if (input == null) {
+                return 0L;
+            }
+
+            if (isDecimalWithoutRadixSpecifier(input)) {
+                return Long.parseLong(input);
+            }
+
+            // hexadecimal or octal input: rare enough to accept the boxing of decode
+            return Long.decode(input);
+
+        } catch (NumberFormatException nfe) {
+            throw new TypeConversionException(nfe);
+        }
+    }
+
+    static float toFloatValue(String input) throws TypeConversionException {
+        try {
+            if (input == null) {
+                return 0.0f;
+            }
+
+            final float value = parseFloatExactly(input);
+            if (!Float.isNaN(value)) {
+                return value;
+            }
+
+            return Float.parseFloat(input);
+
+        } catch (NumberFormatException nfe) {
+            throw new TypeConversionException(nfe);
+        }
+    }
+
+    static double toDoubleValue(String input) throws TypeConversionException {
+        try {
+            if (input == null) {
+                return 0.0d;
+            }
+
+            final double value = parseDoubleExactly(input);
+            if (!Double.isNaN(value)) {
+                return value;
+            }
+
+            return Double.parseDouble(input);
+
+        } catch (NumberFormatException nfe) {
+            throw new TypeConversionException(nfe);
+        }
+    }
+
+    /*
+     * Fast path of the floating point conversions, which (unlike parseDouble and parseFloat)
+     * does not allocate: a plain decimal ([+-]digits[.digits]) with few enough digits is
+     * converted by dividing its digits by a power of ten. Both operands are exactly
+     * representable, hence the single division is correctly rounded and yields the very
+     * same value as parseDouble / parseFloat would. For any other input (exponent, suffix,
+     * whitespace, too many digits etc.) NaN is returned and the callers fall back to
+     * parseDouble / parseFloat.
+     */
+
+    // 10^15 < 2^53: up to 15 digits and the scale (never more than the digits) are exact doubles
+    private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+    private static final double[] EXACT_DOUBLE_POWERS_OF_TEN = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15 };
+
+    // 10^7 < 2^24: up to 7 digits and the scale (never more than the digits) are exact floats
+    private static final int MAX_EXACT_FLOAT_DIGITS = 7;
+    private static final float[] EXACT_FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f };
+
+    // parsePlainDecimal returns the digits shifted left by SCALE_BITS, OR-ed with the scale
+    private static final int SCALE_BITS = 5;
+    private static final long SCALE_MASK = (1L << SCALE_BITS) - 1;
+    private static final long NOT_A_PLAIN_DECIMAL = -1L;
+
+    private static double parseDoubleExactly(String input) {
+        final long digitsAndScale = parsePlainDecimal(input, MAX_EXACT_DOUBLE_DIGITS);
+        if (digitsAndScale == NOT_A_PLAIN_DECIMAL) {
+            return Double.NaN;
+        }
+
+        final double value = (digitsAndScale >>> SCALE_BITS)
+                / EXACT_DOUBLE_POWERS_OF_TEN[(int) (digitsAndScale & SCALE_MASK)];
+
+        return input.charAt(0) == '-' ? -value : value;
+    }
+
+    private static float parseFloatExactly(String input) {
+        final long digitsAndScale = parsePlainDecimal(input, MAX_EXACT_FLOAT_DIGITS);
+        if (digitsAndScale == NOT_A_PLAIN_DECIMAL) {
+            return Float.NaN;
+        }
+
+        final float value = (digitsAndScale >>> SCALE_BITS)
+                / EXACT_FLOAT_POWERS_OF_TEN[(int) (digitsAndScale & SCALE_MASK)];
+
+        return input.charAt(0) == '-' ? -value : value;
+    }
+
+    private static long parsePlainDecimal(String input, int maxDigits) {
+        final int length = input.length();
+
+        int index = 0;
+        if (length > 0 && (input.charAt(0) == '-' || input.charAt(0) == '+')) {
+            index++;
+        }
+
+        long digits = 0;
+        int digitCount = 0;
+        int scale = 0;
+        boolean decimalPointSeen = false;
+
+        for (; index < length; index++) {
+            final char c = input.charAt(index);
+            if (c >= '0' && c <= '9') {
+                if (++digitCount > maxDigits) {
+                    return NOT_A_PLAIN_DECIMAL;
+                }
+                digits = digits * 10 + (c - '0');
+                if (decimalPointSeen) {
+                    scale++;
+                }
+            } else if (c == '.' && !decimalPointSeen) {
+                decimalPointSeen = true;
+            } else {
+                return NOT_A_PLAIN_DECIMAL;
+            }
+        }
+
+        if (digitCount == 0) {
+            return NOT_A_PLAIN_DECIMAL;
+        }
+
+        return (digits << SCALE_BITS) | scale;
+    }
+
+    /*
+     * Returns true if Integer.decode / Long.decode would parse the input as a
+     * decimal number, i.e. an optional sign is not followed by a radix specifier
+     * (0x, 0X, # or the leading 0 of an octal number): parseInt / parseLong yield
+     * the same result for such an input.
+     */
+    private static boolean isDecimalWithoutRadixSpecifier(String input) {
+        final int length = input.length();
+
+        int index = 0;
+        if (length > 0 && (input.charAt(0) == '-' || input.charAt(0) == '+')) {
+            index++;
+        }
+
+        if (index >= length) {
+            return false;
+        }
+
+        final char firstDigit = input.charAt(index);
+        return (firstDigit >= '1' && firstDigit <= '9') || (firstDigit == '0' && index == length - 1);
+    }
+
     private static final Map<Class<?>, TypeConverter<?>> TYPE_CONVERTERS;
 
     static {
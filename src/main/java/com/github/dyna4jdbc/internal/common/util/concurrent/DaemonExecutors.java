@@ -0,0 +1,40 @@
+package com.github.dyna4jdbc.internal.common.util.concurrent;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Factory methods for executors running on daemon threads.
+ *
+ * @author Peter Horvath
+ */
+public final class DaemonExecutors {
+
+    private static final long IDLE_THREAD_KEEP_ALIVE_SECONDS = 60;
+
+    private DaemonExecutors() {
+        // static utility class -- no instances allowed
+    }
+
+    /**
+     * Creates an executor with at most the given number of threads: threads are
+     * started on demand, and stopped after being idle for a minute, so an executor
+     * never used costs nothing. Tasks submitted while all threads are busy are queued.
+     *
+     * @param threadNamePrefix the prefix of the names of the threads
+     * @param maximumThreads the maximum number of threads
+     * @return the executor
+     */
+    public static ExecutorService newBoundedDaemonExecutor(String threadNamePrefix, int maximumThreads) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                maximumThreads, maximumThreads,
+                IDLE_THREAD_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new DaemonThreadFactory(threadNamePrefix));
+
+        executor.allowCoreThreadTimeOut(true);
+
+        return executor;
+    }
+}
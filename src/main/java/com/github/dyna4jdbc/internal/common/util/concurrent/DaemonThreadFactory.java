@@ -0,0 +1,30 @@
+package com.github.dyna4jdbc.internal.common.util.concurrent;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code ThreadFactory} creating named daemon threads: threads started
+ * by the driver must never prevent the host JVM from shutting down.
+ *
+ * @author Peter Horvath
+ */
+public final class DaemonThreadFactory implements ThreadFactory {
+
+    private final String threadNamePrefix;
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    public DaemonThreadFactory(String threadNamePrefix) {
+        if (threadNamePrefix == null) {
+            throw new NullPointerException("argument threadNamePrefix cannot be null");
+        }
+        this.threadNamePrefix = threadNamePrefix;
+    }
+
+    @Override
+    public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, threadNamePrefix + "-" + threadCounter.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    }
+}
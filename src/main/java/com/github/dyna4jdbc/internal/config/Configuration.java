@@ -2,9 +2,43 @@ package com.github.dyna4jdbc.internal.config;
 
 public interface Configuration {
 
+    /**
+     * Placeholder of the marker in {@link #getEndOfOutputMarkerCommand()}.
+     */
+    String END_OF_OUTPUT_MARKER_PLACEHOLDER = "{marker}";
+
     char getCellSeparator();
     boolean getSkipFirstLine();
     boolean getPreferMultipleResultSets();
     String getConversionCharset();
+    boolean getStreamResults();
+    int getStreamingLookAheadRows();
+    int getStreamingBufferRows();
+    TypeInferenceStrategy getTypeInferenceStrategy();
+    int getTypeInferenceSampleSize();
+    boolean getMaterializeTypedColumns();
+    int getCompiledScriptCacheSize();
+    boolean getCompiledScriptCacheStatistics();
+    String getParameterVariablePrefix();
+    int getBatchParallelism();
+    int getAsyncExecutionThreads();
+    int getStatementMemoryBudgetMb();
+    int getConnectionMemoryBudgetMb();
+    boolean getJmxMetrics();
+
+    /**
+     * @return the command printing the end of output marker, containing
+     *      {@link #END_OF_OUTPUT_MARKER_PLACEHOLDER}, or {@code null} if not set
+     */
+    String getEndOfOutputMarkerCommand();
+    int getFirstOutputTimeoutMs();
+    int getOutputIdleTimeoutMs();
+
+    /**
+     * @return the time waited for output before the end of output marker line is read,
+     *      or {@code 0} if there is no limit
+     */
+    int getEndOfOutputMarkerTimeoutMs();
+    ProcessOutputFormat getProcessOutputFormat();
 
 }
@@ -0,0 +1,22 @@
+package com.github.dyna4jdbc.internal.config;
+
+/**
+ * Defines how the standard output of a process runner process is read.
+ *
+ * @author Peter Horvath
+ */
+public enum ProcessOutputFormat {
+
+    /**
+     * Lines of text, with the cells separated by the cell separator; the SQL type
+     * of each column is guessed from the values.
+     */
+    TEXT,
+
+    /**
+     * Length-prefixed binary frames: a schema frame declaring the SQL type of each
+     * column, row frames with the typed values and an end of result frame, which
+     * ends the output of the statement.
+     */
+    BINARY
+}
@@ -0,0 +1,28 @@
+package com.github.dyna4jdbc.internal.config;
+
+/**
+ * Defines which cells of a column are inspected in detail when
+ * the SQL type of the column is guessed from the values.
+ *
+ * @author Peter Horvath
+ */
+public enum TypeInferenceStrategy {
+
+    /**
+     * All cells are inspected.
+     */
+    FULL,
+
+    /**
+     * Only the first <i>n</i> cells are inspected; the remaining cells
+     * are only checked against the type detected from the sample.
+     */
+    FIRST_ROWS,
+
+    /**
+     * <i>n</i> cells, selected uniformly over the whole column are inspected;
+     * the remaining cells are only checked against the type detected from
+     * the sample.
+     */
+    RESERVOIR
+}
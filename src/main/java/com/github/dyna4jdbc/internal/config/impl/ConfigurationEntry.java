@@ -3,8 +3,13 @@ package com.github.dyna4jdbc.internal.config.impl;
 import java.nio.charset.Charset;
 import java.nio.charset.IllegalCharsetNameException;
 import java.sql.DriverPropertyInfo;
+import java.util.Arrays;
 
+import com.github.dyna4jdbc.internal.common.metrics.DriverMetrics;
+import com.github.dyna4jdbc.internal.config.Configuration;
 import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.ProcessOutputFormat;
+import com.github.dyna4jdbc.internal.config.TypeInferenceStrategy;
 
 enum ConfigurationEntry {
 
@@ -26,27 +31,7 @@ enum ConfigurationEntry {
             "If set to true, the first output line is omitted from the result. Default is false.") {
         @Override
         void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
-
-            if (value == null || "".equals(value) || "".equals(value.trim())) {
-                throw MisconfigurationException
-                        .forMessage("Value for %s cannot be null/whitespace only, but was '%s'",
-                                this.key, value);
-            }
-
-            switch (value) {
-                case "true":
-                    config.setSkipFirstLine(true);
-                    break;
-
-                case "false":
-                    config.setSkipFirstLine(false);
-                    break;
-
-                default:
-                    throw MisconfigurationException
-                            .forMessage("Value for %s must either be 'true' or 'false', but was '%s'",
-                                    this.key, value);
-            }
+            config.setSkipFirstLine(parseBoolean(this.key, value));
         }
 
         @Override
@@ -61,27 +46,7 @@ enum ConfigurationEntry {
                     + "will be considered as a new result set. Default is false.") {
         @Override
         void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
-
-            if (value == null || "".equals(value) || "".equals(value.trim())) {
-                throw MisconfigurationException
-                        .forMessage("Value for %s cannot be null/whitespace only, but was '%s'",
-                                this.key, value);
-            }
-
-            switch (value) {
-                case "true":
-                    config.setPreferMultipleResultSets(true);
-                    break;
-
-                case "false":
-                    config.setPreferMultipleResultSets(false);
-                    break;
-
-                default:
-                    throw MisconfigurationException
-                            .forMessage("Value for %s must either be 'true' or 'false', but was '%s'",
-                                    this.key, value);
-            }
+            config.setPreferMultipleResultSets(parseBoolean(this.key, value));
         }
 
         @Override
@@ -109,6 +74,272 @@ enum ConfigurationEntry {
 
             config.setConversionCharset(charset);
         }
+    },
+    STREAM_RESULTS("streamResults", "false",
+            "If set to true, executeQuery returns a ResultSet, which yields rows while "
+                    + "the script is still running. Default is false.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setStreamResults(parseBoolean(this.key, value));
+        }
+
+        @Override
+        public DriverPropertyInfo getDriverPropertyInfo() {
+            DriverPropertyInfo propertyInfo = super.getDriverPropertyInfo();
+            propertyInfo.choices = new String[]{"true", "false"};
+            return propertyInfo;
+        }
+    },
+    STREAMING_LOOK_AHEAD_ROWS("streamingLookAheadRows", "1000",
+            "Number of rows captured from a streamed result before column types are inferred "
+                    + "and the ResultSet is returned to the caller. Default is 1000.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setStreamingLookAheadRows(parsePositiveInteger(this.key, value));
+        }
+    },
+    STREAMING_BUFFER_ROWS("streamingBufferRows", "10000",
+            "Maximum number of rows buffered between a running script and a streamed "
+                    + "ResultSet; the script is blocked while the buffer is full. Default is 10000.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setStreamingBufferRows(parsePositiveInteger(this.key, value));
+        }
+    },
+    TYPE_INFERENCE("typeInference", "FULL",
+            "Selects the cells inspected when column types are guessed: FULL inspects all cells, "
+                    + "FIRST_ROWS the first typeInferenceSampleSize cells and RESERVOIR a random sample "
+                    + "of typeInferenceSampleSize cells. Cells outside the sample, which do not match "
+                    + "the type detected, make the column VARCHAR. Default is FULL.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            if (value == null || "".equals(value.trim())) {
+                throw MisconfigurationException
+                        .forMessage("Value for %s cannot be null/whitespace only, but was '%s'",
+                                this.key, value);
+            }
+
+            try {
+                config.setTypeInferenceStrategy(TypeInferenceStrategy.valueOf(value.trim()));
+            } catch (IllegalArgumentException e) {
+                throw MisconfigurationException
+                        .forMessage("Value for %s must be one of %s, but was '%s'",
+                                this.key, Arrays.toString(TypeInferenceStrategy.values()), value);
+            }
+        }
+
+        @Override
+        public DriverPropertyInfo getDriverPropertyInfo() {
+            DriverPropertyInfo propertyInfo = super.getDriverPropertyInfo();
+            propertyInfo.choices = Arrays.stream(TypeInferenceStrategy.values())
+                    .map(TypeInferenceStrategy::name)
+                    .toArray(String[]::new);
+            return propertyInfo;
+        }
+    },
+    TYPE_INFERENCE_SAMPLE_SIZE("typeInferenceSampleSize", "1000",
+            "Number of cells inspected per column, if typeInference is "
+                    + "FIRST_ROWS or RESERVOIR. Default is 1000.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setTypeInferenceSampleSize(parsePositiveInteger(this.key, value));
+        }
+    },
+    MATERIALIZE_TYPED_COLUMNS("materializeTypedColumns", "false",
+            "If set to true, the cells of INTEGER, BIGINT, DOUBLE and TIMESTAMP columns of a "
+                    + "(non-streamed) ResultSet are converted once, after the column types are determined, "
+                    + "and kept in primitive arrays instead of text: the typed getters do not parse "
+                    + "the text again. Columns, whose text could not be reproduced exactly from the "
+                    + "converted value (e.g. numbers with leading zeros), are kept as text. "
+                    + "Default is false.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setMaterializeTypedColumns(parseBoolean(this.key, value));
+        }
+
+        @Override
+        public DriverPropertyInfo getDriverPropertyInfo() {
+            DriverPropertyInfo propertyInfo = super.getDriverPropertyInfo();
+            propertyInfo.choices = new String[]{"true", "false"};
+            return propertyInfo;
+        }
+    },
+    END_OF_OUTPUT_MARKER_COMMAND("endOfOutputMarkerCommand", "",
+            "Process runner only: command written to the standard input of the process after each "
+                    + "statement, which prints a unique marker line, e.g. 'echo {marker}'. The placeholder "
+                    + "{marker} is replaced with the marker. The output of the statement is complete "
+                    + "once the marker line is read. If not set, the end of the output is detected by "
+                    + "firstOutputTimeoutMs and outputIdleTimeoutMs. Default is not set.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            if (value == null || "".equals(value.trim())) {
+                config.setEndOfOutputMarkerCommand(null);
+                return;
+            }
+
+            if (!value.contains(Configuration.END_OF_OUTPUT_MARKER_PLACEHOLDER)) {
+                throw MisconfigurationException
+                        .forMessage("Value for %s must contain the placeholder %s, but was '%s'",
+                                this.key, Configuration.END_OF_OUTPUT_MARKER_PLACEHOLDER, value);
+            }
+
+            config.setEndOfOutputMarkerCommand(value);
+        }
+    },
+    FIRST_OUTPUT_TIMEOUT_MS("firstOutputTimeoutMs", "500",
+            "Process runner only: if no endOfOutputMarkerCommand is set, the time in milliseconds "
+                    + "waited for the first line of output of a statement. Default is 500.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setFirstOutputTimeoutMs(parsePositiveInteger(this.key, value));
+        }
+    },
+    OUTPUT_IDLE_TIMEOUT_MS("outputIdleTimeoutMs", "250",
+            "Process runner only: if no endOfOutputMarkerCommand is set, the output of a statement "
+                    + "is considered complete if no output is produced for this many milliseconds. "
+                    + "Default is 250.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setOutputIdleTimeoutMs(parsePositiveInteger(this.key, value));
+        }
+    },
+    END_OF_OUTPUT_MARKER_TIMEOUT_MS("endOfOutputMarkerTimeoutMs", "60000",
+            "Process runner only: if endOfOutputMarkerCommand is set, the time in milliseconds "
+                    + "waited for further output of a statement, until its marker line is read. If no "
+                    + "output is produced for this long (e.g. the marker command is wrong, or the process "
+                    + "waits for more input), the statement fails, and the process is terminated. "
+                    + "0 means no limit. Default is 60000.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setEndOfOutputMarkerTimeoutMs(parseNonNegativeInteger(this.key, value));
+        }
+    },
+    PROCESS_OUTPUT_FORMAT("processOutputFormat", "TEXT",
+            "Process runner only: the format of the standard output of the process. TEXT is read as "
+                    + "lines of cells, BINARY as length-prefixed frames of typed rows, each statement "
+                    + "ending with an end of result frame (endOfOutputMarkerCommand, firstOutputTimeoutMs, "
+                    + "outputIdleTimeoutMs and endOfOutputMarkerTimeoutMs are not used). Default is TEXT.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            if (value == null || "".equals(value.trim())) {
+                throw MisconfigurationException
+                        .forMessage("Value for %s cannot be null/whitespace only, but was '%s'",
+                                this.key, value);
+            }
+
+            try {
+                config.setProcessOutputFormat(ProcessOutputFormat.valueOf(value.trim()));
+            } catch (IllegalArgumentException e) {
+                throw MisconfigurationException
+                        .forMessage("Value for %s must be one of %s, but was '%s'",
+                                this.key, Arrays.toString(ProcessOutputFormat.values()), value);
+            }
+        }
+
+        @Override
+        public DriverPropertyInfo getDriverPropertyInfo() {
+            DriverPropertyInfo propertyInfo = super.getDriverPropertyInfo();
+            propertyInfo.choices = Arrays.stream(ProcessOutputFormat.values())
+                    .map(ProcessOutputFormat::name)
+                    .toArray(String[]::new);
+            return propertyInfo;
+        }
+    },
+    COMPILED_SCRIPT_CACHE_SIZE("compiledScriptCacheSize", "0",
+            "Maximum number of compiled scripts cached per connection, for script engines "
+                    + "supporting compilation; the least recently used one is evicted "
+                    + "if the cache is full. 0 disables the cache. Default is 0.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setCompiledScriptCacheSize(parseNonNegativeInteger(this.key, value));
+        }
+    },
+    COMPILED_SCRIPT_CACHE_STATISTICS("compiledScriptCacheStatistics", "false",
+            "If set to true, the hits, misses and evictions of the compiled script cache are counted "
+                    + "and logged when the connection is closed. Default is false.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setCompiledScriptCacheStatistics(parseBoolean(this.key, value));
+        }
+
+        @Override
+        public DriverPropertyInfo getDriverPropertyInfo() {
+            DriverPropertyInfo propertyInfo = super.getDriverPropertyInfo();
+            propertyInfo.choices = new String[]{"true", "false"};
+            return propertyInfo;
+        }
+    },
+    PARAMETER_VARIABLE_PREFIX("parameterVariablePrefix", "parameter",
+            "Script engine only: the parameters of a PreparedStatement are passed to the script "
+                    + "as variables named by this prefix and the (one-based) index of the parameter, "
+                    + "e.g. parameter1, parameter2. Default is parameter.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            if (value == null || value.isEmpty() || !Character.isJavaIdentifierStart(value.charAt(0))
+                    || !value.chars().allMatch(Character::isJavaIdentifierPart)) {
+                throw MisconfigurationException
+                        .forMessage("Value for %s must be a valid identifier, but was '%s'",
+                                this.key, value);
+            }
+
+            config.setParameterVariablePrefix(value);
+        }
+    },
+    BATCH_PARALLELISM("batchParallelism", "1",
+            "Script engine only: maximum number of entries of a statement batch executed concurrently, "
+                    + "if the script engine is thread-safe. The entries must then be independent of "
+                    + "each other; their update counts are still returned in order. "
+                    + "1 executes the entries one after the other. Default is 1.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setBatchParallelism(parsePositiveInteger(this.key, value));
+        }
+    },
+    ASYNC_EXECUTION_THREADS("asyncExecutionThreads", "4",
+            "Maximum number of threads of a connection executing the scripts submitted "
+                    + "via the AsyncStatement extension (see Statement.unwrap): further executions "
+                    + "are queued. The threads are started on demand. Default is 4.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setAsyncExecutionThreads(parsePositiveInteger(this.key, value));
+        }
+    },
+    STATEMENT_MEMORY_BUDGET_MB("statementMemoryBudgetMb", "0",
+            "Megabytes of heap memory the output captured by an execution of a statement can occupy: "
+                    + "the rest of the output is stored in temporary files, which are deleted when "
+                    + "the ResultSet is closed. Does not apply if streamResults is true. "
+                    + "0 means unlimited. Default is 0.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setStatementMemoryBudgetMb(parseNonNegativeInteger(this.key, value));
+        }
+    },
+    CONNECTION_MEMORY_BUDGET_MB("connectionMemoryBudgetMb", "0",
+            "Megabytes of heap memory the output captured by all statements of a connection can occupy "
+                    + "together: the rest of the output is stored in temporary files (see "
+                    + "statementMemoryBudgetMb). 0 means unlimited. Default is 0.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setConnectionMemoryBudgetMb(parseNonNegativeInteger(this.key, value));
+        }
+    },
+    JMX_METRICS("jmxMetrics", "false",
+            "If set to true, the connection is counted in the driver metrics published via JMX "
+                    + "as the MBean " + DriverMetrics.OBJECT_NAME + ": statements executed, rows and "
+                    + "bytes captured, latencies, compiled script cache hits and process output "
+                    + "queue depths. The MBean is registered by the first connection enabling it. "
+                    + "Default is false.") {
+        @Override
+        void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException {
+            config.setJmxMetrics(parseBoolean(this.key, value));
+        }
+
+        @Override
+        public DriverPropertyInfo getDriverPropertyInfo() {
+            DriverPropertyInfo propertyInfo = super.getDriverPropertyInfo();
+            propertyInfo.choices = new String[]{"true", "false"};
+            return propertyInfo;
+        }
     };
 
     public String getDefaultValue() {
@@ -133,6 +364,78 @@ enum ConfigurationEntry {
 
     abstract void setConfiguration(ConfigurationImpl config, String value) throws MisconfigurationException;
 
+    private static boolean parseBoolean(String key, String value) throws MisconfigurationException {
+
+        if (value == null || "".equals(value) || "".equals(value.trim())) {
+            throw MisconfigurationException
+                    .forMessage("Value for %s cannot be null/whitespace only, but was '%s'",
+                            key, value);
+        }
+
+        switch (value) {
+            case "true":
+                return true;
+
+            case "false":
+                return false;
+
+            default:
+                throw MisconfigurationException
+                        .forMessage("Value for %s must either be 'true' or 'false', but was '%s'",
+                                key, value);
+        }
+    }
+
+    private static int parsePositiveInteger(String key, String value) throws MisconfigurationException {
+
+        if (value == null || "".equals(value.trim())) {
+            throw MisconfigurationException
+                    .forMessage("Value for %s cannot be null/whitespace only, but was '%s'",
+                            key, value);
+        }
+
+        try {
+            int intValue = Integer.parseInt(value.trim());
+            if (intValue <= 0) {
+                throw MisconfigurationException
+                        .forMessage("Value for %s must be a positive integer, but was '%s'",
+                                key, value);
+            }
+
+            return intValue;
+
+        } catch (NumberFormatException nfe) {
+            throw MisconfigurationException
+                    .forMessage("Value for %s must be a positive integer, but was '%s'",
+                            key, value);
+        }
+    }
+
+    private static int parseNonNegativeInteger(String key, String value) throws MisconfigurationException {
+
+        if (value == null || "".equals(value.trim())) {
+            throw MisconfigurationException
+                    .forMessage("Value for %s cannot be null/whitespace only, but was '%s'",
+                            key, value);
+        }
+
+        try {
+            int intValue = Integer.parseInt(value.trim());
+            if (intValue < 0) {
+                throw MisconfigurationException
+                        .forMessage("Value for %s must be a non-negative integer, but was '%s'",
+                                key, value);
+            }
+
+            return intValue;
+
+        } catch (NumberFormatException nfe) {
+            throw MisconfigurationException
+                    .forMessage("Value for %s must be a non-negative integer, but was '%s'",
+                            key, value);
+        }
+    }
+
     public DriverPropertyInfo getDriverPropertyInfo() {
         DriverPropertyInfo driverPropertyInfo = new DriverPropertyInfo(this.key, defaultValue);
         driverPropertyInfo.description = this.description;
@@ -1,6 +1,8 @@
 package com.github.dyna4jdbc.internal.config.impl;
 
 import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.ProcessOutputFormat;
+import com.github.dyna4jdbc.internal.config.TypeInferenceStrategy;
 
 class ConfigurationImpl implements Configuration {
 
@@ -8,6 +10,25 @@ class ConfigurationImpl implements Configuration {
     private boolean skipFirstLine;
     private boolean preferMultipleResultSets;
     private String conversionCharset;
+    private boolean streamResults;
+    private int streamingLookAheadRows;
+    private int streamingBufferRows;
+    private TypeInferenceStrategy typeInferenceStrategy;
+    private int typeInferenceSampleSize;
+    private boolean materializeTypedColumns;
+    private int compiledScriptCacheSize;
+    private String endOfOutputMarkerCommand;
+    private int firstOutputTimeoutMs;
+    private int outputIdleTimeoutMs;
+    private int endOfOutputMarkerTimeoutMs;
+    private ProcessOutputFormat processOutputFormat;
+    private boolean compiledScriptCacheStatistics;
+    private String parameterVariablePrefix;
+    private int batchParallelism;
+    private int asyncExecutionThreads;
+    private int statementMemoryBudgetMb;
+    private int connectionMemoryBudgetMb;
+    private boolean jmxMetrics;
 
     @Override
     public char getCellSeparator() {
@@ -44,4 +65,175 @@ class ConfigurationImpl implements Configuration {
         this.preferMultipleResultSets = preferMultipleResultSets;
     }
 
+    @Override
+    public boolean getStreamResults() {
+        return streamResults;
+    }
+
+    void setStreamResults(boolean streamResults) {
+        this.streamResults = streamResults;
+    }
+
+    @Override
+    public int getStreamingLookAheadRows() {
+        return streamingLookAheadRows;
+    }
+
+    void setStreamingLookAheadRows(int streamingLookAheadRows) {
+        this.streamingLookAheadRows = streamingLookAheadRows;
+    }
+
+    @Override
+    public int getStreamingBufferRows() {
+        return streamingBufferRows;
+    }
+
+    void setStreamingBufferRows(int streamingBufferRows) {
+        this.streamingBufferRows = streamingBufferRows;
+    }
+
+    @Override
+    public TypeInferenceStrategy getTypeInferenceStrategy() {
+        return typeInferenceStrategy;
+    }
+
+    void setTypeInferenceStrategy(TypeInferenceStrategy typeInferenceStrategy) {
+        this.typeInferenceStrategy = typeInferenceStrategy;
+    }
+
+    @Override
+    public int getTypeInferenceSampleSize() {
+        return typeInferenceSampleSize;
+    }
+
+    void setTypeInferenceSampleSize(int typeInferenceSampleSize) {
+        this.typeInferenceSampleSize = typeInferenceSampleSize;
+    }
+
+    @Override
+    public boolean getMaterializeTypedColumns() {
+        return materializeTypedColumns;
+    }
+
+    void setMaterializeTypedColumns(boolean materializeTypedColumns) {
+        this.materializeTypedColumns = materializeTypedColumns;
+    }
+
+    @Override
+    public int getCompiledScriptCacheSize() {
+        return compiledScriptCacheSize;
+    }
+
+    void setCompiledScriptCacheSize(int compiledScriptCacheSize) {
+        this.compiledScriptCacheSize = compiledScriptCacheSize;
+    }
+
+    @Override
+    public boolean getCompiledScriptCacheStatistics() {
+        return compiledScriptCacheStatistics;
+    }
+
+    void setCompiledScriptCacheStatistics(boolean compiledScriptCacheStatistics) {
+        this.compiledScriptCacheStatistics = compiledScriptCacheStatistics;
+    }
+
+    @Override
+    public String getParameterVariablePrefix() {
+        return parameterVariablePrefix;
+    }
+
+    void setParameterVariablePrefix(String parameterVariablePrefix) {
+        this.parameterVariablePrefix = parameterVariablePrefix;
+    }
+
+    @Override
+    public int getBatchParallelism() {
+        return batchParallelism;
+    }
+
+    void setBatchParallelism(int batchParallelism) {
+        this.batchParallelism = batchParallelism;
+    }
+
+    @Override
+    public int getAsyncExecutionThreads() {
+        return asyncExecutionThreads;
+    }
+
+    void setAsyncExecutionThreads(int asyncExecutionThreads) {
+        this.asyncExecutionThreads = asyncExecutionThreads;
+    }
+
+    @Override
+    public int getStatementMemoryBudgetMb() {
+        return statementMemoryBudgetMb;
+    }
+
+    void setStatementMemoryBudgetMb(int statementMemoryBudgetMb) {
+        this.statementMemoryBudgetMb = statementMemoryBudgetMb;
+    }
+
+    @Override
+    public int getConnectionMemoryBudgetMb() {
+        return connectionMemoryBudgetMb;
+    }
+
+    void setConnectionMemoryBudgetMb(int connectionMemoryBudgetMb) {
+        this.connectionMemoryBudgetMb = connectionMemoryBudgetMb;
+    }
+
+    @Override
+    public boolean getJmxMetrics() {
+        return jmxMetrics;
+    }
+
+    void setJmxMetrics(boolean jmxMetrics) {
+        this.jmxMetrics = jmxMetrics;
+    }
+
+    @Override
+    public String getEndOfOutputMarkerCommand() {
+        return endOfOutputMarkerCommand;
+    }
+
+    void setEndOfOutputMarkerCommand(String endOfOutputMarkerCommand) {
+        this.endOfOutputMarkerCommand = endOfOutputMarkerCommand;
+    }
+
+    @Override
+    public int getFirstOutputTimeoutMs() {
+        return firstOutputTimeoutMs;
+    }
+
+    void setFirstOutputTimeoutMs(int firstOutputTimeoutMs) {
+        this.firstOutputTimeoutMs = firstOutputTimeoutMs;
+    }
+
+    @Override
+    public int getOutputIdleTimeoutMs() {
+        return outputIdleTimeoutMs;
+    }
+
+    void setOutputIdleTimeoutMs(int outputIdleTimeoutMs) {
+        this.outputIdleTimeoutMs = outputIdleTimeoutMs;
+    }
+
+    @Override
+    public int getEndOfOutputMarkerTimeoutMs() {
+        return endOfOutputMarkerTimeoutMs;
+    }
+
+    void setEndOfOutputMarkerTimeoutMs(int endOfOutputMarkerTimeoutMs) {
+        this.endOfOutputMarkerTimeoutMs = endOfOutputMarkerTimeoutMs;
+    }
+
+    @Override
+    public ProcessOutputFormat getProcessOutputFormat() {
+        return processOutputFormat;
+    }
+
+    void setProcessOutputFormat(ProcessOutputFormat processOutputFormat) {
+        this.processOutputFormat = processOutputFormat;
+    }
+
 }
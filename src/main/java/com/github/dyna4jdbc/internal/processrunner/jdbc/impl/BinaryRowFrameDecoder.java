@@ -0,0 +1,404 @@
+package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+import com.github.dyna4jdbc.RowEmitter;
+import com.github.dyna4jdbc.internal.JDBCError;
+import com.github.dyna4jdbc.internal.OutputDisabledError;
+import com.github.dyna4jdbc.internal.OutputLimitReachedError;
+
+/**
+ * Decodes the binary output of a process (see
+ * {@link com.github.dyna4jdbc.internal.config.ProcessOutputFormat#BINARY}) and passes
+ * the rows to a {@code RowEmitter}. The output is a sequence of frames: a one byte frame
+ * type, the length of the payload (a big-endian 32 bit integer) and the payload.
+ *
+ * <ul>
+ *     <li>schema frame ({@code 0x01}): the format version ({@code 0x01}), the number of
+ *     columns (16 bit), then the type (one byte) and the label (16 bit length and UTF-8
+ *     bytes) of each column</li>
+ *     <li>row frame ({@code 0x02}): for each column, {@code 0x00} if the value is null,
+ *     otherwise {@code 0x01}, followed by the value encoded according to the type of the
+ *     column</li>
+ *     <li>end of result frame ({@code 0x03}): empty payload; ends the output of the
+ *     statement</li>
+ * </ul>
+ *
+ * <p>
+ * The frames can span the chunks passed to the decoder: the start of an incomplete frame
+ * is kept until the rest of it is passed. Once the emitter fails, the rest of the rows are
+ * still decoded (so that the output of the next statement starts after the end of result
+ * frame), but dropped.
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+final class BinaryRowFrameDecoder {
+
+    static final byte FRAME_SCHEMA = 0x01;
+    static final byte FRAME_ROW = 0x02;
+    static final byte FRAME_END_OF_RESULT = 0x03;
+
+    static final byte FORMAT_VERSION = 0x01;
+
+    static final byte TYPE_BOOLEAN = 0x01;
+    static final byte TYPE_INTEGER = 0x02;
+    static final byte TYPE_BIGINT = 0x03;
+    static final byte TYPE_DOUBLE = 0x04;
+    static final byte TYPE_DECIMAL = 0x05;
+    static final byte TYPE_VARCHAR = 0x06;
+    static final byte TYPE_DATE = 0x07;
+    static final byte TYPE_TIMESTAMP = 0x08;
+
+    private static final byte NULL_VALUE = 0x00;
+    private static final byte NON_NULL_VALUE = 0x01;
+
+    private static final int FRAME_HEADER_LENGTH = 5;
+    private static final int MAX_PAYLOAD_LENGTH = 64 * 1024 * 1024;
+
+    private static final long MICROS_PER_SECOND = 1_000_000L;
+    private static final int NANOS_PER_MICRO = 1_000;
+
+    private static final int BYTE_MASK = 0xFF;
+    private static final int BITS_PER_BYTE = 8;
+
+    private final RowEmitter rowEmitter;
+
+    private byte[] incompleteFrame = new byte[FRAME_HEADER_LENGTH];
+    private int incompleteFrameLength;
+
+    private byte[] columnTypes;
+    private String[] columnLabels;
+    private boolean headerEmitted;
+
+    private boolean started;
+    private boolean endOfResult;
+    private boolean outputLimitReached;
+    private Throwable failure;
+
+    BinaryRowFrameDecoder(RowEmitter rowEmitter) {
+        this.rowEmitter = rowEmitter;
+    }
+
+    /**
+     * Decodes the frames in the range.
+     *
+     * @param bytes the bytes to decode
+     * @param offset the start of the range
+     * @param end the end of the range (exclusive)
+     * @return the index after the end of result frame, or -1 if the range does
+     *      not contain it (all bytes of the range are consumed)
+     * @throws com.github.dyna4jdbc.internal.RuntimeDyna4JdbcException if the bytes
+     *      are not valid frames
+     */
+    int decode(byte[] bytes, int offset, int end) {
+        int position = offset;
+
+        while (position < end && !endOfResult) {
+            started = true;
+
+            if (incompleteFrameLength > 0) {
+                int count = Math.min(
+                        getMissingLength(incompleteFrame, 0, incompleteFrameLength), end - position);
+                appendToIncompleteFrame(bytes, position, count);
+                position += count;
+
+                if (getMissingLength(incompleteFrame, 0, incompleteFrameLength) == 0) {
+                    decodeFrame(incompleteFrame, 0);
+                    incompleteFrameLength = 0;
+                }
+
+            } else if (getMissingLength(bytes, position, end - position) > 0) {
+                appendToIncompleteFrame(bytes, position, end - position);
+                position = end;
+
+            } else {
+                position = decodeFrame(bytes, position);
+            }
+        }
+
+        if (endOfResult) {
+            return position;
+        }
+
+        return -1;
+    }
+
+    /**
+     * @return {@code true} if any bytes have been passed to the decoder
+     */
+    boolean isStarted() {
+        return started;
+    }
+
+    /**
+     * @return {@code true} if the end of result frame has been decoded
+     */
+    boolean isEndOfResult() {
+        return endOfResult;
+    }
+
+    /**
+     * @return {@code true} if the last frame passed to the decoder is incomplete
+     */
+    boolean hasIncompleteFrame() {
+        return incompleteFrameLength > 0;
+    }
+
+    /**
+     * @return the failure raised by the {@code RowEmitter}, or {@code null}
+     */
+    Throwable getFailure() {
+        return failure;
+    }
+
+    /*
+     * Returns the number of bytes missing from the frame starting at offset:
+     * the missing part of the header, if it is incomplete.
+     */
+    private static int getMissingLength(byte[] bytes, int offset, int available) {
+        if (available < FRAME_HEADER_LENGTH) {
+            return FRAME_HEADER_LENGTH - available;
+        }
+
+        return Math.max(0, FRAME_HEADER_LENGTH + getPayloadLength(bytes, offset) - available);
+    }
+
+    private static int getPayloadLength(byte[] bytes, int frameOffset) {
+        byte frameType = bytes[frameOffset];
+        if (frameType != FRAME_SCHEMA && frameType != FRAME_ROW && frameType != FRAME_END_OF_RESULT) {
+            throw JDBCError.INVALID_PROCESS_OUTPUT_FRAME.raiseUncheckedException(
+                    String.format("unknown frame type 0x%02X", frameType));
+        }
+
+        int payloadLength = readInt(bytes, frameOffset + 1);
+        if (payloadLength < 0 || payloadLength > MAX_PAYLOAD_LENGTH) {
+            throw JDBCError.INVALID_PROCESS_OUTPUT_FRAME.raiseUncheckedException(
+                    String.format("invalid payload length %s", payloadLength));
+        }
+
+        return payloadLength;
+    }
+
+    private void appendToIncompleteFrame(byte[] bytes, int offset, int count) {
+        if (incompleteFrameLength + count > incompleteFrame.length) {
+            incompleteFrame = Arrays.copyOf(incompleteFrame, incompleteFrameLength + count);
+        }
+
+        System.arraycopy(bytes, offset, incompleteFrame, incompleteFrameLength, count);
+        incompleteFrameLength += count;
+    }
+
+    /*
+     * Decodes the complete frame starting at frameOffset; returns the index after it.
+     */
+    private int decodeFrame(byte[] bytes, int frameOffset) {
+        final int payloadLength = getPayloadLength(bytes, frameOffset);
+        final PayloadReader payload = new PayloadReader(
+                bytes, frameOffset + FRAME_HEADER_LENGTH, frameOffset + FRAME_HEADER_LENGTH + payloadLength);
+
+        switch (bytes[frameOffset]) {
+            case FRAME_SCHEMA:
+                decodeSchema(payload);
+                break;
+
+            case FRAME_ROW:
+                decodeRow(payload);
+                break;
+
+            default:
+                if (payloadLength != 0) {
+                    throw JDBCError.INVALID_PROCESS_OUTPUT_FRAME.raiseUncheckedException(
+                            "the end of result frame has a payload");
+                }
+                endOfResult = true;
+                break;
+        }
+
+        payload.checkFullyRead();
+
+        return payload.end;
+    }
+
+    private void decodeSchema(PayloadReader payload) {
+        if (columnTypes != null) {
+            throw JDBCError.INVALID_PROCESS_OUTPUT_FRAME.raiseUncheckedException(
+                    "only a single schema frame is allowed before the end of result frame");
+        }
+
+        byte version = payload.readByte();
+        if (version != FORMAT_VERSION) {
+            throw JDBCError.INVALID_PROCESS_OUTPUT_FRAME.raiseUncheckedException(
+                    String.format("unsupported format version %s", version));
+        }
+
+        int columnCount = payload.readUnsignedShort();
+        byte[] types = new byte[columnCount];
+        String[] labels = new String[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            types[i] = payload.readByte();
+            if (types[i] < TYPE_BOOLEAN || types[i] > TYPE_TIMESTAMP) {
+                throw JDBCError.INVALID_PROCESS_OUTPUT_FRAME.raiseUncheckedException(
+                        String.format("unknown type 0x%02X of column %s", types[i], i + 1));
+            }
+
+            labels[i] = payload.readString(payload.readUnsignedShort());
+        }
+
+        this.columnTypes = types;
+        this.columnLabels = labels;
+    }
+
+    private void decodeRow(PayloadReader payload) {
+        if (columnTypes == null) {
+            throw JDBCError.INVALID_PROCESS_OUTPUT_FRAME.raiseUncheckedException(
+                    "row frame received before the schema frame");
+        }
+
+        Object[] values = new Object[columnTypes.length];
+        for (int i = 0; i < values.length; i++) {
+            byte nullMarker = payload.readByte();
+            if (nullMarker == NON_NULL_VALUE) {
+                values[i] = payload.readValue(columnTypes[i]);
+            } else if (nullMarker != NULL_VALUE) {
+                throw JDBCError.INVALID_PROCESS_OUTPUT_FRAME.raiseUncheckedException(
+                        String.format("invalid null marker 0x%02X in column %s", nullMarker, i + 1));
+            }
+        }
+
+        emitRow(values);
+    }
+
+    private void emitRow(Object[] values) {
+        if (outputLimitReached || failure != null) {
+            return;
+        }
+
+        try {
+            if (!headerEmitted) {
+                // the header is emitted with the first row: a schema without rows is not output
+                rowEmitter.header(columnLabels);
+                headerEmitted = true;
+            }
+
+            rowEmitter.row(values);
+        } catch (OutputLimitReachedError e) {
+            outputLimitReached = true;
+        } catch (RuntimeException | OutputDisabledError e) {
+            failure = e;
+        }
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        int value = 0;
+        for (int i = 0; i < Integer.BYTES; i++) {
+            value = (value << BITS_PER_BYTE) | (bytes[offset + i] & BYTE_MASK);
+        }
+
+        return value;
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << BITS_PER_BYTE) | (bytes[offset + i] & BYTE_MASK);
+        }
+
+        return value;
+    }
+
+    /**
+     * Reads the payload of a frame: fails if a value extends past the end of the payload.
+     */
+    private static final class PayloadReader {
+
+        private final byte[] bytes;
+        private final int end;
+        private int position;
+
+        private PayloadReader(byte[] bytes, int position, int end) {
+            this.bytes = bytes;
+            this.position = position;
+            this.end = end;
+        }
+
+        private int advance(int length) {
+            if (length < 0 || length > end - position) {
+                throw JDBCError.INVALID_PROCESS_OUTPUT_FRAME.raiseUncheckedException(
+                        "a value extends past the end of the frame");
+            }
+
+            int offset = position;
+            position += length;
+            return offset;
+        }
+
+        private void checkFullyRead() {
+            if (position != end) {
+                throw JDBCError.INVALID_PROCESS_OUTPUT_FRAME.raiseUncheckedException(
+                        String.format("%s unexpected bytes at the end of the frame", end - position));
+            }
+        }
+
+        private byte readByte() {
+            return bytes[advance(1)];
+        }
+
+        private int readUnsignedShort() {
+            int offset = advance(Short.BYTES);
+            return ((bytes[offset] & BYTE_MASK) << BITS_PER_BYTE) | (bytes[offset + 1] & BYTE_MASK);
+        }
+
+        private String readString(int length) {
+            int offset = advance(length);
+            return new String(bytes, offset, length, StandardCharsets.UTF_8);
+        }
+
+        private Object readValue(byte type) {
+            switch (type) {
+                case TYPE_BOOLEAN:
+                    return readByte() != 0;
+
+                case TYPE_INTEGER:
+                    return readInt(bytes, advance(Integer.BYTES));
+
+                case TYPE_BIGINT:
+                    return readLong(bytes, advance(Long.BYTES));
+
+                case TYPE_DOUBLE:
+                    return Double.longBitsToDouble(readLong(bytes, advance(Long.BYTES)));
+
+                case TYPE_DECIMAL:
+                    return toDecimal(readString(readInt(bytes, advance(Integer.BYTES))));
+
+                case TYPE_VARCHAR:
+                    return readString(readInt(bytes, advance(Integer.BYTES)));
+
+                case TYPE_DATE:
+                    return LocalDate.ofEpochDay(readInt(bytes, advance(Integer.BYTES)));
+
+                default:
+                    // TYPE_TIMESTAMP: microseconds since 1970-01-01T00:00, without a time zone
+                    long micros = readLong(bytes, advance(Long.BYTES));
+                    return LocalDateTime.ofEpochSecond(
+                            Math.floorDiv(micros, MICROS_PER_SECOND),
+                            (int) Math.floorMod(micros, MICROS_PER_SECOND) * NANOS_PER_MICRO,
+                            ZoneOffset.UTC);
+            }
+        }
+
+        private static BigDecimal toDecimal(String value) {
+            try {
+                return new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw JDBCError.INVALID_PROCESS_OUTPUT_FRAME.raiseUncheckedException(
+                        String.format("invalid decimal value '%s'", value));
+            }
+        }
+    }
+}
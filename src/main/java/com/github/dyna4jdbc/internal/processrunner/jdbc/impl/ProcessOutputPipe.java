@@ -0,0 +1,232 @@
+package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hands over an output stream of a process from the thread reading it to
+ * the thread consuming it, as chunks of bytes, without decoding them. At most
+ * {@code MAX_CHUNKS} chunks are in flight: the reader is blocked until the
+ * consumer releases one, hence a process producing output faster than it
+ * is consumed is slowed down, instead of its output being accumulated
+ * in memory. The chunks are reused.
+ *
+ * @author Peter Horvath
+ */
+final class ProcessOutputPipe {
+
+    private static final int CHUNK_SIZE = 32 * 1024;
+    private static final int MAX_CHUNKS = 8;
+
+    // UTF-8 encodes a char (or half of a surrogate pair) to at most three bytes
+    private static final int MAX_UTF8_BYTES_PER_CHAR = 3;
+
+    // placed into the queue when the stream ends: compared by identity
+    private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+    // one more than MAX_CHUNKS: the end of the stream can always be signalled without blocking
+    private final BlockingQueue<ByteBuffer> filledChunks = new ArrayBlockingQueue<>(MAX_CHUNKS + 1);
+    private final BlockingQueue<ByteBuffer> freeChunks = new ArrayBlockingQueue<>(MAX_CHUNKS);
+
+    // accessed by the reader thread only
+    private int allocatedChunks;
+
+    // a chunk partially consumed, returned by the next poll
+    private volatile ByteBuffer pushedBackChunk;
+    private volatile boolean ended;
+
+    /**
+     * Reads the stream until its end, passing on the bytes as they are read.
+     * Called by the reader thread.
+     *
+     * @param inputStream the stream to read
+     * @throws IOException if reading the stream fails
+     * @throws InterruptedException if interrupted while waiting for a free chunk
+     */
+    void readFrom(InputStream inputStream) throws IOException, InterruptedException {
+        try {
+            while (true) {
+                ByteBuffer chunk = acquireFreeChunk();
+
+                // blocks until some bytes are available: returns as many as available at once
+                final int bytesRead = inputStream.read(chunk.array(), 0, chunk.capacity());
+                if (bytesRead < 0) {
+                    freeChunks.offer(chunk);
+                    break;
+                }
+
+                chunk.limit(bytesRead);
+                filledChunks.put(chunk);
+            }
+        } finally {
+            // never blocks: there is always room for it
+            filledChunks.offer(END_OF_STREAM);
+        }
+    }
+
+    /**
+     * Reads the characters until their end, passing them on encoded in UTF-8.
+     * Called by the reader thread.
+     *
+     * @param reader the characters to read
+     * @throws IOException if reading the characters fails
+     * @throws InterruptedException if interrupted while waiting for a free chunk
+     */
+    void readFrom(Reader reader) throws IOException, InterruptedException {
+        CharsetEncoder utf8Encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        try {
+            // sized so that the encoded characters always fit into a chunk
+            CharBuffer chars = CharBuffer.allocate(CHUNK_SIZE / MAX_UTF8_BYTES_PER_CHAR);
+
+            while (reader.read(chars) >= 0) {
+                chars.flip();
+
+                ByteBuffer chunk = acquireFreeChunk();
+                // a high surrogate at the end is left in chars, until its pair is read
+                utf8Encoder.encode(chars, chunk, false);
+                chars.compact();
+
+                chunk.flip();
+                filledChunks.put(chunk);
+            }
+
+            // a high surrogate left at the end has no pair: it is encoded as a replacement
+            chars.flip();
+            ByteBuffer chunk = acquireFreeChunk();
+            utf8Encoder.encode(chars, chunk, true);
+            utf8Encoder.flush(chunk);
+
+            chunk.flip();
+            if (chunk.hasRemaining()) {
+                filledChunks.put(chunk);
+            } else {
+                release(chunk);
+            }
+        } finally {
+            filledChunks.offer(END_OF_STREAM);
+        }
+    }
+
+    private ByteBuffer acquireFreeChunk() throws InterruptedException {
+        ByteBuffer chunk = freeChunks.poll();
+        if (chunk == null) {
+            if (allocatedChunks < MAX_CHUNKS) {
+                allocatedChunks++;
+                chunk = ByteBuffer.allocate(CHUNK_SIZE);
+            } else {
+                // all chunks are in flight: wait for the consumer
+                chunk = freeChunks.take();
+            }
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Returns the next chunk of bytes (the bytes between its position and limit),
+     * which has to be passed to {@link #release(ByteBuffer)} or
+     * {@link #pushBack(ByteBuffer)} once consumed.
+     *
+     * @param timeout the maximum time to wait
+     * @param unit the unit of {@code timeout}
+     * @return the next chunk, or {@code null} if none is available within the
+     *      timeout, or the end of the stream is reached
+     * @throws IOException if interrupted while waiting
+     */
+    ByteBuffer poll(long timeout, TimeUnit unit) throws IOException {
+        ByteBuffer chunk = pushedBackChunk;
+        if (chunk != null) {
+            pushedBackChunk = null;
+            return chunk;
+        }
+
+        if (ended) {
+            // nothing will be added to the queue any more
+            return null;
+        }
+
+        try {
+            chunk = filledChunks.poll(timeout, unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+
+        if (chunk == END_OF_STREAM) {
+            ended = true;
+            chunk = null;
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Returns a chunk, which is no longer used by the consumer.
+     *
+     * @param chunk the chunk returned by {@link #poll(long, TimeUnit)}
+     */
+    void release(ByteBuffer chunk) {
+        chunk.clear();
+        freeChunks.offer(chunk);
+    }
+
+    /**
+     * Returns a chunk, of which the bytes after its position are yet to be
+     * consumed: it is returned again by the next poll.
+     *
+     * @param chunk the chunk returned by {@link #poll(long, TimeUnit)}
+     */
+    void pushBack(ByteBuffer chunk) {
+        pushedBackChunk = chunk;
+    }
+
+    /**
+     * Returns the number of chunks read, but not consumed yet: the reader thread is
+     * blocked, if all chunks are filled.
+     */
+    int getQueuedChunks() {
+        int queuedChunks = 0;
+        if (pushedBackChunk != null) {
+            queuedChunks++;
+        }
+
+        for (ByteBuffer chunk : filledChunks) {
+            if (chunk != END_OF_STREAM) {
+                queuedChunks++;
+            }
+        }
+
+        return queuedChunks;
+    }
+
+    boolean isEmpty() {
+        if (pushedBackChunk != null) {
+            return false;
+        }
+
+        ByteBuffer chunk = filledChunks.peek();
+        return chunk == null || chunk == END_OF_STREAM;
+    }
+
+    /**
+     * Returns whether the stream has ended and all of its content has been consumed.
+     */
+    boolean isEnded() {
+        if (pushedBackChunk != null) {
+            return false;
+        }
+
+        return ended || filledChunks.peek() == END_OF_STREAM;
+    }
+}
@@ -1,44 +1,68 @@
 package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
 
-import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
-import java.util.UUID;
-import java.util.concurrent.BlockingQueue;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.concurrent.BrokenBarrierException;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntSupplier;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import com.github.dyna4jdbc.internal.common.metrics.DriverMetrics;
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.ProcessOutputFormat;
+
+/**
+ * A running process: its standard output and standard error are read by a thread each,
+ * and handed over as chunks of bytes via a {@link ProcessOutputPipe}. The bytes are
+ * in the charset returned by {@link #getOutputCharset()}, except for binary standard
+ * output, which is handed over as it is. If the {@code DriverMetrics} are enabled, the
+ * process is counted as running, and its queued output chunks are reported until it is
+ * terminated via {@link #terminateProcess()}.
+ */
 public final class ProcessRunner {
 
     private static final Logger LOGGER = Logger.getLogger(ProcessRunner.class.getName());
 
     private static final int DEFAULT_TIMEOUT_MILLI_SECONDS = 10_000;
+    private static final int TERMINATION_GRACE_PERIOD_MILLI_SECONDS = 1_000;
 
     private final ExecutorService executorService = Executors.newCachedThreadPool();
 
     private final AtomicReference<Process> processReference = new AtomicReference<>();
     private final PrintWriter processInputWriter;
 
-    private final BlockingQueue<String> standardOutputStreamContentQueue;
-    private final BlockingQueue<String> errorStreamContentQueue;
+    private final ProcessOutputPipe standardOutputPipe = new ProcessOutputPipe();
+    private final ProcessOutputPipe errorPipe = new ProcessOutputPipe();
 
-    private final String endOfStreamIndicator = UUID.randomUUID().toString();
+    private final Charset outputCharset;
 
-    static ProcessRunner start(String command, String conversionCharset) throws ProcessExecutionException {
-        return new ProcessRunner(command, conversionCharset);
+    private final boolean recordMetrics;
+    private final IntSupplier queuedOutputChunks =
+            () -> standardOutputPipe.getQueuedChunks() + errorPipe.getQueuedChunks();
+
+    static ProcessRunner start(String command, Configuration configuration) throws ProcessExecutionException {
+
+        return new ProcessRunner(command, configuration.getConversionCharset(),
+                configuration.getProcessOutputFormat() == ProcessOutputFormat.BINARY,
+                configuration.getJmxMetrics());
     }
 
-    private ProcessRunner(String command, String conversionCharset) throws ProcessExecutionException {
+    private ProcessRunner(String command, String conversionCharset, boolean binaryStandardOutput,
+                          boolean recordMetrics) throws ProcessExecutionException {
 
+        this.recordMetrics = recordMetrics;
         try {
             Runtime runtime = Runtime.getRuntime();
 
@@ -49,10 +73,13 @@ public final class ProcessRunner {
             processInputWriter = new PrintWriter(new OutputStreamWriter(
                     process.getOutputStream(), conversionCharset), true);
 
-            BufferedReader stdOut = new BufferedReader(
-                    new InputStreamReader(process.getInputStream(), conversionCharset));
-            BufferedReader stdErr = new BufferedReader(
-                    new InputStreamReader(process.getErrorStream(), conversionCharset));
+            Charset processCharset = Charset.forName(conversionCharset);
+            if (isAsciiCompatible(processCharset)) {
+                // line ends and end of output markers can be found in the bytes as they are
+                outputCharset = processCharset;
+            } else {
+                outputCharset = StandardCharsets.UTF_8;
+            }
 
             final int partiesToWait = 3;
             /*
@@ -63,28 +90,47 @@ public final class ProcessRunner {
              */
             CyclicBarrier cyclicBarrier = new CyclicBarrier(partiesToWait);
 
-            standardOutputStreamContentQueue = new LinkedBlockingQueue<>();
-            errorStreamContentQueue = new LinkedBlockingQueue<>();
+            Charset standardOutputCharset = processCharset;
+            if (binaryStandardOutput) {
+                // not text: never transcoded
+                standardOutputCharset = outputCharset;
+            }
 
-            executorService.execute(new BufferedReaderToBlockingQueueRunnable(
-                    String.format("StdOut reader of '%s'", command), stdOut,
-                    standardOutputStreamContentQueue, cyclicBarrier));
-            executorService.execute(new BufferedReaderToBlockingQueueRunnable(
-                    String.format("StdErr reader of '%s'", command), stdErr,
-                    errorStreamContentQueue, cyclicBarrier));
+            executorService.execute(new StreamToPipeRunnable(
+                    String.format("StdOut reader of '%s'", command), process.getInputStream(),
+                    standardOutputCharset, standardOutputPipe, cyclicBarrier));
+            executorService.execute(new StreamToPipeRunnable(
+                    String.format("StdErr reader of '%s'", command), process.getErrorStream(),
+                    processCharset, errorPipe, cyclicBarrier));
 
             cyclicBarrier.await(DEFAULT_TIMEOUT_MILLI_SECONDS, TimeUnit.MILLISECONDS);
 
+            if (recordMetrics) {
+                DriverMetrics.getInstance().processStarted(queuedOutputChunks);
+            }
+
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             throw new ProcessExecutionException(e);
-        } catch (BrokenBarrierException | TimeoutException | IOException e) {
+        } catch (BrokenBarrierException | TimeoutException | IOException | IllegalArgumentException e) {
             throw new ProcessExecutionException(e);
         } finally {
             LOGGER.exiting("ProcessRunner", "<init>");
         }
     }
 
+    /*
+     * Stateless charsets, which map each byte in the ASCII range to the same char
+     * (in contrast to e.g. UTF-16 or ISO-2022, where ASCII bytes can be escape sequences)
+     */
+    private static boolean isAsciiCompatible(Charset charset) {
+        String name = charset.name();
+        return StandardCharsets.UTF_8.equals(charset)
+                || StandardCharsets.US_ASCII.equals(charset)
+                || name.startsWith("ISO-8859-")
+                || name.startsWith("windows-125");
+    }
+
     private void checkProcessState() {
 
         Process process = processReference.get();
@@ -98,80 +144,88 @@ public final class ProcessRunner {
         return process != null && process.isAlive();
     }
 
+    /**
+     * Terminates the process: it is asked to terminate first (SIGTERM on Unix-like systems),
+     * and destroyed forcibly if it is still running after a grace period. Once the
+     * process is gone, its output streams end, and the reader threads complete.
+     */
     void terminateProcess() {
 
         executorService.shutdownNow();
-        Process process = processReference.get();
-        process.destroyForcibly();
-        processReference.set(null);
-    }
+        Process process = processReference.getAndSet(null);
+        if (process == null) {
+            return;
+        }
 
-    boolean isOutputEmpty() {
-        String stdOutEntry = standardOutputStreamContentQueue.peek();
-        return (stdOutEntry == null || endOfStreamIndicator.equals(stdOutEntry));
+        if (recordMetrics) {
+            DriverMetrics.getInstance().processTerminated(queuedOutputChunks);
+        }
 
+        process.destroy();
+        try {
+            if (!process.waitFor(TERMINATION_GRACE_PERIOD_MILLI_SECONDS, TimeUnit.MILLISECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            process.destroyForcibly();
+        }
     }
 
-    boolean isErrorEmpty() {
-        String stdErrorOutputEntry = errorStreamContentQueue.peek();
-        return (stdErrorOutputEntry == null || endOfStreamIndicator.equals(stdErrorOutputEntry));
+    /**
+     * Returns the charset of the bytes handed over by the pipes: the charset of the
+     * process if it is ASCII-compatible (as most are), UTF-8 otherwise, so that line
+     * ends can always be found in the bytes.
+     */
+    Charset getOutputCharset() {
+        return outputCharset;
     }
 
-    String pollStandardOutput(long timeout, TimeUnit unit) throws IOException {
-
+    ProcessOutputPipe getStandardOutputPipe() {
         checkProcessState();
 
-        return pollQueue(standardOutputStreamContentQueue, endOfStreamIndicator, timeout, unit);
+        return standardOutputPipe;
     }
 
-    String pollStandardError(long timeout, TimeUnit unit) throws IOException {
-
+    ProcessOutputPipe getErrorPipe() {
         checkProcessState();
 
-        return pollQueue(errorStreamContentQueue, endOfStreamIndicator, timeout, unit);
+        return errorPipe;
     }
 
-    private static String pollQueue(
-            BlockingQueue<String> queue,
-            String endOfStreamIndicator,
-            long timeout, TimeUnit unit) throws IOException {
-
-        try {
-            String result = queue.poll(timeout, unit);
-
-            if (endOfStreamIndicator.equals(result)) {
-                result = null;
-            }
+    void writeToStandardInput(String string) {
 
-            return result;
+        checkProcessState();
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new IOException(e);
-        }
+        processInputWriter.println(string);
+        processInputWriter.flush();
     }
 
-    void writeToStandardInput(String string) {
+    void writeToStandardInput(List<String> lines) {
 
         checkProcessState();
 
-        processInputWriter.println(string);
+        // a single flush: the process receives all the lines at once
+        for (String line : lines) {
+            processInputWriter.println(line);
+        }
         processInputWriter.flush();
     }
 
-    private final class BufferedReaderToBlockingQueueRunnable implements Runnable {
+    private final class StreamToPipeRunnable implements Runnable {
         private final String identifier;
-        private final BufferedReader bufferedReader;
-        private final BlockingQueue<String> blockingQueue;
+        private final InputStream inputStream;
+        private final Charset processCharset;
+        private final ProcessOutputPipe pipe;
         private CyclicBarrier cyclicBarrier;
 
-        private BufferedReaderToBlockingQueueRunnable(String identifier, BufferedReader bufferedReader,
-                                                      BlockingQueue<String> blockingQueue,
-                                                      CyclicBarrier cyclicBarrier) {
+        private StreamToPipeRunnable(String identifier, InputStream inputStream, Charset processCharset,
+                                     ProcessOutputPipe pipe, CyclicBarrier cyclicBarrier) {
 
             this.identifier = identifier;
-            this.bufferedReader = bufferedReader;
-            this.blockingQueue = blockingQueue;
+            this.inputStream = inputStream;
+            this.processCharset = processCharset;
+            this.pipe = pipe;
             this.cyclicBarrier = cyclicBarrier;
 
         }
@@ -181,16 +235,14 @@ public final class ProcessRunner {
             try {
                 cyclicBarrier.await(DEFAULT_TIMEOUT_MILLI_SECONDS, TimeUnit.MILLISECONDS);
 
-                while (!Thread.currentThread().isInterrupted()) {
-                    String line = bufferedReader.readLine();
-                    if (line == null) {
-                        blockingQueue.put(endOfStreamIndicator);
-                        break;
-                    }
-                    blockingQueue.put(line);
+                if (processCharset.equals(outputCharset)) {
+                    pipe.readFrom(inputStream);
+                } else {
+                    pipe.readFrom(new InputStreamReader(inputStream, processCharset));
                 }
             } catch (IOException e) {
-                throw new RuntimeException(e);
+                // e.g. the process has been terminated: the end of the stream is signalled
+                LOGGER.log(Level.FINE, "Reading the output failed: " + identifier, e);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             } catch (BrokenBarrierException e) {
@@ -203,11 +255,9 @@ public final class ProcessRunner {
                 // abort execution
             } finally {
                 try {
-                    if (bufferedReader != null) {
-                        bufferedReader.close();
-                    }
+                    inputStream.close();
                 } catch (IOException e) {
-                    LOGGER.warning("IOException closing bufferedReader in: " + identifier);
+                    LOGGER.warning("IOException closing inputStream in: " + identifier);
                     e.printStackTrace();
                     // swallow any exception raised on close
                 }
@@ -218,10 +268,8 @@ public final class ProcessRunner {
         @Override
         public String toString() {
             StringBuilder builder = new StringBuilder();
-            builder.append("BufferedReaderToBlockingQueueRunnable [identifier=");
+            builder.append("StreamToPipeRunnable [identifier=");
             builder.append(identifier);
-            builder.append(",\nblockingQueue=");
-            builder.append(blockingQueue);
             builder.append("]");
             return builder.toString();
         }
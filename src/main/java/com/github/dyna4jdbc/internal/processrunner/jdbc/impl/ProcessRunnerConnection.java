@@ -3,14 +3,20 @@ package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.util.Properties;
+import java.util.concurrent.ExecutorService;
 
+import com.github.dyna4jdbc.internal.common.datamodel.MemoryBudget;
 import com.github.dyna4jdbc.internal.common.jdbc.base.AbstractConnection;
 import com.github.dyna4jdbc.internal.common.jdbc.base.AbstractStatement;
 import com.github.dyna4jdbc.internal.common.jdbc.generic.GenericDatabaseMetaData;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEvent;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventField;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventType;
 import com.github.dyna4jdbc.internal.common.outputhandler.ScriptOutputHandlerFactory;
 import com.github.dyna4jdbc.internal.common.outputhandler.impl.DefaultScriptOutputHandlerFactory;
 import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandlerFactory;
 import com.github.dyna4jdbc.internal.common.typeconverter.impl.DefaultTypeHandlerFactory;
+import com.github.dyna4jdbc.internal.common.util.concurrent.DaemonExecutors;
 import com.github.dyna4jdbc.internal.config.Configuration;
 import com.github.dyna4jdbc.internal.config.ConfigurationFactory;
 import com.github.dyna4jdbc.internal.config.MisconfigurationException;
@@ -18,22 +24,37 @@ import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
 
 public final class ProcessRunnerConnection extends AbstractConnection {
 
+    // the type of the connection in the DriverMetrics and the Flight Recorder events
+    static final String CONNECTION_TYPE = "process-runner";
+
     private final TypeHandlerFactory typeHandlerFactory;
     private final Configuration configuration;
     private final ProcessRunnerScriptExecutor scriptExecutor;
-
+    private final ExecutorService asyncExecutor;
+    private final MemoryBudget memoryBudget;
 
     public ProcessRunnerConnection(
             String parameters,
             Properties properties)
             throws SQLException, MisconfigurationException {
 
+        FlightRecorderEvent connectEvent = FlightRecorderEventType.CONNECT.begin();
+
         ConfigurationFactory configurationFactory = DefaultConfigurationFactory.getInstance();
         configuration = configurationFactory.newConfigurationFromParameters(parameters, properties);
 
         typeHandlerFactory = DefaultTypeHandlerFactory.getInstance(configuration);
 
         this.scriptExecutor = new ProcessRunnerScriptExecutor(configuration);
+        this.asyncExecutor = DaemonExecutors.newBoundedDaemonExecutor(
+                "dyna4jdbc-async-execution", configuration.getAsyncExecutionThreads());
+        this.memoryBudget = DefaultScriptOutputHandlerFactory.newConnectionMemoryBudget(configuration);
+
+        if (configuration.getJmxMetrics()) {
+            recordConnectionMetrics(CONNECTION_TYPE);
+        }
+
+        connectEvent.set(FlightRecorderEventField.ENGINE_NAME, CONNECTION_TYPE).commit();
     }
 
     @Override
@@ -48,14 +69,17 @@ public final class ProcessRunnerConnection extends AbstractConnection {
     protected AbstractStatement<?> createStatementInternal() throws SQLException {
         checkNotClosed();
         ScriptOutputHandlerFactory outputHandlerFactory =
-                new DefaultScriptOutputHandlerFactory(typeHandlerFactory, configuration);
+                new DefaultScriptOutputHandlerFactory(typeHandlerFactory, configuration, memoryBudget);
 
-        return new ProcessRunnerStatement(this, outputHandlerFactory, scriptExecutor);
+        return new ProcessRunnerStatement(this, configuration, outputHandlerFactory, scriptExecutor, asyncExecutor);
     }
 
     @Override
     protected void closeInternal() throws SQLException {
+        asyncExecutor.shutdownNow();
         scriptExecutor.close();
+
+        super.closeInternal();
     }
 
 }
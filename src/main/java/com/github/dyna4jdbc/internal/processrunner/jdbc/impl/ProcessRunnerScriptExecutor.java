@@ -3,28 +3,83 @@ package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
-import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
+import com.github.dyna4jdbc.RowEmitter;
+import com.github.dyna4jdbc.internal.BatchScriptExecutionException;
+import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.OutputCapturingScriptExecutor;
+import com.github.dyna4jdbc.internal.OutputDisabledError;
+import com.github.dyna4jdbc.internal.OutputLimitReachedError;
+import com.github.dyna4jdbc.internal.RuntimeDyna4JdbcException;
 import com.github.dyna4jdbc.internal.ScriptExecutionException;
+import com.github.dyna4jdbc.internal.TypedRowOutput;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEvent;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventField;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventType;
 import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.ProcessOutputFormat;
 
+/**
+ * Executes scripts by passing them to an external process: the first script
+ * is the command starting the process, subsequent ones are written to the
+ * standard input of the same process, as long as it is running.
+ *
+ * <p>
+ * If an end of output marker command is configured, it is written to
+ * the process after each script, and the output of the script is read
+ * until the unique marker line printed by it: if there is no output for the
+ * marker timeout before, the process is terminated, and the script fails.
+ * Otherwise, the output is considered complete if there is no output for the
+ * first output or idle timeout. In both cases, the output ends if the process
+ * terminates.
+ * </p>
+ *
+ * <p>
+ * The output is copied to the stream capturing it as bytes: the lines
+ * (required to find the marker line, and to keep the lines of the standard
+ * output and standard error apart) are found without decoding the bytes.
+ * </p>
+ *
+ * <p>
+ * The scripts of a batch (and their marker commands) are written to the
+ * standard input at once: the process executes all of them, even if
+ * the output of one of them cannot be handled. Without a marker command,
+ * the output of the scripts cannot be told apart, and is read as the
+ * output of the whole batch.
+ * </p>
+ *
+ * <p>
+ * If the process writes binary output (see {@link ProcessOutputFormat#BINARY}), the
+ * output of each script ends with an end of result frame, and the rows decoded
+ * are passed to the {@code RowEmitter} of the stream capturing the output.
+ * </p>
+ */
 public final class ProcessRunnerScriptExecutor implements OutputCapturingScriptExecutor {
 
-    private static final int MINIMAL_POLL_INTERVAL_MS = 5;
-    private static final int DEFAULT_POLL_INTERVAL_MS = 50;
-    private static final int WAIT_BEFORE_CONSUMING_OUTPUT_MS = 1000;
+    private static final int POLL_INTERVAL_MS = 50;
+    private static final String MARKER_PREFIX = "dyna4jdbc-end-of-output-";
+
+    private static final byte LF = '\n';
+    private static final byte CR = '\r';
 
     private final AtomicReference<ProcessRunner> processRunner = new AtomicReference<>();
 
-    private final boolean skipFirstLine;
+    private final boolean binaryOutput;
     private final Configuration configuration;
 
     public ProcessRunnerScriptExecutor(Configuration configuration) {
         this.configuration = configuration;
-        this.skipFirstLine = configuration.getSkipFirstLine();
+        this.binaryOutput = configuration.getProcessOutputFormat() == ProcessOutputFormat.BINARY;
     }
 
     @Override
@@ -33,57 +88,674 @@ public final class ProcessRunnerScriptExecutor implements OutputCapturingScriptE
             OutputStream stdOutputStream,
             OutputStream errorOutputStream) throws ScriptExecutionException {
 
-        try (PrintWriter outputPrintWriter = new PrintWriter(new OutputStreamWriter(
-                stdOutputStream, configuration.getConversionCharset()), true)) {
-
+        // NOTE: the streams are owned (and closed) by the caller: only flush them here
+        OutputStream outputStream = null;
+        FlightRecorderEvent evalEvent = FlightRecorderEventType.EVAL.begin();
+        try {
             ProcessRunner currentProcess = this.processRunner.get();
             if (currentProcess == null || !currentProcess.isProcessRunning()) {
-                currentProcess = ProcessRunner.start(script, configuration.getConversionCharset());
-                this.processRunner.set(currentProcess);
+                currentProcess = startProcess(currentProcess, script);
             } else {
                 currentProcess.writeToStandardInput(script);
             }
 
-            Thread.sleep(WAIT_BEFORE_CONSUMING_OUTPUT_MS);
+            outputStream = newOutputStream(currentProcess, stdOutputStream);
 
-            if (skipFirstLine) {
-                // skip and discard first result line
-                String discardedOutput = currentProcess.pollStandardOutput(
-                        MINIMAL_POLL_INTERVAL_MS, TimeUnit.SECONDS);
-                System.out.println(discardedOutput);
+            String marker = null;
+            String markerCommand = getEndOfOutputMarkerCommand();
+            if (markerCommand != null) {
+                marker = MARKER_PREFIX + UUID.randomUUID();
+                currentProcess.writeToStandardInput(
+                        markerCommand.replace(Configuration.END_OF_OUTPUT_MARKER_PLACEHOLDER, marker));
             }
 
-            String outputCaptured = null;
+            Throwable failure = copyOutput(currentProcess, marker, outputStream);
+            if (failure != null) {
+                throw new ScriptExecutionException(failure);
+            }
 
-            while (true) {
+        } catch (ProcessExecutionException | IOException e) {
+            throw new ScriptExecutionException(e);
+        } finally {
+            flush(outputStream);
 
-                if (currentProcess.isErrorEmpty()) {
-                    outputCaptured = currentProcess.pollStandardOutput(
-                            MINIMAL_POLL_INTERVAL_MS, TimeUnit.SECONDS);
-                } else {
-                    outputCaptured = currentProcess.pollStandardOutput(
-                            DEFAULT_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            if (evalEvent.isEnabled()) {
+                evalEvent.set(FlightRecorderEventField.ENGINE_NAME, ProcessRunnerConnection.CONNECTION_TYPE)
+                        .set(FlightRecorderEventField.SCRIPT_HASH, script.hashCode())
+                        .commit();
+            }
+        }
+    }
+
+    @Override
+    public void executeScriptBatchUsingStreams(
+            List<String> scripts,
+            OutputStream stdOutputStream,
+            OutputStream errorOutputStream) throws ScriptExecutionException {
+
+        if (scripts.isEmpty()) {
+            return;
+        }
+
+        // NOTE: the streams are owned (and closed) by the caller: only flush them here
+        OutputStream outputStream = null;
+        int scriptIndex = 0;
+        try {
+            List<String> standardInput = new ArrayList<>();
+
+            ProcessRunner currentProcess = this.processRunner.get();
+            if (currentProcess == null || !currentProcess.isProcessRunning()) {
+                currentProcess = startProcess(currentProcess, scripts.get(0));
+            } else {
+                standardInput.add(scripts.get(0));
+            }
+
+            outputStream = newOutputStream(currentProcess, stdOutputStream);
+
+            List<String> markers = new ArrayList<>();
+            String markerCommand = getEndOfOutputMarkerCommand();
+            for (int i = 0; i < scripts.size(); i++) {
+                if (i > 0) {
+                    standardInput.add(scripts.get(i));
+                }
+
+                if (markerCommand != null) {
+                    String marker = MARKER_PREFIX + UUID.randomUUID();
+                    markers.add(marker);
+                    standardInput.add(markerCommand.replace(Configuration.END_OF_OUTPUT_MARKER_PLACEHOLDER, marker));
+                }
+            }
+
+            if (!standardInput.isEmpty()) {
+                currentProcess.writeToStandardInput(standardInput);
+            }
+
+            if (markers.isEmpty() && !binaryOutput) {
+                Throwable failure = copyOutput(currentProcess, null, outputStream);
+                if (failure != null) {
+                    throw new ScriptExecutionException(failure);
+                }
+
+                return;
+            }
+
+            List<Integer> failedScriptIndexes = new ArrayList<>();
+            Throwable firstFailure = null;
+            for (; scriptIndex < scripts.size(); scriptIndex++) {
+                String marker = null;
+                if (!markers.isEmpty()) {
+                    marker = markers.get(scriptIndex);
+                }
+
+                Throwable failure = copyOutput(currentProcess, marker, outputStream);
+
+                if (failure != null) {
+                    failedScriptIndexes.add(scriptIndex);
+                    if (firstFailure == null) {
+                        firstFailure = failure;
+                    } else {
+                        firstFailure.addSuppressed(failure);
+                    }
+                }
+            }
+
+            if (firstFailure != null) {
+                throw new BatchScriptExecutionException(
+                        failedScriptIndexes.stream().mapToInt(Integer::intValue).toArray(),
+                        scripts.size(), firstFailure);
+            }
+
+        } catch (ProcessExecutionException | IOException e) {
+            throw new BatchScriptExecutionException(scriptIndex, e);
+        } finally {
+            flush(outputStream);
+        }
+    }
+
+    /*
+     * The end of result frame ends the binary output of a script: no marker is needed.
+     */
+    private String getEndOfOutputMarkerCommand() {
+        if (binaryOutput) {
+            return null;
+        }
+
+        return configuration.getEndOfOutputMarkerCommand();
+    }
+
+    /*
+     * Returns the stream, to which the output of the process is copied: the stream capturing
+     * it, unless the process output is handed over re-encoded (see ProcessRunner.getOutputCharset()).
+     */
+    private OutputStream newOutputStream(ProcessRunner process, OutputStream stdOutputStream) {
+        Charset conversionCharset = Charset.forName(configuration.getConversionCharset());
+        if (binaryOutput || process.getOutputCharset().equals(conversionCharset)) {
+            return stdOutputStream;
+        }
+
+        return new Utf8TranscodingOutputStream(new OutputStreamWriter(stdOutputStream, conversionCharset));
+    }
+
+    /**
+     * @return the failure raised by the stream capturing the output, or {@code null}
+     */
+    private Throwable copyOutput(ProcessRunner process, String marker, OutputStream outputStream)
+            throws IOException {
+
+        if (binaryOutput) {
+            return new FrameCopier(process, outputStream).copy();
+        }
 
-                    if (outputCaptured == null) {
-                        outputCaptured = currentProcess.pollStandardError(
-                                DEFAULT_POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        try {
+            return new OutputCopier(process.getStandardOutputPipe(), process.getErrorPipe(), marker,
+                    outputStream, configuration).copy();
+        } catch (RuntimeDyna4JdbcException e) {
+            // the marker line has not been read: it cannot be told apart from the output of the next script
+            process.terminateProcess();
+            throw e;
+        }
+    }
+
+    private static void flush(OutputStream outputStream) {
+        if (outputStream != null) {
+            try {
+                outputStream.flush();
+            } catch (IOException | RuntimeException | OutputDisabledError | OutputLimitReachedError e) {
+                // the same failure has been raised (and handled) while copying the output
+            }
+        }
+    }
+
+    /**
+     * Copies the output of a single script to the stream capturing it. Only complete lines
+     * are written, so that the lines of the standard output and standard error are not mixed:
+     * the incomplete last line of each is kept until the rest of it is read. If the output
+     * cannot be written, the rest of it is read and discarded, and the failure is returned.
+     *
+     * <p>
+     * A line ends with LF, CRLF or CR: a CR at the end of a chunk is taken as a line end only
+     * once the next byte is read, since it might be the first half of a CRLF.
+     * </p>
+     */
+    static final class OutputCopier {
+
+        private final ProcessOutputPipe standardOutputPipe;
+        private final ProcessOutputPipe errorPipe;
+        private final byte[] marker;
+        private final OutputStream outputStream;
+
+        private final IncompleteLine incompleteOutputLine = new IncompleteLine();
+        private final IncompleteLine incompleteErrorLine = new IncompleteLine();
+
+        // the time waited for further output: Long.MAX_VALUE means no limit
+        private final long outputTimeoutMs;
+        private long nextOutputDeadline;
+        private boolean firstLinePending;
+        private boolean endOfOutput;
+        private boolean outputLimitReached;
+        private Throwable failure;
+
+        OutputCopier(ProcessOutputPipe standardOutputPipe, ProcessOutputPipe errorPipe, String marker,
+                     OutputStream outputStream, Configuration configuration) {
+            this.standardOutputPipe = standardOutputPipe;
+            this.errorPipe = errorPipe;
+            this.outputStream = outputStream;
+            this.firstLinePending = configuration.getSkipFirstLine();
+
+            final long firstOutputTimeoutMs;
+            if (marker != null) {
+                // ASCII: the same bytes in any charset handed over by ProcessRunner
+                this.marker = marker.getBytes(StandardCharsets.US_ASCII);
+
+                final int markerTimeoutMs = configuration.getEndOfOutputMarkerTimeoutMs();
+                this.outputTimeoutMs = markerTimeoutMs > 0 ? markerTimeoutMs : Long.MAX_VALUE;
+                firstOutputTimeoutMs = outputTimeoutMs;
+            } else {
+                this.marker = null;
+                this.outputTimeoutMs = configuration.getOutputIdleTimeoutMs();
+                firstOutputTimeoutMs = configuration.getFirstOutputTimeoutMs();
+            }
+
+            this.nextOutputDeadline = deadlineAfter(firstOutputTimeoutMs);
+        }
+
+        private static long deadlineAfter(long timeoutMs) {
+            if (timeoutMs == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+
+            return System.currentTimeMillis() + timeoutMs;
+        }
+
+        /**
+         * @return the failure raised by the stream capturing the output, or {@code null}
+         * @throws RuntimeDyna4JdbcException if the marker line is not read within the marker timeout
+         */
+        Throwable copy() throws IOException {
+
+            while (!endOfOutput) {
+
+                final long pollTimeoutMs = Math.min(POLL_INTERVAL_MS, nextOutputDeadline - System.currentTimeMillis());
+
+                ByteBuffer chunk = null;
+                if (pollTimeoutMs > 0) {
+                    chunk = standardOutputPipe.poll(pollTimeoutMs, TimeUnit.MILLISECONDS);
+                    if (chunk != null) {
+                        copyLines(standardOutputPipe, chunk, incompleteOutputLine);
+                    }
+                }
+
+                if (chunk == null && !errorPipe.isEmpty()) {
+                    chunk = errorPipe.poll(0, TimeUnit.MILLISECONDS);
+                    if (chunk != null) {
+                        copyLines(errorPipe, chunk, incompleteErrorLine);
+                    }
+                }
+
+                if (chunk != null) {
+                    nextOutputDeadline = deadlineAfter(outputTimeoutMs);
+                } else if (standardOutputPipe.isEnded()) {
+                    endOfOutput = true;
+                } else if (System.currentTimeMillis() >= nextOutputDeadline) {
+                    if (marker != null) {
+                        throw JDBCError.END_OF_OUTPUT_MARKER_TIMEOUT.raiseUncheckedException(outputTimeoutMs);
                     }
+
+                    endOfOutput = true;
+                }
+
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IOException("Interrupted while reading the output of the process");
                 }
+            }
 
-                if (outputCaptured == null) {
+            copyIncompleteLine(incompleteOutputLine);
+            copyIncompleteLine(incompleteErrorLine);
+
+            return failure;
+        }
+
+        /*
+         * Writes the complete lines of the chunk: the line started in a previous chunk and the
+         * first line (if it is skipped) are handled one by one, the rest of the lines with a
+         * single write, unless one of them is the marker line. Once the marker line is found,
+         * the rest of the chunk is left for the output of the next script.
+         */
+        private void copyLines(ProcessOutputPipe pipe, ByteBuffer chunk, IncompleteLine incompleteLine) {
+            final byte[] bytes = chunk.array();
+            final int end = chunk.limit();
+
+            int lineStart = chunk.position();
+
+            while ((!incompleteLine.isEmpty() || firstLinePending) && !endOfOutput && lineStart < end) {
+                final int lineEnd;
+                if (incompleteLine.endsWith(CR)) {
+                    // the CR at the end of the previous chunk is a line end, with the LF following it (if any)
+                    lineEnd = bytes[lineStart] == LF ? lineStart + 1 : lineStart;
+                } else {
+                    lineEnd = indexOfLineEnd(bytes, lineStart, end);
+                }
+
+                if (lineEnd < 0) {
                     break;
+                }
 
+                if (incompleteLine.isEmpty()) {
+                    copyLine(bytes, lineStart, lineEnd - lineStart);
                 } else {
-                    outputPrintWriter.println(outputCaptured);
+                    incompleteLine.append(bytes, lineStart, lineEnd - lineStart);
+                    copyLine(incompleteLine.bytes, 0, incompleteLine.length);
+                    incompleteLine.clear();
                 }
+
+                lineStart = lineEnd;
             }
 
-        } catch (ProcessExecutionException | IOException e) {
-            throw new ScriptExecutionException(e);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new ScriptExecutionException("Interrupted", e);
+            if (!endOfOutput && incompleteLine.isEmpty() && !firstLinePending) {
+                final int lastLineEnd = lastIndexOfLineEnd(bytes, lineStart, end);
+
+                int markerIndex = -1;
+                if (marker != null) {
+                    markerIndex = indexOfMarkerLine(bytes, lineStart, lastLineEnd);
+                }
+
+                if (markerIndex >= 0) {
+                    // the marker line is not written, nor anything after it
+                    write(bytes, lineStart, markerIndex - lineStart);
+                    lineStart = indexOfLineEnd(bytes, markerIndex, end);
+                    endOfOutput = true;
+                } else {
+                    write(bytes, lineStart, lastLineEnd - lineStart);
+                    lineStart = lastLineEnd;
+                }
+            }
+
+            if (endOfOutput) {
+                chunk.position(lineStart);
+                if (chunk.hasRemaining()) {
+                    pipe.pushBack(chunk);
+                    return;
+                }
+            } else {
+                incompleteLine.append(bytes, lineStart, end - lineStart);
+            }
+
+            pipe.release(chunk);
         }
+
+        private void copyIncompleteLine(IncompleteLine incompleteLine) {
+            if (!incompleteLine.isEmpty()) {
+                incompleteLine.append(LF);
+                copyLine(incompleteLine.bytes, 0, incompleteLine.length);
+                incompleteLine.clear();
+            }
+        }
+
+        private void copyLine(byte[] bytes, int offset, int length) {
+            if (isLineWritten(bytes, offset, length)) {
+                write(bytes, offset, length);
+            }
+        }
+
+        /*
+         * Returns the start of the first marker line within the complete lines of the range,
+         * or -1 if there is none: the marker has to be the whole content of the line, so that
+         * e.g. the command echoing the marker is not taken as the marker line.
+         */
+        private int indexOfMarkerLine(byte[] bytes, int from, int to) {
+            int markerIndex = indexOf(bytes, from, to, marker);
+            while (markerIndex >= 0) {
+                final int markerEnd = markerIndex + marker.length;
+                final boolean atLineStart =
+                        markerIndex == from || bytes[markerIndex - 1] == LF || bytes[markerIndex - 1] == CR;
+
+                if (atLineStart && markerEnd < to && (bytes[markerEnd] == LF || bytes[markerEnd] == CR)) {
+                    return markerIndex;
+                }
+
+                markerIndex = indexOf(bytes, markerIndex + 1, to, marker);
+            }
+
+            return -1;
+        }
+
+        /*
+         * Returns whether the content of the line (including its line end) is the marker.
+         */
+        private boolean isMarkerLine(byte[] bytes, int offset, int length) {
+            int contentLength = length;
+            if (contentLength > 0 && bytes[offset + contentLength - 1] == LF) {
+                contentLength--;
+            }
+            if (contentLength > 0 && bytes[offset + contentLength - 1] == CR) {
+                contentLength--;
+            }
+
+            return contentLength == marker.length
+                    && Arrays.equals(Arrays.copyOfRange(bytes, offset, offset + contentLength), marker);
+        }
+
+        private boolean isLineWritten(byte[] bytes, int offset, int length) {
+            if (marker != null && isMarkerLine(bytes, offset, length)) {
+                endOfOutput = true;
+                return false;
+            }
+
+            if (firstLinePending) {
+                // skip and discard first result line
+                firstLinePending = false;
+                return false;
+            }
+
+            return true;
+        }
+
+        private void write(byte[] bytes, int offset, int length) {
+            if (length == 0 || failure != null || outputLimitReached) {
+                return;
+            }
+
+            try {
+                outputStream.write(bytes, offset, length);
+            } catch (OutputLimitReachedError e) {
+                // the process is not stopped, as it might be used by subsequent scripts: the rest of
+                // the output is read and dropped, so that it is not taken as the output of the next one
+                outputLimitReached = true;
+            } catch (IOException | RuntimeException | OutputDisabledError e) {
+                failure = e;
+            }
+        }
+    }
+
+    /**
+     * Decodes the binary output of a single script, up to its end of result frame (or the
+     * end of the output, if the process terminates), and passes the rows to the
+     * {@code RowEmitter} of the stream capturing the output. The standard error is read,
+     * so that the process is not blocked writing it, but dropped: it cannot be mixed with
+     * the rows. If the frames are invalid, the process is terminated, since the start of
+     * the output of the next script cannot be found.
+     */
+    private static final class FrameCopier {
+
+        private final ProcessRunner process;
+        private final OutputStream outputStream;
+
+        private FrameCopier(ProcessRunner process, OutputStream outputStream) {
+            this.process = process;
+            this.outputStream = outputStream;
+        }
+
+        /**
+         * @return the failure raised by the stream capturing the output or by the decoder, or {@code null}
+         */
+        private Throwable copy() throws IOException {
+
+            try {
+                BinaryRowFrameDecoder decoder = new BinaryRowFrameDecoder(getRowEmitter());
+
+                ProcessOutputPipe standardOutputPipe = process.getStandardOutputPipe();
+                ProcessOutputPipe errorPipe = process.getErrorPipe();
+
+                while (!decoder.isEndOfResult()) {
+
+                    ByteBuffer chunk = standardOutputPipe.poll(POLL_INTERVAL_MS, TimeUnit.MILLISECONDS);
+                    if (chunk != null) {
+                        int frameEnd = decoder.decode(chunk.array(), chunk.position(), chunk.limit());
+                        if (frameEnd >= 0 && frameEnd < chunk.limit()) {
+                            // the rest is the output of the next script
+                            chunk.position(frameEnd);
+                            standardOutputPipe.pushBack(chunk);
+                        } else {
+                            standardOutputPipe.release(chunk);
+                        }
+                    } else if (standardOutputPipe.isEnded()) {
+                        if (decoder.hasIncompleteFrame()) {
+                            throw JDBCError.INVALID_PROCESS_OUTPUT_FRAME.raiseUncheckedException(
+                                    "the output ended within a frame");
+                        }
+                        break;
+                    }
+
+                    while (!errorPipe.isEmpty()) {
+                        ByteBuffer errorChunk = errorPipe.poll(0, TimeUnit.MILLISECONDS);
+                        if (errorChunk != null) {
+                            errorPipe.release(errorChunk);
+                        }
+                    }
+
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new IOException("Interrupted while reading the output of the process");
+                    }
+                }
+
+                return decoder.getFailure();
+
+            } catch (RuntimeDyna4JdbcException e) {
+                process.terminateProcess();
+                return e;
+            }
+        }
+
+        private RowEmitter getRowEmitter() {
+            RowEmitter rowEmitter = null;
+            if (outputStream instanceof TypedRowOutput) {
+                rowEmitter = ((TypedRowOutput) outputStream).getRowEmitter();
+            }
+
+            if (rowEmitter == null) {
+                throw JDBCError.DRIVER_BUG_UNEXPECTED_STATE.raiseUncheckedException(
+                        "the output stream does not accept typed rows");
+            }
+
+            return rowEmitter;
+        }
+    }
+
+    /*
+     * Returns the index after the first line end in the range, or -1 if there is none:
+     * a CR at the end of the range is not a line end yet, as an LF might follow it.
+     */
+    private static int indexOfLineEnd(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == LF) {
+                return i + 1;
+            }
+
+            if (bytes[i] == CR) {
+                if (i + 1 == to) {
+                    return -1;
+                }
+
+                return bytes[i + 1] == LF ? i + 2 : i + 1;
+            }
+        }
+
+        return -1;
+    }
+
+    /*
+     * Returns the index after the last line end in the range, or from if there is none:
+     * a CR at the end of the range is not a line end yet, as an LF might follow it.
+     */
+    private static int lastIndexOfLineEnd(byte[] bytes, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (bytes[i] == LF || (bytes[i] == CR && i + 1 < to)) {
+                return i + 1;
+            }
+        }
+
+        return from;
+    }
+
+    private static int indexOf(byte[] bytes, int from, int to, byte[] pattern) {
+        final byte first = pattern[0];
+        final int lastStart = to - pattern.length;
+
+        for (int i = from; i <= lastStart; i++) {
+            if (bytes[i] == first) {
+                int matched = 1;
+                while (matched < pattern.length && bytes[i + matched] == pattern[matched]) {
+                    matched++;
+                }
+
+                if (matched == pattern.length) {
+                    return i;
+                }
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * The bytes of a line, of which the end has not been read yet.
+     */
+    private static final class IncompleteLine {
+
+        private static final int INITIAL_SIZE = 256;
+
+        private byte[] bytes = new byte[INITIAL_SIZE];
+        private int length;
+
+        private void append(byte[] source, int offset, int count) {
+            if (length + count > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+            }
+
+            System.arraycopy(source, offset, bytes, length, count);
+            length += count;
+        }
+
+        private void append(byte b) {
+            append(new byte[] {b}, 0, 1);
+        }
+
+        private boolean isEmpty() {
+            return length == 0;
+        }
+
+        private boolean endsWith(byte b) {
+            return length > 0 && bytes[length - 1] == b;
+        }
+
+        private void clear() {
+            length = 0;
+        }
+    }
+
+    /**
+     * Re-encodes the UTF-8 bytes written to it (always whole lines, hence whole
+     * characters) in the charset of the {@code Writer}.
+     */
+    private static final class Utf8TranscodingOutputStream extends OutputStream {
+
+        private final Writer writer;
+
+        private Utf8TranscodingOutputStream(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            writer.write(new String(bytes, offset, length, StandardCharsets.UTF_8));
+            writer.flush();
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+
+    /*
+     * Starts the process with the command: the previous process (if any) has
+     * terminated, but its reader threads are released only here.
+     */
+    private ProcessRunner startProcess(ProcessRunner previousProcess, String command)
+            throws ProcessExecutionException {
+
+        if (previousProcess != null) {
+            previousProcess.terminateProcess();
+        }
+
+        ProcessRunner currentProcess = ProcessRunner.start(command, configuration);
+        this.processRunner.set(currentProcess);
+
+        return currentProcess;
+    }
+
+    /**
+     * Terminates the process: the script being executed stops reading
+     * its output, and the next script starts a new process.
+     */
+    @Override
+    public void cancelExecution() {
+        close();
     }
 
     public void close() {
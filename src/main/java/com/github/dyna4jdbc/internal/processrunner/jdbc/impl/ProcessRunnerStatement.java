@@ -1,25 +1,32 @@
 package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
 
 import java.sql.SQLException;
+import java.util.concurrent.ExecutorService;
 
 import com.github.dyna4jdbc.internal.common.jdbc.generic.OutputHandlingStatement;
 import com.github.dyna4jdbc.internal.common.outputhandler.ScriptOutputHandlerFactory;
+import com.github.dyna4jdbc.internal.config.Configuration;
 
 class ProcessRunnerStatement extends OutputHandlingStatement<ProcessRunnerConnection> {
 
     private final ProcessRunnerScriptExecutor scriptExecutor;
 
     ProcessRunnerStatement(ProcessRunnerConnection connection,
+                           Configuration configuration,
                            ScriptOutputHandlerFactory scriptOutputHandlerFactory,
-                           ProcessRunnerScriptExecutor scriptExecutor) {
+                           ProcessRunnerScriptExecutor scriptExecutor,
+                           ExecutorService asyncExecutor) {
 
-        super(connection, scriptOutputHandlerFactory, scriptExecutor);
+        super(connection, configuration, scriptOutputHandlerFactory, scriptExecutor, null, asyncExecutor);
 
         this.scriptExecutor = scriptExecutor;
     }
 
     @Override
     public void cancel() throws SQLException {
+        super.cancel();
+
+        // also terminates a process not executing any script
         scriptExecutor.close();
     }
 }
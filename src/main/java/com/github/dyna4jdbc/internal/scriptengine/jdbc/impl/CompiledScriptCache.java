@@ -0,0 +1,169 @@
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import com.github.dyna4jdbc.internal.common.metrics.DriverMetrics;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEvent;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventField;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventType;
+
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of {@code CompiledScript}s keyed by the script text:
+ * if the cache is full, the least recently used entry is evicted.
+ * An evicted {@code CompiledScript} is no longer referenced by the
+ * cache, which allows the classes generated for it to be unloaded
+ * (provided the script engine does not retain them itself).
+ *
+ * <p>
+ * Hits, misses and evictions are only counted (by the cache and/or
+ * in the {@link DriverMetrics}) if requested at construction time.
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+final class CompiledScriptCache {
+
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private final Compilable compilable;
+    private final String engineName;
+    private final int maximumSize;
+    private final boolean recordStatistics;
+    private final boolean recordMetrics;
+
+    private final LinkedHashMap<String, CompiledScript> compiledScripts;
+
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+
+    CompiledScriptCache(Compilable compilable, int maximumSize, boolean recordStatistics) {
+        this(compilable, null, maximumSize, recordStatistics, false);
+    }
+
+    /**
+     * Creates a cache of the scripts compiled by a script engine.
+     *
+     * @param compilable the script engine
+     * @param engineName the name of the script engine, reported by the Flight Recorder events
+     * @param maximumSize the maximum number of scripts cached
+     * @param recordStatistics whether hits, misses and evictions are counted by the cache
+     * @param recordMetrics whether hits, misses and evictions are counted in the {@code DriverMetrics}
+     */
+    CompiledScriptCache(Compilable compilable, String engineName, int maximumSize,
+                        boolean recordStatistics, boolean recordMetrics) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("maximumSize must be positive, but was: " + maximumSize);
+        }
+
+        this.compilable = compilable;
+        this.engineName = engineName;
+        this.maximumSize = maximumSize;
+        this.recordStatistics = recordStatistics;
+        this.recordMetrics = recordMetrics;
+
+        // access-order: the eldest entry is the least recently used one
+        this.compiledScripts = new LinkedHashMap<String, CompiledScript>(16, LOAD_FACTOR, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CompiledScript> eldest) {
+                boolean evict = size() > CompiledScriptCache.this.maximumSize;
+                if (evict && CompiledScriptCache.this.recordStatistics) {
+                    evictionCount++;
+                }
+                if (evict && CompiledScriptCache.this.recordMetrics) {
+                    DriverMetrics.getInstance().compiledScriptCacheEviction();
+                }
+                return evict;
+            }
+        };
+    }
+
+    /**
+     * Returns the {@code CompiledScript} cached for the script, compiling
+     * and caching it if it is not cached yet. Scripts, which fail to
+     * compile, are not cached.
+     *
+     * @param script the script text
+     * @return the {@code CompiledScript} for the script (never {@code null})
+     * @throws ScriptException if compiling the script fails
+     */
+    synchronized CompiledScript getOrCompile(String script) throws ScriptException {
+        CompiledScript compiledScript = compiledScripts.get(script);
+        if (compiledScript != null) {
+            if (recordStatistics) {
+                hitCount++;
+            }
+            if (recordMetrics) {
+                DriverMetrics.getInstance().compiledScriptCacheHit();
+            }
+            return compiledScript;
+        }
+
+        if (recordStatistics) {
+            missCount++;
+        }
+        if (recordMetrics) {
+            DriverMetrics.getInstance().compiledScriptCacheMiss();
+        }
+
+        compiledScript = compile(compilable, engineName, script);
+        compiledScripts.put(script, compiledScript);
+
+        return compiledScript;
+    }
+
+    /**
+     * Compiles a script, emitting a Flight Recorder event.
+     *
+     * @param compilable the script engine
+     * @param engineName the name of the script engine
+     * @param script the script text
+     * @return the {@code CompiledScript} for the script
+     * @throws ScriptException if compiling the script fails
+     */
+    static CompiledScript compile(Compilable compilable, String engineName, String script) throws ScriptException {
+        FlightRecorderEvent compileEvent = FlightRecorderEventType.COMPILE.begin();
+        try {
+            return compilable.compile(script);
+        } finally {
+            if (compileEvent.isEnabled()) {
+                compileEvent.set(FlightRecorderEventField.ENGINE_NAME, engineName)
+                        .set(FlightRecorderEventField.SCRIPT_HASH, script.hashCode())
+                        .commit();
+            }
+        }
+    }
+
+    synchronized int size() {
+        return compiledScripts.size();
+    }
+
+    synchronized void clear() {
+        compiledScripts.clear();
+    }
+
+    synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    synchronized long getMissCount() {
+        return missCount;
+    }
+
+    synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("CompiledScriptCache{size=%s, maximumSize=%s, hits=%s, misses=%s, evictions=%s}",
+                compiledScripts.size(), maximumSize, hitCount, missCount, evictionCount);
+    }
+}
@@ -1,12 +1,23 @@
 package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
 
+import com.github.dyna4jdbc.RowEmitter;
+import com.github.dyna4jdbc.internal.BatchScriptExecutionException;
+import com.github.dyna4jdbc.internal.CharacterOutputCapturingScriptExecutor;
 import com.github.dyna4jdbc.internal.JDBCError;
 import com.github.dyna4jdbc.internal.OutputCapturingScriptExecutor;
+import com.github.dyna4jdbc.internal.OutputDisabledError;
+import com.github.dyna4jdbc.internal.PreparedScriptExecutor;
 import com.github.dyna4jdbc.internal.ScriptExecutionException;
+import com.github.dyna4jdbc.internal.TypedRowOutput;
+import com.github.dyna4jdbc.internal.common.datamodel.MemoryBudget;
 import com.github.dyna4jdbc.internal.common.jdbc.base.AbstractConnection;
 import com.github.dyna4jdbc.internal.common.jdbc.base.AbstractStatement;
 import com.github.dyna4jdbc.internal.common.jdbc.generic.GenericDatabaseMetaData;
+import com.github.dyna4jdbc.internal.common.jdbc.generic.OutputHandlingPreparedStatement;
 import com.github.dyna4jdbc.internal.common.jdbc.generic.OutputHandlingStatement;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEvent;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventField;
+import com.github.dyna4jdbc.internal.common.metrics.FlightRecorderEventType;
 import com.github.dyna4jdbc.internal.common.outputhandler.IOHandlerFactory;
 import com.github.dyna4jdbc.internal.common.outputhandler.ScriptOutputHandlerFactory;
 import com.github.dyna4jdbc.internal.common.outputhandler.impl.DefaultIOHandlerFactory;
@@ -14,23 +25,56 @@ import com.github.dyna4jdbc.internal.common.outputhandler.impl.DefaultScriptOutp
 import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandlerFactory;
 import com.github.dyna4jdbc.internal.common.typeconverter.impl.DefaultTypeHandlerFactory;
 import com.github.dyna4jdbc.internal.common.util.collection.ArrayUtils;
+import com.github.dyna4jdbc.internal.common.util.concurrent.DaemonExecutors;
+import com.github.dyna4jdbc.internal.common.util.concurrent.DaemonThreadFactory;
+import com.github.dyna4jdbc.internal.common.util.exception.ExceptionUtils;
 import com.github.dyna4jdbc.internal.config.Configuration;
 import com.github.dyna4jdbc.internal.config.ConfigurationFactory;
 import com.github.dyna4jdbc.internal.config.MisconfigurationException;
 import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
 
+import javax.script.Bindings;
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
 import javax.script.ScriptEngine;
 import javax.script.ScriptEngineFactory;
-import javax.script.ScriptEngineManager;
 import javax.script.ScriptException;
+import javax.script.SimpleBindings;
+import javax.script.SimpleScriptContext;
 import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.io.Writer;
 import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
-public class DefaultScriptEngineConnection extends AbstractConnection implements OutputCapturingScriptExecutor {
+public class DefaultScriptEngineConnection extends AbstractConnection
+        implements CharacterOutputCapturingScriptExecutor {
+
+    private static final Logger LOGGER = Logger.getLogger(DefaultScriptEngineConnection.class.getName());
+
+    private static final String THREADING_PARAMETER = "THREADING";
+    private static final String THREADING_MULTITHREADED = "MULTITHREADED";
+    private static final String THREADING_THREAD_ISOLATED = "THREAD-ISOLATED";
+    private static final String THREADING_STATELESS = "STATELESS";
+
+    private static final ExecutorService BATCH_EXECUTOR =
+            Executors.newCachedThreadPool(new DaemonThreadFactory("dyna4jdbc-batch-executor"));
 
     //CHECKSTYLE.OFF: VisibilityModifier
     protected final ScriptEngine engine;
@@ -39,10 +83,26 @@ public class DefaultScriptEngineConnection extends AbstractConnection implements
 
     private final TypeHandlerFactory typeHandlerFactory;
     private final Configuration configuration;
+    // as specified in the connection URL
+    private final String scriptEngineName;
+    private final CompiledScriptCache compiledScriptCache;
+    private final boolean threadSafeEngine;
+    private final int batchParallelism;
+    private final ExecutorService asyncExecutor;
+    private final MemoryBudget memoryBudget;
+
+    // the writers of the engine's default context, restored when the connection is reset
+    private final Writer initialWriter;
+    private final Writer initialErrorWriter;
+
+    // bound as RowEmitter.VARIABLE_NAME: delegates to the output of the statement executed
+    private final ThreadBoundRowEmitter rowEmitter = new ThreadBoundRowEmitter();
 
     public DefaultScriptEngineConnection(String parameters, Properties properties)
             throws SQLException, MisconfigurationException {
 
+        FlightRecorderEvent connectEvent = FlightRecorderEventType.CONNECT.begin();
+
         if (parameters == null || "".equals(parameters.trim())) {
             throw JDBCError.INVALID_CONFIGURATION.raiseSQLException(
                     "Scrip Engine Name not specified");
@@ -58,6 +118,7 @@ public class DefaultScriptEngineConnection extends AbstractConnection implements
                     "Scrip Engine Name is not specified");
         }
 
+        this.scriptEngineName = engineName;
         this.engine = loadEngineByName(engineName);
 
         ConfigurationFactory configurationFactory = DefaultConfigurationFactory.getInstance();
@@ -67,11 +128,88 @@ public class DefaultScriptEngineConnection extends AbstractConnection implements
         this.typeHandlerFactory = DefaultTypeHandlerFactory.getInstance(configuration);
         this.ioHandlerFactory = DefaultIOHandlerFactory.getInstance(configuration);
 
+        this.compiledScriptCache = createCompiledScriptCache(engine, engineName, configuration);
+        this.threadSafeEngine = isThreadSafe(engine.getFactory());
+        this.batchParallelism = configuration.getBatchParallelism();
+        this.asyncExecutor = DaemonExecutors.newBoundedDaemonExecutor(
+                "dyna4jdbc-async-execution", configuration.getAsyncExecutionThreads());
+
+        this.memoryBudget = DefaultScriptOutputHandlerFactory.newConnectionMemoryBudget(configuration);
+
+        this.initialWriter = engine.getContext().getWriter();
+        this.initialErrorWriter = engine.getContext().getErrorWriter();
+
+        if (threadSafeEngine) {
+            // statements evaluated concurrently share state via the GLOBAL_SCOPE Bindings only
+            engine.setBindings(newSynchronizedBindings(engine.getBindings(ScriptContext.GLOBAL_SCOPE)),
+                    ScriptContext.GLOBAL_SCOPE);
+        }
+
+        bindRowEmitter();
+
+        if (configuration.getJmxMetrics()) {
+            recordConnectionMetrics(engineName);
+        }
+
+        connectEvent.set(FlightRecorderEventField.ENGINE_NAME, engineName).commit();
+    }
+
+    /**
+     * Returns whether the engine created by the factory supports executing
+     * scripts concurrently, according to its {@code THREADING} parameter.
+     *
+     * @param scriptEngineFactory the factory of the engine (can be {@code null})
+     * @return {@code true} if the {@code THREADING} parameter is {@code MULTITHREADED},
+     *      {@code THREAD-ISOLATED} or {@code STATELESS} (which implies {@code THREAD-ISOLATED})
+     */
+    static boolean isThreadSafe(ScriptEngineFactory scriptEngineFactory) {
+        if (scriptEngineFactory == null) {
+            return false;
+        }
+
+        Object threading = scriptEngineFactory.getParameter(THREADING_PARAMETER);
+
+        return THREADING_MULTITHREADED.equals(threading)
+                || THREADING_THREAD_ISOLATED.equals(threading)
+                || THREADING_STATELESS.equals(threading);
+    }
+
+    private static Bindings newSynchronizedBindings(Bindings initialBindings) {
+        Bindings synchronizedBindings = new SimpleBindings(Collections.synchronizedMap(new HashMap<>()));
+        if (initialBindings != null) {
+            synchronizedBindings.putAll(initialBindings);
+        }
+
+        return synchronizedBindings;
+    }
+
+    /*
+     * The emitter is bound in the GLOBAL_SCOPE as well, since statements
+     * evaluated concurrently have ENGINE_SCOPE Bindings of their own.
+     */
+    private void bindRowEmitter() {
+        engine.put(RowEmitter.VARIABLE_NAME, rowEmitter);
+
+        Bindings globalBindings = engine.getBindings(ScriptContext.GLOBAL_SCOPE);
+        if (threadSafeEngine && globalBindings != null) {
+            globalBindings.put(RowEmitter.VARIABLE_NAME, rowEmitter);
+        }
+    }
+
+    private static CompiledScriptCache createCompiledScriptCache(
+            ScriptEngine scriptEngine, String engineName, Configuration configuration) {
+
+        int cacheSize = configuration.getCompiledScriptCacheSize();
+        if (cacheSize > 0 && scriptEngine instanceof Compilable) {
+            return new CompiledScriptCache((Compilable) scriptEngine, engineName, cacheSize,
+                    configuration.getCompiledScriptCacheStatistics(), configuration.getJmxMetrics());
+        }
+
+        return null;
     }
 
     private static ScriptEngine loadEngineByName(String engineName) throws SQLException {
-        ScriptEngineManager scriptEngineManager = new ScriptEngineManager();
-        ScriptEngine se = scriptEngineManager.getEngineByName(engineName);
+        ScriptEngine se = ScriptEngineFactoryCache.getInstance().getEngineByName(engineName);
         if (se == null) {
             throw JDBCError.LOADING_SCRIPTENGINE_FAILED.raiseSQLException(engineName);
         }
@@ -89,11 +227,221 @@ public class DefaultScriptEngineConnection extends AbstractConnection implements
     protected final AbstractStatement<?> createStatementInternal() throws SQLException {
         checkNotClosed();
         ScriptOutputHandlerFactory outputHandlerFactory =
-                new DefaultScriptOutputHandlerFactory(typeHandlerFactory, configuration);
+                new DefaultScriptOutputHandlerFactory(typeHandlerFactory, configuration, memoryBudget);
+
+        //CHECKSTYLE.OFF: AvoidInlineConditionals
+        CharacterOutputCapturingScriptExecutor characterOutputCapturingScriptExecutor =
+                isCharacterOutputCaptureSupported() ? this : null;
+        //CHECKSTYLE.ON: AvoidInlineConditionals
+
+        return new OutputHandlingStatement<>(this, configuration, outputHandlerFactory,
+                this, characterOutputCapturingScriptExecutor, asyncExecutor);
+    }
+
+    @Override
+    protected final PreparedStatement prepareStatementInternal(String script) throws SQLException {
+        checkNotClosed();
+        ScriptOutputHandlerFactory outputHandlerFactory =
+                new DefaultScriptOutputHandlerFactory(typeHandlerFactory, configuration, memoryBudget);
+
+        CompiledScript compiledScript = compile(script);
+
+        PreparedScriptExecutor preparedScriptExecutor = new PreparedScriptExecutor() {
+            @Override
+            public OutputCapturingScriptExecutor bindParameters(Map<String, Object> parameters) {
+                return bindParameterBatch(Collections.singletonList(parameters));
+            }
 
-        return new OutputHandlingStatement<>(this, outputHandlerFactory, this);
+            @Override
+            public OutputCapturingScriptExecutor bindParameterBatch(List<Map<String, Object>> parameterBatch) {
+                List<ScriptEvaluation> scriptEvaluations = new ArrayList<>(parameterBatch.size());
+                for (Map<String, Object> parameters : parameterBatch) {
+                    scriptEvaluations.add(
+                            scriptContext -> evaluatePrepared(script, compiledScript, parameters, scriptContext));
+                }
+
+                if (isCharacterOutputCaptureSupported()) {
+                    return new CharacterBoundScriptExecutor(scriptEvaluations);
+                }
+
+                return new BoundScriptExecutor(scriptEvaluations);
+            }
+        };
+
+        return new OutputHandlingPreparedStatement<>(this, configuration, outputHandlerFactory,
+                script, preparedScriptExecutor, asyncExecutor);
     }
 
+    /*
+     * Returns the CompiledScript for the script, or null if the engine does
+     * not support compilation: the script is then interpreted on each execution.
+     */
+    private CompiledScript compile(String script) throws SQLException {
+        try {
+            if (compiledScriptCache != null) {
+                return getOrCompile(script);
+            }
+
+            if (!(engine instanceof Compilable)) {
+                return null;
+            }
+
+            if (isConcurrentExecutionSupported()) {
+                return CompiledScriptCache.compile((Compilable) engine, scriptEngineName, script);
+            }
+
+            synchronized (engine) {
+                return CompiledScriptCache.compile((Compilable) engine, scriptEngineName, script);
+            }
+
+        } catch (ScriptException e) {
+            String message = ExceptionUtils.getRootCauseMessage(e);
+            throw JDBCError.SCRIPT_EXECUTION_EXCEPTION.raiseSQLException(e, message);
+        }
+    }
+
+    /*
+     * Compiling via an engine, which is not thread-safe, must not overlap with
+     * the evaluation of scripts (or with another compilation): the engine is locked.
+     */
+    private CompiledScript getOrCompile(String script) throws ScriptException {
+        if (isConcurrentExecutionSupported()) {
+            return compiledScriptCache.getOrCompile(script);
+        }
+
+        synchronized (engine) {
+            return compiledScriptCache.getOrCompile(script);
+        }
+    }
+
+    /*
+     * Executes the evaluations of a prepared script bound to parameters: the scripts passed
+     * are only used for reporting. Executing a single script performs all the evaluations,
+     * while a batch of scripts performs the evaluation with the same index for each script.
+     * Not a CharacterOutputCapturingScriptExecutor: the output is captured as bytes.
+     */
+    private class BoundScriptExecutor implements OutputCapturingScriptExecutor {
+
+        private final List<ScriptEvaluation> scriptEvaluations;
+
+        BoundScriptExecutor(List<ScriptEvaluation> scriptEvaluations) {
+            this.scriptEvaluations = scriptEvaluations;
+        }
+
+        @Override
+        public final void executeScriptUsingStreams(
+                String ignored, OutputStream stdOutputStream, OutputStream errorOutputStream)
+                throws ScriptExecutionException {
+
+            executeUsingStreams(scriptContext -> evaluateAll(scriptEvaluations, scriptContext),
+                    stdOutputStream, errorOutputStream);
+        }
+
+        @Override
+        public final void executeScriptBatchUsingStreams(
+                List<String> ignored, OutputStream stdOutputStream, OutputStream errorOutputStream)
+                throws ScriptExecutionException {
+
+            executeBatch(scriptEvaluations,
+                    scriptEvaluation -> executeUsingStreams(scriptEvaluation, stdOutputStream, errorOutputStream));
+        }
+
+        final List<ScriptEvaluation> getScriptEvaluations() {
+            return scriptEvaluations;
+        }
+    }
+
+    private final class CharacterBoundScriptExecutor extends BoundScriptExecutor
+            implements CharacterOutputCapturingScriptExecutor {
+
+        CharacterBoundScriptExecutor(List<ScriptEvaluation> scriptEvaluations) {
+            super(scriptEvaluations);
+        }
+
+        @Override
+        public void executeScriptUsingWriters(
+                String ignored, Writer stdOutWriter, Writer errorWriter) throws ScriptExecutionException {
+
+            executeUsingWriters(scriptContext -> evaluateAll(getScriptEvaluations(), scriptContext),
+                    stdOutWriter, errorWriter);
+        }
+
+        @Override
+        public void executeScriptBatchUsingWriters(
+                List<String> ignored, Writer stdOutWriter, Writer errorWriter) throws ScriptExecutionException {
+
+            executeBatch(getScriptEvaluations(),
+                    scriptEvaluation -> executeUsingWriters(scriptEvaluation, stdOutWriter, errorWriter));
+        }
+    }
+
+    /**
+     * Returns whether scripts of different statements can be evaluated concurrently,
+     * each in its own {@code ScriptContext}. If {@code false}, statements
+     * are executed one at a time, swapping the writers of the engine's
+     * default {@code ScriptContext}.
+     *
+     * @return {@code true} by default, if the engine declares itself thread-safe
+     *      via the {@code THREADING} parameter of its factory
+     */
+    //CHECKSTYLE.OFF: DesignForExtension
+    protected boolean isConcurrentExecutionSupported() {
+        return threadSafeEngine;
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
+    /**
+     * Returns whether the output of the scripts can be captured via
+     * {@link #executeScriptUsingWriters(String, Writer, Writer)}: subclasses,
+     * which have to capture the output as bytes, return {@code false}.
+     *
+     * @return {@code true} (the default), if the output can be captured as characters
+     */
+    //CHECKSTYLE.OFF: DesignForExtension
+    protected boolean isCharacterOutputCaptureSupported() {
+        return true;
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
+
+    //CHECKSTYLE.OFF: DesignForExtension
+    @Override
+    protected void closeInternal() throws SQLException {
+
+        asyncExecutor.shutdownNow();
+
+        if (compiledScriptCache != null) {
+            if (configuration.getCompiledScriptCacheStatistics() && LOGGER.isLoggable(Level.INFO)) {
+                LOGGER.info("Closing connection: " + compiledScriptCache);
+            }
+
+            // release the compiled scripts, so that their classes can be unloaded
+            compiledScriptCache.clear();
+        }
+
+        super.closeInternal();
+    }
+
+    /**
+     * Restores the writers of the engine's default context, in case a script
+     * replaced them: the output of the next user of a pooled connection is
+     * captured, instead of being written to a stale writer.
+     *
+     * @throws SQLException in case resetting the state fails
+     */
+    @Override
+    protected void resetInternal() throws SQLException {
+        synchronized (engine) {
+            engine.getContext().setWriter(initialWriter);
+            engine.getContext().setErrorWriter(initialErrorWriter);
+
+            // in case a script replaced it
+            bindRowEmitter();
+        }
+
+        super.resetInternal();
+    }
+    //CHECKSTYLE.ON: DesignForExtension
 
     private String getEngineDescription() {
         ScriptEngineFactory factory = engine.getFactory();
@@ -117,43 +465,401 @@ public class DefaultScriptEngineConnection extends AbstractConnection implements
         return null;
     }
 
-    //CHECKSTYLE.OFF: DesignForExtension
     @Override
-    public void executeScriptUsingStreams(
+    public final void executeScriptUsingStreams(
             String script,
             OutputStream stdOutputStream,
             OutputStream errorOutputStream) throws ScriptExecutionException {
 
-        synchronized (engine) {
-            Writer originalWriter = engine.getContext().getWriter();
-            Writer originalErrorWriter = engine.getContext().getErrorWriter();
+        executeUsingStreams(scriptContext -> evaluate(script, scriptContext), stdOutputStream, errorOutputStream);
+    }
 
-            try {
+    @Override
+    public final void executeScriptUsingWriters(
+            String script,
+            Writer stdOutWriter,
+            Writer errorWriter) throws ScriptExecutionException {
 
-                if (stdOutputStream != null) {
+        executeUsingWriters(scriptContext -> evaluate(script, scriptContext), stdOutWriter, errorWriter);
+    }
 
-                    PrintWriter outputPrintWriter =
-                            ioHandlerFactory.newPrintWriter(stdOutputStream, true);
+    @Override
+    public final void executeScriptBatchUsingStreams(
+            List<String> scripts,
+            OutputStream stdOutputStream,
+            OutputStream errorOutputStream) throws ScriptExecutionException {
 
-                    engine.getContext().setWriter(outputPrintWriter);
+        executeBatch(toScriptEvaluations(scripts),
+                scriptEvaluation -> executeUsingStreams(scriptEvaluation, stdOutputStream, errorOutputStream));
+    }
+
+    @Override
+    public final void executeScriptBatchUsingWriters(
+            List<String> scripts,
+            Writer stdOutWriter,
+            Writer errorWriter) throws ScriptExecutionException {
+
+        executeBatch(toScriptEvaluations(scripts),
+                scriptEvaluation -> executeUsingWriters(scriptEvaluation, stdOutWriter, errorWriter));
+    }
+
+    private List<ScriptEvaluation> toScriptEvaluations(List<String> scripts) {
+        List<ScriptEvaluation> scriptEvaluations = new ArrayList<>(scripts.size());
+        for (String script : scripts) {
+            scriptEvaluations.add(scriptContext -> evaluate(script, scriptContext));
+        }
+
+        return scriptEvaluations;
+    }
+
+    /**
+     * Executes a {@code ScriptEvaluation} with the output captured by
+     * the streams or writers of a batch.
+     */
+    @FunctionalInterface
+    private interface ScriptEvaluationExecutor {
+        void execute(ScriptEvaluation scriptEvaluation) throws ScriptExecutionException;
+    }
+
+    /*
+     * By default, the evaluations of the batch are performed back-to-back as a single
+     * evaluation: the engine is acquired and the output capture is set up only once.
+     * If parallel batch execution is configured and the engine is thread-safe, each
+     * evaluation is executed on its own, up to batchParallelism of them concurrently.
+     */
+    private void executeBatch(
+            List<ScriptEvaluation> scriptEvaluations,
+            ScriptEvaluationExecutor scriptEvaluationExecutor) throws ScriptExecutionException {
+
+        if (batchParallelism > 1 && scriptEvaluations.size() > 1 && isConcurrentExecutionSupported()) {
+            executeBatchInParallel(scriptEvaluations, scriptEvaluationExecutor);
+        } else {
+            scriptEvaluationExecutor.execute(
+                    scriptContext -> evaluateBatch(scriptEvaluations, scriptContext));
+        }
+    }
+
+    private void executeBatchInParallel(
+            List<ScriptEvaluation> scriptEvaluations,
+            ScriptEvaluationExecutor scriptEvaluationExecutor) throws ScriptExecutionException {
+
+        final int batchSize = scriptEvaluations.size();
+        final Throwable[] failures = new Throwable[batchSize];
+        final AtomicInteger nextIndex = new AtomicInteger();
+
+        // each worker takes the next evaluation not yet taken, until all of them are taken or it is interrupted
+        Runnable worker = () -> {
+            for (int i = nextIndex.getAndIncrement();
+                 i < batchSize && !Thread.currentThread().isInterrupted();
+                 i = nextIndex.getAndIncrement()) {
+                try {
+                    scriptEvaluationExecutor.execute(scriptEvaluations.get(i));
+                } catch (ScriptExecutionException | RuntimeException | OutputDisabledError e) {
+                    failures[i] = e;
                 }
+            }
+        };
 
-                if (errorOutputStream != null) {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 1; i < Math.min(batchParallelism, batchSize); i++) {
+            futures.add(BATCH_EXECUTOR.submit(worker));
+        }
 
-                    PrintWriter errorPrintWriter =
-                            ioHandlerFactory.newPrintWriter(errorOutputStream, true);
+        try {
+            // the calling thread is one of the workers
+            worker.run();
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScriptExecutionException("Interrupted while executing the batch", e);
+        } catch (ExecutionException e) {
+            throw new ScriptExecutionException(e.getCause());
+        } finally {
+            // the calling thread is interrupted if the statement is cancelled or times out:
+            // the evaluations still in progress on the other workers are interrupted as well
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+
+        int[] failedIndexes = IntStream.range(0, batchSize).filter(i -> failures[i] != null).toArray();
+        if (failedIndexes.length > 0) {
+            BatchScriptExecutionException batchException =
+                    new BatchScriptExecutionException(failedIndexes, batchSize, failures[failedIndexes[0]]);
+
+            for (int i = 1; i < failedIndexes.length; i++) {
+                batchException.addSuppressed(failures[failedIndexes[i]]);
+            }
+
+            throw batchException;
+        }
+    }
+
+    private static void evaluateBatch(
+            List<ScriptEvaluation> scriptEvaluations,
+            ScriptContext scriptContext) throws BatchScriptExecutionException {
+
+        for (int i = 0; i < scriptEvaluations.size(); i++) {
+            try {
+                scriptEvaluations.get(i).evaluate(scriptContext);
+            } catch (ScriptExecutionException | RuntimeException | OutputDisabledError e) {
+                throw new BatchScriptExecutionException(i, e);
+            }
+        }
+    }
+
+    private static void evaluateAll(
+            List<ScriptEvaluation> scriptEvaluations,
+            ScriptContext scriptContext) throws ScriptExecutionException {
+
+        for (ScriptEvaluation scriptEvaluation : scriptEvaluations) {
+            scriptEvaluation.evaluate(scriptContext);
+        }
+    }
+
+    /**
+     * Evaluation of a (plain or prepared) script in a {@code ScriptContext}.
+     */
+    @FunctionalInterface
+    protected interface ScriptEvaluation {
+        void evaluate(ScriptContext scriptContext) throws ScriptExecutionException;
+    }
+
+    /**
+     * Performs the evaluation, capturing the output written to the writers of
+     * the {@code ScriptContext} as bytes. Subclasses, which have to redirect
+     * the output by other means, override this method.
+     *
+     * @param scriptEvaluation the evaluation to perform
+     * @param stdOutputStream the stream capturing the standard output (can be {@code null})
+     * @param errorOutputStream the stream capturing the error output (can be {@code null})
+     * @throws ScriptExecutionException if the evaluation fails
+     */
+    //CHECKSTYLE.OFF: DesignForExtension
+    protected void executeUsingStreams(
+            ScriptEvaluation scriptEvaluation,
+            OutputStream stdOutputStream,
+            OutputStream errorOutputStream) throws ScriptExecutionException {
+
+        PrintWriter outputPrintWriter = null;
+        if (stdOutputStream != null) {
+            outputPrintWriter = ioHandlerFactory.newPrintWriter(stdOutputStream, true);
+        }
 
-                    engine.getContext().setErrorWriter(errorPrintWriter);
+        PrintWriter errorPrintWriter = null;
+        if (errorOutputStream != null) {
+            errorPrintWriter = ioHandlerFactory.newPrintWriter(errorOutputStream, true);
+        }
+
+        evalWithContextWriters(scriptEvaluation, outputPrintWriter, errorPrintWriter, getRowEmitter(stdOutputStream));
+    }
+
+    /**
+     * Performs the evaluation, capturing the output written to the writers of
+     * the {@code ScriptContext} as characters. Subclasses, which have to redirect
+     * the output by other means, override this method.
+     *
+     * @param scriptEvaluation the evaluation to perform
+     * @param stdOutWriter the writer capturing the standard output (can be {@code null})
+     * @param errorWriter the writer capturing the error output (can be {@code null})
+     * @throws ScriptExecutionException if the evaluation fails
+     */
+    protected void executeUsingWriters(
+            ScriptEvaluation scriptEvaluation,
+            Writer stdOutWriter,
+            Writer errorWriter) throws ScriptExecutionException {
+
+        PrintWriter outputPrintWriter = null;
+        if (stdOutWriter != null) {
+            // not buffered and not flushed per line: the Writers given capture characters directly
+            outputPrintWriter = new PrintWriter(stdOutWriter);
+        }
+
+        PrintWriter errorPrintWriter = null;
+        if (errorWriter != null) {
+            errorPrintWriter = new PrintWriter(errorWriter);
+        }
+
+        evalWithContextWriters(scriptEvaluation, outputPrintWriter, errorPrintWriter, getRowEmitter(stdOutWriter));
+    }
+    //CHECKSTYLE.ON: DesignForExtension
+
+    /*
+     * The emitter of typed rows written to the standard output, if the output accepts those.
+     */
+    private static RowEmitter getRowEmitter(Object stdOutput) {
+        if (stdOutput instanceof TypedRowOutput) {
+            return ((TypedRowOutput) stdOutput).getRowEmitter();
+        }
+
+        return null;
+    }
+
+    private void evalWithContextWriters(
+            ScriptEvaluation scriptEvaluation,
+            PrintWriter outputPrintWriter,
+            PrintWriter errorPrintWriter,
+            RowEmitter stdOutRowEmitter) throws ScriptExecutionException {
+
+        RowEmitter previousRowEmitter = rowEmitter.bind(stdOutRowEmitter);
+        try {
+            evalWithContextWriters(scriptEvaluation, outputPrintWriter, errorPrintWriter);
+        } finally {
+            rowEmitter.restore(previousRowEmitter);
+        }
+    }
+
+    private void evalWithContextWriters(
+            ScriptEvaluation scriptEvaluation,
+            PrintWriter outputPrintWriter,
+            PrintWriter errorPrintWriter) throws ScriptExecutionException {
+
+        if (isConcurrentExecutionSupported()) {
+            ScriptContext statementContext = newStatementScriptContext(outputPrintWriter, errorPrintWriter);
+
+            scriptEvaluation.evaluate(statementContext);
+
+        } else {
+            synchronized (engine) {
+                // cancelled while waiting for the engine: the script is not evaluated
+                checkNotInterrupted();
+
+                Writer originalWriter = engine.getContext().getWriter();
+                Writer originalErrorWriter = engine.getContext().getErrorWriter();
+
+                try {
+
+                    if (outputPrintWriter != null) {
+                        engine.getContext().setWriter(outputPrintWriter);
+                    }
+
+                    if (errorPrintWriter != null) {
+                        engine.getContext().setErrorWriter(errorPrintWriter);
+                    }
+
+                    scriptEvaluation.evaluate(engine.getContext());
+
+                } finally {
+                    engine.getContext().setWriter(originalWriter);
+                    engine.getContext().setErrorWriter(originalErrorWriter);
                 }
+            }
+        }
+    }
+
+    private static void checkNotInterrupted() throws ScriptExecutionException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new ScriptExecutionException("Interrupted while waiting for the script engine",
+                    new InterruptedException());
+        }
+    }
+
+    /*
+     * A ScriptContext for a single statement: the writers and the ENGINE_SCOPE
+     * Bindings are its own, as concurrent statements must not modify the same
+     * (not thread-safe) Bindings. State is shared by the statements only via
+     * the GLOBAL_SCOPE Bindings of the engine, which are synchronized.
+     */
+    private ScriptContext newStatementScriptContext(PrintWriter outputPrintWriter, PrintWriter errorPrintWriter) {
+        ScriptContext defaultContext = engine.getContext();
+
+        ScriptContext statementContext = new SimpleScriptContext();
+        statementContext.setBindings(engine.createBindings(), ScriptContext.ENGINE_SCOPE);
+
+        Bindings globalBindings = defaultContext.getBindings(ScriptContext.GLOBAL_SCOPE);
+        if (globalBindings != null) {
+            statementContext.setBindings(globalBindings, ScriptContext.GLOBAL_SCOPE);
+        }
+
+        statementContext.setReader(defaultContext.getReader());
+
+        if (outputPrintWriter != null) {
+            statementContext.setWriter(outputPrintWriter);
+        } else {
+            statementContext.setWriter(defaultContext.getWriter());
+        }
+
+        if (errorPrintWriter != null) {
+            statementContext.setErrorWriter(errorPrintWriter);
+        } else {
+            statementContext.setErrorWriter(defaultContext.getErrorWriter());
+        }
+
+        return statementContext;
+    }
+
+    private void evaluate(String script, ScriptContext scriptContext) throws ScriptExecutionException {
+        try {
+            CompiledScript compiledScript = null;
+            if (compiledScriptCache != null) {
+                compiledScript = getOrCompile(script);
+            }
 
-                engine.eval(script);
-            } catch (ScriptException e) {
-                throw new ScriptExecutionException(e);
+            FlightRecorderEvent evalEvent = FlightRecorderEventType.EVAL.begin();
+            try {
+                if (compiledScript != null) {
+                    compiledScript.eval(scriptContext);
+                } else {
+                    engine.eval(script, scriptContext);
+                }
             } finally {
-                engine.getContext().setWriter(originalWriter);
-                engine.getContext().setErrorWriter(originalErrorWriter);
+                commitEvalEvent(evalEvent, script);
             }
+        } catch (ScriptException e) {
+            throw new ScriptExecutionException(e);
+        }
+    }
+
+    private void commitEvalEvent(FlightRecorderEvent evalEvent, String script) {
+        if (evalEvent.isEnabled()) {
+            evalEvent.set(FlightRecorderEventField.ENGINE_NAME, scriptEngineName)
+                    .set(FlightRecorderEventField.SCRIPT_HASH, script.hashCode())
+                    .commit();
+        }
+    }
+
+    /*
+     * The parameters are bound in ENGINE_SCOPE Bindings of their own, created for
+     * each execution: these are visible neither to other statements, nor to
+     * concurrent executions. The Bindings holding the state shared by the statements
+     * become the GLOBAL_SCOPE: the ENGINE_SCOPE of the context given, or its GLOBAL_SCOPE
+     * if statements are evaluated concurrently, each with ENGINE_SCOPE Bindings of its own.
+     */
+    private void evaluatePrepared(
+            String script,
+            CompiledScript compiledScript,
+            Map<String, Object> parameters,
+            ScriptContext scriptContext) throws ScriptExecutionException {
+
+        Bindings parameterBindings = engine.createBindings();
+        parameterBindings.putAll(parameters);
+
+        ScriptContext preparedContext = new SimpleScriptContext();
+        preparedContext.setBindings(parameterBindings, ScriptContext.ENGINE_SCOPE);
+        //CHECKSTYLE.OFF: AvoidInlineConditionals
+        int sharedStateScope =
+                isConcurrentExecutionSupported() ? ScriptContext.GLOBAL_SCOPE : ScriptContext.ENGINE_SCOPE;
+        //CHECKSTYLE.ON: AvoidInlineConditionals
+        preparedContext.setBindings(scriptContext.getBindings(sharedStateScope), ScriptContext.GLOBAL_SCOPE);
+
+        preparedContext.setReader(scriptContext.getReader());
+        preparedContext.setWriter(scriptContext.getWriter());
+        preparedContext.setErrorWriter(scriptContext.getErrorWriter());
+
+        FlightRecorderEvent evalEvent = FlightRecorderEventType.EVAL.begin();
+        try {
+            if (compiledScript != null) {
+                compiledScript.eval(preparedContext);
+            } else {
+                engine.eval(script, preparedContext);
+            }
+        } catch (ScriptException e) {
+            throw new ScriptExecutionException(e);
+        } finally {
+            commitEvalEvent(evalEvent, script);
         }
     }
-    //CHECKSTYLE.ON: DesignForExtension
 }
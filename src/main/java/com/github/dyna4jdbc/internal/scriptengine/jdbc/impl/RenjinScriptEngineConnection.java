@@ -8,6 +8,7 @@ import org.renjin.script.RenjinScriptEngine;
 
 import java.io.OutputStream;
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.sql.SQLException;
 import java.util.Properties;
 
@@ -38,43 +39,91 @@ public class RenjinScriptEngineConnection extends DefaultScriptEngineConnection
         renjinConnectionTable = ((RenjinScriptEngine) this.engine).getSession().getConnectionTable();
     }
 
+    /**
+     * The output is redirected via the {@code ConnectionTable} of the
+     * Renjin session, which is shared by all statements: these have
+     * to be executed one at a time.
+     */
     @Override
-    public final void executeScriptUsingStreams(
-            String script,
+    protected boolean isConcurrentExecutionSupported() {
+        return false;
+    }
+
+    @Override
+    protected final void executeUsingStreams(
+            ScriptEvaluation scriptEvaluation,
             OutputStream stdOutputStream,
             OutputStream errorOutputStream) throws ScriptExecutionException {
 
-        PrintWriter originalStdOut = null;
-        PrintWriter originalError = null;
+        PrintWriter outputPrintWriter = null;
+        if (stdOutputStream != null) {
+            outputPrintWriter = ioHandlerFactory.newPrintWriter(stdOutputStream, true);
+        }
 
-        try {
+        PrintWriter errorPrintWriter = null;
+        if (errorOutputStream != null) {
+            errorPrintWriter = ioHandlerFactory.newPrintWriter(errorOutputStream, true);
+        }
 
-            originalStdOut = renjinConnectionTable.getStdout().getPrintWriter();
-            originalError = renjinConnectionTable.getStderr().getPrintWriter();
+        executeWithRenjinPrintWriters(outputPrintWriter, errorPrintWriter,
+                () -> super.executeUsingStreams(scriptEvaluation, stdOutputStream, errorOutputStream));
+    }
 
-            if (stdOutputStream != null) {
+    @Override
+    protected final void executeUsingWriters(
+            ScriptEvaluation scriptEvaluation,
+            Writer stdOutWriter,
+            Writer errorWriter) throws ScriptExecutionException {
+
+        PrintWriter outputPrintWriter = null;
+        if (stdOutWriter != null) {
+            outputPrintWriter = new PrintWriter(stdOutWriter);
+        }
 
-                PrintWriter outputPrintWriter =
-                        ioHandlerFactory.newPrintWriter(stdOutputStream, true);
+        PrintWriter errorPrintWriter = null;
+        if (errorWriter != null) {
+            errorPrintWriter = new PrintWriter(errorWriter);
+        }
 
-                renjinConnectionTable.getStdout().setOutputStream(outputPrintWriter);
-            }
+        executeWithRenjinPrintWriters(outputPrintWriter, errorPrintWriter,
+                () -> super.executeUsingWriters(scriptEvaluation, stdOutWriter, errorWriter));
+    }
 
+    private void executeWithRenjinPrintWriters(
+            PrintWriter outputPrintWriter,
+            PrintWriter errorPrintWriter,
+            ScriptExecution scriptExecution) throws ScriptExecutionException {
 
-            if (errorOutputStream != null) {
+        // the ConnectionTable is shared: the same lock is held by the superclass
+        synchronized (engine) {
+            PrintWriter originalStdOut = null;
+            PrintWriter originalError = null;
 
-                PrintWriter errorPrintWriter =
-                        ioHandlerFactory.newPrintWriter(errorOutputStream, true);
+            try {
 
-                renjinConnectionTable.getStderr().setOutputStream(errorPrintWriter);
-            }
+                originalStdOut = renjinConnectionTable.getStdout().getPrintWriter();
+                originalError = renjinConnectionTable.getStderr().getPrintWriter();
+
+                if (outputPrintWriter != null) {
+                    renjinConnectionTable.getStdout().setOutputStream(outputPrintWriter);
+                }
 
-            super.executeScriptUsingStreams(script, stdOutputStream, errorOutputStream);
+                if (errorPrintWriter != null) {
+                    renjinConnectionTable.getStderr().setOutputStream(errorPrintWriter);
+                }
 
-        } finally {
+                scriptExecution.execute();
 
-            renjinConnectionTable.getStdout().setOutputStream(originalStdOut);
-            renjinConnectionTable.getStderr().setOutputStream(originalError);
+            } finally {
+
+                renjinConnectionTable.getStdout().setOutputStream(originalStdOut);
+                renjinConnectionTable.getStderr().setOutputStream(originalError);
+            }
         }
     }
+
+    @FunctionalInterface
+    private interface ScriptExecution {
+        void execute() throws ScriptExecutionException;
+    }
 }
@@ -49,9 +49,18 @@ public final class ScalaScriptEngineConnection extends DefaultScriptEngineConnec
         super.closeInternal();
     }
 
+    /**
+     * Scala's {@code Console} output can only be redirected to an
+     * {@code OutputStream}: the output is captured as bytes.
+     */
     @Override
-    public void executeScriptUsingStreams(
-            String script, OutputStream stdOutputStream, OutputStream errorOutputStream)
+    protected boolean isCharacterOutputCaptureSupported() {
+        return false;
+    }
+
+    @Override
+    protected void executeUsingStreams(
+            ScriptEvaluation scriptEvaluation, OutputStream stdOutputStream, OutputStream errorOutputStream)
             throws ScriptExecutionException {
 
         if (stdOutputStream == null) {
@@ -61,7 +70,7 @@ public final class ScalaScriptEngineConnection extends DefaultScriptEngineConnec
         try {
 
             Function0<Void> invokerFunction =
-                    createOutputCapturingInvokerFunction(script, stdOutputStream, errorOutputStream);
+                    createOutputCapturingInvokerFunction(scriptEvaluation, stdOutputStream, errorOutputStream);
 
             if (errorOutputStream != null) {
 
@@ -97,13 +106,13 @@ public final class ScalaScriptEngineConnection extends DefaultScriptEngineConnec
     }
 
     private Function0<Void> createOutputCapturingInvokerFunction(
-            String script, OutputStream stdOutputStream, OutputStream errorOutputStream) {
+            ScriptEvaluation scriptEvaluation, OutputStream stdOutputStream, OutputStream errorOutputStream) {
 
         return new AbstractFunction0<Void>() {
             @Override
             public Void apply() {
 
-                doExecuteScriptUsingCustomWriters(script, stdOutputStream, errorOutputStream);
+                doExecuteScriptUsingCustomWriters(scriptEvaluation, stdOutputStream, errorOutputStream);
 
                 return null;
             }
@@ -112,10 +121,10 @@ public final class ScalaScriptEngineConnection extends DefaultScriptEngineConnec
     }
 
     private void doExecuteScriptUsingCustomWriters(
-            String script, OutputStream stdOutputStream, OutputStream errorOutputStream) {
+            ScriptEvaluation scriptEvaluation, OutputStream stdOutputStream, OutputStream errorOutputStream) {
         try {
 
-            super.executeScriptUsingStreams(script, stdOutputStream, errorOutputStream);
+            super.executeUsingStreams(scriptEvaluation, stdOutputStream, errorOutputStream);
 
         } catch (ScriptExecutionException e) {
             throw new RuntimeException(e);
@@ -0,0 +1,157 @@
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.ScriptEngineManager;
+import javax.script.SimpleBindings;
+
+/**
+ * Driver-wide cache of the {@code ScriptEngineFactory} instances found via
+ * {@code ServiceLoader}: unlike creating a {@code ScriptEngineManager}, which
+ * scans the class path and instantiates all factories, looking up an engine
+ * by name only instantiates the factories not yet seen, until the one with
+ * the name is found. The cache is discarded when the context class loader
+ * of the calling thread changes (e.g. when a web application is redeployed).
+ *
+ * <p>
+ * Until discarded, the cache keeps the class loader reachable: the factories loaded
+ * by it reference it, as does the {@code ServiceLoader}, until all factories are
+ * discovered. Hence the cache is also discarded when the driver is deregistered
+ * from the {@code DriverManager} (see {@link #clear()}).
+ * </p>
+ *
+ * @author Peter Horvath
+ */
+public final class ScriptEngineFactoryCache {
+
+    private static final Logger LOGGER = Logger.getLogger(ScriptEngineFactoryCache.class.getName());
+
+    private static final ScriptEngineFactoryCache INSTANCE = new ScriptEngineFactoryCache();
+
+    // guarded by this
+    private FactoryDiscovery discovery;
+
+    public static ScriptEngineFactoryCache getInstance() {
+        return INSTANCE;
+    }
+
+    private ScriptEngineFactoryCache() {
+        // singleton
+    }
+
+    /**
+     * Returns a new engine created by the factory with the name given. As with
+     * {@link ScriptEngineManager#getEngineByName(String)}, the engine has
+     * {@code GLOBAL_SCOPE} bindings of its own.
+     *
+     * @param engineName the name of the engine (see {@link ScriptEngineFactory#getNames()})
+     * @return the engine, or {@code null} if there is no engine with the name
+     */
+    ScriptEngine getEngineByName(String engineName) {
+        ScriptEngineFactory factory = getFactory(engineName);
+        if (factory == null) {
+            // e.g. an engine not registered via ServiceLoader, but installed in an extension directory
+            return new ScriptEngineManager().getEngineByName(engineName);
+        }
+
+        ScriptEngine engine = factory.getScriptEngine();
+        if (engine != null) {
+            engine.setBindings(new SimpleBindings(), ScriptContext.GLOBAL_SCOPE);
+        }
+
+        return engine;
+    }
+
+    /**
+     * Discards the factories cached, releasing the class loader they are loaded by.
+     */
+    public synchronized void clear() {
+        discovery = null;
+    }
+
+    private synchronized ScriptEngineFactory getFactory(String engineName) {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+
+        if (discovery == null || discovery.classLoaderReference.get() != contextClassLoader) {
+            discovery = new FactoryDiscovery(contextClassLoader);
+        }
+
+        return discovery.getFactory(engineName);
+    }
+
+    /**
+     * The factories found by a {@code ServiceLoader} of a class loader: the factories
+     * are instantiated lazily, as the {@code ServiceLoader} is iterated.
+     */
+    private static final class FactoryDiscovery {
+
+        // only compared to the context class loader: the factories and the ServiceLoader
+        // reference the class loader strongly, hence the cache has to be cleared explicitly
+        private final WeakReference<ClassLoader> classLoaderReference;
+        // null once all factories are discovered: the ServiceLoader is released
+        private Iterator<ScriptEngineFactory> undiscoveredFactories;
+        private final Map<String, ScriptEngineFactory> factoriesByName = new HashMap<>();
+
+        private FactoryDiscovery(ClassLoader classLoader) {
+            this.classLoaderReference = new WeakReference<>(classLoader);
+            this.undiscoveredFactories = ServiceLoader.load(ScriptEngineFactory.class, classLoader).iterator();
+        }
+
+        private ScriptEngineFactory getFactory(String engineName) {
+            ScriptEngineFactory factory = factoriesByName.get(engineName);
+
+            while (factory == null && hasNextFactory()) {
+                ScriptEngineFactory discoveredFactory = nextFactory();
+                if (discoveredFactory != null) {
+                    for (String name : discoveredFactory.getNames()) {
+                        factoriesByName.putIfAbsent(name, discoveredFactory);
+                    }
+                    factory = factoriesByName.get(engineName);
+                }
+            }
+
+            return factory;
+        }
+
+        private boolean hasNextFactory() {
+            if (undiscoveredFactories == null) {
+                return false;
+            }
+
+            boolean hasNext;
+            try {
+                hasNext = undiscoveredFactories.hasNext();
+            } catch (ServiceConfigurationError e) {
+                // e.g. an unreadable service configuration file: the rest cannot be discovered
+                LOGGER.log(Level.WARNING, "ScriptEngineFactory discovery failed", e);
+                hasNext = false;
+            }
+
+            if (!hasNext) {
+                undiscoveredFactories = null;
+            }
+
+            return hasNext;
+        }
+
+        private ScriptEngineFactory nextFactory() {
+            try {
+                return undiscoveredFactories.next();
+            } catch (ServiceConfigurationError e) {
+                // as ScriptEngineManager does, factories which cannot be instantiated are ignored
+                LOGGER.log(Level.WARNING, "Loading ScriptEngineFactory failed", e);
+                return null;
+            }
+        }
+    }
+}
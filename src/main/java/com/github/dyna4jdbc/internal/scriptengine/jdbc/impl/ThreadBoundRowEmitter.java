@@ -0,0 +1,58 @@
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import com.github.dyna4jdbc.RowEmitter;
+import com.github.dyna4jdbc.internal.JDBCError;
+
+/**
+ * The {@code RowEmitter} bound in the {@code Bindings} of the engine once: it delegates
+ * to the emitter of the statement executed by the current thread. The {@code Bindings}
+ * are shared by the statements (even concurrent ones), hence the emitter of a
+ * statement cannot be bound in them directly.
+ *
+ * @author Peter Horvath
+ */
+final class ThreadBoundRowEmitter implements RowEmitter {
+
+    private final ThreadLocal<RowEmitter> currentRowEmitter = new ThreadLocal<>();
+
+    /**
+     * Binds the emitter of a statement to the current thread.
+     *
+     * @param rowEmitter the emitter of the statement executed by the current thread (can be {@code null})
+     * @return the emitter bound before, which has to be restored via {@link #restore(RowEmitter)}
+     */
+    RowEmitter bind(RowEmitter rowEmitter) {
+        RowEmitter previousRowEmitter = currentRowEmitter.get();
+        currentRowEmitter.set(rowEmitter);
+
+        return previousRowEmitter;
+    }
+
+    void restore(RowEmitter previousRowEmitter) {
+        if (previousRowEmitter != null) {
+            currentRowEmitter.set(previousRowEmitter);
+        } else {
+            currentRowEmitter.remove();
+        }
+    }
+
+    @Override
+    public void header(String... columnLabels) {
+        getRowEmitter().header(columnLabels);
+    }
+
+    @Override
+    public void row(Object... values) {
+        getRowEmitter().row(values);
+    }
+
+    private RowEmitter getRowEmitter() {
+        RowEmitter rowEmitter = currentRowEmitter.get();
+        if (rowEmitter == null) {
+            throw JDBCError.INVALID_TYPED_ROW.raiseUncheckedException(
+                    "rows can only be emitted by the thread executing the statement");
+        }
+
+        return rowEmitter;
+    }
+}
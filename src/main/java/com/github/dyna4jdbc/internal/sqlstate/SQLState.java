@@ -29,7 +29,8 @@ public enum SQLState {
     // --- NON-STANDARD states ---
     // TODO: investigate SQLSTATE codes further to see if there is any better match for these
     CLIENT_ERROR(Category.ERROR, "56", "Client error"),
-    SYSTEM_ERROR(Category.ERROR, "57", "System error");
+    SYSTEM_ERROR(Category.ERROR, "57", "System error"),
+    SYSTEM_ERROR_PROCESSING_CANCELLED(SQLState.SYSTEM_ERROR, "014", "Processing was cancelled as requested");
 
     //CHECKSTYLE.OFF: VisibilityModifier
     public final String code;
@@ -1,11 +1,19 @@
 package com.github.dyna4jdbc.integrationtests;
 
+import com.github.dyna4jdbc.AsyncStatement;
 import com.github.dyna4jdbc.internal.JDBCError;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
 import java.sql.Statement;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.dyna4jdbc.integrationtests.IntegrationTestUtils.executeScriptForResultSetString;
 import static com.github.dyna4jdbc.integrationtests.IntegrationTestUtils.newLineSeparated;
@@ -62,6 +70,147 @@ public class AbstractScriptEngineIntegrationTest {
         }
     }
 
+    protected void assertPreparedStatementParametersAreBoundAsVariables(String script) throws SQLException {
+
+        try(Connection connection = DriverManager.getConnection(jdbcUrl);
+            PreparedStatement preparedStatement = connection.prepareStatement(script)) {
+
+            for (int i = 1; i <= 3; i++) {
+                preparedStatement.setString(1, "Hello World");
+                preparedStatement.setInt(2, i);
+
+                try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                    assertTrue(resultSet.next());
+                    assertEquals(resultSet.getString("Message"), "Hello World");
+                    assertEquals(resultSet.getInt("Number"), i);
+                    assertFalse(resultSet.next());
+                }
+            }
+        }
+    }
+
+    protected void assertBatchIsExecutedInOrder(
+            String[] batchScripts, String valueQueryScript, String expectedValue) throws SQLException {
+
+        try(Connection connection = DriverManager.getConnection(jdbcUrl);
+            Statement statement = connection.createStatement()) {
+
+            for (String batchScript : batchScripts) {
+                statement.addBatch(batchScript);
+            }
+
+            int[] updateCounts = statement.executeBatch();
+            assertEquals(updateCounts, new int[batchScripts.length]);
+
+            // the batch is reset by the execution
+            assertEquals(statement.executeBatch(), new int[0]);
+
+            try (ResultSet resultSet = statement.executeQuery(valueQueryScript)) {
+                assertTrue(resultSet.next());
+                assertEquals(resultSet.getString(1), expectedValue);
+                assertFalse(resultSet.next());
+            }
+        }
+    }
+
+    protected void assertWritingFromBatchThrowsBatchUpdateException(
+            String[] batchScripts, int writingScriptIndex) throws SQLException {
+
+        try(Connection connection = DriverManager.getConnection(jdbcUrl);
+            Statement statement = connection.createStatement()) {
+
+            for (String batchScript : batchScripts) {
+                statement.addBatch(batchScript);
+            }
+
+            statement.executeBatch();
+
+            fail("Should have thrown an exception");
+
+        } catch (BatchUpdateException batchUpdateEx) {
+
+            String message = batchUpdateEx.getMessage();
+            assertNotNull(message);
+            assertTrue(message.contains(JDBCError.USING_STDOUT_FROM_UPDATE.name()), message);
+
+            // the scripts before the failing one have been executed
+            assertEquals(batchUpdateEx.getUpdateCounts(), new int[writingScriptIndex]);
+        }
+    }
+
+    protected void assertQueryTimeoutCancelsExecution(String longRunningScript) throws SQLException {
+
+        try(Connection connection = DriverManager.getConnection(jdbcUrl);
+            Statement statement = connection.createStatement()) {
+
+            statement.setQueryTimeout(1);
+            assertEquals(statement.getQueryTimeout(), 1);
+
+            final long startTime = System.currentTimeMillis();
+            try {
+                statement.executeUpdate(longRunningScript);
+                fail("Should have thrown an exception");
+
+            } catch (SQLTimeoutException expected) {
+                String message = expected.getMessage();
+                assertNotNull(message);
+                assertTrue(message.contains(JDBCError.QUERY_TIMEOUT.name()), message);
+            }
+
+            final long elapsedTime = System.currentTimeMillis() - startTime;
+            assertTrue(elapsedTime < 5_000, "Timeout not applied in time: " + elapsedTime + " ms");
+        }
+    }
+
+    protected void assertAsyncQueryResultCanBeComposed(String script, String expectedValue) throws Exception {
+
+        try(Connection connection = DriverManager.getConnection(jdbcUrl);
+            Statement statement = connection.createStatement()) {
+
+            assertTrue(statement.isWrapperFor(AsyncStatement.class));
+            AsyncStatement asyncStatement = statement.unwrap(AsyncStatement.class);
+
+            CompletableFuture<String> firstValue = asyncStatement.executeQueryAsync(script)
+                    .thenApply(resultSet -> {
+                        try (ResultSet rs = resultSet) {
+                            assertTrue(rs.next());
+                            return rs.getString(1);
+                        } catch (SQLException e) {
+                            throw new IllegalStateException(e);
+                        }
+                    });
+
+            assertEquals(firstValue.get(5, TimeUnit.SECONDS), expectedValue);
+        }
+    }
+
+    protected void assertCancellingAsyncQueryCancelsExecution(String longRunningScript) throws Exception {
+
+        try(Connection connection = DriverManager.getConnection(jdbcUrl);
+            Statement statement = connection.createStatement()) {
+
+            AsyncStatement asyncStatement = statement.unwrap(AsyncStatement.class);
+
+            CompletableFuture<ResultSet> future = asyncStatement.executeQueryAsync(longRunningScript);
+            Thread.sleep(500);
+
+            assertTrue(future.cancel(true));
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("Should have thrown an exception");
+            } catch (CancellationException expected) {
+                assertTrue(future.isCancelled());
+            }
+
+            // the engine is released by the cancelled execution
+            final long startTime = System.currentTimeMillis();
+            statement.executeUpdate("1");
+
+            final long elapsedTime = System.currentTimeMillis() - startTime;
+            assertTrue(elapsedTime < 5_000, "Execution not cancelled in time: " + elapsedTime + " ms");
+        }
+    }
+
     protected void assertHeadersNotSpecifiedCausesNumbersToBeUsed(String script) throws SQLException {
         String expectedOutput = newLineSeparated(
                         "RESULT SET #1 ",
@@ -28,6 +28,48 @@ public class GroovyScriptEngineTest extends AbstractScriptEngineIntegrationTest
 
     }
 
+    @Test
+    public void testPreparedStatementParametersAreBoundAsVariables() throws SQLException {
+
+        String script = "println('Message::\tNumber::'); println(parameter1 + '\t' + parameter2)";
+
+        assertPreparedStatementParametersAreBoundAsVariables(script);
+    }
+
+    @Test
+    public void testBatchIsExecutedInOrder() throws SQLException {
+
+        String[] batchScripts = {"batchValue = 'A'", "batchValue += 'B'", "batchValue += 'C'"};
+
+        assertBatchIsExecutedInOrder(batchScripts, "println('Value::'); println(batchValue)", "ABC");
+    }
+
+    @Test
+    public void testWritingFromBatchThrowsBatchUpdateException() throws SQLException {
+
+        String[] batchScripts = {"batchValue = 'A'", "println(batchValue)", "batchValue += 'C'"};
+
+        assertWritingFromBatchThrowsBatchUpdateException(batchScripts, 1);
+    }
+
+    @Test
+    public void testQueryTimeoutCancelsExecution() throws SQLException {
+
+        assertQueryTimeoutCancelsExecution("Thread.sleep(30000)");
+    }
+
+    @Test
+    public void testAsyncQueryResultCanBeComposed() throws Exception {
+
+        assertAsyncQueryResultCanBeComposed("println('Hello World')", "Hello World");
+    }
+
+    @Test
+    public void testCancellingAsyncQueryCancelsExecution() throws Exception {
+
+        assertCancellingAsyncQueryCancelsExecution("Thread.sleep(30000)");
+    }
+
     @Test
     public void testHeadersNotSpecified() throws Exception {
 
@@ -32,6 +32,48 @@ public class JavaScriptScriptEngineTest extends AbstractScriptEngineIntegrationT
 
     }
 
+    @Test
+    public void testPreparedStatementParametersAreBoundAsVariables() throws SQLException {
+
+        String script = "print(\"Message::\tNumber::\");\n print(parameter1 + \"\t\" + parameter2)";
+
+        assertPreparedStatementParametersAreBoundAsVariables(script);
+    }
+
+    @Test
+    public void testBatchIsExecutedInOrder() throws SQLException {
+
+        String[] batchScripts = {"var batchValue = 'A'", "batchValue += 'B'", "batchValue += 'C'"};
+
+        assertBatchIsExecutedInOrder(batchScripts, "print('Value::'); print(batchValue)", "ABC");
+    }
+
+    @Test
+    public void testWritingFromBatchThrowsBatchUpdateException() throws SQLException {
+
+        String[] batchScripts = {"var batchValue = 'A'", "print(batchValue)", "batchValue += 'C'"};
+
+        assertWritingFromBatchThrowsBatchUpdateException(batchScripts, 1);
+    }
+
+    @Test
+    public void testQueryTimeoutCancelsExecution() throws SQLException {
+
+        assertQueryTimeoutCancelsExecution("java.lang.Thread.sleep(30000)");
+    }
+
+    @Test
+    public void testAsyncQueryResultCanBeComposed() throws Exception {
+
+        assertAsyncQueryResultCanBeComposed("print(\"Hello World\")", "Hello World");
+    }
+
+    @Test
+    public void testCancellingAsyncQueryCancelsExecution() throws Exception {
+
+        assertCancellingAsyncQueryCancelsExecution("java.lang.Thread.sleep(30000)");
+    }
+
     @Test
     public void testHeadersNotSpecified() throws Exception {
 
@@ -174,4 +174,119 @@ public class DataTableTest {
 
 
     }
+
+    @Test
+    public void testCellValuesAcrossChunkBoundaries() {
+
+        final int rowCount = ChunkedColumn.CHUNK_SIZE * 3 + 7;
+
+        for (int i = 0; i < rowCount; i++) {
+            if (i % 1000 == 999) {
+                dataTable.appendRow(asList(Integer.toString(i), null, "x"));
+            } else {
+                dataTable.appendRow(asList(Integer.toString(i)));
+            }
+        }
+
+        assertEquals(dataTable.getRowCount(), rowCount);
+        assertEquals(dataTable.getColumnCount(), 3);
+
+        for (int i = 0; i < rowCount; i++) {
+            assertEquals(dataTable.getCellValue(i, 0), Integer.toString(i));
+            assertNull(dataTable.getCellValue(i, 1));
+
+            List<String> row = dataTable.getRows().get(i);
+            if (i % 1000 == 999) {
+                assertEquals(dataTable.getCellValue(i, 2), "x");
+                assertEquals(row, asList(Integer.toString(i), null, "x"));
+            } else {
+                assertNull(dataTable.getCellValue(i, 2));
+                assertEquals(row, asList(Integer.toString(i)));
+            }
+        }
+
+        assertEquals(dataTable.getLastRow(), asList(Integer.toString(rowCount - 1)));
+    }
+
+    @Test
+    public void testChunksExceedingMemoryBudgetAreSpilled() {
+
+        MemoryBudget connectionBudget = new MemoryBudget(1, null);
+        MemoryBudget statementBudget = new MemoryBudget(0, connectionBudget);
+        dataTable = new DataTable(statementBudget);
+
+        final int rowCount = ChunkedColumn.CHUNK_SIZE * 3 + 7;
+        for (int i = 0; i < rowCount; i++) {
+            dataTable.appendRow(asList(Integer.toString(i), spilledCellValue(i)));
+        }
+
+        // nothing fits the budget of the connection
+        assertEquals(statementBudget.getReservedBytes(), 0L);
+        assertEquals(connectionBudget.getReservedBytes(), 0L);
+
+        for (int i = 0; i < rowCount; i++) {
+            assertEquals(dataTable.getCellValue(i, 0), Integer.toString(i));
+            assertEquals(dataTable.getCellValue(i, 1), spilledCellValue(i));
+        }
+
+        // columns are read back in turn
+        int rowIndex = 0;
+        for (String cellValue : dataTable.columnIterable().iterator().next()) {
+            assertEquals(cellValue, Integer.toString(rowIndex++));
+        }
+        assertEquals(rowIndex, rowCount);
+
+        dataTable.clear();
+        assertTrue(dataTable.isEmpty());
+    }
+
+    @Test
+    public void testChunksWithinMemoryBudgetAreReservedUntilCleared() {
+
+        MemoryBudget memoryBudget = new MemoryBudget(0, null);
+        dataTable = new DataTable(memoryBudget);
+
+        final int rowCount = ChunkedColumn.CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < rowCount; i++) {
+            dataTable.appendRow(asList(Integer.toString(i)));
+        }
+
+        assertTrue(memoryBudget.getReservedBytes() > 0);
+        assertEquals(dataTable.getCellValue(rowCount - 1, 0), Integer.toString(rowCount - 1));
+
+        dataTable.clear();
+
+        assertEquals(memoryBudget.getReservedBytes(), 0L);
+    }
+
+    private static String spilledCellValue(int rowIndex) {
+        switch (rowIndex % 4) {
+            case 0:
+                return null;
+            case 1:
+                return "";
+            case 2:
+                return "\u00e1rv\u00edzt\u0171r\u0151 \ud83d\ude00 " + rowIndex;
+            default:
+                return "x";
+        }
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testCellValueWithInvalidRowIndex() {
+
+        dataTable.appendRow(asList("a", "b"));
+
+        dataTable.getCellValue(1, 0);
+    }
+
+    @Test
+    public void testAppendedRowIsCopied() {
+
+        List<String> row = new LinkedList<>(asList("a", "b"));
+        dataTable.appendRow(row);
+        row.clear();
+
+        assertEquals(dataTable.getLastRow(), asList("a", "b"));
+    }
 }
@@ -0,0 +1,168 @@
+package com.github.dyna4jdbc.internal.common.jdbc.generic;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.testng.annotations.Test;
+
+import com.github.dyna4jdbc.internal.common.datamodel.DataTable;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandlerFactory;
+import com.github.dyna4jdbc.internal.common.typeconverter.impl.DefaultTypeHandlerFactory;
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter Horvath
+ */
+public class DataTableHolderResultSetTest {
+
+    private static final List<List<String>> TEST_DATA = asList(
+            asList("1", "1.5", "2016-06-01 19:16:19", "Mary", "007"),
+            asList("-42", "-0.25", "2016-06-01 19:16:19.123", "had", "+5"),
+            asList(null, null, null, null, null),
+            asList("9223372036854775807", "12", "1970-01-01 00:00:00", "a", "0"),
+            asList("2147483648", "0.10", "2100-12-31 23:59:59.9", "little lamb"));
+
+    private static final int INTEGER_COLUMN_INDEX = 0;
+    private static final int NON_CANONICAL_INTEGER_COLUMN_INDEX = 4;
+
+    @Test
+    public void testMaterializedColumnsReturnSameValues() throws Exception {
+        final int columnCount = TEST_DATA.get(0).size();
+
+        try (ResultSet expected = newResultSet(newDataTable(), false);
+             ResultSet actual = newResultSet(newDataTable(), true)) {
+
+            int rowCount = 0;
+            while (expected.next()) {
+                assertTrue(actual.next());
+                rowCount++;
+
+                for (int columnIndex = 1; columnIndex <= columnCount; columnIndex++) {
+                    final String message = "row " + rowCount + ", column " + columnIndex;
+
+                    assertSameValue(expected, actual, columnIndex, Getter.STRING, message);
+                    assertSameValue(expected, actual, columnIndex, Getter.INT, message);
+                    assertSameValue(expected, actual, columnIndex, Getter.LONG, message);
+                    assertSameValue(expected, actual, columnIndex, Getter.DOUBLE, message);
+                    assertSameValue(expected, actual, columnIndex, Getter.TIMESTAMP, message);
+                }
+            }
+            assertFalse(actual.next());
+            assertEquals(rowCount, TEST_DATA.size());
+        }
+    }
+
+    @Test
+    public void testMaterializedColumnValuesAreReleased() throws Exception {
+        DataTable dataTable = newDataTable();
+
+        try (ResultSet resultSet = newResultSet(dataTable, true)) {
+
+            assertNull(dataTable.getCellValue(0, INTEGER_COLUMN_INDEX));
+            assertEquals(dataTable.getCellValue(0, NON_CANONICAL_INTEGER_COLUMN_INDEX), "007");
+
+            assertTrue(resultSet.next());
+            assertEquals(resultSet.getString(INTEGER_COLUMN_INDEX + 1), "1");
+        }
+    }
+
+    @Test
+    public void testRowsBeyondMaxRowsAreDropped() throws Exception {
+        final int maxRows = 2;
+
+        try (ResultSet resultSet = newResultSet(newDataTable(), false, maxRows)) {
+
+            assertTrue(resultSet.next());
+            assertTrue(resultSet.next());
+            assertTrue(resultSet.isLast());
+            assertEquals(resultSet.getString(INTEGER_COLUMN_INDEX + 1), "-42");
+
+            assertFalse(resultSet.next());
+        }
+    }
+
+    private static void assertSameValue(ResultSet expected, ResultSet actual,
+                                        int columnIndex, Getter getter, String message) throws SQLException {
+        Object expectedValue;
+        try {
+            expectedValue = getter.get(expected, columnIndex);
+        } catch (SQLException e) {
+            try {
+                getter.get(actual, columnIndex);
+                fail(message + ": " + getter + " should fail");
+            } catch (SQLException expectedException) {
+                // expected
+            }
+            return;
+        }
+
+        assertEquals(getter.get(actual, columnIndex), expectedValue, message + ": " + getter);
+        assertEquals(actual.wasNull(), expected.wasNull(), message + ": " + getter + " wasNull");
+    }
+
+    private static DataTable newDataTable() {
+        DataTable dataTable = new DataTable();
+        for (List<String> row : TEST_DATA) {
+            dataTable.appendRow(new ArrayList<>(row));
+        }
+        return dataTable;
+    }
+
+    private static ResultSet newResultSet(DataTable dataTable, boolean materializeTypedColumns)
+            throws MisconfigurationException {
+        return newResultSet(dataTable, materializeTypedColumns, 0);
+    }
+
+    private static ResultSet newResultSet(DataTable dataTable, boolean materializeTypedColumns, int maxRows)
+            throws MisconfigurationException {
+
+        Configuration configuration =
+                DefaultConfigurationFactory.getInstance().newConfigurationFromParameters(null, new Properties());
+        TypeHandlerFactory typeHandlerFactory = DefaultTypeHandlerFactory.getInstance(configuration);
+
+        return new DataTableHolderResultSet(null, dataTable, typeHandlerFactory, materializeTypedColumns, maxRows);
+    }
+
+    private enum Getter {
+        STRING {
+            @Override
+            Object get(ResultSet resultSet, int columnIndex) throws SQLException {
+                return resultSet.getString(columnIndex);
+            }
+        },
+        INT {
+            @Override
+            Object get(ResultSet resultSet, int columnIndex) throws SQLException {
+                return resultSet.getInt(columnIndex);
+            }
+        },
+        LONG {
+            @Override
+            Object get(ResultSet resultSet, int columnIndex) throws SQLException {
+                return resultSet.getLong(columnIndex);
+            }
+        },
+        DOUBLE {
+            @Override
+            Object get(ResultSet resultSet, int columnIndex) throws SQLException {
+                return resultSet.getDouble(columnIndex);
+            }
+        },
+        TIMESTAMP {
+            @Override
+            Object get(ResultSet resultSet, int columnIndex) throws SQLException {
+                return resultSet.getTimestamp(columnIndex);
+            }
+        };
+
+        abstract Object get(ResultSet resultSet, int columnIndex) throws SQLException;
+    }
+}
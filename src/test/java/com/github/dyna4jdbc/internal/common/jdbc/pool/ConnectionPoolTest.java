@@ -0,0 +1,131 @@
+package com.github.dyna4jdbc.internal.common.jdbc.pool;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.github.dyna4jdbc.internal.processrunner.jdbc.impl.ProcessRunnerConnection;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter Horvath
+ */
+public class ConnectionPoolTest {
+
+    private final AtomicInteger openedConnectionCount = new AtomicInteger();
+
+    private final ConnectionSupplier connectionSupplier = () -> {
+        openedConnectionCount.incrementAndGet();
+        try {
+            // no process is started until a script is executed
+            return new ProcessRunnerConnection(null, new Properties());
+        } catch (Exception e) {
+            throw new SQLException(e);
+        }
+    };
+
+    @BeforeMethod
+    public void resetOpenedConnectionCount() {
+        // TestNG uses the same instance for all test methods
+        openedConnectionCount.set(0);
+    }
+
+    @Test
+    public void testMinIdleConnectionsArePreWarmed() throws SQLException {
+        try (ConnectionPool pool = newPool(2, 2, 0)) {
+
+            pool.maintain();
+
+            assertEquals(pool.getIdleCount(), 2);
+        }
+    }
+
+    @Test
+    public void testReturnedConnectionIsReused() throws SQLException {
+        try (ConnectionPool pool = newPool(0, 1, 0)) {
+
+            Connection connection = pool.getConnection();
+            Statement statement = connection.createStatement();
+            assertEquals(pool.getIdleCount(), 0);
+
+            connection.close();
+
+            assertTrue(connection.isClosed());
+            assertTrue(statement.isClosed());
+            assertEquals(pool.getIdleCount(), 1);
+
+            try (Connection reusedConnection = pool.getConnection()) {
+                assertFalse(reusedConnection.isClosed());
+                assertEquals(openedConnectionCount.get(), 1);
+            }
+        }
+    }
+
+    @Test(expectedExceptions = SQLException.class)
+    public void testClosedLogicalConnectionCannotBeUsed() throws SQLException {
+        try (ConnectionPool pool = newPool(0, 1, 0)) {
+
+            Connection connection = pool.getConnection();
+            connection.close();
+
+            connection.createStatement();
+        }
+    }
+
+    @Test
+    public void testClosedPhysicalConnectionIsNotReused() throws SQLException {
+        try (ConnectionPool pool = newPool(0, 1, 0)) {
+
+            Connection connection = pool.getConnection();
+            connection.abort(Runnable::run);
+            connection.close();
+
+            assertEquals(pool.getIdleCount(), 0);
+        }
+    }
+
+    @Test
+    public void testIdleConnectionsAreEvicted() throws Exception {
+        try (ConnectionPool pool = newPool(1, 2, 1)) {
+
+            Connection firstConnection = pool.getConnection();
+            Connection secondConnection = pool.getConnection();
+            firstConnection.close();
+            secondConnection.close();
+            assertEquals(pool.getIdleCount(), 2);
+
+            Thread.sleep(10);
+            pool.maintain();
+
+            assertEquals(pool.getIdleCount(), 1);
+        }
+    }
+
+    @Test
+    public void testClosedPoolClosesIdleConnections() throws SQLException {
+        ConnectionPool pool = newPool(0, 1, 0);
+        Connection connection = pool.getConnection();
+        connection.close();
+
+        pool.close();
+
+        assertEquals(pool.getIdleCount(), 0);
+        try {
+            pool.getConnection();
+            fail("Should have thrown an exception");
+        } catch (SQLException expected) {
+            assertTrue(expected.getMessage().contains("OBJECT_CLOSED"), expected.getMessage());
+        }
+    }
+
+    private ConnectionPool newPool(int minIdle, int maxIdle, long idleTimeoutMillis) {
+        // maintained only by explicit calls of maintain(): no background maintenance is racing the test
+        return new ConnectionPool(connectionSupplier, minIdle, maxIdle, idleTimeoutMillis, null, null, false);
+    }
+}
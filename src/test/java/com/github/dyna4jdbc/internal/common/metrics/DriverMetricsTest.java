@@ -0,0 +1,77 @@
+package com.github.dyna4jdbc.internal.common.metrics;
+
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter Horvath
+ */
+public class DriverMetricsTest {
+
+    @Test
+    public void testLatenciesAreCountedInExponentialBuckets() {
+
+        DriverMetrics driverMetrics = new DriverMetrics();
+
+        driverMetrics.statementStarted();
+        assertEquals(driverMetrics.getStatementsInFlight(), 1);
+
+        driverMetrics.statementCompleted(TimeUnit.MICROSECONDS.toNanos(3));
+        driverMetrics.statementStarted();
+        driverMetrics.statementCompleted(TimeUnit.MICROSECONDS.toNanos(5));
+        driverMetrics.statementStarted();
+        driverMetrics.statementCompleted(TimeUnit.HOURS.toNanos(1));
+
+        assertEquals(driverMetrics.getStatementsInFlight(), 0);
+        assertEquals(driverMetrics.getStatementsExecuted(), 3);
+
+        long[] upperBounds = driverMetrics.getLatencyBucketUpperBoundsMicros();
+        long[] histogram = driverMetrics.getExecutionLatencyHistogram();
+        assertEquals(histogram.length, upperBounds.length);
+
+        // 3 micros: [2, 4), 5 micros: [4, 8), 1 hour: the last bucket
+        assertEquals(upperBounds[2], 4);
+        assertEquals(histogram[2], 1);
+        assertEquals(upperBounds[3], 8);
+        assertEquals(histogram[3], 1);
+        assertEquals(upperBounds[upperBounds.length - 1], Long.MAX_VALUE);
+        assertEquals(histogram[histogram.length - 1], 1);
+    }
+
+    @Test
+    public void testResetKeepsGauges() {
+
+        DriverMetrics driverMetrics = new DriverMetrics();
+        IntSupplier queuedOutputChunks = () -> 2;
+
+        driverMetrics.connectionOpened("JavaScript");
+        driverMetrics.connectionOpened("JavaScript");
+        driverMetrics.connectionClosed("JavaScript");
+        driverMetrics.processStarted(queuedOutputChunks);
+        driverMetrics.outputCaptured(10, 100);
+        driverMetrics.compiledScriptCacheMiss();
+        driverMetrics.compiledScriptCacheHit();
+        driverMetrics.compiledScriptCacheHit();
+        driverMetrics.compiledScriptCacheHit();
+
+        assertEquals(driverMetrics.getCompiledScriptCacheHitRate(), 0.75, 0.0001);
+        assertEquals(driverMetrics.getRowsCaptured(), 10);
+        assertEquals(driverMetrics.getBytesCaptured(), 100);
+
+        driverMetrics.reset();
+
+        assertEquals(driverMetrics.getCompiledScriptCacheHitRate(), 0, 0.0001);
+        assertEquals(driverMetrics.getRowsCaptured(), 0);
+        assertEquals(driverMetrics.getActiveConnections(), Collections.singletonMap("JavaScript", 1L));
+        assertEquals(driverMetrics.getRunningProcesses(), 1);
+        assertEquals(driverMetrics.getQueuedProcessOutputChunks(), 2);
+
+        driverMetrics.processTerminated(queuedOutputChunks);
+        assertEquals(driverMetrics.getRunningProcesses(), 0);
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.dyna4jdbc.internal.common.metrics;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter Horvath
+ */
+public class FlightRecorderEventTest {
+
+    @Test
+    public void testEventsAreNotEnabledWithoutRecording() {
+
+        for (FlightRecorderEventType eventType : FlightRecorderEventType.values()) {
+            FlightRecorderEvent event = eventType.begin();
+
+            assertFalse(event.isEnabled(), eventType.name());
+
+            // no-ops: not even the fields are checked
+            event.set(FlightRecorderEventField.ENGINE_NAME, "test")
+                    .set(FlightRecorderEventField.BYTES_CAPTURED, 1)
+                    .commit();
+        }
+    }
+
+    @Test
+    public void testFieldsAreLookedUpByEventType() {
+
+        assertEquals(FlightRecorderEventType.EVAL.indexOf(FlightRecorderEventField.ENGINE_NAME), 0);
+        assertEquals(FlightRecorderEventType.EVAL.indexOf(FlightRecorderEventField.SCRIPT_HASH), 1);
+        assertEquals(FlightRecorderEventType.EVAL.indexOf(FlightRecorderEventField.ROW_COUNT), -1);
+    }
+}
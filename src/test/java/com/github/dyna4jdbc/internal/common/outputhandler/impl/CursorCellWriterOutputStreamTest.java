@@ -0,0 +1,267 @@
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+/**
+ * Differential test: the bulk {@code write(byte[], int, int)} path must
+ * yield exactly the same events as writing the bytes one by one, as the
+ * original, byte-by-byte implementation did; so must writing the
+ * characters via {@code asWriter()}.
+ *
+ * @author Peter Horvath
+ */
+public class CursorCellWriterOutputStreamTest {
+
+    private static final byte[] RANDOM_BYTE_ALPHABET = {
+            'a', 'b', '1', '.', ' ', '\t', '\t', '\n', '\n', '\r', ';',
+            (byte) 0xC3, (byte) 0xA9, (byte) 0xE2, (byte) 0x82, (byte) 0xAC, (byte) 0xFF };
+
+    private static final char[] RANDOM_CHAR_ALPHABET = {
+            'a', 'b', '1', '.', ' ', '\t', '\t', '\n', '\n', '\r', ';', '\u00e9', '\u20ac' };
+
+    private static final int RANDOM_INPUT_COUNT = 2000;
+    private static final int RANDOM_INPUT_MAX_LENGTH = 200;
+
+    @Test
+    public void testCellsAndRows() throws IOException {
+
+        RecordingCursorCellWriterOutputStream stream = new RecordingCursorCellWriterOutputStream('\t', "UTF-8");
+        stream.write("a\tb\r\n\n\u00e9\u20ac\t\n".getBytes(StandardCharsets.UTF_8));
+        stream.write("x".getBytes(StandardCharsets.UTF_8));
+        stream.close();
+
+        assertEquals(stream.getEvents(), asList(
+                "a", "|", "b", "/",
+                "\u00e9\u20ac", "|", "", "/",
+                "x"));
+    }
+
+    @Test
+    public void testMultiByteCharacterSplitBetweenWrites() throws IOException {
+
+        byte[] bytes = "\u20ac\t".getBytes(StandardCharsets.UTF_8);
+
+        RecordingCursorCellWriterOutputStream stream = new RecordingCursorCellWriterOutputStream('\t', "UTF-8");
+        stream.write(bytes, 0, 1);
+        stream.write(bytes, 1, bytes.length - 1);
+        stream.close();
+
+        assertEquals(stream.getEvents(), asList("\u20ac", "|"));
+    }
+
+    @Test
+    public void testBulkWriteIsEquivalentToByteByByteWrite() throws IOException {
+
+        Random random = new Random(42);
+
+        for (String charsetName : asList("UTF-8", "ISO-8859-1", "UTF-16", "windows-1252")) {
+            for (int i = 0; i < RANDOM_INPUT_COUNT; i++) {
+
+                byte[] input = randomInput(random);
+
+                List<String> expected = writeWithReferenceImplementation(input, charsetName);
+
+                RecordingCursorCellWriterOutputStream bulk =
+                        new RecordingCursorCellWriterOutputStream('\t', charsetName);
+                writeInRandomPieces(random, bulk, input);
+                bulk.close();
+
+                RecordingCursorCellWriterOutputStream byteByByte =
+                        new RecordingCursorCellWriterOutputStream('\t', charsetName);
+                for (byte b : input) {
+                    byteByByte.write(b);
+                }
+                byteByByte.close();
+
+                assertEquals(bulk.getEvents(), expected, charsetName);
+                assertEquals(byteByByte.getEvents(), expected, charsetName);
+            }
+        }
+    }
+
+    @Test
+    public void testWriterIsEquivalentToByteWrite() throws IOException {
+
+        Random random = new Random(42);
+
+        for (int i = 0; i < RANDOM_INPUT_COUNT; i++) {
+
+            String input = randomCharacterInput(random);
+
+            List<String> expected = writeWithReferenceImplementation(
+                    input.getBytes(StandardCharsets.UTF_8), "UTF-8");
+
+            RecordingCursorCellWriterOutputStream stream =
+                    new RecordingCursorCellWriterOutputStream('\t', "UTF-8");
+            writeInRandomPieces(random, stream.asWriter(), input);
+            stream.close();
+
+            assertEquals(stream.getEvents(), expected, input);
+        }
+    }
+
+    @Test
+    public void testMixedByteAndCharacterWrites() throws IOException {
+
+        RecordingCursorCellWriterOutputStream stream = new RecordingCursorCellWriterOutputStream('\t', "UTF-8");
+        Writer writer = stream.asWriter();
+
+        stream.write("a\u00e9".getBytes(StandardCharsets.UTF_8));
+        writer.write("\u20ac\tb");
+        stream.write("c\r".getBytes(StandardCharsets.UTF_8));
+        writer.write("\nd");
+        stream.write("e".getBytes(StandardCharsets.UTF_8));
+        writer.write('f');
+        stream.close();
+
+        assertEquals(stream.getEvents(), asList(
+                "a\u00e9\u20ac", "|", "bc", "/", "def"));
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testWriterAfterClose() throws IOException {
+
+        RecordingCursorCellWriterOutputStream stream = new RecordingCursorCellWriterOutputStream('\t', "UTF-8");
+        stream.close();
+
+        stream.asWriter().write("a");
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testWriteAfterClose() throws IOException {
+
+        RecordingCursorCellWriterOutputStream stream = new RecordingCursorCellWriterOutputStream('\t', "UTF-8");
+        stream.close();
+
+        stream.write(new byte[] {'a'}, 0, 1);
+    }
+
+    private static byte[] randomInput(Random random) {
+        byte[] input = new byte[random.nextInt(RANDOM_INPUT_MAX_LENGTH)];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = RANDOM_BYTE_ALPHABET[random.nextInt(RANDOM_BYTE_ALPHABET.length)];
+        }
+        return input;
+    }
+
+    private static String randomCharacterInput(Random random) {
+        char[] input = new char[random.nextInt(RANDOM_INPUT_MAX_LENGTH)];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = RANDOM_CHAR_ALPHABET[random.nextInt(RANDOM_CHAR_ALPHABET.length)];
+        }
+        return new String(input);
+    }
+
+    private static void writeInRandomPieces(Random random, Writer writer, String input) throws IOException {
+
+        int offset = 0;
+        while (offset < input.length()) {
+            int length = random.nextInt(input.length() - offset + 1);
+            switch (random.nextInt(3)) {
+                case 0:
+                    writer.write(input, offset, length);
+                    break;
+                case 1:
+                    writer.write(input.toCharArray(), offset, length);
+                    break;
+                default:
+                    for (int i = offset; i < offset + length; i++) {
+                        writer.write(input.charAt(i));
+                    }
+                    break;
+            }
+            offset += length;
+        }
+    }
+
+    private static void writeInRandomPieces(
+            Random random, RecordingCursorCellWriterOutputStream stream, byte[] input) throws IOException {
+
+        int offset = 0;
+        while (offset < input.length) {
+            int length = random.nextInt(input.length - offset + 1);
+            stream.write(input, offset, length);
+            offset += length;
+        }
+    }
+
+    /*
+     * The original implementation: bytes are processed one by one and
+     * each cell is decoded via ByteArrayOutputStream.toString(String)
+     */
+    private static List<String> writeWithReferenceImplementation(byte[] input, String charsetName)
+            throws UnsupportedEncodingException {
+
+        final int lf = 0xD;
+        final int cr = 0xA;
+        final char cellSeparator = '\t';
+
+        List<String> events = new ArrayList<>();
+        ByteArrayOutputStream cell = new ByteArrayOutputStream();
+        int lastByte = -1;
+
+        for (byte b : input) {
+            int thisByte = b;
+            if (!((lastByte == lf || lastByte == cr) && (thisByte == lf || thisByte == cr))) {
+                if (thisByte == lf || thisByte == cr) {
+                    events.add(cell.toString(charsetName));
+                    cell = new ByteArrayOutputStream();
+                    events.add("/");
+                } else if (thisByte == cellSeparator) {
+                    events.add(cell.toString(charsetName));
+                    cell = new ByteArrayOutputStream();
+                    events.add("|");
+                } else {
+                    cell.write(thisByte);
+                }
+            }
+            lastByte = thisByte;
+        }
+
+        if (cell.size() > 0) {
+            events.add(cell.toString(charsetName));
+        }
+
+        return events;
+    }
+
+    private static final class RecordingCursorCellWriterOutputStream extends CursorCellWriterOutputStream {
+
+        private final List<String> events = new ArrayList<>();
+
+        RecordingCursorCellWriterOutputStream(char cellSeparator, String charsetName) {
+            super(cellSeparator, charsetName);
+        }
+
+        @Override
+        protected void nextCell() {
+            events.add("|");
+        }
+
+        @Override
+        protected void nextRow() {
+            events.add("/");
+        }
+
+        @Override
+        protected void writeCellValue(String value) {
+            events.add(value);
+        }
+
+        List<String> getEvents() {
+            return events;
+        }
+    }
+}
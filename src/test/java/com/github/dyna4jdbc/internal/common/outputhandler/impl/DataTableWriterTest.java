@@ -0,0 +1,78 @@
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import com.github.dyna4jdbc.internal.common.datamodel.DataTable;
+import com.github.dyna4jdbc.internal.common.datamodel.MemoryBudget;
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter Horvath
+ */
+public class DataTableWriterTest {
+
+    // spans several chunks of the columns: the chunks completed are reserved from the memory budget
+    private static final int ROW_COUNT = 5000;
+
+    private static DataTableWriter newWriter(String configuration, MemoryBudget memoryBudget)
+            throws MisconfigurationException {
+
+        Configuration config = DefaultConfigurationFactory.getInstance()
+                .newConfigurationFromParameters(configuration, new Properties());
+
+        return new DataTableWriter(config, memoryBudget, 0);
+    }
+
+    private static void writeRows(DataTableWriter writer, String row) throws IOException {
+        for (int i = 0; i < ROW_COUNT; i++) {
+            writer.write(row.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    public void testClearedDataTablesReturnReservedMemory() throws Exception {
+
+        MemoryBudget connectionBudget = new MemoryBudget(0, null);
+        MemoryBudget statementBudget = new MemoryBudget(0, connectionBudget);
+        DataTableWriter writer = newWriter("preferMultipleResultSets=true", statementBudget);
+
+        writeRows(writer, "a\tb\n");
+        writeRows(writer, "c\n");
+        writer.close();
+
+        assertEquals(writer.getDataTableList().size(), 2);
+        assertTrue(connectionBudget.getReservedBytes() > 0);
+
+        writer.clearDataTables();
+
+        assertEquals(statementBudget.getReservedBytes(), 0L);
+        assertEquals(connectionBudget.getReservedBytes(), 0L);
+        for (DataTable dataTable : writer.getDataTableList()) {
+            assertTrue(dataTable.isEmpty());
+        }
+    }
+
+    @Test
+    public void testOutputWrittenAfterClearingIsDropped() throws Exception {
+
+        MemoryBudget memoryBudget = new MemoryBudget(0, null);
+        DataTableWriter writer = newWriter("", memoryBudget);
+
+        writeRows(writer, "a\n");
+        writer.clearDataTables();
+
+        // e.g. the script is still running after a timeout
+        writeRows(writer, "b\n");
+        writer.close();
+
+        assertEquals(memoryBudget.getReservedBytes(), 0L);
+        assertTrue(writer.getDataTableList().get(0).isEmpty());
+    }
+}
@@ -0,0 +1,155 @@
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import com.github.dyna4jdbc.internal.OutputLimitReachedError;
+import com.github.dyna4jdbc.internal.RuntimeDyna4JdbcException;
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter Horvath
+ */
+public class StreamingDataTableWriterTest {
+
+    private static StreamingDataTableWriter newWriter(String configuration) throws MisconfigurationException {
+        Configuration config = DefaultConfigurationFactory.getInstance()
+                .newConfigurationFromParameters(configuration, new Properties());
+
+        return new StreamingDataTableWriter(config);
+    }
+
+    @Test
+    public void testRowsAreDeliveredInOrder() throws Exception {
+
+        StreamingDataTableWriter writer = newWriter("streamingBufferRows=10");
+
+        writer.write("a\tb\nc\td\ne".getBytes(StandardCharsets.UTF_8));
+        writer.close();
+
+        Iterator<List<String>> rowIterator = writer.rowIterator();
+
+        assertEquals(rowIterator.next(), asList("a", "b"));
+        assertEquals(rowIterator.next(), asList("c", "d"));
+        assertEquals(rowIterator.next(), asList("e"));
+        assertFalse(rowIterator.hasNext());
+    }
+
+    @Test
+    public void testFirstLineIsSkipped() throws Exception {
+
+        StreamingDataTableWriter writer = newWriter("skipFirstLine=true");
+
+        writer.write("a\tb\nc\td\n".getBytes(StandardCharsets.UTF_8));
+        writer.close();
+
+        Iterator<List<String>> rowIterator = writer.rowIterator();
+
+        assertEquals(rowIterator.next(), asList("c", "d"));
+        assertFalse(rowIterator.hasNext());
+    }
+
+    @Test
+    public void testProducerIsBlockedUntilConsumerCatchesUp() throws Exception {
+
+        StreamingDataTableWriter writer = newWriter("streamingBufferRows=1");
+
+        Thread producer = new Thread(() -> {
+            try {
+                writer.write("1\n2\n3\n".getBytes(StandardCharsets.UTF_8));
+                writer.close();
+            } catch (IOException e) {
+                writer.producerFailed(e);
+            }
+        });
+        producer.start();
+
+        Iterator<List<String>> rowIterator = writer.rowIterator();
+
+        assertEquals(rowIterator.next(), asList("1"));
+        assertEquals(rowIterator.next(), asList("2"));
+        assertEquals(rowIterator.next(), asList("3"));
+        assertFalse(rowIterator.hasNext());
+
+        producer.join();
+    }
+
+    @Test
+    public void testAbandonReleasesBlockedProducer() throws Exception {
+
+        StreamingDataTableWriter writer = newWriter("streamingBufferRows=1");
+        AtomicBoolean producerStopped = new AtomicBoolean();
+
+        Thread producer = new Thread(() -> {
+            try {
+                writer.write("1\n2\n3\n4\n".getBytes(StandardCharsets.UTF_8));
+                writer.close();
+            } catch (IOException e) {
+                writer.producerFailed(e);
+            } catch (OutputLimitReachedError e) {
+                producerStopped.set(true);
+            }
+        });
+        producer.start();
+
+        writer.abandon();
+
+        producer.join(10_000);
+        assertFalse(producer.isAlive(), "Producer should not be blocked after abandon()");
+        assertTrue(producerStopped.get(), "Producer should be stopped after abandon()");
+    }
+
+    @Test
+    public void testProducerIsStoppedOnceMaxRowsAreEmitted() throws Exception {
+
+        Configuration config = DefaultConfigurationFactory.getInstance()
+                .newConfigurationFromParameters(null, new Properties());
+        StreamingDataTableWriter writer = new StreamingDataTableWriter(config, 2, 10);
+
+        try {
+            writer.write("1\n2\n3\n4\n5\n".getBytes(StandardCharsets.UTF_8));
+            fail("Should have thrown OutputLimitReachedError");
+        } catch (OutputLimitReachedError expected) {
+            // expected: the script is stopped
+        }
+        writer.close();
+
+        Iterator<List<String>> rowIterator = writer.rowIterator();
+
+        // one more row is emitted, since the first line might be a header
+        assertEquals(rowIterator.next(), asList("1"));
+        assertEquals(rowIterator.next(), asList("2"));
+        assertEquals(rowIterator.next(), asList("3"));
+        assertFalse(rowIterator.hasNext());
+    }
+
+    @Test
+    public void testProducerFailureIsReportedAfterRowsEmittedBefore() throws Exception {
+
+        StreamingDataTableWriter writer = newWriter("streamingBufferRows=10");
+
+        writer.write("1\n".getBytes(StandardCharsets.UTF_8));
+        writer.producerFailed(new IllegalStateException("script failed"));
+
+        Iterator<List<String>> rowIterator = writer.rowIterator();
+
+        assertEquals(rowIterator.next(), asList("1"));
+
+        try {
+            rowIterator.hasNext();
+            fail("Should have thrown an exception");
+        } catch (RuntimeDyna4JdbcException ex) {
+            assertTrue(ex.getMessage().contains("script failed"), ex.getMessage());
+        }
+    }
+}
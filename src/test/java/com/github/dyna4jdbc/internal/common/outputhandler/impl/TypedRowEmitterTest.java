@@ -0,0 +1,132 @@
+package com.github.dyna4jdbc.internal.common.outputhandler.impl;
+
+import com.github.dyna4jdbc.RowEmitter;
+import com.github.dyna4jdbc.internal.RuntimeDyna4JdbcException;
+import com.github.dyna4jdbc.internal.common.jdbc.generic.DataTableHolderResultSet;
+import com.github.dyna4jdbc.internal.common.typeconverter.impl.DefaultTypeHandlerFactory;
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.MisconfigurationException;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Properties;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter Horvath
+ */
+public class TypedRowEmitterTest {
+
+    private static Configuration newConfiguration(String configuration) throws MisconfigurationException {
+        return DefaultConfigurationFactory.getInstance()
+                .newConfigurationFromParameters(configuration, new Properties());
+    }
+
+    private static ResultSet newResultSet(DataTableWriter writer, Configuration configuration) throws Exception {
+        writer.close();
+
+        return new DataTableHolderResultSet(null, writer.getDataTableList().get(0),
+                writer.getTypeHandlerFactory(DefaultTypeHandlerFactory.getInstance(configuration)));
+    }
+
+    @Test
+    public void testColumnTypesAreDeclaredByTheValues() throws Exception {
+
+        Configuration configuration = newConfiguration(null);
+        DataTableWriter writer = new DataTableWriter(configuration);
+
+        RowEmitter rowEmitter = writer.getRowEmitter();
+        rowEmitter.header("ID", "NAME", "CREATED");
+        rowEmitter.row(1, "Foo\tBar", LocalDateTime.of(2016, 6, 1, 19, 16, 19));
+        rowEmitter.row(2, null, null);
+
+        try (ResultSet resultSet = newResultSet(writer, configuration)) {
+
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            assertEquals(metaData.getColumnCount(), 3);
+            assertEquals(metaData.getColumnLabel(1), "ID");
+            assertEquals(metaData.getColumnType(1), Types.INTEGER);
+            assertEquals(metaData.getColumnLabel(2), "NAME");
+            assertEquals(metaData.getColumnType(2), Types.VARCHAR);
+            assertEquals(metaData.getColumnType(3), Types.TIMESTAMP);
+            assertEquals(metaData.isNullable(3), ResultSetMetaData.columnNullable);
+
+            assertTrue(resultSet.next());
+            assertEquals(resultSet.getInt(1), 1);
+            assertEquals(resultSet.getString(2), "Foo\tBar");
+            assertEquals(resultSet.getTimestamp(3), Timestamp.valueOf("2016-06-01 19:16:19"));
+
+            assertTrue(resultSet.next());
+            assertEquals(resultSet.getInt(1), 2);
+            assertNull(resultSet.getString(2));
+            assertNull(resultSet.getTimestamp(3));
+
+            assertFalse(resultSet.next());
+        }
+    }
+
+    @Test
+    public void testColumnTypesAreWidened() throws Exception {
+
+        Configuration configuration = newConfiguration(null);
+        DataTableWriter writer = new DataTableWriter(configuration);
+
+        RowEmitter rowEmitter = writer.getRowEmitter();
+        rowEmitter.row(1, 1, true);
+        rowEmitter.row(2L, 1.5, "maybe");
+
+        try (ResultSet resultSet = newResultSet(writer, configuration)) {
+
+            ResultSetMetaData metaData = resultSet.getMetaData();
+            assertEquals(metaData.getColumnLabel(1), "1");
+            assertEquals(metaData.getColumnType(1), Types.BIGINT);
+            assertEquals(metaData.getColumnType(2), Types.DOUBLE);
+            assertEquals(metaData.getColumnType(3), Types.VARCHAR);
+
+            assertTrue(resultSet.next());
+            assertEquals(resultSet.getDouble(2), 1.0);
+            assertTrue(resultSet.next());
+            assertEquals(resultSet.getLong(1), 2L);
+            assertEquals(resultSet.getDouble(2), 1.5);
+        }
+    }
+
+    @Test
+    public void testTypedRowsAreNotSkipped() throws Exception {
+
+        Configuration configuration = newConfiguration("skipFirstLine=true");
+        DataTableWriter writer = new DataTableWriter(configuration);
+
+        writer.getRowEmitter().row("first");
+
+        try (ResultSet resultSet = newResultSet(writer, configuration)) {
+            assertTrue(resultSet.next());
+            assertEquals(resultSet.getString(1), "first");
+        }
+    }
+
+    @Test(expectedExceptions = RuntimeDyna4JdbcException.class)
+    public void testRowsMustHaveTheSameNumberOfValues() throws Exception {
+
+        RowEmitter rowEmitter = new DataTableWriter(newConfiguration(null)).getRowEmitter();
+
+        rowEmitter.row(1, 2);
+        rowEmitter.row(1, 2, 3);
+    }
+
+    @Test(expectedExceptions = RuntimeDyna4JdbcException.class)
+    public void testTypedRowsCannotBeMixedWithText() throws Exception {
+
+        DataTableWriter writer = new DataTableWriter(newConfiguration(null));
+
+        writer.getRowEmitter().row(1, 2);
+        writer.write("3\t4\n".getBytes(StandardCharsets.UTF_8));
+    }
+}
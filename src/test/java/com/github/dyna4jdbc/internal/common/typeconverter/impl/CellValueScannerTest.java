@@ -0,0 +1,137 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Differential test: {@link CellValueScanner} must yield the same results
+ * as the regular expressions defined in {@link SQLDataType}.
+ *
+ * @author Peter Horvath
+ */
+public class CellValueScannerTest {
+
+    private static final List<String> SAMPLE_VALUES = Arrays.asList(
+            null, "", " ", "0", "1", "42", "-42", "+42", "007", "+", "-", "+-1", "1-", "1 ", " 1",
+            "1.", ".1", "1.5", "-1.5", "+0.1234", "1984.123456789", "1..5", "1.5.", "1e5", "1,5",
+            "12345678901234567890", "1.5a", "a1.5", "\u0661\u0662\u0663",
+            "2016-06-01 19:16:19.123", "2016-06-01 19:16:19", "2016-6-1 19:16:19", "2016-06-01 9:16:19",
+            "2016-06-01 19:16:19.12", "2016-06-01 19:16:19.1234", "2016-06-01  19:16:19", "2016-06-01T19:16:19",
+            "16-06-01 19:16:19", "2016-06-01", "2016-6-1", "2016-06-001", "19:16:19", "19:16:19.123",
+            "19:16", "2016-06-01 19:16:19.", "true", "FALSE", "truthy", "Mary", "had a little lamb");
+
+    private static final String RANDOM_ALPHABET = "0123456789+-.: a";
+    private static final int RANDOM_VALUE_COUNT = 100_000;
+    private static final int RANDOM_VALUE_MAX_LENGTH = 24;
+
+    @Test
+    public void testSampleValuesAgreeWithRegularExpressions() {
+        CellValueScanner scanner = new CellValueScanner();
+
+        for (String value : SAMPLE_VALUES) {
+            assertAgreesWithRegularExpressions(scanner, value);
+        }
+    }
+
+    @Test
+    public void testRandomValuesAgreeWithRegularExpressions() {
+        CellValueScanner scanner = new CellValueScanner();
+        Random random = new Random(42);
+
+        for (String value : randomValues(random)) {
+            assertAgreesWithRegularExpressions(scanner, value);
+        }
+    }
+
+    @Test
+    public void testShapesRecognised() {
+        CellValueScanner scanner = new CellValueScanner();
+
+        scanner.scan("-123");
+        assertTrue(scanner.isInteger());
+        assertFalse(scanner.isDecimal());
+
+        scanner.scan("12.50");
+        assertTrue(scanner.isDecimal());
+        assertEquals(scanner.getPrecision(SQLDataType.DOUBLE), 2);
+        assertEquals(scanner.getScale(SQLDataType.DOUBLE), 4);
+
+        scanner.scan("2016-06-01");
+        assertTrue(scanner.isDate());
+        assertFalse(scanner.isTimestamp());
+
+        scanner.scan("19:16:19.123");
+        assertTrue(scanner.isTime());
+
+        scanner.scan("2016-06-01 19:16:19");
+        assertTrue(scanner.isTimestamp());
+        assertFalse(scanner.isDate());
+
+        scanner.scan("True");
+        assertTrue(scanner.isBooleanLiteral());
+
+        scanner.scan(null);
+        assertTrue(scanner.isNull());
+        assertEquals(scanner.getLength(), 0);
+    }
+
+    private static void assertAgreesWithRegularExpressions(CellValueScanner scanner, String value) {
+        scanner.scan(value);
+
+        for (SQLDataType sqlDataType : SQLDataType.values()) {
+            String message = String.format("%s for '%s'", sqlDataType, value);
+
+            assertEquals(scanner.isPlausibleConversion(sqlDataType),
+                    sqlDataType.isPlausibleConversion(value), "isPlausibleConversion: " + message);
+            assertEquals(scanner.getScale(sqlDataType),
+                    sqlDataType.getScale(value), "getScale: " + message);
+            assertEquals(scanner.getPrecision(sqlDataType),
+                    sqlDataType.getPrecision(value), "getPrecision: " + message);
+        }
+    }
+
+    private static List<String> randomValues(Random random) {
+        List<String> values = new ArrayList<>(RANDOM_VALUE_COUNT);
+        for (int i = 0; i < RANDOM_VALUE_COUNT; i++) {
+            if (i % 2 == 0) {
+                values.add(mutate(random, SAMPLE_VALUES.get(1 + random.nextInt(SAMPLE_VALUES.size() - 1))));
+            } else {
+                StringBuilder sb = new StringBuilder();
+                int length = random.nextInt(RANDOM_VALUE_MAX_LENGTH);
+                for (int j = 0; j < length; j++) {
+                    sb.append(RANDOM_ALPHABET.charAt(random.nextInt(RANDOM_ALPHABET.length())));
+                }
+                values.add(sb.toString());
+            }
+        }
+        return values;
+    }
+
+    private static String mutate(Random random, String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+
+        StringBuilder sb = new StringBuilder(value);
+        int position = random.nextInt(sb.length());
+        char replacement = RANDOM_ALPHABET.charAt(random.nextInt(RANDOM_ALPHABET.length()));
+        switch (random.nextInt(3)) {
+            case 0:
+                sb.setCharAt(position, replacement);
+                break;
+            case 1:
+                sb.insert(position, replacement);
+                break;
+            default:
+                sb.deleteCharAt(position);
+                break;
+        }
+        return sb.toString();
+    }
+}
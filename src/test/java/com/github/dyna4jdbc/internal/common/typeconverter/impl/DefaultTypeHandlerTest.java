@@ -0,0 +1,160 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionException;
+
+import static org.testng.Assert.*;
+
+/**
+ * Differential test: the primitive conversions of {@link DefaultTypeHandler}
+ * must yield the same results as the boxed ones.
+ *
+ * @author Peter Horvath
+ */
+public class DefaultTypeHandlerTest {
+
+    private static final List<String> SAMPLE_VALUES = Arrays.asList(
+            null, "", " ", "0", "1", "-1", "+1", "-0", "+0", "42", "007", "08", "0x1F", "0X1f", "-0x1F", "#1F",
+            "-#1F", "+-1", "--1", "1-", " 1", "1 ", "127", "128", "-128", "-129", "255", "32767", "32768",
+            "-32769", "2147483647", "2147483648", "-2147483648", "-2147483649", "9223372036854775807",
+            "9223372036854775808", "-9223372036854775808", "1.5", "-1.5", ".5", "1e5", "1E-5", "NaN",
+            "Infinity", "-Infinity", "0x1p3", "1f", "1d", "\u0661\u0662\u0663", "true", "TRUE", "false",
+            " true ", "yes", "Mary", "0.1", "-0.0", "+.5", "5.", ".", "-.", "0.30000000000000004", "3.4028235",
+            "123456789012345", "1234567890123456", "0.123456789012345", "1.23456789012345", "9999999.",
+            "16777217", "0.0000001", "1.000000059604644775390625", "1..5", "1.5.");
+
+    private static final String RANDOM_ALPHABET = "0123456789+-x#.e ";
+    private static final int RANDOM_VALUE_COUNT = 100_000;
+    private static final int RANDOM_VALUE_MAX_LENGTH = 12;
+    private static final int RANDOM_DECIMAL_MAX_DIGITS = 18;
+
+    private final DefaultTypeHandler typeHandler = new DefaultTypeHandler(null);
+
+    @Test
+    public void testSampleValuesAgreeWithBoxedConversions() {
+        for (String value : SAMPLE_VALUES) {
+            assertAgreesWithBoxedConversions(value);
+        }
+    }
+
+    @Test
+    public void testRandomValuesAgreeWithBoxedConversions() {
+        Random random = new Random(42);
+
+        for (String value : randomValues(random)) {
+            assertAgreesWithBoxedConversions(value);
+        }
+    }
+
+    @Test
+    public void testRandomPlainDecimalsAgreeWithBoxedConversions() {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < RANDOM_VALUE_COUNT; i++) {
+            sb.setLength(0);
+            if (random.nextBoolean()) {
+                sb.append('-');
+            }
+            final int digitCount = 1 + random.nextInt(RANDOM_DECIMAL_MAX_DIGITS);
+            final int decimalPointPosition = random.nextInt(digitCount + 1);
+            for (int j = 0; j < digitCount; j++) {
+                if (j == decimalPointPosition) {
+                    sb.append('.');
+                }
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+
+            assertAgreesWithBoxedConversions(sb.toString());
+        }
+    }
+
+    @Test
+    public void testNullIsReportedSeparately() throws TypeConversionException {
+        assertTrue(typeHandler.isNull(null));
+        assertFalse(typeHandler.isNull(""));
+        assertFalse(typeHandler.isNull("0"));
+
+        assertEquals(typeHandler.covertToIntValue(null), 0);
+        assertEquals(typeHandler.covertToLongValue(null), 0L);
+        assertEquals(typeHandler.covertToDoubleValue(null), 0.0d);
+        assertFalse(typeHandler.covertToBooleanValue(null));
+    }
+
+    private void assertAgreesWithBoxedConversions(String value) {
+        assertAgrees(value, "boolean", () -> typeHandler.covertToBoolean(value),
+                () -> typeHandler.covertToBooleanValue(value), false);
+        assertAgrees(value, "byte", () -> typeHandler.covertToByte(value),
+                () -> typeHandler.covertToByteValue(value), (byte) 0);
+        assertAgrees(value, "short", () -> typeHandler.covertToShort(value),
+                () -> typeHandler.covertToShortValue(value), (short) 0);
+        assertAgrees(value, "int", () -> typeHandler.covertToInteger(value),
+                () -> typeHandler.covertToIntValue(value), 0);
+        assertAgrees(value, "long", () -> typeHandler.covertToLong(value),
+                () -> typeHandler.covertToLongValue(value), 0L);
+        assertAgrees(value, "float", () -> typeHandler.covertToFloat(value),
+                () -> typeHandler.covertToFloatValue(value), 0.0f);
+        assertAgrees(value, "double", () -> typeHandler.covertToDouble(value),
+                () -> typeHandler.covertToDoubleValue(value), 0.0d);
+    }
+
+    private void assertAgrees(String value, String type, Conversion boxedConversion,
+                              Conversion primitiveConversion, Object defaultValue) {
+
+        final String message = type + " conversion of [" + value + "]";
+
+        Object boxedResult;
+        try {
+            boxedResult = boxedConversion.convert();
+        } catch (TypeConversionException e) {
+            assertThrowsTypeConversionException(primitiveConversion, message);
+            return;
+        }
+
+        try {
+            Object primitiveResult = primitiveConversion.convert();
+
+            assertEquals(typeHandler.isNull(value), boxedResult == null, message);
+            assertEquals(primitiveResult, boxedResult != null ? boxedResult : defaultValue, message);
+
+        } catch (TypeConversionException e) {
+            fail(message + ": unexpected TypeConversionException", e);
+        }
+    }
+
+    private static void assertThrowsTypeConversionException(Conversion conversion, String message) {
+        try {
+            conversion.convert();
+            fail(message + ": TypeConversionException expected");
+        } catch (TypeConversionException expected) {
+            // expected
+        }
+    }
+
+    private static List<String> randomValues(Random random) {
+        List<String> values = new ArrayList<>(RANDOM_VALUE_COUNT);
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < RANDOM_VALUE_COUNT; i++) {
+            sb.setLength(0);
+            final int length = random.nextInt(RANDOM_VALUE_MAX_LENGTH + 1);
+            for (int j = 0; j < length; j++) {
+                sb.append(RANDOM_ALPHABET.charAt(random.nextInt(RANDOM_ALPHABET.length())));
+            }
+            values.add(sb.toString());
+        }
+
+        return values;
+    }
+
+    @FunctionalInterface
+    private interface Conversion {
+        Object convert() throws TypeConversionException;
+    }
+}
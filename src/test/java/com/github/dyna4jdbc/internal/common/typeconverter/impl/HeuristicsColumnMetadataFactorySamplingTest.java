@@ -0,0 +1,113 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.ColumnMetadata;
+import com.github.dyna4jdbc.internal.config.TypeInferenceStrategy;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter Horvath
+ */
+public class HeuristicsColumnMetadataFactorySamplingTest {
+
+    private static final int SAMPLE_SIZE = 3;
+
+    @Test
+    public void testFirstRowsFallsBackToVarcharForValueOutsideOfSample() {
+
+        List<String> values = Arrays.asList("1", "2", "3", "4", "Mary");
+
+        ColumnMetadata columnMetadata = new HeuristicsColumnMetadataFactory(
+                TypeInferenceStrategy.FIRST_ROWS, SAMPLE_SIZE).getColumnMetadata(0, values);
+
+        assertEquals(columnMetadata.getColumnType(), SQLDataType.VARCHAR);
+        assertEquals(columnMetadata.getColumnDisplaySize(), 4);
+        assertFalse(columnMetadata.isSigned());
+    }
+
+    @Test
+    public void testFirstRowsFallsBackToVarcharInsteadOfWidening() {
+
+        List<String> values = Arrays.asList("1", "2", "3", "4.5");
+
+        ColumnMetadata columnMetadata = new HeuristicsColumnMetadataFactory(
+                TypeInferenceStrategy.FIRST_ROWS, SAMPLE_SIZE).getColumnMetadata(0, values);
+
+        assertEquals(columnMetadata.getColumnType(), SQLDataType.VARCHAR);
+    }
+
+    @Test
+    public void testFirstRowsKeepsSampledTypeForMatchingValues() {
+
+        List<String> values = Arrays.asList("1", "2", "3", null, "123456");
+
+        ColumnMetadata columnMetadata = new HeuristicsColumnMetadataFactory(
+                TypeInferenceStrategy.FIRST_ROWS, SAMPLE_SIZE).getColumnMetadata(0, values);
+
+        assertEquals(columnMetadata.getColumnType(), SQLDataType.INTEGER);
+        assertEquals(columnMetadata.getNullability(), ColumnMetadata.Nullability.NULLABLE);
+        assertEquals(columnMetadata.getColumnDisplaySize(), 6);
+    }
+
+    @Test
+    public void testReservoirFallsBackToVarcharForValueOutsideOfSample() {
+
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(String.valueOf(i));
+        }
+        values.add("Mary");
+
+        ColumnMetadata columnMetadata = new HeuristicsColumnMetadataFactory(
+                TypeInferenceStrategy.RESERVOIR, SAMPLE_SIZE).getColumnMetadata(0, values);
+
+        assertEquals(columnMetadata.getColumnType(), SQLDataType.VARCHAR);
+        assertEquals(columnMetadata.getColumnDisplaySize(), 4);
+    }
+
+    @Test
+    public void testReservoirKeepsSampledTypeForMatchingValues() {
+
+        List<String> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(i + ".5");
+        }
+        values.add("1234567");
+
+        ColumnMetadata columnMetadata = new HeuristicsColumnMetadataFactory(
+                TypeInferenceStrategy.RESERVOIR, SAMPLE_SIZE).getColumnMetadata(0, values);
+
+        assertEquals(columnMetadata.getColumnType(), SQLDataType.DOUBLE);
+        assertTrue(columnMetadata.getColumnDisplaySize() >= 7);
+    }
+
+    @Test
+    public void testSamplingWithSampleLargerThanColumnIsEquivalentToFullScan() {
+
+        for (HeuristicsColumnMetadataFactoryTestParameters parameters
+                : HeuristicsColumnMetadataFactoryTestParameters.values()) {
+
+            ColumnMetadata expected = new HeuristicsColumnMetadataFactory()
+                    .getColumnMetadata(0, parameters.getInputValues());
+
+            for (TypeInferenceStrategy strategy : TypeInferenceStrategy.values()) {
+
+                ColumnMetadata actual = new HeuristicsColumnMetadataFactory(strategy, Integer.MAX_VALUE)
+                        .getColumnMetadata(0, parameters.getInputValues());
+
+                String message = parameters + " / " + strategy;
+                assertEquals(actual.getColumnType(), expected.getColumnType(), message);
+                assertEquals(actual.getColumnDisplaySize(), expected.getColumnDisplaySize(), message);
+                assertEquals(actual.getPrecision(), expected.getPrecision(), message);
+                assertEquals(actual.getScale(), expected.getScale(), message);
+                assertEquals(actual.getNullability(), expected.getNullability(), message);
+            }
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.github.dyna4jdbc.internal.common.typeconverter.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.annotations.Test;
+
+import com.github.dyna4jdbc.internal.common.typeconverter.MaterializedColumn;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeConversionException;
+import com.github.dyna4jdbc.internal.common.typeconverter.TypeHandler;
+
+import static org.testng.Assert.*;
+
+/**
+ * Differential test: a {@link MaterializedColumn} must reproduce the raw cell
+ * values and convert them exactly as its {@code TypeHandler} does.
+ *
+ * @author Peter Horvath
+ */
+public class MaterializedColumnTest {
+
+    private static final int RANDOM_VALUE_COUNT = 10_000;
+
+    @Test
+    public void testIntegerColumn() {
+        assertMaterializedCorrectly(SQLDataType.INTEGER, Arrays.asList(
+                "0", "1", "-1", "42", null, "2147483647", "2147483648", "-2147483649",
+                "9223372036854775807", "-9223372036854775808"));
+    }
+
+    @Test
+    public void testDoubleColumn() {
+        assertMaterializedCorrectly(SQLDataType.DOUBLE, Arrays.asList(
+                "0", "0.0", "-0.0", "-0", "1.5", "-1.5", "0.05", "0.10", "10.50", null, "12",
+                "123456789012345", "0.12345678901234", "99999999.9999999", "0.00000000000001"));
+    }
+
+    @Test
+    public void testRandomDoubleColumn() {
+        Random random = new Random(42);
+        List<String> values = new ArrayList<>(RANDOM_VALUE_COUNT);
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < RANDOM_VALUE_COUNT; i++) {
+            sb.setLength(0);
+            if (random.nextBoolean()) {
+                sb.append('-');
+            }
+            final int integerDigits = 1 + random.nextInt(8);
+            final int fractionDigits = random.nextInt(16 - integerDigits);
+
+            sb.append((char) ('1' + random.nextInt(9)));
+            for (int j = 1; j < integerDigits; j++) {
+                sb.append((char) ('0' + random.nextInt(10)));
+            }
+            if (fractionDigits > 0) {
+                sb.append('.');
+                for (int j = 0; j < fractionDigits; j++) {
+                    sb.append((char) ('0' + random.nextInt(10)));
+                }
+            }
+            values.add(sb.toString());
+        }
+
+        assertMaterializedCorrectly(SQLDataType.DOUBLE, values);
+    }
+
+    @Test
+    public void testTimestampColumn() {
+        assertMaterializedCorrectly(SQLDataType.TIMESTAMP, Arrays.asList(
+                "2016-06-01 19:16:19", "2016-06-01 19:16:19.0", "2016-06-01 19:16:19.1", null,
+                "2016-06-01 19:16:19.100", "2016-06-01 19:16:19.123456789", "1960-01-01 00:00:00.5",
+                "1970-01-01 00:00:00", "2100-12-31 23:59:59.999"));
+    }
+
+    @Test
+    public void testNonCanonicalValuesAreNotMaterialized() {
+        assertNotMaterialized(SQLDataType.INTEGER, "007");
+        assertNotMaterialized(SQLDataType.INTEGER, "+5");
+        assertNotMaterialized(SQLDataType.INTEGER, "-0");
+        assertNotMaterialized(SQLDataType.INTEGER, "99999999999999999999");
+        assertNotMaterialized(SQLDataType.DOUBLE, "01.5");
+        assertNotMaterialized(SQLDataType.DOUBLE, "+1.5");
+        assertNotMaterialized(SQLDataType.DOUBLE, "1.");
+        assertNotMaterialized(SQLDataType.DOUBLE, ".5");
+        assertNotMaterialized(SQLDataType.DOUBLE, "1e5");
+        assertNotMaterialized(SQLDataType.DOUBLE, "1234567890.123456");
+        assertNotMaterialized(SQLDataType.DOUBLE, "0.000000000000001");
+        assertNotMaterialized(SQLDataType.TIMESTAMP, "2016-6-1 19:16:19");
+        assertNotMaterialized(SQLDataType.TIMESTAMP, "2016-06-01 19:16:19.");
+        assertNotMaterialized(SQLDataType.VARCHAR, "Mary");
+    }
+
+    @Test
+    public void testCellsBeforeFirstCellIndexAreNull() throws TypeConversionException {
+        TypeHandler typeHandler = newTypeHandler(SQLDataType.INTEGER);
+
+        MaterializedColumn column = typeHandler.materialize(Arrays.asList("HEADER:INTEGER:", "42"), 2, 1);
+
+        assertNotNull(column);
+        assertTrue(column.isNull(0));
+        assertNull(column.getRawCellValue(0));
+        assertFalse(column.isNull(1));
+        assertEquals(column.covertToIntValue(1), 42);
+    }
+
+    @Test(expectedExceptions = TypeConversionException.class)
+    public void testIntConversionOutOfRangeFails() throws TypeConversionException {
+        TypeHandler typeHandler = newTypeHandler(SQLDataType.BIGINT);
+
+        MaterializedColumn column = typeHandler.materialize(Arrays.asList("2147483648"), 1, 0);
+
+        assertNotNull(column);
+        column.covertToIntValue(0);
+    }
+
+    private static void assertNotMaterialized(SQLDataType columnType, String rawCellValue) {
+        List<String> values = Arrays.asList("1", rawCellValue);
+
+        assertNull(newTypeHandler(columnType).materialize(values, values.size(), 0),
+                columnType + " column materialized with " + rawCellValue);
+    }
+
+    private static void assertMaterializedCorrectly(SQLDataType columnType, List<String> values) {
+        TypeHandler typeHandler = newTypeHandler(columnType);
+
+        MaterializedColumn column = typeHandler.materialize(values, values.size(), 0);
+        assertNotNull(column, columnType + " column not materialized");
+
+        for (int rowIndex = 0; rowIndex < values.size(); rowIndex++) {
+            final String rawCellValue = values.get(rowIndex);
+            final String message = columnType + " cell [" + rawCellValue + "]";
+
+            assertEquals(column.getRawCellValue(rowIndex), rawCellValue, message);
+            assertEquals(column.isNull(rowIndex), rawCellValue == null, message);
+
+            final int row = rowIndex;
+            assertSameConversion(() -> typeHandler.covertToIntValue(rawCellValue),
+                    () -> column.covertToIntValue(row), message + " int");
+            assertSameConversion(() -> typeHandler.covertToLongValue(rawCellValue),
+                    () -> column.covertToLongValue(row), message + " long");
+            assertSameConversion(() -> typeHandler.covertToDoubleValue(rawCellValue),
+                    () -> column.covertToDoubleValue(row), message + " double");
+            assertSameConversion(() -> typeHandler.covertToTimestamp(rawCellValue),
+                    () -> column.covertToTimestamp(row), message + " Timestamp");
+        }
+    }
+
+    private static void assertSameConversion(Conversion expectedConversion, Conversion actualConversion,
+                                             String message) {
+        Object expected;
+        try {
+            expected = expectedConversion.convert();
+        } catch (TypeConversionException e) {
+            assertThrowsTypeConversionException(actualConversion, message);
+            return;
+        }
+
+        try {
+            assertEquals(actualConversion.convert(), expected, message);
+        } catch (TypeConversionException e) {
+            fail(message + ": unexpected TypeConversionException", e);
+        }
+    }
+
+    private static void assertThrowsTypeConversionException(Conversion conversion, String message) {
+        try {
+            conversion.convert();
+            fail(message + ": TypeConversionException expected");
+        } catch (TypeConversionException expected) {
+            // expected
+        }
+    }
+
+    private static TypeHandler newTypeHandler(SQLDataType columnType) {
+        DefaultColumnMetadata columnMetadata = new DefaultColumnMetadata();
+        columnMetadata.setColumnType(columnType);
+        return new DefaultTypeHandler(columnMetadata);
+    }
+
+    @FunctionalInterface
+    private interface Conversion {
+        Object convert() throws TypeConversionException;
+    }
+}
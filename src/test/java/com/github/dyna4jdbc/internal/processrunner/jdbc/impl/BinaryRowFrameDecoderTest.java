@@ -0,0 +1,176 @@
+package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
+
+import com.github.dyna4jdbc.RowEmitter;
+import com.github.dyna4jdbc.internal.RuntimeDyna4JdbcException;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter Horvath
+ */
+public class BinaryRowFrameDecoderTest {
+
+    // the example of src/test/resources/processrunner/binary-row-format.md
+    private static final String SPECIFICATION_EXAMPLE =
+            "01 0000000f 01 0002 02 0002 4944 06 0004 4e414d45"
+                    + "02 0000000d 01 00000001 01 00000003 466f6f"
+                    + "02 00000006 01 00000002 00"
+                    + "03 00000000";
+
+    private static final class RecordingRowEmitter implements RowEmitter {
+
+        private final List<String> header = new ArrayList<>();
+        private final List<List<Object>> rows = new ArrayList<>();
+
+        @Override
+        public void header(String... columnLabels) {
+            header.addAll(Arrays.asList(columnLabels));
+        }
+
+        @Override
+        public void row(Object... values) {
+            rows.add(Arrays.asList(values));
+        }
+    }
+
+    private static byte[] fromHex(String hex) {
+        String digits = hex.replace(" ", "");
+        byte[] bytes = new byte[digits.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(digits.substring(i * 2, i * 2 + 2), 16);
+        }
+
+        return bytes;
+    }
+
+    private static void writeFrame(DataOutputStream out, int frameType, byte[] payload) throws IOException {
+        out.writeByte(frameType);
+        out.writeInt(payload.length);
+        out.write(payload);
+    }
+
+    private static void writeText(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    @Test
+    public void testSpecificationExampleIsDecoded() {
+
+        byte[] bytes = fromHex(SPECIFICATION_EXAMPLE);
+        RecordingRowEmitter rowEmitter = new RecordingRowEmitter();
+
+        BinaryRowFrameDecoder decoder = new BinaryRowFrameDecoder(rowEmitter);
+        assertEquals(decoder.decode(bytes, 0, bytes.length), bytes.length);
+
+        assertTrue(decoder.isEndOfResult());
+        assertNull(decoder.getFailure());
+        assertEquals(rowEmitter.header, Arrays.asList("ID", "NAME"));
+        assertEquals(rowEmitter.rows.size(), 2);
+        assertEquals(rowEmitter.rows.get(0), Arrays.<Object>asList(1, "Foo"));
+        assertEquals(rowEmitter.rows.get(1), Arrays.<Object>asList(2, null));
+    }
+
+    @Test
+    public void testAllTypesAreDecodedFromFramesSplitAcrossChunks() throws IOException {
+
+        ByteArrayOutputStream schema = new ByteArrayOutputStream();
+        DataOutputStream schemaOut = new DataOutputStream(schema);
+        schemaOut.writeByte(BinaryRowFrameDecoder.FORMAT_VERSION);
+        schemaOut.writeShort(8);
+        for (int type = BinaryRowFrameDecoder.TYPE_BOOLEAN; type <= BinaryRowFrameDecoder.TYPE_TIMESTAMP; type++) {
+            schemaOut.writeByte(type);
+            schemaOut.writeShort(1);
+            schemaOut.writeByte('A' + type);
+        }
+
+        ByteArrayOutputStream row = new ByteArrayOutputStream();
+        DataOutputStream rowOut = new DataOutputStream(row);
+        rowOut.writeByte(1);
+        rowOut.writeByte(1);
+        rowOut.writeByte(1);
+        rowOut.writeInt(-42);
+        rowOut.writeByte(1);
+        rowOut.writeLong(10_000_000_000L);
+        rowOut.writeByte(1);
+        rowOut.writeDouble(1.5);
+        rowOut.writeByte(1);
+        writeText(rowOut, "12.34");
+        rowOut.writeByte(1);
+        writeText(rowOut, "\u00e1rv\u00edzt\u0171r\u0151");
+        rowOut.writeByte(1);
+        rowOut.writeInt(3711);
+        rowOut.writeByte(1);
+        rowOut.writeLong(1464808579123456L);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(output);
+        writeFrame(out, BinaryRowFrameDecoder.FRAME_SCHEMA, schema.toByteArray());
+        writeFrame(out, BinaryRowFrameDecoder.FRAME_ROW, row.toByteArray());
+        writeFrame(out, BinaryRowFrameDecoder.FRAME_END_OF_RESULT, new byte[0]);
+        out.writeByte(BinaryRowFrameDecoder.FRAME_SCHEMA);
+
+        byte[] bytes = output.toByteArray();
+        RecordingRowEmitter rowEmitter = new RecordingRowEmitter();
+        BinaryRowFrameDecoder decoder = new BinaryRowFrameDecoder(rowEmitter);
+
+        // one byte at a time: the byte after the end of result frame is not consumed
+        for (int i = 0; i < bytes.length - 2; i++) {
+            assertEquals(decoder.decode(bytes, i, i + 1), -1);
+        }
+        assertEquals(decoder.decode(bytes, bytes.length - 2, bytes.length), bytes.length - 1);
+
+        assertEquals(rowEmitter.header, Arrays.asList("B", "C", "D", "E", "F", "G", "H", "I"));
+        assertEquals(rowEmitter.rows.size(), 1);
+        assertEquals(rowEmitter.rows.get(0), Arrays.<Object>asList(
+                true, -42, 10_000_000_000L, 1.5, new BigDecimal("12.34"), "\u00e1rv\u00edzt\u0171r\u0151",
+                LocalDate.of(1980, 2, 29), LocalDateTime.of(2016, 6, 1, 19, 16, 19, 123_456_000)));
+    }
+
+    @Test
+    public void testEndOfResultWithoutRowsEmitsNothing() {
+
+        byte[] bytes = fromHex("03 00000000");
+        RecordingRowEmitter rowEmitter = new RecordingRowEmitter();
+
+        BinaryRowFrameDecoder decoder = new BinaryRowFrameDecoder(rowEmitter);
+        assertEquals(decoder.decode(bytes, 0, bytes.length), bytes.length);
+
+        assertTrue(rowEmitter.header.isEmpty());
+        assertTrue(rowEmitter.rows.isEmpty());
+    }
+
+    @Test(expectedExceptions = RuntimeDyna4JdbcException.class)
+    public void testTextOutputIsRejected() {
+
+        byte[] bytes = "hello\n".getBytes(StandardCharsets.US_ASCII);
+        new BinaryRowFrameDecoder(new RecordingRowEmitter()).decode(bytes, 0, bytes.length);
+    }
+
+    @Test(expectedExceptions = RuntimeDyna4JdbcException.class)
+    public void testRowBeforeSchemaIsRejected() {
+
+        byte[] bytes = fromHex("02 00000001 00");
+        new BinaryRowFrameDecoder(new RecordingRowEmitter()).decode(bytes, 0, bytes.length);
+    }
+
+    @Test(expectedExceptions = RuntimeDyna4JdbcException.class)
+    public void testValueExtendingPastTheFrameIsRejected() {
+
+        byte[] bytes = fromHex("01 00000006 01 0001 02 0000" + "02 00000003 01 0000");
+        new BinaryRowFrameDecoder(new RecordingRowEmitter()).decode(bytes, 0, bytes.length);
+    }
+}
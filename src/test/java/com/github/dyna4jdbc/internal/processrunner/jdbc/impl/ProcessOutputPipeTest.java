@@ -0,0 +1,238 @@
+package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
+
+import com.github.dyna4jdbc.internal.OutputLimitReachedError;
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter Horvath
+ */
+public class ProcessOutputPipeTest {
+
+    /**
+     * Returns the chunks given one by one: each read of the pipe fills a chunk with one of them.
+     */
+    private static final class ChunkedInputStream extends InputStream {
+
+        private final Deque<byte[]> chunks;
+
+        private ChunkedInputStream(byte[]... chunks) {
+            this.chunks = new ArrayDeque<>(Arrays.asList(chunks));
+        }
+
+        @Override
+        public int read() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            byte[] chunk = chunks.poll();
+            if (chunk == null) {
+                return -1;
+            }
+
+            System.arraycopy(chunk, 0, buffer, offset, chunk.length);
+            return chunk.length;
+        }
+    }
+
+    /**
+     * Returns the pieces of characters given one by one.
+     */
+    private static final class ChunkedReader extends Reader {
+
+        private final Deque<String> pieces;
+
+        private ChunkedReader(String... pieces) {
+            this.pieces = new ArrayDeque<>(Arrays.asList(pieces));
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            String piece = pieces.poll();
+            if (piece == null) {
+                return -1;
+            }
+
+            piece.getChars(0, piece.length(), buffer, offset);
+            return piece.length();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // no-op
+        }
+    }
+
+    private static byte[] utf8(String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // at most MAX_CHUNKS chunks: the pipe is filled without a consumer running
+    private static ProcessOutputPipe pipeOf(byte[]... chunks) throws Exception {
+        ProcessOutputPipe pipe = new ProcessOutputPipe();
+        pipe.readFrom(new ChunkedInputStream(chunks));
+        return pipe;
+    }
+
+    private static ProcessOutputPipe pipeOf(String... chunks) throws Exception {
+        byte[][] byteChunks = new byte[chunks.length][];
+        for (int i = 0; i < chunks.length; i++) {
+            byteChunks[i] = utf8(chunks[i]);
+        }
+
+        return pipeOf(byteChunks);
+    }
+
+    private static byte[] readAll(ProcessOutputPipe pipe) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ByteBuffer chunk;
+        while ((chunk = pipe.poll(0, TimeUnit.MILLISECONDS)) != null) {
+            bytes.write(chunk.array(), chunk.position(), chunk.remaining());
+            pipe.release(chunk);
+        }
+
+        assertTrue(pipe.isEnded());
+        return bytes.toByteArray();
+    }
+
+    private static String copy(ProcessOutputPipe pipe, String marker, String configuration) throws Exception {
+        Configuration config = DefaultConfigurationFactory.getInstance()
+                .newConfigurationFromParameters(configuration, new Properties());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        Throwable failure = new ProcessRunnerScriptExecutor.OutputCopier(
+                pipe, pipeOf(new byte[0][]), marker, output, config).copy();
+        assertNull(failure);
+
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testCrLfSplitAcrossChunks() throws Exception {
+
+        ProcessOutputPipe pipe = pipeOf("header\r", "\nfirst\r", "\nsecond\r\n");
+
+        assertEquals(copy(pipe, null, "skipFirstLine=true"), "first\r\nsecond\r\n");
+    }
+
+    @Test
+    public void testCrAtEndOfChunkEndsTheLine() throws Exception {
+
+        ProcessOutputPipe pipe = pipeOf("header\r", "first\rsecond\r");
+
+        assertEquals(copy(pipe, null, "skipFirstLine=true"), "first\rsecond\r\n");
+    }
+
+    @Test
+    public void testFirstLineIsSkippedAcrossChunks() throws Exception {
+
+        ProcessOutputPipe pipe = pipeOf("hea", "der", "\nfirst", "\n");
+
+        assertEquals(copy(pipe, null, "skipFirstLine=true"), "first\n");
+    }
+
+    @Test
+    public void testMarkerStraddlingChunks() throws Exception {
+
+        ProcessOutputPipe pipe = pipeOf("out\ndyna4jdbc-end-", "of-output-1\r\nnext\n");
+
+        assertEquals(copy(pipe, "dyna4jdbc-end-of-output-1", ""), "out\n");
+        // the rest is the output of the next script
+        assertEquals(readAll(pipe), utf8("next\n"));
+    }
+
+    @Test
+    public void testDataAfterMarkerInSameChunk() throws Exception {
+
+        ProcessOutputPipe pipe = pipeOf("a\nmarker-1\r\nb\n", "marker-2\n", "c\n");
+
+        assertEquals(copy(pipe, "marker-1", ""), "a\n");
+        assertEquals(copy(pipe, "marker-2", ""), "b\n");
+        assertEquals(readAll(pipe), utf8("c\n"));
+    }
+
+    @Test
+    public void testMarkerWithinLineIsNotMarkerLine() throws Exception {
+
+        // e.g. the command echoing the marker, echoed itself by the process: in the same chunk or split
+        ProcessOutputPipe pipe = pipeOf("$ echo marker\nout\n", "echo mar", "ker\nmarker-x\nmarker\n");
+
+        assertEquals(copy(pipe, "marker", ""), "$ echo marker\nout\necho marker\nmarker-x\n");
+    }
+
+    @Test
+    public void testMultibyteCharacterAtEndOfChunk() throws Exception {
+
+        byte[] bytes = utf8("x\u00e9y\nz\n");
+        // the chunk ends within the two bytes of the character
+        final int split = 2;
+
+        ProcessOutputPipe pipe = pipeOf(
+                Arrays.copyOfRange(bytes, 0, split), Arrays.copyOfRange(bytes, split, bytes.length));
+
+        assertEquals(copy(pipe, null, ""), "x\u00e9y\nz\n");
+    }
+
+    @Test
+    public void testOutputBeyondLimitIsDroppedUntilMarker() throws Exception {
+
+        Configuration config = DefaultConfigurationFactory.getInstance()
+                .newConfigurationFromParameters("", new Properties());
+
+        ProcessOutputPipe pipe = pipeOf("a\n", "b\n", "marker\nc\n");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public synchronized void write(byte[] bytes, int offset, int length) {
+                if (size() > 0) {
+                    throw new OutputLimitReachedError("Output limit reached");
+                }
+                super.write(bytes, offset, length);
+            }
+        };
+
+        Throwable failure = new ProcessRunnerScriptExecutor.OutputCopier(
+                pipe, pipeOf(new byte[0][]), "marker", output, config).copy();
+
+        assertNull(failure);
+        assertEquals(output.toByteArray(), utf8("a\n"));
+        assertEquals(readAll(pipe), utf8("c\n"));
+    }
+
+    @Test
+    public void testSurrogatePairSplitAcrossReads() throws Exception {
+
+        ProcessOutputPipe pipe = new ProcessOutputPipe();
+        pipe.readFrom(new ChunkedReader("x\uD83D", "\uDE00y"));
+
+        assertEquals(readAll(pipe), utf8("x\uD83D\uDE00y"));
+    }
+
+    @Test
+    public void testUnpairedSurrogateAtEndIsReplaced() throws Exception {
+
+        ProcessOutputPipe pipe = new ProcessOutputPipe();
+        pipe.readFrom(new ChunkedReader("ab\uD83D"));
+
+        assertEquals(readAll(pipe), utf8("ab?"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.github.dyna4jdbc.internal.processrunner.jdbc.impl;
+
+import com.github.dyna4jdbc.internal.RuntimeDyna4JdbcException;
+import com.github.dyna4jdbc.internal.ScriptExecutionException;
+import com.github.dyna4jdbc.internal.config.Configuration;
+import com.github.dyna4jdbc.internal.config.impl.DefaultConfigurationFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import static org.testng.Assert.*;
+
+/**
+ * Runs the POSIX commands {@code sh} and {@code cat}.
+ *
+ * @author Peter Horvath
+ */
+public class ProcessRunnerScriptExecutorTest {
+
+    private ProcessRunnerScriptExecutor executor;
+
+    @AfterMethod
+    public void terminateProcess() {
+        if (executor != null) {
+            executor.close();
+            executor = null;
+        }
+    }
+
+    private void newExecutor(String configuration) throws Exception {
+        Configuration config = DefaultConfigurationFactory.getInstance()
+                .newConfigurationFromParameters(configuration, new Properties());
+
+        executor = new ProcessRunnerScriptExecutor(config);
+    }
+
+    private String execute(String script) throws ScriptExecutionException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        executor.executeScriptUsingStreams(script, output, new ByteArrayOutputStream());
+
+        return new String(output.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testOutputEndsWithMarkerLine() throws Exception {
+
+        newExecutor("endOfOutputMarkerCommand=echo {marker}");
+
+        assertEquals(execute("sh"), "");
+        assertEquals(execute("echo first; echo second"), "first\nsecond\n");
+        // the marker line of the previous script is not taken as the output of this one
+        assertEquals(execute("echo third"), "third\n");
+    }
+
+    @Test
+    public void testMissingMarkerLineFailsAfterMarkerTimeout() throws Exception {
+
+        // the marker command prints nothing
+        newExecutor("endOfOutputMarkerCommand=true {marker};endOfOutputMarkerTimeoutMs=200");
+
+        final long startTime = System.currentTimeMillis();
+        try {
+            execute("sh");
+            fail("Should have thrown an exception");
+        } catch (RuntimeDyna4JdbcException expected) {
+            assertTrue(expected.getMessage().contains("200 milliseconds"), expected.getMessage());
+        }
+
+        final long elapsedTime = System.currentTimeMillis() - startTime;
+        assertTrue(elapsedTime < 5_000, "Marker timeout not applied in time: " + elapsedTime + " ms");
+    }
+
+    @Test
+    public void testOutputEndsAfterIdleTimeout() throws Exception {
+
+        newExecutor("firstOutputTimeoutMs=1000;outputIdleTimeoutMs=200");
+
+        assertEquals(execute("cat"), "");
+        // echoed by cat
+        assertEquals(execute("first"), "first\n");
+        assertEquals(execute("second"), "second\n");
+    }
+}
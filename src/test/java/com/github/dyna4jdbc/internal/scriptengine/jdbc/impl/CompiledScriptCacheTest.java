@@ -0,0 +1,142 @@
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.script.Compilable;
+import javax.script.CompiledScript;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptException;
+
+import org.testng.annotations.Test;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.*;
+
+public class CompiledScriptCacheTest {
+
+    @Test
+    public void testScriptIsCompiledOnlyOnce() throws ScriptException {
+
+        CountingCompilable compilable = new CountingCompilable();
+        CompiledScriptCache cache = new CompiledScriptCache(compilable, 2, true);
+
+        CompiledScript first = cache.getOrCompile("foo");
+        CompiledScript second = cache.getOrCompile("foo");
+
+        assertSame(second, first);
+        assertEquals(compilable.getCompiledScripts(), asList("foo"));
+        assertEquals(cache.getHitCount(), 1L);
+        assertEquals(cache.getMissCount(), 1L);
+        assertEquals(cache.getEvictionCount(), 0L);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedScriptIsEvicted() throws ScriptException {
+
+        CountingCompilable compilable = new CountingCompilable();
+        CompiledScriptCache cache = new CompiledScriptCache(compilable, 2, true);
+
+        cache.getOrCompile("foo");
+        cache.getOrCompile("bar");
+        cache.getOrCompile("foo"); // bar is now the least recently used one
+        cache.getOrCompile("baz");
+
+        assertEquals(cache.size(), 2);
+        assertEquals(cache.getEvictionCount(), 1L);
+
+        cache.getOrCompile("foo");
+        cache.getOrCompile("bar");
+
+        assertEquals(compilable.getCompiledScripts(), asList("foo", "bar", "baz", "bar"));
+        assertEquals(cache.getHitCount(), 2L);
+        assertEquals(cache.getMissCount(), 4L);
+    }
+
+    @Test
+    public void testFailingScriptIsNotCached() throws ScriptException {
+
+        CountingCompilable compilable = new CountingCompilable();
+        CompiledScriptCache cache = new CompiledScriptCache(compilable, 2, true);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                cache.getOrCompile("fail");
+                fail("ScriptException expected");
+            } catch (ScriptException expected) {
+                // expected
+            }
+        }
+
+        assertEquals(cache.size(), 0);
+        assertEquals(compilable.getCompiledScripts(), asList("fail", "fail"));
+    }
+
+    @Test
+    public void testStatisticsAreOnlyRecordedIfRequested() throws ScriptException {
+
+        CompiledScriptCache cache = new CompiledScriptCache(new CountingCompilable(), 1, false);
+
+        cache.getOrCompile("foo");
+        cache.getOrCompile("foo");
+        cache.getOrCompile("bar");
+
+        assertEquals(cache.getHitCount(), 0L);
+        assertEquals(cache.getMissCount(), 0L);
+        assertEquals(cache.getEvictionCount(), 0L);
+        assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void testClearReleasesCompiledScripts() throws ScriptException {
+
+        CompiledScriptCache cache = new CompiledScriptCache(new CountingCompilable(), 2, false);
+
+        cache.getOrCompile("foo");
+        cache.clear();
+
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testZeroSizeIsRejected() {
+        new CompiledScriptCache(new CountingCompilable(), 0, false);
+    }
+
+    private static final class CountingCompilable implements Compilable {
+
+        private final List<String> compiledScripts = new ArrayList<>();
+
+        @Override
+        public CompiledScript compile(String script) throws ScriptException {
+            compiledScripts.add(script);
+
+            if ("fail".equals(script)) {
+                throw new ScriptException("Compilation failed");
+            }
+
+            return new CompiledScript() {
+                @Override
+                public Object eval(ScriptContext context) {
+                    return script;
+                }
+
+                @Override
+                public ScriptEngine getEngine() {
+                    return null;
+                }
+            };
+        }
+
+        @Override
+        public CompiledScript compile(Reader script) {
+            throw new UnsupportedOperationException();
+        }
+
+        List<String> getCompiledScripts() {
+            return compiledScripts;
+        }
+    }
+}
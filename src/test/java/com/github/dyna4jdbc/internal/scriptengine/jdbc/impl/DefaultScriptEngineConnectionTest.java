@@ -0,0 +1,36 @@
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import java.lang.reflect.Proxy;
+
+import javax.script.ScriptEngineFactory;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+public class DefaultScriptEngineConnectionTest {
+
+    @Test
+    public void testThreadSafeEnginesAreDetectedByThreadingParameter() {
+
+        assertTrue(DefaultScriptEngineConnection.isThreadSafe(factoryWithThreading("MULTITHREADED")));
+        assertTrue(DefaultScriptEngineConnection.isThreadSafe(factoryWithThreading("THREAD-ISOLATED")));
+        assertTrue(DefaultScriptEngineConnection.isThreadSafe(factoryWithThreading("STATELESS")));
+
+        assertFalse(DefaultScriptEngineConnection.isThreadSafe(factoryWithThreading(null)));
+        assertFalse(DefaultScriptEngineConnection.isThreadSafe(factoryWithThreading("multithreaded")));
+        assertFalse(DefaultScriptEngineConnection.isThreadSafe(null));
+    }
+
+    private static ScriptEngineFactory factoryWithThreading(String threading) {
+        return (ScriptEngineFactory) Proxy.newProxyInstance(
+                DefaultScriptEngineConnectionTest.class.getClassLoader(),
+                new Class<?>[] {ScriptEngineFactory.class},
+                (proxy, method, args) -> {
+                    if ("getParameter".equals(method.getName()) && "THREADING".equals(args[0])) {
+                        return threading;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
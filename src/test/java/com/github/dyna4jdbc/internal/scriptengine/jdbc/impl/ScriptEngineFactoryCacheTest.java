@@ -0,0 +1,201 @@
+package com.github.dyna4jdbc.internal.scriptengine.jdbc.impl;
+
+import java.io.Reader;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.script.AbstractScriptEngine;
+import javax.script.Bindings;
+import javax.script.ScriptContext;
+import javax.script.ScriptEngine;
+import javax.script.ScriptEngineFactory;
+import javax.script.SimpleBindings;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * @author Peter Horvath
+ */
+public class ScriptEngineFactoryCacheTest {
+
+    private static final String ENGINE_NAME = "dyna4jdbc-test-engine";
+
+    private static final AtomicInteger FACTORY_INSTANCE_COUNT = new AtomicInteger();
+
+    @Test
+    public void testFactoryIsInstantiatedOnceForClassLoader() throws Exception {
+        ScriptEngineFactoryCache cache = ScriptEngineFactoryCache.getInstance();
+
+        withContextClassLoader(newClassLoaderRegisteringTestFactory(), () -> {
+            final int instanceCountBefore = FACTORY_INSTANCE_COUNT.get();
+
+            ScriptEngine firstEngine = cache.getEngineByName(ENGINE_NAME);
+            ScriptEngine secondEngine = cache.getEngineByName(ENGINE_NAME);
+
+            assertNotNull(firstEngine);
+            assertNotNull(secondEngine);
+            assertNotSame(firstEngine, secondEngine);
+            assertEquals(FACTORY_INSTANCE_COUNT.get(), instanceCountBefore + 1);
+
+            // as ScriptEngineManager does, each engine gets GLOBAL_SCOPE bindings of its own
+            Bindings firstGlobalBindings = firstEngine.getBindings(ScriptContext.GLOBAL_SCOPE);
+            assertNotNull(firstGlobalBindings);
+            assertNotSame(firstGlobalBindings, secondEngine.getBindings(ScriptContext.GLOBAL_SCOPE));
+        });
+    }
+
+    @Test
+    public void testCacheIsDiscardedWhenContextClassLoaderChanges() throws Exception {
+        ScriptEngineFactoryCache cache = ScriptEngineFactoryCache.getInstance();
+
+        withContextClassLoader(newClassLoaderRegisteringTestFactory(),
+                () -> assertNotNull(cache.getEngineByName(ENGINE_NAME)));
+
+        // the factory is not registered for the original class loader
+        withContextClassLoader(ScriptEngineFactoryCacheTest.class.getClassLoader(),
+                () -> assertNull(cache.getEngineByName(ENGINE_NAME)));
+    }
+
+    @Test
+    public void testClearedCacheDiscoversFactoriesAgain() throws Exception {
+        ScriptEngineFactoryCache cache = ScriptEngineFactoryCache.getInstance();
+
+        withContextClassLoader(newClassLoaderRegisteringTestFactory(), () -> {
+            final int instanceCountBefore = FACTORY_INSTANCE_COUNT.get();
+
+            assertNotNull(cache.getEngineByName(ENGINE_NAME));
+            cache.clear();
+            assertNotNull(cache.getEngineByName(ENGINE_NAME));
+
+            assertEquals(FACTORY_INSTANCE_COUNT.get(), instanceCountBefore + 2);
+        });
+    }
+
+    @Test
+    public void testUnknownEngineIsNotFound() {
+        assertNull(ScriptEngineFactoryCache.getInstance().getEngineByName("no-such-engine"));
+    }
+
+    private static ClassLoader newClassLoaderRegisteringTestFactory() throws Exception {
+        Path directory = Files.createTempDirectory("dyna4jdbc-test");
+        Path servicesDirectory = Files.createDirectories(directory.resolve("META-INF/services"));
+
+        Files.write(servicesDirectory.resolve(ScriptEngineFactory.class.getName()),
+                TestScriptEngineFactory.class.getName().getBytes(StandardCharsets.UTF_8));
+
+        return new URLClassLoader(new URL[] {directory.toUri().toURL()},
+                ScriptEngineFactoryCacheTest.class.getClassLoader());
+    }
+
+    private static void withContextClassLoader(ClassLoader classLoader, Runnable runnable) {
+        Thread currentThread = Thread.currentThread();
+        ClassLoader originalClassLoader = currentThread.getContextClassLoader();
+
+        currentThread.setContextClassLoader(classLoader);
+        try {
+            runnable.run();
+        } finally {
+            currentThread.setContextClassLoader(originalClassLoader);
+        }
+    }
+
+    /**
+     * Factory registered via the service configuration file of the test class loader.
+     */
+    public static final class TestScriptEngineFactory implements ScriptEngineFactory {
+
+        public TestScriptEngineFactory() {
+            FACTORY_INSTANCE_COUNT.incrementAndGet();
+        }
+
+        @Override
+        public String getEngineName() {
+            return ENGINE_NAME;
+        }
+
+        @Override
+        public String getEngineVersion() {
+            return "1.0";
+        }
+
+        @Override
+        public List<String> getExtensions() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<String> getMimeTypes() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public List<String> getNames() {
+            return Collections.singletonList(ENGINE_NAME);
+        }
+
+        @Override
+        public String getLanguageName() {
+            return ENGINE_NAME;
+        }
+
+        @Override
+        public String getLanguageVersion() {
+            return "1.0";
+        }
+
+        @Override
+        public Object getParameter(String key) {
+            return null;
+        }
+
+        @Override
+        public String getMethodCallSyntax(String obj, String m, String... args) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getOutputStatement(String toDisplay) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public String getProgram(String... statements) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public ScriptEngine getScriptEngine() {
+            ScriptEngineFactory factory = this;
+
+            return new AbstractScriptEngine() {
+                @Override
+                public Object eval(String script, ScriptContext context) {
+                    return null;
+                }
+
+                @Override
+                public Object eval(Reader reader, ScriptContext context) {
+                    return null;
+                }
+
+                @Override
+                public Bindings createBindings() {
+                    return new SimpleBindings();
+                }
+
+                @Override
+                public ScriptEngineFactory getFactory() {
+                    return factory;
+                }
+            };
+        }
+    }
+}
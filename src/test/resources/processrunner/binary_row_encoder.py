@@ -0,0 +1,124 @@
+#!/usr/bin/env python3
+"""Reference encoder of the process runner binary row format (see binary-row-format.md).
+
+Used as a process runner process, it reads statements from its standard input, one per
+line, and answers each of them with a result:
+
+    sample     a result with a column of each type
+    empty      no result (an end of result frame only)
+    <other>    a single VARCHAR column 'STATEMENT', with the statement as its only row
+
+e.g. jdbc:dyna4jdbc:process-runner:processOutputFormat=BINARY
+"""
+
+import datetime
+import decimal
+import struct
+import sys
+
+FRAME_SCHEMA = 0x01
+FRAME_ROW = 0x02
+FRAME_END_OF_RESULT = 0x03
+
+FORMAT_VERSION = 0x01
+
+BOOLEAN = 0x01
+INTEGER = 0x02
+BIGINT = 0x03
+DOUBLE = 0x04
+DECIMAL = 0x05
+VARCHAR = 0x06
+DATE = 0x07
+TIMESTAMP = 0x08
+
+EPOCH_DATE = datetime.date(1970, 1, 1)
+EPOCH_TIMESTAMP = datetime.datetime(1970, 1, 1)
+
+
+def frame(frame_type, payload=b""):
+    return struct.pack(">Bi", frame_type, len(payload)) + payload
+
+
+def schema_frame(columns):
+    """columns: a list of (label, type) pairs"""
+    payload = struct.pack(">BH", FORMAT_VERSION, len(columns))
+    for label, column_type in columns:
+        encoded_label = label.encode("utf-8")
+        payload += struct.pack(">BH", column_type, len(encoded_label)) + encoded_label
+    return frame(FRAME_SCHEMA, payload)
+
+
+def encode_value(column_type, value):
+    if column_type == BOOLEAN:
+        return struct.pack(">B", 1 if value else 0)
+    if column_type == INTEGER:
+        return struct.pack(">i", value)
+    if column_type == BIGINT:
+        return struct.pack(">q", value)
+    if column_type == DOUBLE:
+        return struct.pack(">d", value)
+    if column_type in (DECIMAL, VARCHAR):
+        text = str(value).encode("utf-8")
+        return struct.pack(">i", len(text)) + text
+    if column_type == DATE:
+        return struct.pack(">i", (value - EPOCH_DATE).days)
+    if column_type == TIMESTAMP:
+        delta = value - EPOCH_TIMESTAMP
+        micros = (delta.days * 86400 + delta.seconds) * 1000000 + delta.microseconds
+        return struct.pack(">q", micros)
+    raise ValueError("unknown column type: %s" % column_type)
+
+
+def row_frame(column_types, values):
+    payload = b""
+    for column_type, value in zip(column_types, values):
+        if value is None:
+            payload += b"\x00"
+        else:
+            payload += b"\x01" + encode_value(column_type, value)
+    return frame(FRAME_ROW, payload)
+
+
+def end_of_result_frame():
+    return frame(FRAME_END_OF_RESULT)
+
+
+def result(columns, rows):
+    column_types = [column_type for _, column_type in columns]
+    encoded = schema_frame(columns)
+    for row in rows:
+        encoded += row_frame(column_types, row)
+    return encoded + end_of_result_frame()
+
+
+def sample_result():
+    columns = [("ID", INTEGER), ("NAME", VARCHAR), ("ACTIVE", BOOLEAN), ("VISITS", BIGINT),
+               ("SCORE", DOUBLE), ("BALANCE", DECIMAL), ("BORN", DATE), ("UPDATED", TIMESTAMP)]
+    rows = [
+        (1, "Foo", True, 10000000000, 1.5, decimal.Decimal("12.34"),
+         datetime.date(1980, 2, 29), datetime.datetime(2016, 6, 1, 19, 16, 19, 123456)),
+        (2, None, False, None, -0.25, None, None, None),
+    ]
+    return result(columns, rows)
+
+
+def answer(statement):
+    if statement == "sample":
+        return sample_result()
+    if statement == "empty":
+        return end_of_result_frame()
+    return result([("STATEMENT", VARCHAR)], [(statement,)])
+
+
+def main():
+    out = sys.stdout.buffer
+    # the output of the command starting the process
+    out.write(end_of_result_frame())
+    out.flush()
+    for line in sys.stdin:
+        out.write(answer(line.rstrip("\r\n")))
+        out.flush()
+
+
+if __name__ == "__main__":
+    main()